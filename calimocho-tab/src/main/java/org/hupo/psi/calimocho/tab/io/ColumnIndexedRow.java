@@ -0,0 +1,188 @@
+package org.hupo.psi.calimocho.tab.io;
+
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import org.hupo.psi.calimocho.io.IllegalFieldException;
+import org.hupo.psi.calimocho.key.CalimochoKeys;
+import org.hupo.psi.calimocho.model.Field;
+import org.hupo.psi.calimocho.model.Row;
+import org.hupo.psi.calimocho.tab.model.ColumnDefinition;
+import org.hupo.psi.calimocho.tab.util.QuoteAwareTokenizer;
+
+import java.util.*;
+
+/**
+ * Row storing the fields by column position. The fields of a column are parsed the first time the column is accessed so the columns which
+ * are never accessed are never parsed.
+ *
+ * The row keeps the characters of the line read by the LazyRowReader. As the columns are parsed when they are accessed,
+ * a field which cannot be parsed throws an IllegalStateException when the column is accessed. parseColumns() can be used to parse all
+ * the columns and get the IllegalColumnException or IllegalFieldException.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+public class ColumnIndexedRow implements Row {
+
+    private final ColumnDefinition[] columnDefinitions;
+    private final Map<String, int[]> positionsByKey;
+    private final char[] buffer;
+    // start and end of each column, -1 if the column is empty
+    private final int[] bounds;
+    private final List<Field>[] fields;
+
+    // fields added to keys which are not column keys
+    private Multimap<String, Field> otherFields;
+    private QuoteAwareTokenizer fieldTokenizer;
+
+    /**
+     * @param columnDefinitions the column definitions indexed by position
+     * @param positionsByKey the positions of the columns having a given key
+     * @param buffer the characters of the columns
+     */
+    public ColumnIndexedRow( ColumnDefinition[] columnDefinitions, Map<String, int[]> positionsByKey, char[] buffer ) {
+        if ( columnDefinitions == null || positionsByKey == null || buffer == null ) {
+            throw new IllegalArgumentException( "The column definitions, the column positions and the buffer cannot be null" );
+        }
+        this.columnDefinitions = columnDefinitions;
+        this.positionsByKey = positionsByKey;
+        this.buffer = buffer;
+        this.bounds = new int[2 * columnDefinitions.length];
+        Arrays.fill( this.bounds, -1 );
+        this.fields = new List[columnDefinitions.length];
+    }
+
+    /**
+     * Sets the range of a column which is not empty
+     * @param position the position of the column
+     * @param start the position of the first character of the column in the buffer
+     * @param end the position after the last character of the column in the buffer
+     */
+    public void setColumn( int position, int start, int end ) {
+        this.bounds[2 * position] = start;
+        this.bounds[2 * position + 1] = end;
+        this.fields[position] = null;
+    }
+
+    /**
+     * Parses all the columns which have not been parsed yet
+     * @throws IllegalColumnException thrown if a column does not have a field parser
+     * @throws IllegalFieldException thrown if a field cannot be parsed
+     */
+    public void parseColumns() throws IllegalColumnException, IllegalFieldException {
+        for ( int i = 0; i < columnDefinitions.length; i++ ) {
+            parseColumn( i );
+        }
+    }
+
+    public boolean addField( String columnKey, Field field ) {
+        int[] positions = positionsByKey.get( columnKey );
+        if ( positions == null ) {
+            return getOtherFields().put( columnKey, field );
+        }
+        return getColumnFields( positions[0], true ).add( field );
+    }
+
+    public boolean addFields( String columnKey, Collection<Field> fields ) {
+        int[] positions = positionsByKey.get( columnKey );
+        if ( positions == null ) {
+            return getOtherFields().putAll( columnKey, fields );
+        }
+        return getColumnFields( positions[0], true ).addAll( fields );
+    }
+
+    public Collection<Field> getFields( String columnKey ) {
+        int[] positions = positionsByKey.get( columnKey );
+        if ( positions == null ) {
+            return otherFields != null ? otherFields.get( columnKey ) : Collections.<Field>emptyList();
+        }
+        if ( positions.length == 1 ) {
+            return getColumnFields( positions[0], false );
+        }
+
+        List<Field> columnFields = new ArrayList<Field>();
+        for ( int position : positions ) {
+            columnFields.addAll( getColumnFields( position, false ) );
+        }
+        return columnFields;
+    }
+
+    public Collection<Field> getFieldsByKey( String columnKey, String fieldKey ) {
+        List<Field> fieldsWithKey = null;
+
+        for ( Field field : getFields( columnKey ) ) {
+            if ( fieldKey.equals( field.get( CalimochoKeys.KEY ) ) ) {
+                if ( fieldsWithKey == null ) {
+                    fieldsWithKey = new ArrayList<Field>( 2 );
+                }
+                fieldsWithKey.add( field );
+            }
+        }
+
+        return fieldsWithKey != null ? fieldsWithKey : Collections.<Field>emptyList();
+    }
+
+    public Collection<Field> getAllFields() {
+        List<Field> allFields = new ArrayList<Field>();
+        for ( int i = 0; i < columnDefinitions.length; i++ ) {
+            if ( columnDefinitions[i] != null ) {
+                allFields.addAll( getColumnFields( i, false ) );
+            }
+        }
+        if ( otherFields != null ) {
+            allFields.addAll( otherFields.values() );
+        }
+        return allFields;
+    }
+
+    public Collection<String> keySet() {
+        Set<String> keys = new LinkedHashSet<String>();
+        for ( int i = 0; i < columnDefinitions.length; i++ ) {
+            if ( columnDefinitions[i] != null && ( bounds[2 * i + 1] > bounds[2 * i] || ( fields[i] != null && !fields[i].isEmpty() ) ) ) {
+                keys.add( columnDefinitions[i].getKey() );
+            }
+        }
+        if ( otherFields != null ) {
+            keys.addAll( otherFields.keySet() );
+        }
+        return keys;
+    }
+
+    private List<Field> getColumnFields( int position, boolean create ) {
+        try {
+            parseColumn( position );
+        } catch ( IllegalColumnException e ) {
+            throw new IllegalStateException( "Cannot parse the column " + columnDefinitions[position].getKey() + ", pos=" + position, e );
+        } catch ( IllegalFieldException e ) {
+            throw new IllegalStateException( "Cannot parse the column " + columnDefinitions[position].getKey() + ", pos=" + position, e );
+        }
+        if ( fields[position] == null ) {
+            if ( !create ) {
+                return Collections.emptyList();
+            }
+            fields[position] = new ArrayList<Field>( 2 );
+        }
+        return fields[position];
+    }
+
+    private void parseColumn( int position ) throws IllegalColumnException, IllegalFieldException {
+        int start = bounds[2 * position];
+        if ( start < 0 || fields[position] != null ) {
+            return;
+        }
+        if ( fieldTokenizer == null ) {
+            fieldTokenizer = new QuoteAwareTokenizer();
+        }
+        List<Field> columnFields = new ArrayList<Field>( 2 );
+        DefaultRowReader.parseFields( buffer, start, bounds[2 * position + 1], columnDefinitions[position], fieldTokenizer, columnFields );
+        fields[position] = columnFields;
+    }
+
+    private Multimap<String, Field> getOtherFields() {
+        if ( otherFields == null ) {
+            otherFields = LinkedHashMultimap.create();
+        }
+        return otherFields;
+    }
+}
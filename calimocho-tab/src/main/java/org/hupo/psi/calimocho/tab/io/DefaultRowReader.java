@@ -1,6 +1,5 @@
 package org.hupo.psi.calimocho.tab.io;
 
-import org.apache.commons.lang.StringUtils;
 import org.hupo.psi.calimocho.io.IllegalFieldException;
 import org.hupo.psi.calimocho.io.IllegalRowException;
 import org.hupo.psi.calimocho.model.DefaultRow;
@@ -8,10 +7,11 @@ import org.hupo.psi.calimocho.model.Field;
 import org.hupo.psi.calimocho.model.Row;
 import org.hupo.psi.calimocho.tab.model.ColumnBasedDocumentDefinition;
 import org.hupo.psi.calimocho.tab.model.ColumnDefinition;
-import org.hupo.psi.calimocho.tab.util.ParseUtils;
+import org.hupo.psi.calimocho.tab.util.QuoteAwareTokenizer;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -19,6 +19,8 @@ import java.util.List;
  * Default implementation for the Row reader, based on the
  * document definition.
  *
+ * Each line is split in one pass with a QuoteAwareTokenizer, without creating a String for each column.
+ *
  * @author Bruno Aranda (baranda@ebi.ac.uk)
  * @version $Id$
  * @since 1.0
@@ -26,6 +28,8 @@ import java.util.List;
 public class DefaultRowReader implements RowReader {
 
     private ColumnBasedDocumentDefinition documentDefinition;
+    private ColumnDefinition[] columnDefinitionsByPosition;
+    private int numberOfColumnDefinitions;
 
     public DefaultRowReader( ColumnBasedDocumentDefinition documentDefinition ) {
         if (documentDefinition == null){
@@ -92,83 +96,71 @@ public class DefaultRowReader implements RowReader {
      * {@inheritDoc}
      */
     public Row readLine( String line ) throws IllegalRowException, IllegalColumnException, IllegalFieldException {
-        Row row = new DefaultRow();
-
         if ( documentDefinition.getColumnSeparator() == null ) {
             throw new NullPointerException( "Document definition does not have column separator" );
         }
+        if ( line == null ) {
+            throw new NullPointerException( "Null String to create Field" );
+        }
+        if ( line.length() == 0 ) {
+            throw new IllegalArgumentException( "Empty String passed to create Field" );
+        }
 
         // split the lines using the column separator
         // TODO we may use other characters than quotes - should be defined in columnDefinition
-        String[] cols = ParseUtils.quoteAwareSplit( line, new String[]{documentDefinition.getColumnSeparator()}, false );
+        QuoteAwareTokenizer columns = new QuoteAwareTokenizer();
+        columns.tokenize( line.toCharArray(), 0, line.length(), documentDefinition.getColumnSeparator().toCharArray() );
 
+        final ColumnDefinition[] columnDefinitions = getColumnDefinitionsByPosition();
         final int expectedColumnCount = documentDefinition.getHighestColumnPosition() + 1;
+        final char[] buffer = columns.getBuffer();
+        final String colDelimiter = documentDefinition.getColumnDelimiter();
+
+        Row row = createRow( columns );
 
         // iterate through the columns to parse the fields
         int indexColumns = 0;
-        for ( int i = 0; i < cols.length; i++ ) {
-            ColumnDefinition columnDefinition = documentDefinition.getColumnByPosition( i );
+        for ( int i = 0; i < columns.getGroupCount(); i++ ) {
+            ColumnDefinition columnDefinition = i < columnDefinitions.length ? columnDefinitions[i] : null;
 
             if ( columnDefinition == null ) {
                 continue;
             }
 
-            String col = cols[i];
+            int start = columns.getStart( i );
+            int end = columns.getEnd( i );
 
             // strip column delimiters
-            String colDelimiter = documentDefinition.getColumnDelimiter();
             if ( colDelimiter != null && colDelimiter.length() > 0 ) {
-                if ( col.startsWith( colDelimiter ) && col.endsWith( colDelimiter ) ) {
-                    col = StringUtils.removeStart( col, colDelimiter );
-                    col = StringUtils.removeEnd( col, colDelimiter );
+                if ( startsWith( buffer, start, end, colDelimiter ) && endsWith( buffer, start, end, colDelimiter ) ) {
+                    start += colDelimiter.length();
+                    if ( endsWith( buffer, start, end, colDelimiter ) ) {
+                        end -= colDelimiter.length();
+                    }
                 }
             }
 
             // check if the column is empty
             final boolean allowEmpty = columnDefinition.isAllowsEmpty();
             final String emptyValue = columnDefinition.getEmptyValue() == null ? "" : columnDefinition.getEmptyValue();
-            final boolean isColumnEmpty = col.equals( emptyValue );
+            final boolean isColumnEmpty = regionEquals( buffer, start, end, emptyValue );
 
             if ( !allowEmpty && isColumnEmpty ) {
-                throw new IllegalColumnException( "Empty column not allowed: " + columnDefinition.getKey() + ", pos=" + columnDefinition.getPosition(), col, columnDefinition );
+                throw new IllegalColumnException( "Empty column not allowed: " + columnDefinition.getKey() + ", pos=" + columnDefinition.getPosition(),
+                        new String( buffer, start, end - start ), columnDefinition );
             }
 
             if ( !isColumnEmpty ) {
-
-                String[] strFields = ParseUtils.columnSplit( col, columnDefinition.getFieldSeparator() );
-
-                for ( String strField : strFields ) {
-
-                    // strip field delimiters
-                    final String fieldDelimiter = columnDefinition.getFieldDelimiter();
-
-                    if ( fieldDelimiter != null && !fieldDelimiter.isEmpty()) {
-                        strField = StringUtils.removeStart( strField, fieldDelimiter );
-                        strField = StringUtils.removeEnd( strField, fieldDelimiter );
-                    }
-
-                    FieldParser fieldParser = columnDefinition.getFieldParser();
-
-                    if (fieldParser == null){
-                        throw new IllegalColumnException(columnDefinition.getName()+" does not have a field parser.");
-                    }
-
-                    Field field = fieldParser.parse( strField, columnDefinition );
-
-                    // default values
-                    field.setIfMissing(columnDefinition.getDefaultValues());
-
-                    row.addField( columnDefinition.getKey(), field );
-                }
+                addColumn( row, columnDefinition, buffer, start, end );
             }
-            
+
             indexColumns ++;
         }
 
         // the missing columns are considered as empty. We just need to check if empty columns are allowed
         if (indexColumns < expectedColumnCount){
             for (int i = indexColumns; i < expectedColumnCount ; i++){
-                ColumnDefinition columnDefinition = documentDefinition.getColumnByPosition( i );
+                ColumnDefinition columnDefinition = i < columnDefinitions.length ? columnDefinitions[i] : null;
 
                 if ( columnDefinition == null ) {
                     continue;
@@ -184,4 +176,138 @@ public class DefaultRowReader implements RowReader {
 
         return row;
     }
+
+    public ColumnBasedDocumentDefinition getDocumentDefinition() {
+        return documentDefinition;
+    }
+
+    /**
+     * Creates the row of a line
+     * @param columns the columns of the line
+     * @return a new row
+     */
+    protected Row createRow( QuoteAwareTokenizer columns ) {
+        return new DefaultRow();
+    }
+
+    /**
+     * Adds a column which is not empty to the row. The fields of the column are parsed.
+     * @param row the row created for the line
+     * @param columnDefinition the definition of the column
+     * @param buffer the characters of the columns
+     * @param start the position of the first character of the column in the buffer
+     * @param end the position after the last character of the column in the buffer
+     * @throws IllegalColumnException thrown if the column does not have a field parser
+     * @throws IllegalFieldException thrown if a field cannot be parsed
+     */
+    protected void addColumn( Row row, ColumnDefinition columnDefinition, char[] buffer, int start, int end ) throws IllegalColumnException, IllegalFieldException {
+        List<Field> fields = new ArrayList<Field>();
+        parseFields( buffer, start, end, columnDefinition, new QuoteAwareTokenizer(), fields );
+        row.addFields( columnDefinition.getKey(), fields );
+    }
+
+    /**
+     * @return the column definitions indexed by position, updated if columns have been added to the document definition
+     */
+    protected ColumnDefinition[] getColumnDefinitionsByPosition() {
+        ColumnDefinition[] columnDefinitions = this.columnDefinitionsByPosition;
+        final Collection<ColumnDefinition> columns = documentDefinition.getColumns();
+
+        if ( columnDefinitions == null || this.numberOfColumnDefinitions != columns.size() ) {
+            int size = 0;
+            for ( ColumnDefinition columnDefinition : columns ) {
+                size = Math.max( size, columnDefinition.getPosition() + 1 );
+            }
+            columnDefinitions = new ColumnDefinition[size];
+            // the first definition at a position is used, like in getColumnByPosition
+            for ( ColumnDefinition columnDefinition : columns ) {
+                if ( columnDefinitions[columnDefinition.getPosition()] == null ) {
+                    columnDefinitions[columnDefinition.getPosition()] = columnDefinition;
+                }
+            }
+            this.columnDefinitionsByPosition = columnDefinitions;
+            this.numberOfColumnDefinitions = columns.size();
+        }
+        return columnDefinitions;
+    }
+
+    /**
+     * Splits a column in fields, strips the field delimiters and parses the fields.
+     * @param buffer the characters of the columns
+     * @param start the position of the first character of the column in the buffer
+     * @param end the position after the last character of the column in the buffer
+     * @param columnDefinition the definition of the column
+     * @param fieldTokenizer the tokenizer used to split the column
+     * @param fields the collection where to add the parsed fields
+     * @throws IllegalColumnException thrown if the column does not have a field parser
+     * @throws IllegalFieldException thrown if a field cannot be parsed
+     */
+    static void parseFields( char[] buffer, int start, int end, ColumnDefinition columnDefinition, QuoteAwareTokenizer fieldTokenizer,
+                             Collection<Field> fields ) throws IllegalColumnException, IllegalFieldException {
+        if ( start == end ) {
+            return;
+        }
+
+        FieldParser fieldParser = columnDefinition.getFieldParser();
+
+        if (fieldParser == null){
+            throw new IllegalColumnException(columnDefinition.getName()+" does not have a field parser.");
+        }
+
+        final String fieldSeparator = columnDefinition.getFieldSeparator();
+        final String fieldDelimiter = columnDefinition.getFieldDelimiter();
+        int fieldCount = fieldTokenizer.tokenize( buffer, start, end, fieldSeparator != null ? fieldSeparator.toCharArray() : null );
+        final char[] fieldChars = fieldTokenizer.getBuffer();
+
+        for ( int j = 0; j < fieldCount; j++ ) {
+            int fieldStart = fieldTokenizer.getStart( j );
+            int fieldEnd = fieldTokenizer.getEnd( j );
+
+            // strip field delimiters
+            if ( fieldDelimiter != null && !fieldDelimiter.isEmpty()) {
+                if ( startsWith( fieldChars, fieldStart, fieldEnd, fieldDelimiter ) ) {
+                    fieldStart += fieldDelimiter.length();
+                }
+                if ( endsWith( fieldChars, fieldStart, fieldEnd, fieldDelimiter ) ) {
+                    fieldEnd -= fieldDelimiter.length();
+                }
+            }
+
+            Field field = fieldParser.parse( new String( fieldChars, fieldStart, fieldEnd - fieldStart ), columnDefinition );
+
+            // default values
+            field.setIfMissing(columnDefinition.getDefaultValues());
+
+            fields.add( field );
+        }
+    }
+
+    static boolean regionEquals( char[] buffer, int start, int end, String str ) {
+        return end - start == str.length() && startsWith( buffer, start, end, str );
+    }
+
+    static boolean startsWith( char[] buffer, int start, int end, String prefix ) {
+        if ( end - start < prefix.length() ) {
+            return false;
+        }
+        for ( int i = 0; i < prefix.length(); i++ ) {
+            if ( buffer[start + i] != prefix.charAt( i ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean endsWith( char[] buffer, int start, int end, String suffix ) {
+        if ( end - start < suffix.length() ) {
+            return false;
+        }
+        int offset = end - suffix.length();
+        for ( int i = 0; i < suffix.length(); i++ ) {
+            if ( buffer[offset + i] != suffix.charAt( i ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
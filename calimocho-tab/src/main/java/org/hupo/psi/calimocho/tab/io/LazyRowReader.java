@@ -0,0 +1,71 @@
+package org.hupo.psi.calimocho.tab.io;
+
+import org.hupo.psi.calimocho.model.Row;
+import org.hupo.psi.calimocho.tab.model.ColumnBasedDocumentDefinition;
+import org.hupo.psi.calimocho.tab.model.ColumnDefinition;
+import org.hupo.psi.calimocho.tab.util.QuoteAwareTokenizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row reader creating ColumnIndexedRows : the fields of a column are only parsed when the column is accessed.
+ *
+ * The columns are split and the empty columns are checked when the line is read, the IllegalFieldExceptions are thrown when the
+ * columns are accessed (wrapped in an IllegalStateException). This reader should be used when only a few columns of each line are used.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+public class LazyRowReader extends DefaultRowReader {
+
+    private ColumnDefinition[] indexedColumnDefinitions;
+    private Map<String, int[]> positionsByKey;
+
+    public LazyRowReader( ColumnBasedDocumentDefinition documentDefinition ) {
+        super( documentDefinition );
+    }
+
+    @Override
+    protected Row createRow( QuoteAwareTokenizer columns ) {
+        ColumnDefinition[] columnDefinitions = getColumnDefinitionsByPosition();
+        return new ColumnIndexedRow( columnDefinitions, getPositionsByKey( columnDefinitions ), columns.copyBuffer() );
+    }
+
+    @Override
+    protected void addColumn( Row row, ColumnDefinition columnDefinition, char[] buffer, int start, int end ) {
+        ( ( ColumnIndexedRow ) row ).setColumn( columnDefinition.getPosition(), start, end );
+    }
+
+    private Map<String, int[]> getPositionsByKey( ColumnDefinition[] columnDefinitions ) {
+        Map<String, int[]> positions = this.positionsByKey;
+        if ( positions == null || this.indexedColumnDefinitions != columnDefinitions ) {
+            Map<String, List<Integer>> positionLists = new HashMap<String, List<Integer>>();
+            for ( int i = 0; i < columnDefinitions.length; i++ ) {
+                if ( columnDefinitions[i] != null ) {
+                    List<Integer> list = positionLists.get( columnDefinitions[i].getKey() );
+                    if ( list == null ) {
+                        list = new ArrayList<Integer>( 1 );
+                        positionLists.put( columnDefinitions[i].getKey(), list );
+                    }
+                    list.add( i );
+                }
+            }
+
+            positions = new HashMap<String, int[]>( positionLists.size() );
+            for ( Map.Entry<String, List<Integer>> entry : positionLists.entrySet() ) {
+                int[] array = new int[entry.getValue().size()];
+                for ( int i = 0; i < array.length; i++ ) {
+                    array[i] = entry.getValue().get( i );
+                }
+                positions.put( entry.getKey(), array );
+            }
+            this.positionsByKey = positions;
+            this.indexedColumnDefinitions = columnDefinitions;
+        }
+        return positions;
+    }
+}
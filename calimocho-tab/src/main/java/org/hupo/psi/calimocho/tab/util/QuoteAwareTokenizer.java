@@ -0,0 +1,179 @@
+package org.hupo.psi.calimocho.tab.util;
+
+import java.util.Arrays;
+
+/**
+ * <p>Single pass, char array based version of ParseUtils.quoteAwareSplit( str, delimiters, false ).</p>
+ *
+ * <p>The groups are not copied in separate Strings : the characters of the groups are written in one buffer and the tokenizer
+ * keeps the start and end of each group in this buffer. The characters are the same as the characters of the input except the escape
+ * characters (\) within quotes which are not followed by a quote.</p>
+ *
+ * <p>A tokenizer can be reused to split several char sequences but it is not thread safe.</p>
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+public class QuoteAwareTokenizer {
+
+    private char[] buffer;
+    private int length;
+    private int[] bounds;
+    private int groupCount;
+
+    public QuoteAwareTokenizer() {
+        this.buffer = new char[256];
+        this.bounds = new int[64];
+    }
+
+    /**
+     * Splits the characters [from, to) using the delimiters. The groups of a previous split are discarded.
+     *
+     * @param chars The characters to split
+     * @param from the position of the first character to split
+     * @param to the position after the last character to split
+     * @param delimiters The delimiters to use, can be null if the characters should not be split
+     * @return the number of groups
+     */
+    public int tokenize( char[] chars, int from, int to, char[] delimiters ) {
+        if ( chars == null ) {
+            throw new NullPointerException( "Null chars to split" );
+        }
+
+        this.length = 0;
+        this.groupCount = 0;
+        if ( buffer.length < to - from ) {
+            buffer = new char[Math.max( to - from, buffer.length * 2 )];
+        }
+
+        int groupStart = 0;
+        boolean withinQuotes = false;
+        boolean previousCharIsEscape = false;
+
+        for ( int i = from; i < to; i++ ) {
+            char c = chars[i];
+
+            boolean markedAsEscape = false;
+
+            if ( c == '"' ) {
+                if ( withinQuotes ) {
+                    if ( previousCharIsEscape ) {
+                        // the escape character has not been written
+                        buffer[length++] = '\\';
+                    } else if ( length > groupStart ) {
+                        withinQuotes = false;
+                    }
+                } else {
+                    withinQuotes = true;
+                }
+                buffer[length++] = c;
+
+            } else if ( delimiters != null && contains( delimiters, c ) ) {
+                if ( withinQuotes ) {
+                    buffer[length++] = c;
+                } else {
+                    addGroup( groupStart, length );
+                    groupStart = length;
+                }
+            } else if ( c == '\\' ) {
+                if ( withinQuotes ) {
+                    previousCharIsEscape = true;
+                    markedAsEscape = true;
+                } else {
+                    buffer[length++] = c;
+                }
+            } else {
+                buffer[length++] = c;
+            }
+
+            if ( !markedAsEscape ) {
+                previousCharIsEscape = false;
+            }
+        }
+
+        // the last group is ignored if it is empty
+        if ( length > groupStart ) {
+            addGroup( groupStart, length );
+        }
+
+        return groupCount;
+    }
+
+    /**
+     * @return the number of groups of the last split
+     */
+    public int getGroupCount() {
+        return groupCount;
+    }
+
+    /**
+     * @return the buffer containing the characters of the groups
+     */
+    public char[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the number of characters written in the buffer
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @param index the index of the group
+     * @return the position of the first character of the group in the buffer
+     */
+    public int getStart( int index ) {
+        return bounds[2 * index];
+    }
+
+    /**
+     * @param index the index of the group
+     * @return the position after the last character of the group in the buffer
+     */
+    public int getEnd( int index ) {
+        return bounds[2 * index + 1];
+    }
+
+    /**
+     * @return a copy of the start and end positions of the groups, start of the first group at 0, end of the first group at 1, etc.
+     */
+    public int[] copyBounds() {
+        return Arrays.copyOf( bounds, 2 * groupCount );
+    }
+
+    /**
+     * @return a copy of the characters of the groups
+     */
+    public char[] copyBuffer() {
+        return Arrays.copyOf( buffer, length );
+    }
+
+    /**
+     * @param index the index of the group
+     * @return a new String with the characters of the group
+     */
+    public String getGroup( int index ) {
+        return new String( buffer, getStart( index ), getEnd( index ) - getStart( index ) );
+    }
+
+    private void addGroup( int start, int end ) {
+        if ( 2 * groupCount + 1 >= bounds.length ) {
+            bounds = Arrays.copyOf( bounds, bounds.length * 2 );
+        }
+        bounds[2 * groupCount] = start;
+        bounds[2 * groupCount + 1] = end;
+        groupCount++;
+    }
+
+    private static boolean contains( char[] chars, char cToFind ) {
+        for ( char c : chars ) {
+            if ( c == cToFind ) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+package org.hupo.psi.calimocho.tab.io;
+
+import org.hupo.psi.calimocho.key.CalimochoKeys;
+import org.hupo.psi.calimocho.model.DefaultField;
+import org.hupo.psi.calimocho.model.Field;
+import org.hupo.psi.calimocho.model.Row;
+import org.hupo.psi.calimocho.tab.AbstractCalimochoTabTest;
+import org.hupo.psi.calimocho.tab.io.parser.KeyValueFieldParser;
+import org.hupo.psi.calimocho.tab.io.parser.LiteralFieldParser;
+import org.hupo.psi.calimocho.tab.model.ColumnBasedDocumentDefinition;
+import org.hupo.psi.calimocho.tab.model.ColumnBasedDocumentDefinitionBuilder;
+import org.hupo.psi.calimocho.tab.model.ColumnDefinition;
+import org.hupo.psi.calimocho.tab.model.ColumnDefinitionBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collection;
+
+/**
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+public class LazyRowReaderTest extends AbstractCalimochoTabTest {
+
+    private static final String LINE = "uniprotkb:Q9Y5J7|intact:EBI-123456\tuniprotkb:Q9Y584\t-\tPeter et al (2010)\tpsi-mi:\"MI:0006\"(anti bait coip)";
+
+    private ColumnBasedDocumentDefinition buildDefinition() {
+        ColumnDefinition idColDefinition = new ColumnDefinitionBuilder()
+                .setKey( "idA" )
+                .setPosition( 0 )
+                .setEmptyValue( "-" )
+                .setFieldSeparator( "|" )
+                .setFieldParser( new KeyValueFieldParser( ":" ) )
+                .build();
+
+        ColumnDefinition altColDefinition = new ColumnDefinitionBuilder()
+                .extendColumnDefinition( idColDefinition )
+                .setKey( "altA" )
+                .setPosition( 2 )
+                .build();
+
+        ColumnDefinition authColDefinition = new ColumnDefinitionBuilder()
+                .extendColumnDefinition( idColDefinition )
+                .setKey( "auth" )
+                .setPosition( 3 )
+                .setFieldParser( new LiteralFieldParser() )
+                .build();
+
+        return new ColumnBasedDocumentDefinitionBuilder()
+                .addColumnDefinition( idColDefinition )
+                .addColumnDefinition( altColDefinition )
+                .addColumnDefinition( authColDefinition )
+                .setColumnSeparator( "\t" )
+                .setCommentPrefix( "#" )
+                .build();
+    }
+
+    @Test
+    public void readLine_sameAsDefaultRowReader() throws Exception {
+        ColumnBasedDocumentDefinition docDefinition = buildDefinition();
+
+        Row expected = new DefaultRowReader( docDefinition ).readLine( LINE );
+        Row row = new LazyRowReader( docDefinition ).readLine( LINE );
+
+        Assert.assertTrue( row instanceof ColumnIndexedRow );
+        Assert.assertEquals( expected.keySet(), row.keySet() );
+        Assert.assertEquals( expected.getAllFields().size(), row.getAllFields().size() );
+
+        Collection<Field> idFields = row.getFields( "idA" );
+        Assert.assertEquals( 2, idFields.size() );
+        Assert.assertEquals( 1, row.getFieldsByKey( "idA", "intact" ).size() );
+        Assert.assertEquals( "EBI-123456", row.getFieldsByKey( "idA", "intact" ).iterator().next().get( CalimochoKeys.VALUE ) );
+
+        Assert.assertTrue( row.getFields( "altA" ).isEmpty() );
+        Assert.assertEquals( "Peter et al (2010)", row.getFields( "auth" ).iterator().next().get( CalimochoKeys.VALUE ) );
+    }
+
+    @Test
+    public void addFields() throws Exception {
+        Row row = new LazyRowReader( buildDefinition() ).readLine( LINE );
+
+        Field field = new DefaultField();
+        field.set( CalimochoKeys.VALUE, "Smith et al (2012)" );
+        row.addField( "auth", field );
+        row.addField( "other", field );
+
+        Assert.assertEquals( 2, row.getFields( "auth" ).size() );
+        Assert.assertEquals( 1, row.getFields( "other" ).size() );
+        Assert.assertTrue( row.keySet().contains( "other" ) );
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void readLine_fieldParsedWhenAccessed() throws Exception {
+        ColumnDefinition columnDefinition = new ColumnDefinitionBuilder()
+                .setKey( "id" )
+                .setPosition( 0 )
+                .setFieldSeparator( "|" )
+                .setFieldParser( new KeyValueFieldParser( ":" ) )
+                .build();
+
+        ColumnBasedDocumentDefinition docDefinition = new ColumnBasedDocumentDefinitionBuilder()
+                .addColumnDefinition( columnDefinition )
+                .setColumnSeparator( "\t" )
+                .build();
+
+        // the field cannot be parsed but the row can be read
+        Row row = new LazyRowReader( docDefinition ).readLine( "uniprotkb" );
+        Assert.assertNotNull( row );
+
+        row.getFields( "id" );
+    }
+}
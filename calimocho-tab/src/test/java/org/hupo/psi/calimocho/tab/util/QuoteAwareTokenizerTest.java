@@ -0,0 +1,70 @@
+package org.hupo.psi.calimocho.tab.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+public class QuoteAwareTokenizerTest {
+
+    @Test
+    public void tokenize_sameAsQuoteAwareSplit() throws Exception {
+        String[] lines = new String[]{
+                "a\tb\t\td",
+                "a\tb\t",
+                "psi-mi:\"MI:0006\"(anti bait coip)|go:\"GO:0004709\"(\"F:MAP kinase\")",
+                "a:\"b\\\"c\"|d",
+                "a:\"b\\c\"|d",
+                "\"\"|a",
+                "a|b\\|c"
+        };
+        String[] delimiters = new String[]{"\t", "|"};
+
+        QuoteAwareTokenizer tokenizer = new QuoteAwareTokenizer();
+        for ( String line : lines ) {
+            String[] expected = ParseUtils.quoteAwareSplit( line, delimiters, false );
+            int count = tokenizer.tokenize( line.toCharArray(), 0, line.length(), new char[]{'\t', '|'} );
+
+            Assert.assertEquals( line, expected.length, count );
+            for ( int i = 0; i < count; i++ ) {
+                Assert.assertEquals( line, expected[i], tokenizer.getGroup( i ) );
+            }
+        }
+    }
+
+    @Test
+    public void tokenize_range() throws Exception {
+        char[] chars = "xxa,b,\"c,d\"yy".toCharArray();
+
+        QuoteAwareTokenizer tokenizer = new QuoteAwareTokenizer();
+        Assert.assertEquals( 3, tokenizer.tokenize( chars, 2, chars.length - 2, new char[]{','} ) );
+        Assert.assertEquals( "a", tokenizer.getGroup( 0 ) );
+        Assert.assertEquals( "b", tokenizer.getGroup( 1 ) );
+        Assert.assertEquals( "\"c,d\"", tokenizer.getGroup( 2 ) );
+    }
+
+    @Test
+    public void tokenize_noDelimiters() throws Exception {
+        char[] chars = "a,b".toCharArray();
+
+        QuoteAwareTokenizer tokenizer = new QuoteAwareTokenizer();
+        Assert.assertEquals( 1, tokenizer.tokenize( chars, 0, chars.length, null ) );
+        Assert.assertEquals( "a,b", tokenizer.getGroup( 0 ) );
+    }
+
+    @Test
+    public void tokenize_growBuffers() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i < 200; i++ ) {
+            sb.append( "value" ).append( i ).append( '|' );
+        }
+
+        QuoteAwareTokenizer tokenizer = new QuoteAwareTokenizer();
+        Assert.assertEquals( 200, tokenizer.tokenize( sb.toString().toCharArray(), 0, sb.length(), new char[]{'|'} ) );
+        Assert.assertEquals( "value0", tokenizer.getGroup( 0 ) );
+        Assert.assertEquals( "value199", tokenizer.getGroup( 199 ) );
+    }
+}
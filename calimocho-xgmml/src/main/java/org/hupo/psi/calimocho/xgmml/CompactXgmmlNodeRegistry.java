@@ -0,0 +1,227 @@
+package org.hupo.psi.calimocho.xgmml;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Node registry storing the node keys as UTF-8 bytes in one buffer and the node ids in primitive arrays.
+ *
+ * The keys are stored in a heap buffer by default. They can be stored in a direct buffer (off heap) or in a buffer mapped to a file
+ * when the number of distinct nodes is too big to keep the keys in the heap. The hash table (hash, key offset and node id of each node)
+ * is always kept in the heap and uses 12 bytes per node.
+ *
+ * This registry is not thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class CompactXgmmlNodeRegistry implements XgmmlNodeRegistry {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final int INITIAL_TABLE_SIZE = 1024;
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+    private int[] hashes;
+    // offset + 1 of each key in the key buffer, 0 if the slot is empty
+    private int[] offsets;
+    private int[] nodeIds;
+    private int size;
+
+    private ByteBuffer keys;
+    private final boolean direct;
+    private final File spillFile;
+    private FileChannel spillChannel;
+
+    /**
+     * Creates a registry keeping the node keys in the heap
+     */
+    public CompactXgmmlNodeRegistry(){
+        this(false);
+    }
+
+    /**
+     * Creates a registry keeping the node keys in the heap or in a direct buffer
+     * @param direct : true if the keys should be stored off heap
+     */
+    public CompactXgmmlNodeRegistry(boolean direct){
+        this.direct = direct;
+        this.spillFile = null;
+        this.keys = direct ? ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE) : ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        initialiseTable(INITIAL_TABLE_SIZE);
+    }
+
+    /**
+     * Creates a registry keeping the node keys in a file mapped in memory
+     * @param spillFile : the file where to write the keys. Its content will be overwritten
+     * @throws IOException
+     */
+    public CompactXgmmlNodeRegistry(File spillFile) throws IOException {
+        if (spillFile == null){
+            throw new IllegalArgumentException("The spill file cannot be null");
+        }
+        this.direct = true;
+        this.spillFile = spillFile;
+        this.spillChannel = new RandomAccessFile(spillFile, "rw").getChannel();
+        this.keys = this.spillChannel.map(FileChannel.MapMode.READ_WRITE, 0, INITIAL_BUFFER_SIZE);
+        initialiseTable(INITIAL_TABLE_SIZE);
+    }
+
+    public int getNodeId(String key) {
+        if (key == null){
+            return -1;
+        }
+        byte[] bytes = key.getBytes(UTF8);
+        int hash = key.hashCode();
+        int slot = findSlot(hash, bytes);
+        return offsets[slot] == 0 ? -1 : nodeIds[slot];
+    }
+
+    public void register(String key, int nodeId) {
+        if (key == null){
+            throw new IllegalArgumentException("The node key cannot be null");
+        }
+        if (nodeId < 0){
+            throw new IllegalArgumentException("The node id must be positive: " + nodeId);
+        }
+
+        byte[] bytes = key.getBytes(UTF8);
+        int hash = key.hashCode();
+        int slot = findSlot(hash, bytes);
+        // the node was already registered
+        if (offsets[slot] != 0){
+            nodeIds[slot] = nodeId;
+            return;
+        }
+
+        int offset = writeKey(bytes);
+        hashes[slot] = hash;
+        offsets[slot] = offset + 1;
+        nodeIds[slot] = nodeId;
+        size++;
+
+        // keep the load factor under 0.5
+        if (2 * size > offsets.length){
+            rehash();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(offsets, 0);
+        size = 0;
+        keys.clear();
+    }
+
+    /**
+     * Closes the spill file if the keys are stored in a file.
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        clear();
+        if (spillChannel != null){
+            spillChannel.close();
+            spillChannel = null;
+        }
+    }
+
+    private void initialiseTable(int tableSize){
+        this.hashes = new int[tableSize];
+        this.offsets = new int[tableSize];
+        this.nodeIds = new int[tableSize];
+        this.size = 0;
+    }
+
+    private int findSlot(int hash, byte[] bytes){
+        int mask = offsets.length - 1;
+        int slot = mix(hash) & mask;
+        while (offsets[slot] != 0 && (hashes[slot] != hash || !keyEquals(offsets[slot] - 1, bytes))){
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private boolean keyEquals(int offset, byte[] bytes){
+        if (keys.getInt(offset) != bytes.length){
+            return false;
+        }
+        int start = offset + 4;
+        for (int i = 0; i < bytes.length; i++){
+            if (keys.get(start + i) != bytes[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int writeKey(byte[] bytes){
+        if (keys.remaining() < bytes.length + 4){
+            growKeys(bytes.length + 4);
+        }
+        int offset = keys.position();
+        keys.putInt(bytes.length);
+        keys.put(bytes);
+        return offset;
+    }
+
+    private void growKeys(int minimumSpace){
+        long newCapacity = Math.max((long) keys.capacity() * 2, (long) keys.position() + minimumSpace);
+        if (newCapacity > Integer.MAX_VALUE){
+            throw new IllegalStateException("Cannot register more node keys, the key buffer is full");
+        }
+
+        int position = keys.position();
+        ByteBuffer newKeys;
+        if (spillChannel != null){
+            try {
+                newKeys = spillChannel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot extend the spill file " + spillFile.getAbsolutePath(), e);
+            }
+        }
+        else {
+            newKeys = direct ? ByteBuffer.allocateDirect((int) newCapacity) : ByteBuffer.allocate((int) newCapacity);
+            keys.flip();
+            newKeys.put(keys);
+        }
+        newKeys.position(position);
+        keys = newKeys;
+    }
+
+    private void rehash(){
+        int[] oldHashes = hashes;
+        int[] oldOffsets = offsets;
+        int[] oldNodeIds = nodeIds;
+
+        int oldSize = size;
+        initialiseTable(oldOffsets.length * 2);
+        int mask = offsets.length - 1;
+
+        for (int i = 0; i < oldOffsets.length; i++){
+            if (oldOffsets[i] != 0){
+                int slot = mix(oldHashes[i]) & mask;
+                while (offsets[slot] != 0){
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = oldHashes[i];
+                offsets[slot] = oldOffsets[i];
+                nodeIds[slot] = oldNodeIds[i];
+            }
+        }
+        size = oldSize;
+    }
+
+    private static int mix(int hash){
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -20,6 +20,16 @@ public class XgmmlNode {
     private int cols;
     private int distance = 80;
 
+    /**
+     * Node already written in the graph : only the key and the id are known
+     * @param key
+     * @param id
+     */
+    public XgmmlNode(String key, String id){
+        this.key = key;
+        this.id = id;
+    }
+
     public XgmmlNode(String key, String id, int rowindex, int colindex, int cols, int distance){
         this.key = key;
         this.id = id;
@@ -0,0 +1,40 @@
+package org.hupo.psi.calimocho.xgmml;
+
+/**
+ * Registry of the nodes already written in a XGMML graph.
+ *
+ * The registry only keeps the node id of each node key, the attributes of the nodes are written when the node is found the first time
+ * and are not kept in memory.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public interface XgmmlNodeRegistry {
+
+    /**
+     *
+     * @param key : the key of the node
+     * @return the id of the node having this key, -1 if the node has not been registered
+     */
+    public int getNodeId(String key);
+
+    /**
+     * Registers the id of a node
+     * @param key : the key of the node
+     * @param nodeId : the id of the node, must be positive
+     */
+    public void register(String key, int nodeId);
+
+    /**
+     *
+     * @return the number of registered nodes
+     */
+    public int size();
+
+    /**
+     * Removes all the registered nodes
+     */
+    public void clear();
+}
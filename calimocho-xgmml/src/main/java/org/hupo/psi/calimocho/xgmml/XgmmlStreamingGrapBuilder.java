@@ -3,7 +3,6 @@ package org.hupo.psi.calimocho.xgmml;
 import calimocho.internal.rdf.*;
 import calimocho.internal.xgmml.*;
 import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.sun.xml.bind.marshaller.NamespacePrefixMapper;
 import com.sun.xml.txw2.output.IndentingXMLStreamWriter;
@@ -43,7 +42,8 @@ public class XgmmlStreamingGrapBuilder {
     private String description;
     private String source;
 
-    private Map<String, XgmmlNode> nodeMap;
+    // key -> node id of the nodes already written
+    private XgmmlNodeRegistry nodeRegistry;
 
     private calimocho.internal.xgmml.ObjectFactory xgmmlObjectFactory;
     private calimocho.internal.rdf.ObjectFactory rdfObjectFactory;
@@ -72,11 +72,26 @@ public class XgmmlStreamingGrapBuilder {
     }
 
     public XgmmlStreamingGrapBuilder(String title, String description, String source) throws JAXBException{
+        this(title, description, source, new CompactXgmmlNodeRegistry());
+    }
+
+    /**
+     *
+     * @param title
+     * @param description
+     * @param source
+     * @param nodeRegistry : the registry of the nodes already written. A CompactXgmmlNodeRegistry with a spill file can be used for very big graphs
+     * @throws JAXBException
+     */
+    public XgmmlStreamingGrapBuilder(String title, String description, String source, XgmmlNodeRegistry nodeRegistry) throws JAXBException{
+        if (nodeRegistry == null){
+            throw new IllegalArgumentException("The node registry cannot be null");
+        }
         this.title = title;
         this.description = description;
         this.source = source;
 
-        this.nodeMap = Maps.newHashMap();
+        this.nodeRegistry = nodeRegistry;
 
         xgmmlObjectFactory = new calimocho.internal.xgmml.ObjectFactory();
         rdfObjectFactory = new calimocho.internal.rdf.ObjectFactory();
@@ -135,7 +150,7 @@ public class XgmmlStreamingGrapBuilder {
         xmlOut.flush();
         xmlOut.close();
 
-        this.nodeMap.clear();
+        this.nodeRegistry.clear();
         this.nodeSize = 0;
         this.distance = 80;
         this.nodeIndex = 0;
@@ -252,10 +267,8 @@ public class XgmmlStreamingGrapBuilder {
                         // node A is not null
                         if (nodeA != null){
                             // we need to update coordinate if a new node has been found
-                            if (!this.nodeMap.containsKey(nodeA.getKey())){
-                                colIndex = nodeA.getColIndex();
-                                rowIndex = nodeA.getRowIndex();
-                                this.nodeMap.put(nodeA.getKey(), nodeA);
+                            if (!isRegistered(nodeA)){
+                                registerNode(nodeA);
                             }
 
                             // we create nodeB
@@ -265,10 +278,8 @@ public class XgmmlStreamingGrapBuilder {
                                 nodeB = nodeA;
                             }
                             // we need to update coordinate if a new node has been found
-                            else if (!this.nodeMap.containsKey(nodeB.getKey())){
-                                colIndex = nodeB.getColIndex();
-                                rowIndex = nodeB.getRowIndex();
-                                this.nodeMap.put(nodeB.getKey(), nodeB);
+                            else if (!isRegistered(nodeB)){
+                                registerNode(nodeB);
                             }
                         }
                         // self interaction, only one interactor is provided and it should be nodeB
@@ -278,10 +289,8 @@ public class XgmmlStreamingGrapBuilder {
 
                             nodeA = nodeB;
 
-                            if (nodeB != null && !this.nodeMap.containsKey(nodeB.getKey())){
-                                colIndex = nodeB.getColIndex();
-                                rowIndex = nodeB.getRowIndex();
-                                this.nodeMap.put(nodeB.getKey(), nodeB);
+                            if (nodeB != null && !isRegistered(nodeB)){
+                                registerNode(nodeB);
                             }
                         }
 
@@ -311,6 +320,16 @@ public class XgmmlStreamingGrapBuilder {
         }
     }
 
+    private boolean isRegistered(XgmmlNode node){
+        return nodeRegistry.getNodeId(node.getKey()) >= 0;
+    }
+
+    private void registerNode(XgmmlNode node){
+        colIndex = node.getColIndex();
+        rowIndex = node.getRowIndex();
+        this.nodeRegistry.register(node.getKey(), Integer.parseInt(node.getId()));
+    }
+
     private calimocho.internal.xgmml.Att createMetadata() {
         final calimocho.internal.xgmml.Att networkMetadata = createAtt("networkMetadata", null);
 
@@ -431,8 +450,10 @@ public class XgmmlStreamingGrapBuilder {
         if (key == null){
             return null;
         }
-        else if (nodeMap.containsKey(key)) {
-            return nodeMap.get(key);
+
+        int registeredId = nodeRegistry.getNodeId(key);
+        if (registeredId >= 0) {
+            return new XgmmlNode(key, String.valueOf(registeredId));
         }
 
         String nodeId = String.valueOf(++nodeIndex);
@@ -0,0 +1,62 @@
+package org.hupo.psi.calimocho.xgmml;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+public class CompactXgmmlNodeRegistryTest {
+
+    @Test
+    public void register_heap() throws Exception {
+        assertRegistry(new CompactXgmmlNodeRegistry());
+    }
+
+    @Test
+    public void register_offHeap() throws Exception {
+        assertRegistry(new CompactXgmmlNodeRegistry(true));
+    }
+
+    @Test
+    public void register_spillFile() throws Exception {
+        File spillFile = File.createTempFile("nodes", ".keys");
+        spillFile.deleteOnExit();
+
+        CompactXgmmlNodeRegistry registry = new CompactXgmmlNodeRegistry(spillFile);
+        try {
+            assertRegistry(registry);
+        }
+        finally {
+            registry.close();
+        }
+    }
+
+    private void assertRegistry(CompactXgmmlNodeRegistry registry){
+        // enough keys to grow the hash table and the key buffer
+        for (int i = 0; i < 5000; i++){
+            registry.register("P" + i + "-\u00e9", i);
+        }
+
+        Assert.assertEquals(5000, registry.size());
+        Assert.assertEquals(0, registry.getNodeId("P0-\u00e9"));
+        Assert.assertEquals(4999, registry.getNodeId("P4999-\u00e9"));
+        Assert.assertEquals(-1, registry.getNodeId("P5000-\u00e9"));
+        Assert.assertEquals(-1, registry.getNodeId(null));
+
+        registry.register("P1-\u00e9", 10000);
+        Assert.assertEquals(5000, registry.size());
+        Assert.assertEquals(10000, registry.getNodeId("P1-\u00e9"));
+
+        registry.clear();
+        Assert.assertEquals(0, registry.size());
+        Assert.assertEquals(-1, registry.getNodeId("P1-\u00e9"));
+
+        registry.register("P1", 1);
+        Assert.assertEquals(1, registry.getNodeId("P1"));
+    }
+}
@@ -0,0 +1,347 @@
+package psidev.psi.mi.jami.viewer.servlet;
+
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.io.FilenameUtils;
+import psidev.psi.mi.jami.binary.BinaryInteraction;
+import psidev.psi.mi.jami.binary.expansion.ComplexExpansionMethod;
+import psidev.psi.mi.jami.binary.expansion.SpokeExpansion;
+import psidev.psi.mi.jami.bridges.fetcher.OntologyTermFetcher;
+import psidev.psi.mi.jami.commons.MIFileAnalyzer;
+import psidev.psi.mi.jami.commons.MIFileType;
+import psidev.psi.mi.jami.commons.PsiJami;
+import psidev.psi.mi.jami.datasource.InteractionStream;
+import psidev.psi.mi.jami.datasource.InteractionWriter;
+import psidev.psi.mi.jami.exception.MIIOException;
+import psidev.psi.mi.jami.factory.InteractionWriterFactory;
+import psidev.psi.mi.jami.factory.MIDataSourceFactory;
+import psidev.psi.mi.jami.json.InteractionViewerJson;
+import psidev.psi.mi.jami.model.Interaction;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Abstract servlet that can read MI standard files and urls and return MI JSON to an interaction viewer.
+ *
+ * The request is processed in one pass: the uploaded file or the url content is read only once and the JSON is written
+ * while the interactions are parsed. The ontology fetcher is shared by all the servlets (see SharedOntologyFetcher).
+ * The time spent to process each request is logged and recorded in the RequestMetrics of the servlet.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public abstract class AbstractMIJsonServlet extends HttpServlet{
+
+    private MIFileAnalyzer fileAnalyzer;
+    private int timeOut = 30000;
+    private OntologyTermFetcher fetcher;
+    private ComplexExpansionMethod<Interaction, BinaryInteraction> expansionMethod;
+    private final RequestMetrics requestMetrics = new RequestMetrics();
+
+    /**
+     * Number of bytes kept to read the beginning of the stream again once its file type is recognised
+     */
+    private static final int FILE_TYPE_MARK_LIMIT = 65536;
+
+    public void init() throws ServletException
+    {
+        PsiJami.initialiseAllMIDataSources();
+        InteractionViewerJson.initialiseAllMIJsonWriters();
+        fileAnalyzer = new MIFileAnalyzer();
+        expansionMethod = new SpokeExpansion();
+        fetcher = SharedOntologyFetcher.acquire();
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        // Set response content type
+        resp.setContentType("application/json");
+
+        // Actual logic goes here.
+        String url = req.getParameter(getUrlParameter());
+        if (url != null){
+            processURL(url, resp);
+        }
+        else {
+            processFile(req, resp);
+        }
+    }
+
+    public OntologyTermFetcher getFetcher() {
+        return fetcher;
+    }
+
+    public void setFetcher(OntologyTermFetcher fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    public ComplexExpansionMethod<Interaction, BinaryInteraction> getExpansionMethod() {
+        return expansionMethod;
+    }
+
+    public void setExpansionMethod(ComplexExpansionMethod<Interaction, BinaryInteraction> expansionMethod) {
+        this.expansionMethod = expansionMethod != null ? expansionMethod : new SpokeExpansion();
+    }
+
+    public MIFileAnalyzer getFileAnalyzer() {
+        return fileAnalyzer;
+    }
+
+    public void setFileAnalyzer(MIFileAnalyzer fileAnalyzer) {
+        this.fileAnalyzer = fileAnalyzer != null ? fileAnalyzer : new MIFileAnalyzer();
+    }
+
+    public int getTimeOut() {
+        return timeOut;
+    }
+
+    public void setTimeOut(int timeOut) {
+        this.timeOut = timeOut;
+    }
+
+    /**
+     *
+     * @return the timing metrics of the requests processed by this servlet
+     */
+    public RequestMetrics getRequestMetrics() {
+        return requestMetrics;
+    }
+
+    public void destroy()
+    {
+        getLogger().log(Level.INFO, "Requests processed by " + getServletName() + ": " + requestMetrics);
+        fileAnalyzer = null;
+        expansionMethod = null;
+        this.fetcher = null;
+        SharedOntologyFetcher.release();
+    }
+
+    /**
+     *
+     * @return the name of the request parameter containing the url to read
+     */
+    protected abstract String getUrlParameter();
+
+    /**
+     *
+     * @return the name of the form field containing the file to read
+     */
+    protected abstract String getFileParameter();
+
+    /**
+     *
+     * @return the logger of this servlet
+     */
+    protected abstract Logger getLogger();
+
+    /**
+     * @param fileType : the type of the file to read, mitab or psimi_xml
+     * @param stream : the stream of the file
+     * @return the options of the MI data source reading the file
+     */
+    protected abstract Map<String, Object> createDataSourceOptions(MIFileType fileType, InputStream stream);
+
+    /**
+     * @param fileType : the type of the file to read, mitab or psimi_xml
+     * @param writer : the writer of the response
+     * @return the options of the JSON writer
+     */
+    protected abstract Map<String, Object> createJsonWriterOptions(MIFileType fileType, Writer writer);
+
+    private void processURL(String urlString, HttpServletResponse resp) throws IOException {
+        InputStream stream = null;
+        try {
+            URL url = new URL(urlString);
+            URLConnection connection = url.openConnection();
+            connection.setReadTimeout(timeOut);
+            connection.setConnectTimeout(timeOut);
+
+            stream = connection.getInputStream();
+            processMIData(urlString, stream, resp);
+
+        } catch (MalformedURLException e) {
+            getLogger().log(Level.SEVERE, "The url " + urlString + " is not a valid url.", e);
+            sendError(resp, 400, "The url " + urlString + " is not a valid url.");
+
+        } catch (IOException e) {
+            getLogger().log(Level.SEVERE, "Cannot read the url " + urlString + ".", e);
+            sendError(resp, 400, "Cannot read the url " + urlString + ".");
+
+        }
+        finally {
+            if (stream != null){
+                try {
+                    stream.close();
+                }
+                catch (IOException e) {
+                    getLogger().log(Level.SEVERE, "Cannot close the url " + urlString + ".", e);
+                }
+            }
+        }
+    }
+
+    private void processFile(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        try {
+            // the multipart request is streamed so the uploaded file is never stored
+            FileItemIterator items = new ServletFileUpload().getItemIterator(req);
+            while (items.hasNext()) {
+                FileItemStream item = items.next();
+                // process only files
+                if (!item.isFormField() && getFileParameter().equals(item.getFieldName())) {
+                    String filename = FilenameUtils.getName(item.getName());
+                    InputStream stream = item.openStream();
+                    try {
+                        processMIData(filename, stream, resp);
+                    }
+                    finally {
+                        stream.close();
+                    }
+                }
+            }
+
+        } catch (FileUploadException e) {
+            getLogger().log(Level.SEVERE, "The uploaded file is not a valid file.", e);
+            sendError(resp, 400, "The uploaded file is not a valid file.");
+
+        } catch (IOException e) {
+            getLogger().log(Level.SEVERE, "The uploaded file is not a valid file.", e);
+            sendError(resp, 400, "The uploaded file is not a valid file.");
+
+        }
+    }
+
+    private void processMIData(String request, InputStream dataStream, HttpServletResponse resp) throws IOException {
+        long start = System.currentTimeMillis();
+        CountingIterator interactions = null;
+        boolean failed = true;
+
+        // recognize the file type from the beginning of the stream and read it again from the start,
+        // so the data source gets the raw bytes and the xml parser can detect the encoding
+        BufferedInputStream bufferedStream = new BufferedInputStream(dataStream, FILE_TYPE_MARK_LIMIT);
+        bufferedStream.mark(FILE_TYPE_MARK_LIMIT);
+        MIFileType fileType = fileAnalyzer.identifyMIFileTypeFor(new FilterInputStream(bufferedStream) {
+            @Override
+            public void close() throws IOException {
+                // the stream is read again by the data source
+            }
+        });
+        bufferedStream.reset();
+
+        InteractionStream miDataSource = null;
+        InteractionWriter interactionWriter = null;
+        try{
+            switch (fileType){
+                case mitab:
+                case psimi_xml:
+                    miDataSource = MIDataSourceFactory.getInstance().getInteractionSourceWith(
+                            createDataSourceOptions(fileType, bufferedStream));
+                    if (miDataSource != null){
+                        interactionWriter = InteractionWriterFactory.getInstance().getInteractionWriterWith(
+                                createJsonWriterOptions(fileType, resp.getWriter()));
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            if (miDataSource == null){
+                getLogger().log(Level.SEVERE, "The input " + request + " is not a valid MI data source.");
+                sendError(resp, 400, "The input " + request + " is not a valid MI data source.");
+                return;
+            }
+            if (interactionWriter == null){
+                getLogger().log(Level.SEVERE, "The interaction writer does not exist and cannot be instantiated.");
+                sendError(resp, 400, "The interaction writer does not exist and cannot be instantiated.");
+                return;
+            }
+
+            // then write while parsing
+            interactions = new CountingIterator(miDataSource.getInteractionsIterator());
+            interactionWriter.start();
+            interactionWriter.write(interactions);
+            interactionWriter.end();
+            interactionWriter.flush();
+            resp.setStatus(200);
+            failed = false;
+        }
+        finally {
+            if (interactionWriter != null){
+                interactionWriter.close();
+            }
+            if (miDataSource != null){
+                try {
+                    miDataSource.close();
+                } catch (MIIOException e) {
+                    getLogger().log(Level.SEVERE, "Cannot close the mi data source " + request + ".", e);
+                }
+            }
+
+            long time = System.currentTimeMillis() - start;
+            long numberOfInteractions = interactions != null ? interactions.getCount() : 0;
+            requestMetrics.recordRequest(time, numberOfInteractions, failed);
+            getLogger().log(Level.INFO, (failed ? "Failed to process " : "Processed ") + request + ": "
+                    + numberOfInteractions + " interactions in " + time + " ms");
+        }
+    }
+
+    /**
+     * Sends the error unless the response is already committed, for instance by the json writer, in which case the error is only logged.
+     */
+    private void sendError(HttpServletResponse resp, int status, String message) throws IOException {
+        if (resp.isCommitted()){
+            getLogger().log(Level.WARNING, "Cannot send the error " + status + " as the response is already committed: " + message);
+        }
+        else {
+            resp.sendError(status, message);
+        }
+    }
+
+    /**
+     * Iterator counting the interactions written
+     */
+    private static class CountingIterator implements Iterator<Interaction>{
+        private final Iterator<? extends Interaction> delegate;
+        private long count;
+
+        private CountingIterator(Iterator<? extends Interaction> delegate) {
+            this.delegate = delegate;
+        }
+
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        public Interaction next() {
+            Interaction interaction = delegate.next();
+            count++;
+            return interaction;
+        }
+
+        public void remove() {
+            delegate.remove();
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package psidev.psi.mi.jami.viewer.servlet;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timing metrics of the requests processed by a servlet.
+ *
+ * It can be updated by concurrent requests.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class RequestMetrics {
+
+    private final AtomicLong numberOfRequests = new AtomicLong();
+    private final AtomicLong numberOfFailedRequests = new AtomicLong();
+    private final AtomicLong numberOfInteractions = new AtomicLong();
+    private final AtomicLong totalTimeInMs = new AtomicLong();
+    private final AtomicLong maxTimeInMs = new AtomicLong();
+
+    /**
+     * Records a processed request
+     * @param timeInMs : the time spent to process the request
+     * @param interactions : the number of interactions written
+     * @param failed : true if the request could not be processed
+     */
+    public void recordRequest(long timeInMs, long interactions, boolean failed){
+        numberOfRequests.incrementAndGet();
+        if (failed){
+            numberOfFailedRequests.incrementAndGet();
+        }
+        numberOfInteractions.addAndGet(interactions);
+        totalTimeInMs.addAndGet(timeInMs);
+
+        long max = maxTimeInMs.get();
+        while (timeInMs > max && !maxTimeInMs.compareAndSet(max, timeInMs)){
+            max = maxTimeInMs.get();
+        }
+    }
+
+    public long getNumberOfRequests() {
+        return numberOfRequests.get();
+    }
+
+    public long getNumberOfFailedRequests() {
+        return numberOfFailedRequests.get();
+    }
+
+    public long getNumberOfInteractions() {
+        return numberOfInteractions.get();
+    }
+
+    public long getTotalTimeInMs() {
+        return totalTimeInMs.get();
+    }
+
+    public long getMaxTimeInMs() {
+        return maxTimeInMs.get();
+    }
+
+    /**
+     *
+     * @return the average time spent to process a request, 0 if no requests have been processed
+     */
+    public long getAverageTimeInMs() {
+        long requests = numberOfRequests.get();
+        return requests > 0 ? totalTimeInMs.get() / requests : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "requests: " + getNumberOfRequests() + ", failed: " + getNumberOfFailedRequests()
+                + ", interactions: " + getNumberOfInteractions() + ", average time: " + getAverageTimeInMs()
+                + " ms, max time: " + getMaxTimeInMs() + " ms";
+    }
+}
@@ -0,0 +1,108 @@
+package psidev.psi.mi.jami.viewer.servlet;
+
+import psidev.psi.mi.jami.bridges.exception.BridgeFailedException;
+import psidev.psi.mi.jami.bridges.fetcher.CachedFetcher;
+import psidev.psi.mi.jami.bridges.fetcher.OntologyTermFetcher;
+import psidev.psi.mi.jami.bridges.fetcher.mock.OntologyTermCompositeFetcher;
+import psidev.psi.mi.jami.bridges.obo.OboOntologyTermFetcher;
+import psidev.psi.mi.jami.bridges.ols.CachedOlsOntologyTermFetcher;
+import psidev.psi.mi.jami.model.CvTerm;
+import psidev.psi.mi.jami.utils.CvTermUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The ontology fetcher shared by all the servlets of the viewer.
+ *
+ * The psi-mi OBO file is parsed only once per JVM, when the first servlet acquires the fetcher, and the fetcher is
+ * shut down when the last servlet releases it. The terms loaded from the OBO file are never modified after loading so the
+ * fetcher can be used by concurrent requests.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SharedOntologyFetcher {
+
+    public final static String MI_FILE_PATH_PROPERTY="psi.mi.obo.path";
+    private static final Logger logger = Logger.getLogger("SharedOntologyFetcher");
+
+    private static OntologyTermFetcher fetcher;
+    private static CachedFetcher cachedFetcher;
+    private static int numberOfUsers = 0;
+
+    private SharedOntologyFetcher(){
+    }
+
+    /**
+     * Loads the ontology fetcher if it is not loaded yet.
+     * Each call must be followed by a call to release when the fetcher is not used anymore.
+     * @return the shared ontology fetcher, null if it cannot be loaded
+     */
+    public static synchronized OntologyTermFetcher acquire(){
+        if (fetcher == null){
+            fetcher = loadFetcher();
+        }
+        numberOfUsers++;
+        return fetcher;
+    }
+
+    /**
+     * Shuts down the fetcher if it is not used anymore.
+     */
+    public static synchronized void release(){
+        if (numberOfUsers > 0){
+            numberOfUsers--;
+        }
+        if (numberOfUsers == 0 && fetcher != null){
+            if (cachedFetcher != null){
+                cachedFetcher.clearCache();
+                cachedFetcher.shutDownCache();
+            }
+            fetcher = null;
+            cachedFetcher = null;
+        }
+    }
+
+    private static OntologyTermFetcher loadFetcher(){
+        Properties prop = new Properties();
+        String path = null;
+        //load a properties file
+        try {
+            InputStream properties = SharedOntologyFetcher.class.getResourceAsStream("/viewer.properties");
+            if (properties != null){
+                try {
+                    prop.load(properties);
+                }
+                finally {
+                    properties.close();
+                }
+            }
+            path = prop.getProperty(MI_FILE_PATH_PROPERTY);
+            if (path == null || path.length() == 0){
+                path = SharedOntologyFetcher.class.getResource("/psi-mi25.obo").getFile();
+            }
+
+            long start = System.currentTimeMillis();
+            OntologyTermCompositeFetcher compositeFetcher = new OntologyTermCompositeFetcher();
+            compositeFetcher.addCvTermFetcher(CvTerm.PSI_MI, new OboOntologyTermFetcher(CvTermUtils.getPsimi(), path));
+            CachedOlsOntologyTermFetcher olsFetcher = new CachedOlsOntologyTermFetcher();
+            compositeFetcher.addCvTermFetcher(CvTerm.PSI_MOD, olsFetcher);
+            cachedFetcher = olsFetcher;
+            logger.log(Level.INFO, "Loaded the psi-mi ontology from " + path + " in " + (System.currentTimeMillis() - start) + " ms");
+            return compositeFetcher;
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "cannot load the property file /viewer.properties where we can find the psi-mi OBO file path. The ontology fetcher will be null.");
+        }catch (BridgeFailedException e) {
+            logger.log(Level.SEVERE, "cannot load the cached ontology manager for PSI-MOD.");
+        }catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "cannot load the psi-mi ontology from the file "+path);
+        }
+        return null;
+    }
+}
@@ -10,7 +10,11 @@ import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.repository.JobRestartException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
+import psidev.psi.mi.jami.batch.partition.AbstractFileRangePartitioner;
+import psidev.psi.mi.jami.batch.partition.PartitionProgress;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -228,6 +232,43 @@ public class MIBatchJobManager {
         return jobOperator.abandon(execution.getId());
     }
 
+    /**
+     * The number of partitions of a partitioned step for a given job name and id
+     * @param jobName
+     * @param jobId
+     * @param stepName : the name of the step executed by each partition
+     * @return 0 if the job does not exist or the step has not been partitioned yet, the number of partitions otherwise
+     */
+    public int getPartitionCount(String jobName, String jobId, String stepName){
+        return getPartitionProgressFor(jobName, jobId, stepName).size();
+    }
+
+    /**
+     * The progress of each partition of a partitioned step for a given job name and id.
+     * The partitions completed by a previous execution of the job are included.
+     * @param jobName
+     * @param jobId
+     * @param stepName : the name of the step executed by each partition
+     * @return the progress of the partitions in the order of the partitions, empty if the job does not exist
+     */
+    public List<PartitionProgress> getPartitionProgressFor(String jobName, String jobId, String stepName){
+        JobExecution execution = findLastJobExecutionFor(jobName, jobId);
+
+        if (execution == null){
+            return Collections.EMPTY_LIST;
+        }
+
+        List<PartitionProgress> partitions = new ArrayList<PartitionProgress>();
+        StepExecution partition = jobRepository.getLastStepExecution(execution.getJobInstance(),
+                AbstractFileRangePartitioner.getPartitionStepName(stepName, 0));
+        while (partition != null){
+            partitions.add(new PartitionProgress(partitions.size(), partition));
+            partition = jobRepository.getLastStepExecution(execution.getJobInstance(),
+                    AbstractFileRangePartitioner.getPartitionStepName(stepName, partitions.size()));
+        }
+        return partitions;
+    }
+
     public void setJobRepository(JobRepository jobRepository) {
         this.jobRepository = jobRepository;
     }
@@ -0,0 +1,128 @@
+package psidev.psi.mi.jami.batch.partition;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Abstract partitioner that splits a file in contiguous byte ranges.
+ *
+ * Each partition execution context contains :
+ * - the index of the partition and the number of partitions
+ * - the end of the file header [0, header end) which must be read by each partition
+ * - the range of the file [range start, range end) read by the partition
+ * - for each output resource, the output of the partition. The output of a partition is the output resource followed by .part and the
+ * index of the partition (file:/path/output.txt.part0). The outputs are merged with a PartitionOutputMergingTasklet.
+ *
+ * The partitions are named partition0, partition1, etc. so the partitioned step executions are named stepName:partition0, stepName:partition1, etc.
+ * The partitions must be the same each time the file is partitioned so a restarted job can restart the partitions which have failed.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public abstract class AbstractFileRangePartitioner implements Partitioner {
+
+    public static final String PARTITION_PREFIX = "partition";
+    public static final String PARTITION_INDEX_KEY = "partition_index";
+    public static final String PARTITION_COUNT_KEY = "partition_count";
+    public static final String HEADER_END_KEY = "partition_header_end";
+    public static final String RANGE_START_KEY = "partition_range_start";
+    public static final String RANGE_END_KEY = "partition_range_end";
+
+    private static final String STEP_NAME_SEPARATOR = ":";
+
+    private static final Log log = LogFactory.getLog(AbstractFileRangePartitioner.class);
+
+    private Resource resource;
+    private Map<String, Resource> outputs;
+
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        if (resource == null){
+            throw new IllegalStateException("The resource to partition must be provided.");
+        }
+
+        List<ExecutionContext> ranges;
+        try {
+            File file = resource.getFile();
+            ranges = splitFile(file, Math.max(1, gridSize));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot partition the resource " + resource.getDescription(), e);
+        }
+
+        Map<String, ExecutionContext> partitions = new LinkedHashMap<String, ExecutionContext>(ranges.size());
+        int index = 0;
+        for (ExecutionContext context : ranges){
+            context.putInt(PARTITION_INDEX_KEY, index);
+            context.putInt(PARTITION_COUNT_KEY, ranges.size());
+            if (outputs != null){
+                for (Map.Entry<String, Resource> output : outputs.entrySet()){
+                    context.putString(output.getKey(), getPartitionOutput(output.getValue(), index));
+                }
+            }
+            partitions.put(PARTITION_PREFIX + index, context);
+            index++;
+        }
+
+        log.info("Split " + resource.getDescription() + " in " + partitions.size() + " partitions");
+        return partitions;
+    }
+
+    /**
+     *
+     * @param stepName : the name of the partitioned step
+     * @param index : the index of the partition
+     * @return the name of the step execution of the partition
+     */
+    public static String getPartitionStepName(String stepName, int index){
+        return stepName + STEP_NAME_SEPARATOR + PARTITION_PREFIX + index;
+    }
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    public void setResource(Resource resource) {
+        this.resource = resource;
+    }
+
+    public Map<String, Resource> getOutputs() {
+        return outputs;
+    }
+
+    /**
+     *
+     * @param outputs : the output resources of the partitioned step. The key is the key of the partition output in the partition execution
+     *                context.
+     */
+    public void setOutputs(Map<String, Resource> outputs) {
+        this.outputs = outputs;
+    }
+
+    /**
+     * Splits the file in at most gridSize contiguous ranges.
+     * Each execution context must contain the RANGE_START_KEY and RANGE_END_KEY and the ranges must be ordered.
+     * @param file : the file to split
+     * @param gridSize : the maximum number of ranges, superior to 0
+     * @return the ordered execution contexts of the ranges
+     * @throws IOException
+     */
+    protected abstract List<ExecutionContext> splitFile(File file, int gridSize) throws IOException;
+
+    private String getPartitionOutput(Resource output, int index) {
+        try {
+            return "file:" + output.getFile().getAbsolutePath() + ".part" + index;
+        } catch (IOException e) {
+            throw new IllegalStateException("The output " + output.getDescription() + " must be a file.", e);
+        }
+    }
+}
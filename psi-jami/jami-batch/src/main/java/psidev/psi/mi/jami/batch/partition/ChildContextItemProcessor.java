@@ -0,0 +1,122 @@
+package psidev.psi.mi.jami.batch.partition;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.beans.BeansException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Item processor delegating to a processor created in its own child application context.
+ *
+ * The child context is created when the processor is opened, from the configuration locations, with the application context of this processor
+ * as parent. Each step execution using this processor (scope="step") has its own copy of the processor and of all the beans defined in
+ * the child context (enrichers for instance) so the partitions of a partitioned step can run concurrently. The beans of the parent context
+ * (fetchers, listeners) are shared.
+ *
+ * The values of the step execution context are exposed as properties of the child context environment so the child configuration can use
+ * ${partition_index} or any partition output when it declares a property placeholder.
+ *
+ * The child contexts are refreshed one at a time because the beans they create can initialise shared resources (caches of the fetchers
+ * for instance) which are not thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ChildContextItemProcessor<I, O> implements ItemProcessor<I, O>, ItemStream, ApplicationContextAware {
+
+    private static final String STEP_EXECUTION_CONTEXT_SOURCE = "stepExecutionContext";
+    private static final Object REFRESH_LOCK = new Object();
+
+    private ApplicationContext parentContext;
+    private String[] configLocations;
+    private String processorName;
+
+    private ClassPathXmlApplicationContext childContext;
+    private ItemProcessor<I, O> delegate;
+
+    public O process(I item) throws Exception {
+        if (this.delegate == null){
+            throw new IllegalStateException("The processor must be opened before processing items.");
+        }
+        return this.delegate.process(item);
+    }
+
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        if (configLocations == null || processorName == null){
+            throw new IllegalStateException("The configuration locations and the name of the processor must be provided.");
+        }
+
+        Map<String, Object> properties = new HashMap<String, Object>();
+        for (Map.Entry<String, Object> entry : executionContext.entrySet()){
+            properties.put(entry.getKey(), entry.getValue());
+        }
+
+        try {
+            this.childContext = new ClassPathXmlApplicationContext(configLocations, false, parentContext);
+            this.childContext.getEnvironment().getPropertySources().addFirst(new MapPropertySource(STEP_EXECUTION_CONTEXT_SOURCE, properties));
+            synchronized (REFRESH_LOCK){
+                this.childContext.refresh();
+            }
+            this.delegate = this.childContext.getBean(processorName, ItemProcessor.class);
+        }
+        catch (BeansException e){
+            close();
+            throw new ItemStreamException("Cannot create the processor " + processorName, e);
+        }
+
+        if (this.delegate instanceof ItemStream){
+            ((ItemStream) this.delegate).open(executionContext);
+        }
+    }
+
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (this.delegate instanceof ItemStream){
+            ((ItemStream) this.delegate).update(executionContext);
+        }
+    }
+
+    public void close() throws ItemStreamException {
+        try {
+            if (this.delegate instanceof ItemStream){
+                ((ItemStream) this.delegate).close();
+            }
+        }
+        finally {
+            if (this.childContext != null){
+                this.childContext.close();
+            }
+            this.childContext = null;
+            this.delegate = null;
+        }
+    }
+
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        this.parentContext = applicationContext;
+    }
+
+    public String[] getConfigLocations() {
+        return configLocations;
+    }
+
+    public void setConfigLocations(String[] configLocations) {
+        this.configLocations = configLocations;
+    }
+
+    public String getProcessorName() {
+        return processorName;
+    }
+
+    public void setProcessorName(String processorName) {
+        this.processorName = processorName;
+    }
+}
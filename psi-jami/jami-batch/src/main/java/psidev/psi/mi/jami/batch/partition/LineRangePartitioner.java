@@ -0,0 +1,133 @@
+package psidev.psi.mi.jami.batch.partition;
+
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Partitioner that splits a text file in ranges of lines having approximately the same size.
+ *
+ * The header of the file is made of the lines starting with the comment prefix (# by default) and the empty lines which are
+ * at the beginning of the file. The ranges start after the header and always start at the beginning of a line so each line is read by one
+ * partition only.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class LineRangePartitioner extends AbstractFileRangePartitioner {
+
+    private String commentPrefix = "#";
+
+    @Override
+    protected List<ExecutionContext> splitFile(File file, int gridSize) throws IOException {
+        long fileLength = file.length();
+        long headerEnd = findHeaderEnd(file, commentPrefix);
+        long rangeSize = (fileLength - headerEnd) / gridSize;
+
+        List<ExecutionContext> ranges = new ArrayList<ExecutionContext>(gridSize);
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            long start = headerEnd;
+            for (int i = 1; i <= gridSize && start < fileLength; i++){
+                long end = i == gridSize ? fileLength : findNextLine(randomAccessFile, Math.max(start, headerEnd + i * rangeSize));
+                if (end > start){
+                    ExecutionContext context = new ExecutionContext();
+                    context.putLong(HEADER_END_KEY, headerEnd);
+                    context.putLong(RANGE_START_KEY, start);
+                    context.putLong(RANGE_END_KEY, end);
+                    ranges.add(context);
+                    start = end;
+                }
+            }
+        }
+        finally {
+            randomAccessFile.close();
+        }
+
+        // empty file or file with a header only
+        if (ranges.isEmpty()){
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(HEADER_END_KEY, headerEnd);
+            context.putLong(RANGE_START_KEY, headerEnd);
+            context.putLong(RANGE_END_KEY, fileLength);
+            ranges.add(context);
+        }
+        return ranges;
+    }
+
+    public String getCommentPrefix() {
+        return commentPrefix;
+    }
+
+    public void setCommentPrefix(String commentPrefix) {
+        this.commentPrefix = commentPrefix;
+    }
+
+    /**
+     *
+     * @param file
+     * @param commentPrefix : the prefix of the comment lines, can be null if the file does not have comments
+     * @return the position of the first line which is not empty and is not a comment
+     * @throws IOException
+     */
+    static long findHeaderEnd(File file, String commentPrefix) throws IOException {
+        byte[] prefix = commentPrefix != null ? commentPrefix.getBytes() : new byte[0];
+        InputStream stream = new BufferedInputStream(new FileInputStream(file), 64 * 1024);
+        try {
+            long lineStart = 0;
+            long position = 0;
+            int matched = 0;
+            boolean comment = false;
+            int c;
+            while ((c = stream.read()) != -1){
+                position++;
+                if (c == '\n'){
+                    lineStart = position;
+                    matched = 0;
+                    comment = false;
+                }
+                else if (!comment && c != '\r'){
+                    if (matched < prefix.length && c == prefix[matched]){
+                        matched++;
+                        comment = matched == prefix.length;
+                    }
+                    else {
+                        return lineStart;
+                    }
+                }
+            }
+            return position;
+        }
+        finally {
+            stream.close();
+        }
+    }
+
+    /**
+     *
+     * @return the position of the beginning of the line following the position, the file length if there are no more lines
+     */
+    private long findNextLine(RandomAccessFile randomAccessFile, long position) throws IOException {
+        if (position == 0){
+            return 0;
+        }
+        // the position can be the start of a line
+        randomAccessFile.seek(position - 1);
+        byte[] buffer = new byte[8 * 1024];
+        long bufferStart = position - 1;
+        int read;
+        while ((read = randomAccessFile.read(buffer)) != -1){
+            for (int i = 0; i < read; i++){
+                if (buffer[i] == '\n'){
+                    return bufferStart + i + 1;
+                }
+            }
+            bufferStart += read;
+        }
+        return randomAccessFile.length();
+    }
+}
@@ -0,0 +1,19 @@
+package psidev.psi.mi.jami.batch.partition;
+
+/**
+ * Format of the partition outputs merged by a PartitionOutputMergingTasklet
+ *
+ * - text : the outputs are concatenated
+ * - mitab : the outputs are concatenated and the header lines (starting with #) of the outputs following the first one are removed
+ * - csv : the outputs are concatenated and the first line (column names) of the outputs following the first one is removed
+ * - psimi_xml : the entries of the outputs are merged in one entrySet. Each partition output keeps its own entries so the merged entrySet
+ * contains at least one entry per partition, each having its own id space (the ids are only unique within an entry)
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public enum PartitionOutputFormat {
+    text, mitab, csv, psimi_xml
+}
@@ -0,0 +1,337 @@
+package psidev.psi.mi.jami.batch.partition;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This tasklet merges the outputs of the partitions of a partitioned step in the order of the partitions.
+ *
+ * The partition step executions are loaded from the job repository so the outputs of the partitions which have been completed by a previous
+ * execution of the job are merged as well. The output of each partition is read from the partition execution context with the output key
+ * (see AbstractFileRangePartitioner). Several outputs having the same format can be merged by the same tasklet (see setOutputs).
+ *
+ * PSI-XML outputs are not rewritten : the entries of all the partitions are copied in one entrySet, so an experiment or an interactor
+ * used by several partitions is written in the entry of each partition.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class PartitionOutputMergingTasklet implements Tasklet {
+
+    private static final Log log = LogFactory.getLog(PartitionOutputMergingTasklet.class);
+
+    private static final byte[] ENTRY_START = "<entry".getBytes();
+    private static final byte[] ENTRY_SET_END = "</entrySet".getBytes();
+    private static final byte[] NEW_LINE = "\n".getBytes();
+
+    private JobRepository jobRepository;
+    private String partitionStepName;
+    private String outputKey;
+    private Resource output;
+    private Map<String, Resource> outputs;
+    private PartitionOutputFormat format = PartitionOutputFormat.text;
+    private boolean deletePartitionOutputs = true;
+    private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    public RepeatStatus execute(StepContribution stepContribution, ChunkContext chunkContext) throws Exception {
+        Map<String, Resource> outputsToMerge = new LinkedHashMap<String, Resource>();
+        if (outputKey != null && output != null){
+            outputsToMerge.put(outputKey, output);
+        }
+        if (outputs != null){
+            outputsToMerge.putAll(outputs);
+        }
+        if (jobRepository == null || partitionStepName == null || outputsToMerge.isEmpty()){
+            throw new IllegalStateException("The job repository, the partitioned step name and the outputs must be provided.");
+        }
+
+        JobInstance jobInstance = chunkContext.getStepContext().getStepExecution().getJobExecution().getJobInstance();
+        for (Map.Entry<String, Resource> outputToMerge : outputsToMerge.entrySet()){
+            mergePartitionOutputs(jobInstance, outputToMerge.getKey(), outputToMerge.getValue());
+        }
+
+        return RepeatStatus.FINISHED;
+    }
+
+
+    public JobRepository getJobRepository() {
+        return jobRepository;
+    }
+
+    public void setJobRepository(JobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    public String getPartitionStepName() {
+        return partitionStepName;
+    }
+
+    /**
+     *
+     * @param partitionStepName : the name of the step executed by each partition
+     */
+    public void setPartitionStepName(String partitionStepName) {
+        this.partitionStepName = partitionStepName;
+    }
+
+    public String getOutputKey() {
+        return outputKey;
+    }
+
+    /**
+     *
+     * @param outputKey : the key of the partition output in the partition execution contexts
+     */
+    public void setOutputKey(String outputKey) {
+        this.outputKey = outputKey;
+    }
+
+    public Resource getOutput() {
+        return output;
+    }
+
+    public void setOutput(Resource output) {
+        this.output = output;
+    }
+
+    public Map<String, Resource> getOutputs() {
+        return outputs;
+    }
+
+    /**
+     *
+     * @param outputs : the outputs to merge in addition to the output. The key is the key of the partition output in the
+     *                partition execution contexts
+     */
+    public void setOutputs(Map<String, Resource> outputs) {
+        this.outputs = outputs;
+    }
+
+    public PartitionOutputFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(PartitionOutputFormat format) {
+        this.format = format != null ? format : PartitionOutputFormat.text;
+    }
+
+    public boolean isDeletePartitionOutputs() {
+        return deletePartitionOutputs;
+    }
+
+    public void setDeletePartitionOutputs(boolean deletePartitionOutputs) {
+        this.deletePartitionOutputs = deletePartitionOutputs;
+    }
+
+    private void mergePartitionOutputs(JobInstance jobInstance, String partitionOutputKey, Resource output) throws IOException {
+        List<File> partitionOutputs = collectPartitionOutputs(jobInstance, partitionOutputKey);
+
+        File outputFile = output.getFile();
+        FileOutputStream outputStream = new FileOutputStream(outputFile, false);
+        try {
+            FileChannel outputChannel = outputStream.getChannel();
+            boolean endsWithNewLine = true;
+            for (int i = 0; i < partitionOutputs.size(); i++){
+                endsWithNewLine = appendPartitionOutput(partitionOutputs.get(i), i == 0, i == partitionOutputs.size() - 1, outputChannel,
+                        endsWithNewLine);
+            }
+        }
+        finally {
+            outputStream.close();
+        }
+        log.info("Merged " + partitionOutputs.size() + " partition outputs in " + output.getDescription());
+
+        if (deletePartitionOutputs){
+            for (File partitionOutput : partitionOutputs){
+                if (!partitionOutput.delete()){
+                    log.warn("Cannot delete the partition output " + partitionOutput);
+                }
+            }
+        }
+    }
+
+    private List<File> collectPartitionOutputs(JobInstance jobInstance, String partitionOutputKey) throws IOException {
+        List<File> partitionOutputs = new ArrayList<File>();
+        StepExecution partition = jobRepository.getLastStepExecution(jobInstance,
+                AbstractFileRangePartitioner.getPartitionStepName(partitionStepName, 0));
+        while (partition != null){
+            if (partition.getStatus() != BatchStatus.COMPLETED){
+                throw new IllegalStateException("The partition " + partition.getStepName() + " is not completed: " + partition.getStatus());
+            }
+            if (!partition.getExecutionContext().containsKey(partitionOutputKey)){
+                throw new IllegalStateException("The partition " + partition.getStepName() + " does not have any output " + partitionOutputKey);
+            }
+            partitionOutputs.add(resourceLoader.getResource(partition.getExecutionContext().getString(partitionOutputKey)).getFile());
+
+            partition = jobRepository.getLastStepExecution(jobInstance,
+                    AbstractFileRangePartitioner.getPartitionStepName(partitionStepName, partitionOutputs.size()));
+        }
+        return partitionOutputs;
+    }
+
+    /**
+     *
+     * @return true if the merged output ends with a new line after appending the partition output
+     */
+    private boolean appendPartitionOutput(File partitionOutput, boolean first, boolean last, FileChannel outputChannel,
+                                          boolean endsWithNewLine) throws IOException {
+        if (!partitionOutput.exists()){
+            log.warn("The partition output " + partitionOutput + " does not exist");
+            return endsWithNewLine;
+        }
+        long start = 0;
+        long end = partitionOutput.length();
+        switch (format){
+            case mitab:
+                if (!first){
+                    start = LineRangePartitioner.findHeaderEnd(partitionOutput, "#");
+                }
+                break;
+            case csv:
+                if (!first){
+                    start = findNextLine(partitionOutput);
+                }
+                break;
+            case psimi_xml:
+                if (!first){
+                    start = findFirstEntry(partitionOutput);
+                }
+                if (!last){
+                    end = findLast(partitionOutput, ENTRY_SET_END);
+                }
+                break;
+            default:
+                break;
+        }
+        if (start < 0 || end < 0 || start > end){
+            throw new IllegalStateException("Cannot merge the partition output " + partitionOutput);
+        }
+
+        if (start == end){
+            return endsWithNewLine;
+        }
+        // csv files do not always end with a new line
+        if (format == PartitionOutputFormat.csv && !endsWithNewLine){
+            outputChannel.write(ByteBuffer.wrap(NEW_LINE));
+        }
+        RandomAccessFile input = new RandomAccessFile(partitionOutput, "r");
+        try {
+            FileChannel inputChannel = input.getChannel();
+            long position = start;
+            while (position < end){
+                position += inputChannel.transferTo(position, end - position, outputChannel);
+            }
+            input.seek(end - 1);
+            return input.read() == '\n';
+        }
+        finally {
+            input.close();
+        }
+    }
+
+    /**
+     *
+     * @return the position of the beginning of the second line, the file length if the file has only one line
+     */
+    private long findNextLine(File file) throws IOException {
+        InputStream stream = new BufferedInputStream(new FileInputStream(file), 64 * 1024);
+        try {
+            long position = 0;
+            int c;
+            while ((c = stream.read()) != -1){
+                position++;
+                if (c == '\n'){
+                    return position;
+                }
+            }
+            return position;
+        }
+        finally {
+            stream.close();
+        }
+    }
+
+    /**
+     *
+     * @return the position of the first entry start tag (and not entrySet), -1 if there is no entry
+     */
+    private long findFirstEntry(File file) throws IOException {
+        InputStream stream = new BufferedInputStream(new FileInputStream(file), 64 * 1024);
+        try {
+            long position = 0;
+            int matched = 0;
+            int c;
+            while ((c = stream.read()) != -1){
+                if (matched == ENTRY_START.length){
+                    if (c == '>' || Character.isWhitespace(c)){
+                        return position - ENTRY_START.length;
+                    }
+                    matched = 0;
+                }
+                if (c == ENTRY_START[matched]){
+                    matched++;
+                }
+                else {
+                    matched = c == ENTRY_START[0] ? 1 : 0;
+                }
+                position++;
+            }
+            return -1;
+        }
+        finally {
+            stream.close();
+        }
+    }
+
+    /**
+     *
+     * @return the position of the last occurrence of the pattern, -1 if the pattern is not found
+     */
+    private long findLast(File file, byte[] pattern) throws IOException {
+        InputStream stream = new BufferedInputStream(new FileInputStream(file), 64 * 1024);
+        try {
+            long last = -1;
+            long position = 0;
+            int matched = 0;
+            int c;
+            while ((c = stream.read()) != -1){
+                if (c == pattern[matched]){
+                    matched++;
+                    if (matched == pattern.length){
+                        last = position - pattern.length + 1;
+                        matched = 0;
+                    }
+                }
+                else {
+                    matched = c == pattern[0] ? 1 : 0;
+                }
+                position++;
+            }
+            return last;
+        }
+        finally {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package psidev.psi.mi.jami.batch.partition;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.StepExecution;
+
+/**
+ * Progress of a partition of a partitioned step
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class PartitionProgress {
+
+    private final int index;
+    private final String stepName;
+    private final BatchStatus status;
+    private final int readCount;
+    private final int writeCount;
+    private final int skipCount;
+    private final int commitCount;
+
+    public PartitionProgress(int index, StepExecution stepExecution) {
+        if (stepExecution == null){
+            throw new IllegalArgumentException("The step execution of a partition cannot be null");
+        }
+        this.index = index;
+        this.stepName = stepExecution.getStepName();
+        this.status = stepExecution.getStatus();
+        this.readCount = stepExecution.getReadCount();
+        this.writeCount = stepExecution.getWriteCount();
+        this.skipCount = stepExecution.getSkipCount();
+        this.commitCount = stepExecution.getCommitCount();
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getStepName() {
+        return stepName;
+    }
+
+    public BatchStatus getStatus() {
+        return status;
+    }
+
+    public int getReadCount() {
+        return readCount;
+    }
+
+    public int getWriteCount() {
+        return writeCount;
+    }
+
+    public int getSkipCount() {
+        return skipCount;
+    }
+
+    public int getCommitCount() {
+        return commitCount;
+    }
+
+    @Override
+    public String toString() {
+        return stepName + " (" + status + "): " + readCount + " read, " + writeCount + " written, " + skipCount + " skipped";
+    }
+}
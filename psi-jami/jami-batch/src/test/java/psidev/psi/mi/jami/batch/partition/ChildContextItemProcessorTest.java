@@ -0,0 +1,74 @@
+package psidev.psi.mi.jami.batch.partition;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamException;
+
+/**
+ * Unit tester for ChildContextItemProcessor
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ChildContextItemProcessorTest {
+
+    @Test
+    public void test_each_partition_has_its_own_processor() throws Exception {
+        ChildContextItemProcessor<String, String> processor0 = createProcessor("suffixProcessor");
+        ChildContextItemProcessor<String, String> processor1 = createProcessor("suffixProcessor");
+        processor0.open(createPartitionContext(0));
+        processor1.open(createPartitionContext(1));
+        try {
+            Assert.assertEquals("item0", processor0.process("item"));
+            Assert.assertEquals("item1", processor1.process("item"));
+        }
+        finally {
+            processor0.close();
+            processor1.close();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_process_after_close() throws Exception {
+        ChildContextItemProcessor<String, String> processor = createProcessor("suffixProcessor");
+        processor.open(createPartitionContext(0));
+        processor.close();
+        processor.process("item");
+    }
+
+    @Test(expected = ItemStreamException.class)
+    public void test_unknown_processor() throws Exception {
+        ChildContextItemProcessor<String, String> processor = createProcessor("unknownProcessor");
+        processor.open(createPartitionContext(0));
+    }
+
+    private ChildContextItemProcessor<String, String> createProcessor(String processorName){
+        ChildContextItemProcessor<String, String> processor = new ChildContextItemProcessor<String, String>();
+        processor.setConfigLocations(new String[]{"META-INF/child-processor-spring.xml"});
+        processor.setProcessorName(processorName);
+        return processor;
+    }
+
+    private ExecutionContext createPartitionContext(int index){
+        ExecutionContext context = new ExecutionContext();
+        context.putInt(AbstractFileRangePartitioner.PARTITION_INDEX_KEY, index);
+        return context;
+    }
+
+    public static class SuffixItemProcessor implements ItemProcessor<String, String> {
+
+        private String suffix;
+
+        public SuffixItemProcessor(String suffix) {
+            this.suffix = suffix;
+        }
+
+        public String process(String item) throws Exception {
+            return item + suffix;
+        }
+    }
+}
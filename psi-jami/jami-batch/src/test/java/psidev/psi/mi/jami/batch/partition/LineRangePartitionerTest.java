@@ -0,0 +1,126 @@
+package psidev.psi.mi.jami.batch.partition;
+
+import junit.framework.Assert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.*;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Unit tester for LineRangePartitioner
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class LineRangePartitionerTest {
+
+    private File file;
+    private File output;
+
+    @Before
+    public void createFiles() throws IOException {
+        this.file = File.createTempFile("partitioner", ".txt");
+        this.output = File.createTempFile("partitioner", ".out");
+    }
+
+    @After
+    public void deleteFiles(){
+        this.file.delete();
+        this.output.delete();
+    }
+
+    @Test
+    public void test_ranges_start_at_lines_and_cover_the_file() throws IOException {
+        StringBuilder content = new StringBuilder("#header 1\n\n#header 2\n");
+        for (int i = 0; i < 100; i++){
+            content.append("line ").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        write(content.toString());
+
+        Map<String, ExecutionContext> partitions = createPartitioner().partition(4);
+        Assert.assertEquals(4, partitions.size());
+
+        long headerEnd = "#header 1\n\n#header 2\n".length();
+        long start = headerEnd;
+        int index = 0;
+        byte[] bytes = content.toString().getBytes();
+        for (Map.Entry<String, ExecutionContext> partition : partitions.entrySet()){
+            ExecutionContext context = partition.getValue();
+            Assert.assertEquals(AbstractFileRangePartitioner.PARTITION_PREFIX + index, partition.getKey());
+            Assert.assertEquals(index, context.getInt(AbstractFileRangePartitioner.PARTITION_INDEX_KEY));
+            Assert.assertEquals(4, context.getInt(AbstractFileRangePartitioner.PARTITION_COUNT_KEY));
+            Assert.assertEquals(headerEnd, context.getLong(AbstractFileRangePartitioner.HEADER_END_KEY));
+            Assert.assertEquals("file:" + output.getAbsolutePath() + ".part" + index, context.getString("partition_output"));
+
+            long rangeStart = context.getLong(AbstractFileRangePartitioner.RANGE_START_KEY);
+            long rangeEnd = context.getLong(AbstractFileRangePartitioner.RANGE_END_KEY);
+            Assert.assertEquals(start, rangeStart);
+            Assert.assertTrue(rangeEnd > rangeStart);
+            Assert.assertEquals('\n', bytes[(int) rangeStart - 1]);
+            start = rangeEnd;
+            index++;
+        }
+        Assert.assertEquals(file.length(), start);
+    }
+
+    @Test
+    public void test_less_lines_than_partitions() throws IOException {
+        write("#header\nline 1\nline 2\n");
+
+        Map<String, ExecutionContext> partitions = createPartitioner().partition(4);
+        Assert.assertEquals(2, partitions.size());
+        Assert.assertEquals(8, partitions.get("partition0").getLong(AbstractFileRangePartitioner.RANGE_START_KEY));
+        Assert.assertEquals(15, partitions.get("partition0").getLong(AbstractFileRangePartitioner.RANGE_END_KEY));
+        Assert.assertEquals(15, partitions.get("partition1").getLong(AbstractFileRangePartitioner.RANGE_START_KEY));
+        Assert.assertEquals(22, partitions.get("partition1").getLong(AbstractFileRangePartitioner.RANGE_END_KEY));
+    }
+
+    @Test
+    public void test_line_without_line_end() throws IOException {
+        write("line 1\nline 2");
+
+        Map<String, ExecutionContext> partitions = createPartitioner().partition(2);
+        Assert.assertEquals(2, partitions.size());
+        Assert.assertEquals(0, partitions.get("partition0").getLong(AbstractFileRangePartitioner.RANGE_START_KEY));
+        Assert.assertEquals(7, partitions.get("partition0").getLong(AbstractFileRangePartitioner.RANGE_END_KEY));
+        Assert.assertEquals(7, partitions.get("partition1").getLong(AbstractFileRangePartitioner.RANGE_START_KEY));
+        Assert.assertEquals(13, partitions.get("partition1").getLong(AbstractFileRangePartitioner.RANGE_END_KEY));
+    }
+
+    @Test
+    public void test_header_only() throws IOException {
+        write("#header 1\n#header 2\n");
+
+        Map<String, ExecutionContext> partitions = createPartitioner().partition(4);
+        Assert.assertEquals(1, partitions.size());
+        ExecutionContext context = partitions.get("partition0");
+        Assert.assertEquals(20, context.getLong(AbstractFileRangePartitioner.HEADER_END_KEY));
+        Assert.assertEquals(20, context.getLong(AbstractFileRangePartitioner.RANGE_START_KEY));
+        Assert.assertEquals(20, context.getLong(AbstractFileRangePartitioner.RANGE_END_KEY));
+    }
+
+    private LineRangePartitioner createPartitioner(){
+        LineRangePartitioner partitioner = new LineRangePartitioner();
+        partitioner.setResource(new FileSystemResource(file));
+        partitioner.setOutputs(Collections.<String, Resource>singletonMap("partition_output", new FileSystemResource(output)));
+        return partitioner;
+    }
+
+    private void write(String content) throws IOException {
+        Writer writer = new FileWriter(file);
+        try {
+            writer.write(content);
+        }
+        finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package psidev.psi.mi.jami.batch.partition;
+
+import junit.framework.Assert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.MapJobRepositoryFactoryBean;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Unit tester for PartitionOutputMergingTasklet
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class PartitionOutputMergingTaskletTest {
+
+    private static final String PARTITION_STEP = "partitionStep";
+    private static final String OUTPUT_KEY = "partition_output";
+
+    private JobRepository jobRepository;
+    private JobExecution jobExecution;
+    private List<File> files = new ArrayList<File>();
+
+    @Before
+    public void createJobExecution() throws Exception {
+        MapJobRepositoryFactoryBean factory = new MapJobRepositoryFactoryBean();
+        factory.afterPropertiesSet();
+        this.jobRepository = (JobRepository) factory.getObject();
+        JobParameters parameters = new JobParametersBuilder().addLong("time", System.nanoTime()).toJobParameters();
+        this.jobExecution = this.jobRepository.createJobExecution("mergingJob", parameters);
+    }
+
+    @After
+    public void deleteFiles(){
+        for (File file : files){
+            file.delete();
+        }
+    }
+
+    @Test
+    public void test_merge_mitab_outputs() throws Exception {
+        String header = "#ID(s) interactor A\tID(s) interactor B\n";
+        File output = createFile("merged", ".txt");
+        File partition0 = addPartition(0, OUTPUT_KEY, header + "uniprotkb:P1\tuniprotkb:P2\n");
+        File partition1 = addPartition(1, OUTPUT_KEY, header);
+        File partition2 = addPartition(2, OUTPUT_KEY, header + "uniprotkb:P3\tuniprotkb:P4\r\nuniprotkb:P5\tuniprotkb:P6\n");
+
+        PartitionOutputMergingTasklet tasklet = createTasklet(PartitionOutputFormat.mitab);
+        tasklet.setOutputKey(OUTPUT_KEY);
+        tasklet.setOutput(new FileSystemResource(output));
+        tasklet.execute(null, createChunkContext());
+
+        Assert.assertEquals(header + "uniprotkb:P1\tuniprotkb:P2\nuniprotkb:P3\tuniprotkb:P4\r\nuniprotkb:P5\tuniprotkb:P6\n", read(output));
+        Assert.assertFalse(partition0.exists());
+        Assert.assertFalse(partition1.exists());
+        Assert.assertFalse(partition2.exists());
+    }
+
+    @Test
+    public void test_merge_xml_outputs() throws Exception {
+        String start = "<?xml version='1.0' encoding='UTF-8'?>\n<entrySet xmlns=\"http://psi.hupo.org/mi/mif\" level=\"2\" version=\"5\" minorVersion=\"4\">\n";
+        String end = "</entrySet>\n";
+        File output = createFile("merged", ".xml");
+        addPartition(0, OUTPUT_KEY, start + createEntry(1, 2) + end);
+        addPartition(1, OUTPUT_KEY, start + createEntry(3) + createEntry(4) + end);
+        addPartition(2, OUTPUT_KEY, start + "  <entry>\n    <interactionList/>\n  </entry>\n" + end);
+
+        PartitionOutputMergingTasklet tasklet = createTasklet(PartitionOutputFormat.psimi_xml);
+        tasklet.setOutputKey(OUTPUT_KEY);
+        tasklet.setOutput(new FileSystemResource(output));
+        tasklet.execute(null, createChunkContext());
+
+        // the entries of the following partitions are copied from their start tag
+        Assert.assertEquals(start + createEntry(1, 2) + createEntry(3).trim() + "\n" + createEntry(4) + "<entry>\n    <interactionList/>\n  </entry>\n" + end,
+                read(output));
+
+        // one entrySet, each partition keeps its own entries having their own ids
+        XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new FileInputStream(output));
+        int entrySets = 0;
+        int entries = 0;
+        List<String> interactionIds = new ArrayList<String>();
+        while (reader.hasNext()){
+            if (reader.next() == XMLStreamConstants.START_ELEMENT){
+                if (reader.getLocalName().equals("entrySet")){
+                    entrySets++;
+                }
+                else if (reader.getLocalName().equals("entry")){
+                    entries++;
+                }
+                else if (reader.getLocalName().equals("interaction")){
+                    interactionIds.add(reader.getAttributeValue(null, "id"));
+                }
+            }
+        }
+        reader.close();
+        Assert.assertEquals(1, entrySets);
+        Assert.assertEquals(4, entries);
+        Assert.assertEquals(4, interactionIds.size());
+        Assert.assertEquals("1", interactionIds.get(0));
+        Assert.assertEquals("1", interactionIds.get(2));
+    }
+
+    @Test
+    public void test_merge_several_csv_outputs() throws Exception {
+        File statistics = createFile("statistics", ".csv");
+        File mapping = createFile("mapping", ".csv");
+        // the first statistics file ends with a new line, the second does not
+        addPartition(0, "partition_statistics", "Object\tStatus\nP1\tsuccess\n", "partition_mapping", "Protein\tStatus\nP1\tSuccess");
+        addPartition(1, "partition_statistics", "Object\tStatus\n", "partition_mapping", "Protein\tStatus");
+        addPartition(2, "partition_statistics", "Object\tStatus\nP2\tfailed\n", "partition_mapping", "Protein\tStatus\nP2\tFailed");
+
+        Map<String, Resource> outputs = new TreeMap<String, Resource>();
+        outputs.put("partition_statistics", new FileSystemResource(statistics));
+        outputs.put("partition_mapping", new FileSystemResource(mapping));
+        PartitionOutputMergingTasklet tasklet = createTasklet(PartitionOutputFormat.csv);
+        tasklet.setOutputs(outputs);
+        tasklet.execute(null, createChunkContext());
+
+        Assert.assertEquals("Object\tStatus\nP1\tsuccess\nP2\tfailed\n", read(statistics));
+        Assert.assertEquals("Protein\tStatus\nP1\tSuccess\nP2\tFailed", read(mapping));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_merge_failed_partition() throws Exception {
+        File output = createFile("merged", ".txt");
+        addPartition(0, OUTPUT_KEY, "line 1\n");
+        StepExecution failed = jobExecution.createStepExecution(AbstractFileRangePartitioner.getPartitionStepName(PARTITION_STEP, 1));
+        failed.getExecutionContext().putString(OUTPUT_KEY, "file:" + createFile("partition", ".part1").getAbsolutePath());
+        jobRepository.add(failed);
+        failed.setStatus(BatchStatus.FAILED);
+        jobRepository.update(failed);
+
+        PartitionOutputMergingTasklet tasklet = createTasklet(PartitionOutputFormat.text);
+        tasklet.setOutputKey(OUTPUT_KEY);
+        tasklet.setOutput(new FileSystemResource(output));
+        tasklet.execute(null, createChunkContext());
+    }
+
+    private PartitionOutputMergingTasklet createTasklet(PartitionOutputFormat format){
+        PartitionOutputMergingTasklet tasklet = new PartitionOutputMergingTasklet();
+        tasklet.setJobRepository(jobRepository);
+        tasklet.setPartitionStepName(PARTITION_STEP);
+        tasklet.setFormat(format);
+        return tasklet;
+    }
+
+    private ChunkContext createChunkContext(){
+        return new ChunkContext(new StepContext(jobExecution.createStepExecution("mergeStep")));
+    }
+
+    /**
+     * Adds a completed partition having the outputs
+     * @param index : index of the partition
+     * @param outputs : key of the output followed by the content of the output
+     * @return the output of the partition
+     */
+    private File addPartition(int index, String ... outputs) throws IOException {
+        StepExecution partition = jobExecution.createStepExecution(AbstractFileRangePartitioner.getPartitionStepName(PARTITION_STEP, index));
+        File partitionOutput = null;
+        for (int i = 0; i < outputs.length; i += 2){
+            partitionOutput = createFile("partition", ".part" + index);
+            write(partitionOutput, outputs[i + 1]);
+            partition.getExecutionContext().putString(outputs[i], "file:" + partitionOutput.getAbsolutePath());
+        }
+        jobRepository.add(partition);
+        partition.setStatus(BatchStatus.COMPLETED);
+        jobRepository.update(partition);
+        jobRepository.updateExecutionContext(partition);
+        return partitionOutput;
+    }
+
+    private String createEntry(int ... interactionIds){
+        StringBuilder entry = new StringBuilder("  <entry>\n    <interactionList>\n");
+        for (int i = 0; i < interactionIds.length; i++){
+            entry.append("      <interaction id=\"").append(i + 1).append("\"><names><shortLabel>interaction ")
+                    .append(interactionIds[i]).append("</shortLabel></names></interaction>\n");
+        }
+        return entry.append("    </interactionList>\n  </entry>\n").toString();
+    }
+
+    private File createFile(String prefix, String suffix) throws IOException {
+        File file = File.createTempFile(prefix, suffix);
+        files.add(file);
+        return file;
+    }
+
+    private void write(File file, String content) throws IOException {
+        Writer writer = new FileWriter(file);
+        try {
+            writer.write(content);
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    private String read(File file) throws IOException {
+        Reader reader = new FileReader(file);
+        try {
+            StringBuilder content = new StringBuilder();
+            char[] buffer = new char[1024];
+            int read;
+            while ((read = reader.read(buffer)) != -1){
+                content.append(buffer, 0, read);
+            }
+            return content.toString();
+        }
+        finally {
+            reader.close();
+        }
+    }
+}
@@ -1,14 +1,16 @@
 package psidev.psi.mi.jami.bridges.fetcher;
 
-import net.sf.ehcache.Cache;
-import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.Element;
-
-import java.net.URL;
+import psidev.psi.mi.jami.bridges.fetcher.cache.EhcacheFetcherCache;
+import psidev.psi.mi.jami.bridges.fetcher.cache.FetcherCache;
+import psidev.psi.mi.jami.bridges.fetcher.cache.FetcherCacheStatistics;
 
 /**
  * Abstract class for fetchers
  *
+ * The results of the queries are kept in a FetcherCache. By default, it is an EHCache cache (see EhcacheFetcherCache)
+ * but it can be replaced with setCache, for instance with an InMemoryFetcherCache which also keeps the negative results.
+ * The subclasses should look up the cache with lookupCache so the statistics of the cache (hits, misses and load time) are recorded.
+ *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  * @version $Id$
  * @since <pre>09/09/13</pre>
@@ -16,10 +18,15 @@ import java.net.URL;
 
 public abstract class AbstractCachedFetcher implements CachedFetcher{
 
-    private Cache cache;
-    private static CacheManager cacheManager;
+    private FetcherCache cache;
+    private FetcherCacheStatistics cacheStatistics = new FetcherCacheStatistics();
+    private ThreadLocal<Long> loadStartTime = new ThreadLocal<Long>();
 
     public static final String EHCACHE_CONFIG_FILE = "/service.ehcache.xml";
+    /**
+     * The value returned by lookupCache when the key is not in the cache
+     */
+    protected static final Object NOT_CACHED = FetcherCache.NOT_CACHED;
     private String cacheName;
 
     public AbstractCachedFetcher(String cacheName) {
@@ -38,36 +45,69 @@ public abstract class AbstractCachedFetcher implements CachedFetcher{
     }
 
     public void initialiseCache(String settingsFile) {
-        URL url = getClass().getResource( settingsFile );
-        cacheManager =  CacheManager.create( url );
-        if(! cacheManager.cacheExists(cacheName))
-            cacheManager.addCache(cacheName);
-        this.cache = cacheManager.getCache(cacheName);
-        if( cache == null ) throw new IllegalStateException( "Could not load cache" );
+        this.cache = new EhcacheFetcherCache(cacheName, settingsFile);
     }
 
-
     public Object getFromCache( String key ) {
-        Object data = null;
-        Element element = cache.get( key );
-        if( element != null ){
-            //if( log.isTraceEnabled() ) log.trace("getting key: "+key);
-            data = element.getObjectValue();
-        }
-        return data;
+        Object data = lookupCache(key);
+        return data != NOT_CACHED ? data : null;
     }
 
     public void storeInCache( String key, Object data ) {
-        //if( log.isTraceEnabled() ) log.trace("storing key: "+key);
-        Element element = new Element( key, data );
-        cache.put( element );
+        Long start = loadStartTime.get();
+        if (start != null){
+            cacheStatistics.recordLoad(System.nanoTime() - start);
+            loadStartTime.remove();
+        }
+        cache.put(key, data);
     }
 
     public void clearCache() {
-        cacheManager.clearAll();
+        cache.clear();
     }
 
     public void shutDownCache() {
-        cacheManager.shutdown();
+        cache.shutdown();
+    }
+
+    /**
+     * Looks up the cache and records a hit or a miss in the statistics of the cache.
+     * After a miss, the time until the result is stored with storeInCache is recorded as load time.
+     * @param key
+     * @return the cached value (null for a cached negative result) or NOT_CACHED if the key is not in the cache
+     */
+    protected Object lookupCache( String key ) {
+        Object data = cache.get(key);
+        if (data == NOT_CACHED){
+            cacheStatistics.recordMiss();
+            loadStartTime.set(System.nanoTime());
+        }
+        else{
+            cacheStatistics.recordHit(data == null);
+        }
+        return data;
+    }
+
+    public FetcherCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Replaces the cache of this fetcher. The previous cache is not shut down.
+     * @param cache
+     */
+    public void setCache(FetcherCache cache) {
+        if (cache == null){
+            throw new IllegalArgumentException("The cache cannot be null");
+        }
+        this.cache = cache;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public FetcherCacheStatistics getCacheStatistics() {
+        return cacheStatistics;
     }
 }
@@ -0,0 +1,64 @@
+package psidev.psi.mi.jami.bridges.fetcher.cache;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Element;
+
+import java.net.URL;
+
+/**
+ * Fetcher cache stored in the EHCache singleton CacheManager.
+ *
+ * Negative results are not kept.
+ * As the CacheManager is shared by all the EHCache fetcher caches, clear and shutdown apply to all of them.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class EhcacheFetcherCache implements FetcherCache {
+
+    private Cache cache;
+    private CacheManager cacheManager;
+
+    /**
+     *
+     * @param cacheName : the name of the cache in the CacheManager
+     * @param settingsFile : the resource path of the EHCache settings used to create the CacheManager if it does not exist yet
+     */
+    public EhcacheFetcherCache(String cacheName, String settingsFile){
+        if (cacheName == null){
+            throw new IllegalArgumentException("The name of the cache is mandatory");
+        }
+        URL url = getClass().getResource( settingsFile );
+        this.cacheManager =  CacheManager.create( url );
+        if(! cacheManager.cacheExists(cacheName))
+            cacheManager.addCache(cacheName);
+        this.cache = cacheManager.getCache(cacheName);
+        if( cache == null ) throw new IllegalStateException( "Could not load cache" );
+    }
+
+    public Object get(String key) {
+        Element element = cache.get( key );
+        if( element != null && element.getObjectValue() != null ){
+            return element.getObjectValue();
+        }
+        return NOT_CACHED;
+    }
+
+    public void put(String key, Object value) {
+        // negative results are not kept
+        if (value != null){
+            cache.put( new Element( key, value ) );
+        }
+    }
+
+    public void clear() {
+        cacheManager.clearAll();
+    }
+
+    public void shutdown() {
+        cacheManager.shutdown();
+    }
+}
@@ -0,0 +1,46 @@
+package psidev.psi.mi.jami.bridges.fetcher.cache;
+
+/**
+ * A cache used by the cached fetchers to keep the results of the queries.
+ *
+ * The keys are the queries and the values are the results of the queries. A null value is a negative result
+ * (no entry matching the query), that the implementation may keep or ignore.
+ *
+ * Implementations must be thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public interface FetcherCache {
+
+    /**
+     * The value returned by get when the key is not in the cache
+     */
+    public static final Object NOT_CACHED = new Object();
+
+    /**
+     *
+     * @param key
+     * @return the value cached for this key (null for a negative result) or NOT_CACHED if the key is not in the cache
+     */
+    public Object get(String key);
+
+    /**
+     * Stores the result of a query.
+     * @param key
+     * @param value : the result of the query. Null if the query did not return any result.
+     */
+    public void put(String key, Object value);
+
+    /**
+     * Clears the content of the cache
+     */
+    public void clear();
+
+    /**
+     * Releases the resources of the cache. The cache cannot be used anymore.
+     */
+    public void shutdown();
+}
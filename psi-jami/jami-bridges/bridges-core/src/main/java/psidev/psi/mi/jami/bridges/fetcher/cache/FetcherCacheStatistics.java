@@ -0,0 +1,107 @@
+package psidev.psi.mi.jami.bridges.fetcher.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of the cache of a fetcher.
+ *
+ * The load time is the time spent by the fetcher to query the service after a miss, until the result is stored in the cache.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class FetcherCacheStatistics {
+
+    private AtomicLong hitCount = new AtomicLong();
+    private AtomicLong negativeHitCount = new AtomicLong();
+    private AtomicLong missCount = new AtomicLong();
+    private AtomicLong loadCount = new AtomicLong();
+    private AtomicLong totalLoadTime = new AtomicLong();
+
+    public void recordHit(boolean negative){
+        hitCount.incrementAndGet();
+        if (negative){
+            negativeHitCount.incrementAndGet();
+        }
+    }
+
+    public void recordMiss(){
+        missCount.incrementAndGet();
+    }
+
+    /**
+     *
+     * @param loadTime : the time spent to load the value in nanoseconds
+     */
+    public void recordLoad(long loadTime){
+        loadCount.incrementAndGet();
+        totalLoadTime.addAndGet(loadTime);
+    }
+
+    /**
+     *
+     * @return the number of queries found in the cache, including negative results
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     *
+     * @return the number of queries found in the cache with a negative result
+     */
+    public long getNegativeHitCount() {
+        return negativeHitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     *
+     * @return the ratio of queries found in the cache, 0 if there was no query
+     */
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public long getLoadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     *
+     * @return the total time spent to load the values not found in the cache, in milliseconds
+     */
+    public long getTotalLoadTime() {
+        return totalLoadTime.get() / 1000000;
+    }
+
+    /**
+     *
+     * @return the average time spent to load a value not found in the cache, in milliseconds
+     */
+    public double getAverageLoadTime() {
+        long loads = loadCount.get();
+        return loads == 0 ? 0 : (double) totalLoadTime.get() / loads / 1000000;
+    }
+
+    public void reset(){
+        hitCount.set(0);
+        negativeHitCount.set(0);
+        missCount.set(0);
+        loadCount.set(0);
+        totalLoadTime.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "hits: "+getHitCount()+" (negative: "+getNegativeHitCount()+"), misses: "+getMissCount()
+                +", loads: "+getLoadCount()+" (average "+getAverageLoadTime()+" ms)";
+    }
+}
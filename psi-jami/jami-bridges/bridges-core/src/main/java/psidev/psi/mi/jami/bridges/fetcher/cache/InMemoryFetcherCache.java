@@ -0,0 +1,216 @@
+package psidev.psi.mi.jami.bridges.fetcher.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fetcher cache kept in memory, independent of any other cache.
+ *
+ * The keys are distributed in segments having their own lock so threads using different segments do not wait for each other.
+ * Each segment keeps at most maxSize/segments entries and evicts the least recently used entry when it is full.
+ * An entry expires timeToLive milliseconds after being stored. Negative results (null values) are kept as well and
+ * expire after negativeTimeToLive milliseconds, so unknown identifiers are not queried again and again.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class InMemoryFetcherCache implements FetcherCache {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    /**
+     * Two days, as the default EHCache configuration
+     */
+    public static final long DEFAULT_TIME_TO_LIVE = 2L * 24 * 60 * 60 * 1000;
+    /**
+     * One hour
+     */
+    public static final long DEFAULT_NEGATIVE_TIME_TO_LIVE = 60L * 60 * 1000;
+    public static final int DEFAULT_SEGMENTS = 16;
+
+    private Segment[] segments;
+    private long timeToLive;
+    private long negativeTimeToLive;
+    private AtomicLong evictionCount = new AtomicLong();
+
+    public InMemoryFetcherCache(){
+        this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE, DEFAULT_NEGATIVE_TIME_TO_LIVE);
+    }
+
+    /**
+     *
+     * @param maxSize : the maximum number of entries
+     * @param timeToLive : the time to live of an entry in milliseconds
+     * @param negativeTimeToLive : the time to live of a negative result in milliseconds. If 0, negative results are not kept.
+     */
+    public InMemoryFetcherCache(int maxSize, long timeToLive, long negativeTimeToLive){
+        this(maxSize, timeToLive, negativeTimeToLive, DEFAULT_SEGMENTS);
+    }
+
+    /**
+     *
+     * @param maxSize : the maximum number of entries
+     * @param timeToLive : the time to live of an entry in milliseconds
+     * @param negativeTimeToLive : the time to live of a negative result in milliseconds. If 0, negative results are not kept.
+     * @param segments : the number of segments (locks)
+     */
+    public InMemoryFetcherCache(int maxSize, long timeToLive, long negativeTimeToLive, int segments){
+        if (maxSize < 1){
+            throw new IllegalArgumentException("The maximum size must be at least 1: "+maxSize);
+        }
+        if (timeToLive <= 0){
+            throw new IllegalArgumentException("The time to live must be positive: "+timeToLive);
+        }
+        if (negativeTimeToLive < 0){
+            throw new IllegalArgumentException("The time to live of negative results cannot be negative: "+negativeTimeToLive);
+        }
+        if (segments < 1){
+            throw new IllegalArgumentException("The number of segments must be at least 1: "+segments);
+        }
+        int numberOfSegments = Math.min(segments, maxSize);
+        this.segments = new Segment[numberOfSegments];
+        // the remaining entries are given to the first segments so the total capacity is maxSize
+        for (int i = 0; i < numberOfSegments; i++){
+            this.segments[i] = new Segment(maxSize / numberOfSegments + (i < maxSize % numberOfSegments ? 1 : 0));
+        }
+        this.timeToLive = timeToLive;
+        this.negativeTimeToLive = negativeTimeToLive;
+    }
+
+    public Object get(String key) {
+        return segmentFor(key).get(key, System.currentTimeMillis());
+    }
+
+    public void put(String key, Object value) {
+        long ttl = value != null ? timeToLive : negativeTimeToLive;
+        if (ttl > 0){
+            segmentFor(key).put(key, value, System.currentTimeMillis() + ttl);
+        }
+    }
+
+    public void clear() {
+        for (Segment segment : segments){
+            segment.clear();
+        }
+    }
+
+    public void shutdown() {
+        clear();
+    }
+
+    /**
+     *
+     * @return the number of entries in the cache, including the expired entries not removed yet
+     */
+    public int size(){
+        int size = 0;
+        for (Segment segment : segments){
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     *
+     * @return the number of entries evicted because the cache was full
+     */
+    public long getEvictionCount(){
+        return evictionCount.get();
+    }
+
+    private Segment segmentFor(String key){
+        if (key == null){
+            throw new IllegalArgumentException("The key cannot be null");
+        }
+        int hash = key.hashCode();
+        // spread the bits of the hash as the keys often share the same prefix
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        hash ^= (hash >>> 7) ^ (hash >>> 4);
+        return segments[(hash & 0x7fffffff) % segments.length];
+    }
+
+    /**
+     * A value and its expiration time
+     */
+    private static class CacheEntry {
+        private final Object value;
+        private final long expirationTime;
+
+        private CacheEntry(Object value, long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    /**
+     * LRU map protected by its own lock
+     */
+    private class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, CacheEntry> entries;
+
+        private Segment(final int capacity) {
+            this.entries = new LinkedHashMap<String, CacheEntry>(Math.min(capacity, 1024), 0.75f, true){
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                    if (size() > capacity){
+                        evictionCount.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        private Object get(String key, long now){
+            lock.lock();
+            try{
+                CacheEntry entry = entries.get(key);
+                if (entry == null){
+                    return NOT_CACHED;
+                }
+                else if (entry.expirationTime <= now){
+                    entries.remove(key);
+                    return NOT_CACHED;
+                }
+                return entry.value;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        private void put(String key, Object value, long expirationTime){
+            lock.lock();
+            try{
+                entries.put(key, new CacheEntry(value, expirationTime));
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        private void clear(){
+            lock.lock();
+            try{
+                entries.clear();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        private int size(){
+            lock.lock();
+            try{
+                return entries.size();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+}
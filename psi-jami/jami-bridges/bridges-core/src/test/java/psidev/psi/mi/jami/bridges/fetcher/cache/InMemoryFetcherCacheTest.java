@@ -0,0 +1,106 @@
+package psidev.psi.mi.jami.bridges.fetcher.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tester for InMemoryFetcherCache
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class InMemoryFetcherCacheTest {
+
+    @Test
+    public void test_get_put() throws Exception {
+        InMemoryFetcherCache cache = new InMemoryFetcherCache();
+
+        Assert.assertSame(FetcherCache.NOT_CACHED, cache.get("P12345"));
+
+        cache.put("P12345", "protein");
+        Assert.assertEquals("protein", cache.get("P12345"));
+
+        cache.clear();
+        Assert.assertSame(FetcherCache.NOT_CACHED, cache.get("P12345"));
+    }
+
+    @Test
+    public void test_negative_results() throws Exception {
+        InMemoryFetcherCache cache = new InMemoryFetcherCache();
+        cache.put("P12345", null);
+        Assert.assertNull(cache.get("P12345"));
+
+        // negative results are not kept when their time to live is 0
+        InMemoryFetcherCache cache2 = new InMemoryFetcherCache(10, 10000, 0);
+        cache2.put("P12345", null);
+        Assert.assertSame(FetcherCache.NOT_CACHED, cache2.get("P12345"));
+    }
+
+    @Test
+    public void test_expiration() throws Exception {
+        InMemoryFetcherCache cache = new InMemoryFetcherCache(10, 10000, 1);
+        cache.put("P12345", null);
+        cache.put("Q99999", "protein");
+        Thread.sleep(20);
+
+        Assert.assertSame(FetcherCache.NOT_CACHED, cache.get("P12345"));
+        Assert.assertEquals("protein", cache.get("Q99999"));
+    }
+
+    @Test
+    public void test_least_recently_used_evicted() throws Exception {
+        // one segment so the eviction order is predictable
+        InMemoryFetcherCache cache = new InMemoryFetcherCache(2, 10000, 10000, 1);
+        cache.put("P1", "1");
+        cache.put("P2", "2");
+        // P1 becomes the most recently used
+        Assert.assertEquals("1", cache.get("P1"));
+        cache.put("P3", "3");
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        Assert.assertEquals("1", cache.get("P1"));
+        Assert.assertSame(FetcherCache.NOT_CACHED, cache.get("P2"));
+        Assert.assertEquals("3", cache.get("P3"));
+    }
+
+    @Test
+    public void test_max_size_with_segments() throws Exception {
+        InMemoryFetcherCache cache = new InMemoryFetcherCache(100, 10000, 10000, 16);
+        for (int i = 0; i < 1000; i++){
+            cache.put("P"+i, i);
+        }
+        Assert.assertTrue(cache.size() <= 100);
+        Assert.assertEquals(1000 - cache.size(), cache.getEvictionCount());
+    }
+
+    @Test
+    public void test_concurrent_access() throws Exception {
+        final InMemoryFetcherCache cache = new InMemoryFetcherCache(10000, 10000, 10000);
+        Thread[] threads = new Thread[8];
+        final boolean[] failed = new boolean[1];
+        for (int t = 0; t < threads.length; t++){
+            final int thread = t;
+            threads[t] = new Thread(){
+                @Override
+                public void run() {
+                    for (int i = 0; i < 500; i++){
+                        String key = thread+"_"+i;
+                        cache.put(key, key);
+                        if (!key.equals(cache.get(key))){
+                            failed[0] = true;
+                        }
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads){
+            thread.join();
+        }
+        Assert.assertFalse(failed[0]);
+        Assert.assertEquals(4000, cache.size());
+    }
+}
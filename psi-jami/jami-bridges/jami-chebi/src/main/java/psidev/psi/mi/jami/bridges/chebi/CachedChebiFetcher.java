@@ -32,8 +32,8 @@ public class CachedChebiFetcher extends AbstractCachedFetcher implements Bioacti
     public Collection<BioactiveEntity> fetchByIdentifier(String identifier) throws BridgeFailedException {
         if (identifier != null){
             final String key = "GET_ENTITY_BY_IDENTIFIER_"+identifier;
-            Object object = getFromCache(key);
-            if (object != null){
+            Object object = lookupCache(key);
+            if (object != NOT_CACHED){
                 return (Collection<BioactiveEntity>)object;
             }
             else{
@@ -53,8 +53,8 @@ public class CachedChebiFetcher extends AbstractCachedFetcher implements Bioacti
             for (String id : ids){
                 key= key+"_"+id;
             }
-            Object object = getFromCache(key);
-            if (object != null){
+            Object object = lookupCache(key);
+            if (object != NOT_CACHED){
                 return (Collection<BioactiveEntity>)object;
             }
             else{
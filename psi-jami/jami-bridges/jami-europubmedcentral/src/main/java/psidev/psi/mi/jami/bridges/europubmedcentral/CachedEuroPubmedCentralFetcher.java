@@ -32,8 +32,8 @@ public class CachedEuroPubmedCentralFetcher
     public Publication fetchByIdentifier(String identifier, String source) throws BridgeFailedException {
         if (identifier != null){
             final String key = "GET_PUBLICATION_BY_IDENTIFIER_"+source+"_"+identifier;
-            Object object = getFromCache(key);
-            if (object != null){
+            Object object = lookupCache(key);
+            if (object != NOT_CACHED){
                 return (Publication)object;
             }
             else{
@@ -56,8 +56,8 @@ public class CachedEuroPubmedCentralFetcher
                 }
             }
 
-            Object object = getFromCache(key);
-            if (object != null){
+            Object object = lookupCache(key);
+            if (object != NOT_CACHED){
                 return (Collection<Publication>)object;
             }
             else{
@@ -43,8 +43,8 @@ public class CachedOlsFetcher<T extends CvTerm> extends AbstractCachedFetcher im
 
         final String key = "GET_BY_IDENTIFIER_"+termIdentifier+"_"+miOntologyName;
 
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = delegateFetcher.fetchByIdentifier(termIdentifier, miOntologyName);
             storeInCache(key, data);
         }
@@ -65,8 +65,8 @@ public class CachedOlsFetcher<T extends CvTerm> extends AbstractCachedFetcher im
 
         final String key = "GET_BY_IDENTIFIER_"+termIdentifier+"_"+ontologyDatabase.getShortName();
 
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = delegateFetcher.fetchByIdentifier(termIdentifier, ontologyDatabase);
             storeInCache(key, data);
         }
@@ -87,8 +87,8 @@ public class CachedOlsFetcher<T extends CvTerm> extends AbstractCachedFetcher im
 
         final String key = "GET_BY_NAME_"+searchName+"_"+miOntologyName;
 
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = delegateFetcher.fetchByName(searchName, miOntologyName);
             storeInCache(key, data);
         }
@@ -110,8 +110,8 @@ public class CachedOlsFetcher<T extends CvTerm> extends AbstractCachedFetcher im
 
         final String key = "GET_BY_NAME_"+searchName;
 
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = delegateFetcher.fetchByName(searchName);
             storeInCache(key, data);
         }
@@ -130,8 +130,8 @@ public class CachedOlsFetcher<T extends CvTerm> extends AbstractCachedFetcher im
            key=key+"_"+id;
         }
 
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = delegateFetcher.fetchByIdentifiers(termIdentifiers, miOntologyName);
             storeInCache(key, data);
         }
@@ -150,8 +150,8 @@ public class CachedOlsFetcher<T extends CvTerm> extends AbstractCachedFetcher im
             key=key+"_"+id;
         }
 
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = delegateFetcher.fetchByIdentifiers(termIdentifiers, ontologyDatabase);
             storeInCache(key, data);
         }
@@ -170,8 +170,8 @@ public class CachedOlsFetcher<T extends CvTerm> extends AbstractCachedFetcher im
             key=key+"_"+id;
         }
 
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = delegateFetcher.fetchByNames(searchNames, miOntologyName);
             storeInCache(key, data);
         }
@@ -189,8 +189,8 @@ public class CachedOlsFetcher<T extends CvTerm> extends AbstractCachedFetcher im
             key=key+"_"+id;
         }
 
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = delegateFetcher.fetchByNames(searchNames);
             storeInCache(key, data);
         }
@@ -31,8 +31,8 @@ public class CachedUniprotTaxonomyFetcher
 
     public Organism fetchByTaxID(int taxID) throws BridgeFailedException {
         final String key = "GET_BY_TAXID_"+taxID;
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = organismFetcher.fetchByTaxID(taxID);
             storeInCache(key , data);
         }
@@ -47,8 +47,8 @@ public class CachedUniprotTaxonomyFetcher
             for (Integer id : ids){
                 key= key+"_"+id;
             }
-            Object object = getFromCache(key);
-            if (object != null){
+            Object object = lookupCache(key);
+            if (object != NOT_CACHED){
                 return (Collection<Organism>)object;
             }
             else{
@@ -30,8 +30,8 @@ public class CachedUniprotProteinFetcher
 
     public Collection<Protein> fetchByIdentifier(String identifier) throws BridgeFailedException {
         final String key = "GET_PROTEINS_BY_ACCESSION_"+identifier;
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = proteinFetcher.fetchByIdentifier(identifier);
             storeInCache(key , data);
         }
@@ -46,8 +46,8 @@ public class CachedUniprotProteinFetcher
             for (String id : ids){
                 key= key+"_"+id;
             }
-            Object object = getFromCache(key);
-            if (object != null){
+            Object object = lookupCache(key);
+            if (object != NOT_CACHED){
                 return (Collection<Protein>)object;
             }
             else{
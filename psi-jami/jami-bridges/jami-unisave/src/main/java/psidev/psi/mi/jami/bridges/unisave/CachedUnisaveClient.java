@@ -24,8 +24,8 @@ public class CachedUnisaveClient extends AbstractCachedFetcher implements Sequen
 
     public String fetchSequenceFromVersion(String id, int version) throws BridgeFailedException {
         final String key = "GET_SEQUENCE_"+id+"_VERSION_"+version;
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = sequenceFetcher.fetchSequenceFromVersion(id, version);
             storeInCache(key , data);
         }
@@ -34,8 +34,8 @@ public class CachedUnisaveClient extends AbstractCachedFetcher implements Sequen
 
     public int fetchVersionFromSequence(String id, String sequence) throws BridgeFailedException {
         final String key = "GET_VERSION_"+id+"_SEQUENCE_"+sequence;
-        Object data = getFromCache( key );
-        if( data == null) {
+        Object data = lookupCache( key );
+        if( data == NOT_CACHED) {
             data = sequenceFetcher.fetchVersionFromSequence(id, sequence);
             storeInCache(key , data);
         }
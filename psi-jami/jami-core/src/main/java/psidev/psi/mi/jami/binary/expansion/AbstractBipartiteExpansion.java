@@ -11,6 +11,8 @@ import psidev.psi.mi.jami.factory.InteractorFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Abstract class for BipartiteExpansion.
@@ -52,20 +54,21 @@ public abstract class AbstractBipartiteExpansion<T extends Interaction, B extend
 
     @Override
     protected Collection<B> collectBinaryInteractionsFromNary(T interaction){
-        Participant externalEntity =  createParticipantForComplexEntity(createComplexEntity(interaction));
-
         Collection<B> binaryInteractions = new ArrayList<B>(interaction.getParticipants().size());
-        for ( Object p : interaction.getParticipants() ) {
-
-            // build a new interaction
-            B binary = createBinaryInteraction(interaction, externalEntity, (Participant)p);
 
-            binaryInteractions.add(binary);
+        Iterator<B> binaryIterator = createBinaryInteractionIteratorFromNary(interaction);
+        while (binaryIterator.hasNext()){
+            binaryInteractions.add(binaryIterator.next());
         }
 
         return binaryInteractions;
     }
 
+    @Override
+    protected Iterator<B> createBinaryInteractionIteratorFromNary(T interaction){
+        return new BipartiteExpansionIterator(interaction, createParticipantForComplexEntity(createComplexEntity(interaction)));
+    }
+
     /**
      *
      * @param interaction : the interaction to expand
@@ -108,4 +111,36 @@ public abstract class AbstractBipartiteExpansion<T extends Interaction, B extend
         }
         return complexName;
     }
+
+    /**
+     * Iterator creating the binary interaction between the generated complex and each participant when it is requested.
+     * The complex is generated once for the whole interaction.
+     */
+    private class BipartiteExpansionIterator implements Iterator<B>{
+        private T interaction;
+        private Participant externalEntity;
+        private Iterator<? extends Participant> participantIterator;
+
+        private BipartiteExpansionIterator(T interaction, Participant externalEntity){
+            this.interaction = interaction;
+            this.externalEntity = externalEntity;
+            this.participantIterator = interaction.getParticipants().iterator();
+        }
+
+        public boolean hasNext() {
+            return participantIterator.hasNext();
+        }
+
+        public B next() {
+            if (!hasNext()){
+                throw new NoSuchElementException("No more binary interactions to expand from the interaction "+interaction.toString());
+            }
+            // build a new interaction
+            return createBinaryInteraction(interaction, externalEntity, participantIterator.next());
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("A complex expansion iterator does not support the removal of binary interactions");
+        }
+    }
 }
@@ -11,6 +11,7 @@ import psidev.psi.mi.jami.utils.InteractionUtils;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 
 /**
  * Abstract class for ComplexExpansionMethod.
@@ -68,11 +69,7 @@ public abstract class AbstractComplexExpansionMethod<T extends Interaction, B ex
      */
     public Collection<B> expand(T interaction) throws ComplexExpansionException {
 
-        if (!isInteractionExpandable(interaction)){
-            throw new ComplexExpansionException("Cannot expand the interaction: "+interaction.toString() + " with the expansion: "+method.toString());
-        }
-
-        ComplexType category = findInteractionCategory(interaction);
+        ComplexType category = findExpandableInteractionCategory(interaction);
 
         switch (category){
             case binary:
@@ -88,6 +85,31 @@ public abstract class AbstractComplexExpansionMethod<T extends Interaction, B ex
         }
     }
 
+    /**
+     *
+     * @param interaction : the interaction to expand
+     * @return  the iterator of binary interactions generated from the given interaction. The binary interactions of a n-ary interaction
+     * are created while iterating
+     * @throws psidev.psi.mi.jami.exception.ComplexExpansionException : when the interaction is not expandable by this method
+     */
+    public Iterator<B> expandAsIterator(T interaction) throws ComplexExpansionException {
+
+        ComplexType category = findExpandableInteractionCategory(interaction);
+
+        switch (category){
+            case binary:
+                return createBinaryInteractionWrappersFrom(interaction).iterator();
+            case self_intra_molecular:
+                return createBinaryInteractionWrappersFrom(interaction).iterator();
+            case self_inter_molecular:
+                return createNewSelfBinaryInteractionsFrom(interaction).iterator();
+            case n_ary:
+                return createBinaryInteractionIteratorFromNary(interaction);
+            default:
+                throw new ComplexExpansionException("Cannot expand the interaction: "+interaction.toString() + " because does not recognize the complex type : "+category.toString());
+        }
+    }
+
     /**
      *
      * @return the factory used by the complex epxansion to create new binaryInteraction instances
@@ -134,10 +156,33 @@ public abstract class AbstractComplexExpansionMethod<T extends Interaction, B ex
         return InteractionUtils.findInteractionCategoryOf(interaction, true);
     }
 
+    /**
+     *
+     * @param interaction : the interaction to expand
+     * @return the complexType of this interaction
+     * @throws psidev.psi.mi.jami.exception.ComplexExpansionException : when the interaction is not expandable by this method
+     */
+    private ComplexType findExpandableInteractionCategory(T interaction) throws ComplexExpansionException {
+        if (!isInteractionExpandable(interaction)){
+            throw new ComplexExpansionException("Cannot expand the interaction: "+interaction.toString() + " with the expansion: "+method.toString());
+        }
+        return findInteractionCategory(interaction);
+    }
+
     /**
      *
      * @param interaction : the interaction to expand
      * @return the collection of binary interaction generated from this n-ary interaction
      */
     protected abstract Collection<B> collectBinaryInteractionsFromNary(T interaction);
+
+    /**
+     * By default, it iterates over the binary interactions collected from the n-ary interaction.
+     * This method should be overridden to create the binary interactions while iterating.
+     * @param interaction : the interaction to expand
+     * @return the iterator of binary interactions generated from this n-ary interaction
+     */
+    protected Iterator<B> createBinaryInteractionIteratorFromNary(T interaction){
+        return collectBinaryInteractionsFromNary(interaction).iterator();
+    }
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import psidev.psi.mi.jami.utils.CvTermUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Abstract class for Matrix expansion
@@ -25,23 +27,22 @@ public abstract class AbstractMatrixExpansion<T extends Interaction, B extends B
 
     @Override
     protected Collection<B> collectBinaryInteractionsFromNary(T interaction){
-        Participant[] participants = createParticipantsArray(interaction);
+        int size = interaction.getParticipants().size();
+        Collection<B> binaryInteractions = new ArrayList<B>(size*(size - 1)/2);
 
-        Collection<B> binaryInteractions = new ArrayList<B>((interaction.getParticipants().size() - 1)*(interaction.getParticipants().size() - 1));
-        for ( int i = 0; i < interaction.getParticipants().size(); i++ ) {
-            Participant c1 = participants[i];
-            for ( int j = ( i + 1 ); j < participants.length; j++ ) {
-                Participant c2 = participants[j];
-                // build a new interaction
-                B binary = createBinaryInteraction(interaction, c1, c2);
-
-                binaryInteractions.add(binary);
-            }
+        Iterator<B> binaryIterator = createBinaryInteractionIteratorFromNary(interaction);
+        while (binaryIterator.hasNext()){
+            binaryInteractions.add(binaryIterator.next());
         }
 
         return binaryInteractions;
     }
 
+    @Override
+    protected Iterator<B> createBinaryInteractionIteratorFromNary(T interaction){
+        return new MatrixExpansionIterator(interaction, createParticipantsArray(interaction));
+    }
+
     /**
      *
      * @param interaction : the interaction to expand
@@ -59,4 +60,45 @@ public abstract class AbstractMatrixExpansion<T extends Interaction, B extends B
      * @return the array of participants involved in this interaction
      */
     protected abstract <P extends Participant> P[] createParticipantsArray(T interaction);
+
+    /**
+     * Iterator creating the binary interactions of each pair of participants when they are requested.
+     * The participants array is created once for the whole interaction.
+     */
+    private class MatrixExpansionIterator implements Iterator<B>{
+        private T interaction;
+        private Participant[] participants;
+        private int i;
+        private int j;
+
+        private MatrixExpansionIterator(T interaction, Participant[] participants){
+            this.interaction = interaction;
+            this.participants = participants;
+            this.i = 0;
+            this.j = 1;
+        }
+
+        public boolean hasNext() {
+            return j < participants.length;
+        }
+
+        public B next() {
+            if (!hasNext()){
+                throw new NoSuchElementException("No more binary interactions to expand from the interaction "+interaction.toString());
+            }
+            // build a new interaction
+            B binary = createBinaryInteraction(interaction, participants[i], participants[j]);
+
+            j++;
+            if (j == participants.length){
+                i++;
+                j = i + 1;
+            }
+            return binary;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("A complex expansion iterator does not support the removal of binary interactions");
+        }
+    }
 }
@@ -7,6 +7,8 @@ import psidev.psi.mi.jami.utils.CvTermUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Abstract class for SpokeExpansion
@@ -27,20 +29,19 @@ public abstract class AbstractSpokeExpansion<T extends Interaction, B extends Bi
     protected Collection<B> collectBinaryInteractionsFromNary(T interaction) {
         Collection<B> binaryInteractions = new ArrayList<B>(interaction.getParticipants().size()-1);
 
-        Participant bait = collectBestBaitForSpokeExpansion(interaction);
-
-        for ( Object p : interaction.getParticipants() ) {
-            if (p != bait){
-                // build a new interaction
-                B binary = createBinaryInteraction(interaction, bait, (Participant)p);
-
-                binaryInteractions.add(binary);
-            }
+        Iterator<B> binaryIterator = createBinaryInteractionIteratorFromNary(interaction);
+        while (binaryIterator.hasNext()){
+            binaryInteractions.add(binaryIterator.next());
         }
 
         return binaryInteractions;
     }
 
+    @Override
+    protected Iterator<B> createBinaryInteractionIteratorFromNary(T interaction) {
+        return new SpokeExpansionIterator(interaction, collectBestBaitForSpokeExpansion(interaction));
+    }
+
     /**
      *
      * @param interaction : the interaction to expand
@@ -58,4 +59,50 @@ public abstract class AbstractSpokeExpansion<T extends Interaction, B extends Bi
      * @return the best bait to use for complex expansion among all participants of this interaction
      */
     protected abstract <P extends Participant> P collectBestBaitForSpokeExpansion(T interaction);
+
+    /**
+     * Iterator creating the binary interaction between the bait and each prey when it is requested
+     */
+    private class SpokeExpansionIterator implements Iterator<B>{
+        private T interaction;
+        private Participant bait;
+        private Iterator<? extends Participant> participantIterator;
+        private Participant nextPrey;
+
+        private SpokeExpansionIterator(T interaction, Participant bait){
+            this.interaction = interaction;
+            this.bait = bait;
+            this.participantIterator = interaction.getParticipants().iterator();
+            processNextPrey();
+        }
+
+        private void processNextPrey(){
+            this.nextPrey = null;
+            while (this.nextPrey == null && this.participantIterator.hasNext()){
+                Participant p = this.participantIterator.next();
+                if (p != this.bait){
+                    this.nextPrey = p;
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return nextPrey != null;
+        }
+
+        public B next() {
+            if (!hasNext()){
+                throw new NoSuchElementException("No more binary interactions to expand from the interaction "+interaction.toString());
+            }
+            // build a new interaction
+            B binary = createBinaryInteraction(interaction, bait, nextPrey);
+
+            processNextPrey();
+            return binary;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("A complex expansion iterator does not support the removal of binary interactions");
+        }
+    }
 }
@@ -9,6 +9,7 @@ import psidev.psi.mi.jami.model.impl.DefaultParticipant;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * The bipartite expansion.
@@ -59,6 +60,22 @@ public class BipartiteExpansion extends AbstractBipartiteExpansion<Interaction,
         }
     }
 
+    @Override
+    public Iterator<BinaryInteraction> expandAsIterator(Interaction interaction) throws ComplexExpansionException {
+
+        if (interaction instanceof InteractionEvidence){
+            Iterator<? extends BinaryInteraction> binaryInteractions = interactionEvidenceExpansion.expandAsIterator((InteractionEvidence) interaction);
+            return (Iterator<BinaryInteraction>) binaryInteractions;
+        }
+        else if (interaction instanceof ModelledInteraction){
+            Iterator<? extends BinaryInteraction> binaryInteractions = modelledInteractionExpansion.expandAsIterator((ModelledInteraction) interaction);
+            return (Iterator<BinaryInteraction>) binaryInteractions;
+        }
+        else {
+            return super.expandAsIterator(interaction);
+        }
+    }
+
     @Override
     public void setInteractorFactory(InteractorFactory interactorFactory) {
         super.setInteractorFactory(interactorFactory);
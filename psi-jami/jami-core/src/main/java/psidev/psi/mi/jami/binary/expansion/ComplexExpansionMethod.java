@@ -7,6 +7,7 @@ import psidev.psi.mi.jami.model.CvTerm;
 import psidev.psi.mi.jami.model.Interaction;
 
 import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * The method by which complex n-ary data is expanded into binary data. This may be performed manually on data input, or computationally on data export.
@@ -51,6 +52,17 @@ public interface ComplexExpansionMethod<T extends Interaction, B extends BinaryI
      */
     public Collection<B> expand(T interaction) throws ComplexExpansionException;
 
+    /**
+     * Expand the interaction in an iterator of BinaryInteraction.
+     * The binary interactions are only created when the iterator is consumed so a n-ary interaction with a large number of participants
+     * can be expanded without keeping all its binary interactions in memory.
+     * The iterator cannot be null and does not support remove.
+     * @param interaction
+     * @return iterator of binary interactions expanded from the original interaction object
+     * @throws psidev.psi.mi.jami.exception.ComplexExpansionException if the interaction cannot be expanded with this method
+     */
+    public Iterator<B> expandAsIterator(T interaction) throws ComplexExpansionException;
+
     /**
      *
      * @return the factory used to create new BinaryInteractions
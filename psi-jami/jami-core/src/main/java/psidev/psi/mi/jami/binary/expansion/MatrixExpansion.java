@@ -11,6 +11,7 @@ import psidev.psi.mi.jami.model.impl.DefaultParticipant;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * The matrix Expansion method.
@@ -51,6 +52,22 @@ public class MatrixExpansion extends AbstractMatrixExpansion<Interaction, Binary
         }
     }
 
+    @Override
+    public Iterator<BinaryInteraction> expandAsIterator(Interaction interaction) throws ComplexExpansionException {
+
+        if (interaction instanceof InteractionEvidence){
+            Iterator<? extends BinaryInteraction> binaryInteractions = interactionEvidenceExpansion.expandAsIterator((InteractionEvidence) interaction);
+            return (Iterator<BinaryInteraction>) binaryInteractions;
+        }
+        else if (interaction instanceof ModelledInteraction){
+            Iterator<? extends BinaryInteraction> binaryInteractions = modelledInteractionExpansion.expandAsIterator((ModelledInteraction) interaction);
+            return (Iterator<BinaryInteraction>) binaryInteractions;
+        }
+        else {
+            return super.expandAsIterator(interaction);
+        }
+    }
+
     @Override
     protected <P extends Participant> BinaryInteraction createBinaryInteraction(Interaction interaction, P c1, P c2) {
         return getBinaryInteractionFactory().createBasicBinaryInteractionFrom(interaction, c1, c2, getMethod());
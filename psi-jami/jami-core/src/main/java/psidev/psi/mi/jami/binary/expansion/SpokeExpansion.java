@@ -11,6 +11,7 @@ import psidev.psi.mi.jami.utils.ParticipantUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 
 /**
  * The spoke expansion
@@ -49,6 +50,22 @@ public class SpokeExpansion extends AbstractSpokeExpansion<Interaction, BinaryIn
         }
     }
 
+    @Override
+    public Iterator<BinaryInteraction> expandAsIterator(Interaction interaction) throws ComplexExpansionException {
+
+        if (interaction instanceof InteractionEvidence){
+            Iterator<? extends BinaryInteraction> binaryInteractions = interactionEvidenceExpansion.expandAsIterator((InteractionEvidence) interaction);
+            return (Iterator<BinaryInteraction>) binaryInteractions;
+        }
+        else if (interaction instanceof ModelledInteraction){
+            Iterator<? extends BinaryInteraction> binaryInteractions = modelledInteractionExpansion.expandAsIterator((ModelledInteraction) interaction);
+            return (Iterator<BinaryInteraction>) binaryInteractions;
+        }
+        else {
+            return super.expandAsIterator(interaction);
+        }
+    }
+
     @Override
     protected BinaryInteraction createBinaryInteraction(Interaction interaction, Participant c1, Participant c2) {
         return getBinaryInteractionFactory().createBasicBinaryInteractionFrom(interaction, c1, c2, getMethod());
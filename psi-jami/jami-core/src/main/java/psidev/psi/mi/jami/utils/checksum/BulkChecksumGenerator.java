@@ -0,0 +1,198 @@
+package psidev.psi.mi.jami.utils.checksum;
+
+import psidev.psi.mi.jami.model.*;
+import psidev.psi.mi.jami.utils.ChecksumUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Generates the rogids of a stream of proteins and the rigids of a stream of interactions using several threads.
+ *
+ * The objects are read in the calling thread which collects the sequences, taxids and rogids to digest. The digests are computed by the
+ * worker threads and the results are set to the objects in the calling thread, in the order of the stream,
+ * so the model objects are never accessed by the worker threads.
+ *
+ * The threads are kept until shutdown is called.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class BulkChecksumGenerator {
+
+    private static final int PENDING_TASKS_PER_THREAD = 64;
+
+    private final ExecutorService executorService;
+    private final int maxPendingTasks;
+
+    public BulkChecksumGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     *
+     * @param numberOfThreads : the number of threads computing the digests
+     */
+    public BulkChecksumGenerator(int numberOfThreads) {
+        if (numberOfThreads < 1){
+            throw new IllegalArgumentException("The number of threads must be at least 1: "+numberOfThreads);
+        }
+        this.executorService = Executors.newFixedThreadPool(numberOfThreads);
+        this.maxPendingTasks = numberOfThreads * PENDING_TASKS_PER_THREAD;
+    }
+
+    /**
+     * Computes the rogid of each protein having a sequence and an organism and sets it to the protein.
+     * The other interactors are ignored.
+     * @param interactors
+     * @return the number of rogids which have been set
+     * @throws SeguidException if a rogid cannot be computed
+     */
+    public int generateRogids(Iterator<? extends Interactor> interactors) throws SeguidException {
+        if (interactors == null){
+            throw new IllegalArgumentException("The iterator of interactors cannot be null");
+        }
+        LinkedList<Protein> proteins = new LinkedList<Protein>();
+        LinkedList<Future<String>> results = new LinkedList<Future<String>>();
+        int count = 0;
+
+        while (interactors.hasNext()){
+            Interactor interactor = interactors.next();
+            if (interactor instanceof Protein){
+                Protein protein = (Protein) interactor;
+                if (protein.getSequence() != null && protein.getOrganism() != null){
+                    proteins.add(protein);
+                    results.add(this.executorService.submit(new RogidTask(protein.getSequence(),
+                            Integer.toString(protein.getOrganism().getTaxId()))));
+                }
+            }
+
+            while (results.size() >= this.maxPendingTasks){
+                proteins.removeFirst().setRogid(waitForResult(results.removeFirst()));
+                count++;
+            }
+        }
+
+        while (!results.isEmpty()){
+            proteins.removeFirst().setRogid(waitForResult(results.removeFirst()));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Computes the rigid of each interaction having participants and sets it to the interaction.
+     * The rigid is computed from the rogids of the interactors (see ChecksumUtils) so the interactions having a participant
+     * without rogid are ignored.
+     * @param interactions
+     * @return the number of rigids which have been set
+     * @throws SeguidException if a rigid cannot be computed
+     */
+    public int generateRigids(Iterator<? extends Interaction> interactions) throws SeguidException {
+        if (interactions == null){
+            throw new IllegalArgumentException("The iterator of interactions cannot be null");
+        }
+        LinkedList<Interaction> pendingInteractions = new LinkedList<Interaction>();
+        LinkedList<Future<String>> results = new LinkedList<Future<String>>();
+        int count = 0;
+
+        while (interactions.hasNext()){
+            Interaction interaction = interactions.next();
+            List<String> rogids = collectRogids(interaction);
+            if (rogids != null){
+                pendingInteractions.add(interaction);
+                results.add(this.executorService.submit(new RigidTask(rogids)));
+            }
+
+            while (results.size() >= this.maxPendingTasks){
+                pendingInteractions.removeFirst().setRigid(waitForResult(results.removeFirst()));
+                count++;
+            }
+        }
+
+        while (!results.isEmpty()){
+            pendingInteractions.removeFirst().setRigid(waitForResult(results.removeFirst()));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Stops the threads of this generator
+     */
+    public void shutdown(){
+        this.executorService.shutdown();
+    }
+
+    private List<String> collectRogids(Interaction interaction){
+        if (interaction.getParticipants().isEmpty()){
+            return null;
+        }
+        List<String> rogids = new ArrayList<String>(interaction.getParticipants().size());
+        for (Object o : interaction.getParticipants()){
+            Participant participant = (Participant)o;
+            Interactor interactor = participant.getInteractor();
+
+            Checksum rogid = interactor != null ?
+                    ChecksumUtils.collectFirstChecksumWithMethod(interactor.getChecksums(), Checksum.ROGID_MI, Checksum.ROGID) : null;
+            if (rogid == null){
+                return null;
+            }
+            rogids.add(rogid.getValue());
+        }
+        return rogids;
+    }
+
+    private String waitForResult(Future<String> result) throws SeguidException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SeguidException("Interrupted while computing checksums", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SeguidException){
+                throw (SeguidException) e.getCause();
+            }
+            throw new SeguidException("Cannot compute checksum", e.getCause());
+        }
+    }
+
+    /**
+     * Computes the rogid of a sequence and taxid
+     */
+    private static class RogidTask implements Callable<String> {
+        private final String sequence;
+        private final String taxid;
+
+        private RogidTask(String sequence, String taxid) {
+            this.sequence = sequence;
+            this.taxid = taxid;
+        }
+
+        public String call() throws SeguidException {
+            return RogidGenerator.calculateSeguid(Collections.singletonList(sequence), true) + taxid;
+        }
+    }
+
+    /**
+     * Computes the rigid of a list of rogids
+     */
+    private static class RigidTask implements Callable<String> {
+        private final List<String> rogids;
+
+        private RigidTask(List<String> rogids) {
+            this.rogids = rogids;
+        }
+
+        public String call() throws SeguidException {
+            Collections.sort(rogids);
+            return RogidGenerator.calculateSeguid(rogids, false);
+        }
+    }
+}
@@ -15,11 +15,9 @@ import java.util.List;
 public class RigidGenerator {
 
     private List<String> rogidCollection = new ArrayList<String>();
-    private RogidGenerator rogidGenerator;
 
     public RigidGenerator() {
         rogidCollection = new ArrayList<String>();
-        this.rogidGenerator = new RogidGenerator();
     }
 
     /**
@@ -37,12 +35,8 @@ public class RigidGenerator {
         if ( this.rogidCollection != null && rogidCollection.size() > 0 ) {
             //sort them
             Collections.sort(rogidCollection);
-            //concatenate them
-            StringBuffer allRigIds = new StringBuffer();
-            for (String rogid : rogidCollection){
-                allRigIds.append(rogid);
-            }
-            return this.rogidGenerator.calculateSeguid( allRigIds.toString() );
+            //digest their concatenation
+            return RogidGenerator.calculateSeguid( rogidCollection, false );
         } else {
             return null;
         }
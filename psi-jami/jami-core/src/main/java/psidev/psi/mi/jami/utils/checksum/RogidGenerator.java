@@ -1,11 +1,16 @@
 package psidev.psi.mi.jami.utils.checksum;
 
+import java.nio.charset.Charset;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 
 /**
  * Rogid generator
  *
+ * The SHA message digests are reused per thread and the sequences are encoded in UTF-8 directly in a reusable buffer
+ * so the generator can be used to compute a lot of rogids. It is thread safe.
+ *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  * @version $Id$
  * @since <pre>10/09/13</pre>
@@ -13,6 +18,27 @@ import java.security.NoSuchAlgorithmException;
 
 public class RogidGenerator {
 
+    private static final int BUFFER_SIZE = 8192;
+    private static final Charset UTF8 = Charset.forName( "UTF-8" );
+
+    private static final ThreadLocal<MessageDigest> SHA_DIGESTS = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance( "SHA" );
+            } catch ( NoSuchAlgorithmException e ) {
+                return null;
+            }
+        }
+    };
+
+    private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[BUFFER_SIZE];
+        }
+    };
+
     public RogidGenerator() {
     }
 
@@ -43,18 +69,63 @@ public class RogidGenerator {
             throw new NullPointerException( "You must give a non null sequence" );
         }
 
-        try {
-            MessageDigest messageDigest = MessageDigest.getInstance( "SHA" );
-            messageDigest.update( sequence.getBytes() );
-            byte[] digest = messageDigest.digest();
-            String seguid = Base64.encodeBytes( digest );
-            seguid = seguid.replace( "=", "" );
+        return calculateSeguid(Collections.singletonList(sequence), false);
+    }
+
+    /**
+     * Calculates the Seguid of the concatenation of the given values without concatenating them.
+     *
+     * @param values : the values to digest in this order
+     * @param normalize : if true, each value is trimmed and upper cased before being digested
+     * @return the MessageDigest based on SHA algorithm with Base64 encoding
+     * @throws SeguidException handled by  SeguidException class
+     */
+    static String calculateSeguid( Iterable<String> values, boolean normalize ) throws SeguidException {
+        MessageDigest messageDigest = SHA_DIGESTS.get();
+        if ( messageDigest == null ) {
+            throw new SeguidException( "The SHA algorithm is not available, cannot calculate Seguid" );
+        }
+        messageDigest.reset();
+        byte[] buffer = BUFFERS.get();
+
+        for ( String value : values ) {
+            int start = 0;
+            int end = value.length();
+            if ( normalize ) {
+                // same as String.trim
+                while ( start < end && value.charAt( start ) <= ' ' ) {
+                    start++;
+                }
+                while ( start < end && value.charAt( end - 1 ) <= ' ' ) {
+                    end--;
+                }
+            }
 
-            return seguid;
-        } catch ( NoSuchAlgorithmException e ) {
-            throw new SeguidException( "Exception thrown when calculating Seguid for " + sequence,e.getCause() );
+            int length = 0;
+            for ( int i = start; i < end; i++ ) {
+                char c = value.charAt( i );
+                if ( c >= 0x80 ) {
+                    // not ASCII, let the String encode the remaining characters
+                    messageDigest.update( buffer, 0, length );
+                    length = 0;
+                    String remaining = value.substring( i, end );
+                    messageDigest.update( ( normalize ? remaining.toUpperCase() : remaining ).getBytes( UTF8 ) );
+                    break;
+                }
+                if ( normalize && c >= 'a' && c <= 'z' ) {
+                    c -= 'a' - 'A';
+                }
+                buffer[length++] = (byte) c;
+                if ( length == buffer.length ) {
+                    messageDigest.update( buffer, 0, length );
+                    length = 0;
+                }
+            }
+            messageDigest.update( buffer, 0, length );
         }
 
+        String seguid = Base64.encodeBytes( messageDigest.digest() );
+        return seguid.replace( "=", "" );
     }
 
     /**
@@ -74,6 +145,6 @@ public class RogidGenerator {
         if ( taxid == null ) {
             throw new NullPointerException( "You must give a non null taxid" );
         }
-        return doMessageDigestAndBase64Encoding( sequence.trim().toUpperCase()) + taxid;
+        return calculateSeguid( Collections.singletonList( sequence ), true ) + taxid;
     }
 }
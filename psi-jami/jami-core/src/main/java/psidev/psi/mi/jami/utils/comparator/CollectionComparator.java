@@ -7,6 +7,8 @@ import java.util.*;
  *
  * Two collections are equals if they have the same content and the same size.
  * The smallest collection will come before the longest collection.
+ * The collections are only sorted when their elements are not the same in the same order.
+ * If the object comparator is a FingerprintComparator, collections having different fingerprints are ordered by fingerprint.
  *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  * @version $Id$
@@ -32,6 +34,45 @@ public class CollectionComparator<T> implements Comparator<Collection<? extends
         return objectComparator;
     }
 
+    private int compareSortedElements(Collection<? extends T> ts1, Collection<? extends T> ts2){
+        Object[] array1 = ts1.toArray();
+        Object[] array2 = ts2.toArray();
+
+        Comparator<Object> comparator = (Comparator<Object>) objectComparator;
+        Arrays.sort(array1, comparator);
+        Arrays.sort(array2, comparator);
+
+        int comp = 0;
+        for (int i = 0; comp == 0 && i < array1.length && i < array2.length; i++){
+            comp = comparator.compare(array1[i], array2[i]);
+        }
+
+        if (comp != 0){
+            return comp;
+        }
+        else if (array1.length > array2.length){
+            return 1;
+        }
+        else if (array1.length < array2.length){
+            return -1;
+        }
+        return comp;
+    }
+
+    /**
+     * The fingerprint of a collection does not depend on the order of its elements
+     * @param ts
+     * @return
+     */
+    private long computeFingerprint(Collection<? extends T> ts){
+        FingerprintComparator<T> fingerprintComparator = (FingerprintComparator<T>) objectComparator;
+        long fingerprint = 0;
+        for (T object : ts){
+            fingerprint += fingerprintComparator.computeHashCode(object);
+        }
+        return fingerprint;
+    }
+
     /**
      * Two collections are equals if they have the same content and the same size.
      * The smallest collection will come before the longest collection.
@@ -63,33 +104,33 @@ public class CollectionComparator<T> implements Comparator<Collection<? extends
             else if (ts1.size() > ts2.size()){
                 return AFTER;
             }
-            else {
-                List<T> list1 = new ArrayList<T>(ts1);
-                List<T> list2 = new ArrayList<T>(ts2);
-
-                Collections.sort(list1, objectComparator);
-                Collections.sort(list2, objectComparator);
-
-                Iterator<T> iterator1 = list1.iterator();
-                Iterator<T> iterator2 = list2.iterator();
-                int comp2 = 0;
-                while (comp2 == 0 && iterator1.hasNext() && iterator2.hasNext()){
-                    comp2 = objectComparator.compare(iterator1.next(), iterator2.next());
-                }
-
-                if (comp2 != 0){
-                    return comp2;
-                }
-                else if (iterator1.hasNext()){
-                    return AFTER;
-                }
-                else if (iterator2.hasNext()){
+            else if (ts1.isEmpty()){
+                return EQUAL;
+            }
+            // two collections of the same size with different fingerprints cannot be equal
+            else if (objectComparator instanceof FingerprintComparator){
+                long fingerprint1 = computeFingerprint(ts1);
+                long fingerprint2 = computeFingerprint(ts2);
+                if (fingerprint1 < fingerprint2){
                     return BEFORE;
                 }
-                else {
-                    return comp2;
+                else if (fingerprint1 > fingerprint2){
+                    return AFTER;
                 }
             }
+
+            // collections having the same elements in the same order do not need to be sorted
+            Iterator<? extends T> iterator1 = ts1.iterator();
+            Iterator<? extends T> iterator2 = ts2.iterator();
+            int comp = EQUAL;
+            while (comp == EQUAL && iterator1.hasNext() && iterator2.hasNext()){
+                comp = objectComparator.compare(iterator1.next(), iterator2.next());
+            }
+            if (comp == EQUAL || ts1.size() == 1){
+                return comp;
+            }
+
+            return compareSortedElements(ts1, ts2);
         }
     }
 }
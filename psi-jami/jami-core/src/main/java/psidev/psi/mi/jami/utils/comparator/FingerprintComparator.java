@@ -0,0 +1,114 @@
+package psidev.psi.mi.jami.utils.comparator;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A comparator which compares first the fingerprints of the objects and only uses the wrapped MIComparator when
+ * the fingerprints are the same.
+ *
+ * The fingerprint of an object is the hashcode computed by the wrapped MIComparator, which is consistent with its comparison results:
+ * two objects having different fingerprints cannot be equal, so most of the comparisons between different objects
+ * do not need to compare all the properties of the objects.
+ * The fingerprints are computed once per object and cached. They must be invalidated (see invalidate and clear) when an object
+ * is modified so a FingerprintComparator should be used for a batch of comparisons on objects which are not modified
+ * (deduplication, clustering, etc.).
+ *
+ * The order is not the same as the order of the wrapped comparator: objects are sorted by fingerprint first, then with the wrapped comparator.
+ * Objects which are equal with the wrapped comparator are still equal with this comparator.
+ *
+ * This comparator is not thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class FingerprintComparator<T> implements MIComparator<T> {
+
+    private MIComparator<T> delegate;
+    private Map<T, Integer> fingerprints;
+
+    /**
+     * Creates a new FingerprintComparator. It requires a MIComparator computing hashcodes consistent with its comparison results.
+     * @param delegate
+     */
+    public FingerprintComparator(MIComparator<T> delegate){
+        if (delegate == null){
+            throw new IllegalArgumentException("The MI comparator is required for comparing fingerprints and it cannot be null");
+        }
+        this.delegate = delegate;
+        this.fingerprints = new IdentityHashMap<T, Integer>();
+    }
+
+    public MIComparator<T> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Compares the fingerprints of the two objects first. If they are the same, compares the objects using the wrapped comparator.
+     * - Two objects which are null are equals
+     * - The object which is not null is before null.
+     * @param t1
+     * @param t2
+     * @return
+     */
+    public int compare(T t1, T t2) {
+        int EQUAL = 0;
+        int BEFORE = -1;
+        int AFTER = 1;
+
+        if (t1 == t2){
+            return EQUAL;
+        }
+        else if (t1 == null){
+            return AFTER;
+        }
+        else if (t2 == null){
+            return BEFORE;
+        }
+        else {
+            int fingerprint1 = computeHashCode(t1);
+            int fingerprint2 = computeHashCode(t2);
+            if (fingerprint1 < fingerprint2){
+                return BEFORE;
+            }
+            else if (fingerprint1 > fingerprint2){
+                return AFTER;
+            }
+            return delegate.compare(t1, t2);
+        }
+    }
+
+    /**
+     *
+     * @param object
+     * @return the cached fingerprint of this object
+     */
+    public int computeHashCode(T object) {
+        if (object == null){
+            return 0;
+        }
+        Integer fingerprint = fingerprints.get(object);
+        if (fingerprint == null){
+            fingerprint = delegate.computeHashCode(object);
+            fingerprints.put(object, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Removes the cached fingerprint of an object which has been modified
+     * @param object
+     */
+    public void invalidate(T object){
+        fingerprints.remove(object);
+    }
+
+    /**
+     * Removes all the cached fingerprints
+     */
+    public void clear(){
+        fingerprints.clear();
+    }
+}
@@ -2,6 +2,7 @@ package psidev.psi.mi.jami.utils.comparator.cv;
 
 import psidev.psi.mi.jami.model.CvTerm;
 import psidev.psi.mi.jami.model.Xref;
+import psidev.psi.mi.jami.utils.comparator.MIComparator;
 import psidev.psi.mi.jami.utils.comparator.xref.UnambiguousExternalIdentifierComparator;
 
 import java.util.ArrayList;
@@ -23,7 +24,7 @@ import java.util.List;
  * @since <pre>18/12/12</pre>
  */
 
-public class UnambiguousCvTermComparator extends CvTermComparator {
+public class UnambiguousCvTermComparator extends CvTermComparator implements MIComparator<CvTerm> {
 
     private static UnambiguousCvTermComparator unambiguousCvTermComparator;
 
@@ -54,6 +55,15 @@ public class UnambiguousCvTermComparator extends CvTermComparator {
         return unambiguousCvTermComparator.compare(cv1, cv2) == 0;
     }
 
+    /**
+     * Computes a hashcode consistent with the comparison results of this comparator
+     * @param cvTerm
+     * @return
+     */
+    public int computeHashCode(CvTerm cvTerm) {
+        return hashCode(cvTerm);
+    }
+
     /**
      *
      * @param cv1
@@ -3,6 +3,7 @@ package psidev.psi.mi.jami.utils.comparator.feature;
 import psidev.psi.mi.jami.model.Feature;
 import psidev.psi.mi.jami.model.Range;
 import psidev.psi.mi.jami.model.Xref;
+import psidev.psi.mi.jami.utils.comparator.MIComparator;
 import psidev.psi.mi.jami.utils.comparator.cv.UnambiguousCvTermComparator;
 import psidev.psi.mi.jami.utils.comparator.range.UnambiguousRangeAndResultingSequenceComparator;
 import psidev.psi.mi.jami.utils.comparator.range.UnambiguousRangeComparator;
@@ -23,7 +24,7 @@ import java.util.List;
  * @since <pre>16/01/13</pre>
  */
 
-public class UnambiguousFeatureBaseComparator extends FeatureBaseComparator {
+public class UnambiguousFeatureBaseComparator extends FeatureBaseComparator implements MIComparator<Feature> {
 
     private static UnambiguousFeatureBaseComparator unambiguousFeatureComparator;
 
@@ -58,6 +59,15 @@ public class UnambiguousFeatureBaseComparator extends FeatureBaseComparator {
         return unambiguousFeatureComparator.compare(feature1, feature2) == 0;
     }
 
+    /**
+     * Computes a hashcode consistent with the comparison results of this comparator
+     * @param feature
+     * @return
+     */
+    public int computeHashCode(Feature feature) {
+        return hashCode(feature);
+    }
+
     /**
      *
      * @param feature
@@ -2,6 +2,7 @@ package psidev.psi.mi.jami.utils.comparator.interaction;
 
 import psidev.psi.mi.jami.model.Interaction;
 import psidev.psi.mi.jami.model.Xref;
+import psidev.psi.mi.jami.utils.comparator.MIComparator;
 import psidev.psi.mi.jami.utils.comparator.cv.UnambiguousCvTermComparator;
 import psidev.psi.mi.jami.utils.comparator.xref.UnambiguousExternalIdentifierComparator;
 
@@ -23,7 +24,7 @@ import java.util.List;
  * @since <pre>18/01/13</pre>
  */
 
-public class UnambiguousInteractionBaseComparator extends InteractionBaseComparator {
+public class UnambiguousInteractionBaseComparator extends InteractionBaseComparator implements MIComparator<Interaction> {
 
     private static UnambiguousInteractionBaseComparator unambiguousInteractionComparator;
 
@@ -57,6 +58,15 @@ public class UnambiguousInteractionBaseComparator extends InteractionBaseCompara
         return unambiguousInteractionComparator.compare(interaction1, interaction2) == 0;
     }
 
+    /**
+     * Computes a hashcode consistent with the comparison results of this comparator
+     * @param interaction
+     * @return
+     */
+    public int computeHashCode(Interaction interaction) {
+        return hashCode(interaction);
+    }
+
     /**
      *
      * @param interaction
@@ -3,6 +3,7 @@ package psidev.psi.mi.jami.utils.comparator.interactor;
 import psidev.psi.mi.jami.model.Alias;
 import psidev.psi.mi.jami.model.Interactor;
 import psidev.psi.mi.jami.model.Xref;
+import psidev.psi.mi.jami.utils.comparator.MIComparator;
 import psidev.psi.mi.jami.utils.comparator.alias.UnambiguousAliasComparator;
 import psidev.psi.mi.jami.utils.comparator.xref.UnambiguousExternalIdentifierComparator;
 
@@ -21,7 +22,7 @@ import java.util.List;
  * @since <pre>21/12/12</pre>
  */
 
-public class UnambiguousInteractorBaseComparator extends InteractorBaseComparator {
+public class UnambiguousInteractorBaseComparator extends InteractorBaseComparator implements MIComparator<Interactor> {
     private static UnambiguousInteractorBaseComparator unambiguousInteractorComparator;
 
     public UnambiguousInteractorBaseComparator() {
@@ -50,6 +51,15 @@ public class UnambiguousInteractorBaseComparator extends InteractorBaseComparato
         return unambiguousInteractorComparator.compare(interactor1, interactor2) == 0;
     }
 
+    /**
+     * Computes a hashcode consistent with the comparison results of this comparator
+     * @param interactor
+     * @return
+     */
+    public int computeHashCode(Interactor interactor) {
+        return hashCode(interactor);
+    }
+
     /**
      *
      * @param interactor
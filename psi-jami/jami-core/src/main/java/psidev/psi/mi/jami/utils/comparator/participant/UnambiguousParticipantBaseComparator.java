@@ -1,6 +1,7 @@
 package psidev.psi.mi.jami.utils.comparator.participant;
 
 import psidev.psi.mi.jami.model.Participant;
+import psidev.psi.mi.jami.utils.comparator.MIComparator;
 import psidev.psi.mi.jami.utils.comparator.cv.UnambiguousCvTermComparator;
 
 /**
@@ -15,7 +16,7 @@ import psidev.psi.mi.jami.utils.comparator.cv.UnambiguousCvTermComparator;
  * @since <pre>16/01/13</pre>
  */
 
-public class UnambiguousParticipantBaseComparator extends ParticipantBaseComparator {
+public class UnambiguousParticipantBaseComparator extends ParticipantBaseComparator implements MIComparator<Participant> {
     private static UnambiguousParticipantBaseComparator unambiguousParticipantComparator;
 
     /**
@@ -65,6 +66,15 @@ public class UnambiguousParticipantBaseComparator extends ParticipantBaseCompara
         return unambiguousParticipantComparator.compare(participant1, participant2) == 0;
     }
 
+    /**
+     * Computes a hashcode consistent with the comparison results of this comparator
+     * @param participant
+     * @return
+     */
+    public int computeHashCode(Participant participant) {
+        return hashCode(participant);
+    }
+
     /**
      *
      * @param participant
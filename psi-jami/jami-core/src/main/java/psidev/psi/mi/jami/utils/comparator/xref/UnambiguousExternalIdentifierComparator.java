@@ -2,6 +2,7 @@ package psidev.psi.mi.jami.utils.comparator.xref;
 
 import psidev.psi.mi.jami.model.CvTerm;
 import psidev.psi.mi.jami.model.Xref;
+import psidev.psi.mi.jami.utils.comparator.MIComparator;
 
 import java.util.Comparator;
 
@@ -20,7 +21,7 @@ import java.util.Comparator;
  * @since <pre>18/12/12</pre>
  */
 
-public class UnambiguousExternalIdentifierComparator implements Comparator<Xref> {
+public class UnambiguousExternalIdentifierComparator implements MIComparator<Xref> {
 
     private static UnambiguousExternalIdentifierComparator unambiguousIdentifierComparator;
 
@@ -126,6 +127,15 @@ public class UnambiguousExternalIdentifierComparator implements Comparator<Xref>
         return unambiguousIdentifierComparator.compare(externalIdentifier1, externalIdentifier2) == 0;
     }
 
+    /**
+     * Computes a hashcode consistent with the comparison results of this comparator
+     * @param xref
+     * @return
+     */
+    public int computeHashCode(Xref xref) {
+        return hashCode(xref);
+    }
+
     /**
      *
      * @param externalIdentifier1
@@ -2,6 +2,7 @@ package psidev.psi.mi.jami.utils.comparator.xref;
 
 import psidev.psi.mi.jami.model.CvTerm;
 import psidev.psi.mi.jami.model.Xref;
+import psidev.psi.mi.jami.utils.comparator.MIComparator;
 
 import java.util.Comparator;
 
@@ -24,7 +25,7 @@ import java.util.Comparator;
  * @since <pre>19/12/12</pre>
  */
 
-public class UnambiguousXrefComparator implements Comparator<Xref> {
+public class UnambiguousXrefComparator implements MIComparator<Xref> {
     private static UnambiguousXrefComparator unambiguousXrefComparator;
 
     public UnambiguousXrefComparator() {
@@ -140,6 +141,15 @@ public class UnambiguousXrefComparator implements Comparator<Xref> {
         return unambiguousXrefComparator.compare(xref1, xref2) == 0;
     }
 
+    /**
+     * Computes a hashcode consistent with the comparison results of this comparator
+     * @param xref
+     * @return
+     */
+    public int computeHashCode(Xref xref) {
+        return hashCode(xref);
+    }
+
     /**
      *
      * @param xref
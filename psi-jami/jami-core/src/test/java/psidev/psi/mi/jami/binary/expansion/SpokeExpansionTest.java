@@ -207,4 +207,36 @@ public class SpokeExpansionTest {
             Assert.assertTrue(binaryInteraction.getParticipantA() == p1);
         }
     }
+
+    @Test
+    public void test_expand_as_iterator() throws ComplexExpansionException {
+
+        InteractionEvidence binary = new DefaultInteractionEvidence();
+        binary.addParticipant(new DefaultParticipantEvidence(new DefaultProtein("p1")));
+        binary.addParticipant(new DefaultParticipantEvidence(new DefaultProtein("p2")));
+
+        InteractionEvidence nary = new DefaultInteractionEvidence();
+        ParticipantEvidence p1 = new DefaultParticipantEvidence(new DefaultProtein("p1"));
+        ParticipantEvidence p2 = new DefaultParticipantEvidence(new DefaultProtein("p2"));
+        ParticipantEvidence p3 = new DefaultParticipantEvidence(new DefaultProtein("p3"));
+        ParticipantEvidence p4 = new DefaultParticipantEvidence(new DefaultProtein("p4"));
+        nary.addParticipant(p1);
+        nary.addParticipant(p2);
+        nary.addParticipant(p3);
+        nary.addParticipant(p4);
+
+        Iterator<? extends BinaryInteraction> binaryExpanded = expansion.expandAsIterator(binary);
+        Assert.assertTrue(binaryExpanded.next() instanceof BinaryInteractionEvidenceWrapper);
+        Assert.assertFalse(binaryExpanded.hasNext());
+
+        Iterator<? extends BinaryInteraction> nary_expanded = expansion.expandAsIterator(nary);
+        for (ParticipantEvidence prey : new ParticipantEvidence[]{p2, p3, p4}){
+            BinaryInteraction binaryInteraction = nary_expanded.next();
+            Assert.assertTrue(binaryInteraction instanceof DefaultBinaryInteractionEvidence);
+            Assert.assertTrue(binaryInteraction.getParticipantA() == p1);
+            Assert.assertTrue(binaryInteraction.getParticipantB() == prey);
+        }
+        Assert.assertFalse(nary_expanded.hasNext());
+        Assert.assertEquals(3, expansion.expand(nary).size());
+    }
 }
@@ -0,0 +1,107 @@
+package psidev.psi.mi.jami.utils.checksum;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import psidev.psi.mi.jami.model.Interaction;
+import psidev.psi.mi.jami.model.Interactor;
+import psidev.psi.mi.jami.model.Protein;
+import psidev.psi.mi.jami.model.impl.DefaultInteraction;
+import psidev.psi.mi.jami.model.impl.DefaultOrganism;
+import psidev.psi.mi.jami.model.impl.DefaultParticipant;
+import psidev.psi.mi.jami.model.impl.DefaultProtein;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tester for BulkChecksumGenerator, RogidGenerator and RigidGenerator
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class BulkChecksumGeneratorTest {
+
+    private static String seguid(String value) throws Exception {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA");
+        messageDigest.update(value.getBytes("UTF-8"));
+        return Base64.encodeBytes(messageDigest.digest()).replace("=", "");
+    }
+
+    @Test
+    public void test_rogid_same_as_sha_digest() throws Exception {
+        RogidGenerator generator = new RogidGenerator();
+
+        Assert.assertEquals(seguid("NDKSDTYSAG"), generator.calculateSeguid("NDKSDTYSAG"));
+        Assert.assertEquals(seguid("NDKSDTYSAG") + "9606", generator.computeRogidFrom(" ndksdtySAG\n", "9606"));
+        Assert.assertEquals(seguid(""), generator.calculateSeguid(""));
+
+        StringBuilder longSequence = new StringBuilder();
+        for (int i = 0; i < 10000; i++){
+            longSequence.append("ACDEFGHIKLMNPQRSTVWY".charAt(i % 20));
+        }
+        Assert.assertEquals(seguid(longSequence.toString()) + "9606", generator.computeRogidFrom(longSequence.toString().toLowerCase(), "9606"));
+        // non ASCII characters are encoded in UTF-8
+        Assert.assertEquals(seguid("ACD\u00c9F"), generator.calculateSeguid("ACD\u00c9F"));
+    }
+
+    @Test
+    public void test_rigid_same_as_digest_of_sorted_rogids() throws Exception {
+        RigidGenerator generator = new RigidGenerator();
+        generator.getRogids().add("rogid2");
+        generator.getRogids().add("rogid1");
+
+        Assert.assertEquals(seguid("rogid1rogid2"), generator.calculateRigid());
+        generator.getRogids().clear();
+        Assert.assertNull(generator.calculateRigid());
+    }
+
+    @Test
+    public void test_bulk_generation() throws Exception {
+        RogidGenerator rogidGenerator = new RogidGenerator();
+        List<Interactor> proteins = new ArrayList<Interactor>();
+        for (int i = 0; i < 500; i++){
+            Protein protein = new DefaultProtein("p" + i, new DefaultOrganism(9606));
+            protein.setSequence("NDKSDTYSAG" + i);
+            proteins.add(protein);
+        }
+        // no sequence
+        proteins.add(new DefaultProtein("no_sequence", new DefaultOrganism(9606)));
+
+        List<Interaction> interactions = new ArrayList<Interaction>();
+        for (int i = 0; i < 499; i++){
+            Interaction interaction = new DefaultInteraction("interaction" + i);
+            interaction.addParticipant(new DefaultParticipant(proteins.get(i + 1)));
+            interaction.addParticipant(new DefaultParticipant(proteins.get(i)));
+            interactions.add(interaction);
+        }
+        Interaction withoutRogid = new DefaultInteraction("without rogid");
+        withoutRogid.addParticipant(new DefaultParticipant(proteins.get(500)));
+        interactions.add(withoutRogid);
+
+        BulkChecksumGenerator generator = new BulkChecksumGenerator(4);
+        try {
+            Assert.assertEquals(500, generator.generateRogids(proteins.iterator()));
+            Assert.assertEquals(499, generator.generateRigids(interactions.iterator()));
+        }
+        finally {
+            generator.shutdown();
+        }
+
+        for (int i = 0; i < 500; i++){
+            Assert.assertEquals(rogidGenerator.computeRogidFrom("NDKSDTYSAG" + i, "9606"), ((Protein) proteins.get(i)).getRogid());
+        }
+        Assert.assertNull(((Protein) proteins.get(500)).getRogid());
+
+        RigidGenerator rigidGenerator = new RigidGenerator();
+        for (int i = 0; i < 499; i++){
+            rigidGenerator.getRogids().addAll(Arrays.asList(((Protein) proteins.get(i)).getRogid(), ((Protein) proteins.get(i + 1)).getRogid()));
+            Assert.assertEquals(rigidGenerator.calculateRigid(), interactions.get(i).getRigid());
+            rigidGenerator.getRogids().clear();
+        }
+        Assert.assertNull(withoutRogid.getRigid());
+    }
+}
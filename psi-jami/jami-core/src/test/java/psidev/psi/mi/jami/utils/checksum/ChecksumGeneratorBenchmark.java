@@ -0,0 +1,103 @@
+package psidev.psi.mi.jami.utils.checksum;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import psidev.psi.mi.jami.model.Interactor;
+import psidev.psi.mi.jami.model.Protein;
+import psidev.psi.mi.jami.model.impl.DefaultOrganism;
+import psidev.psi.mi.jami.model.impl.DefaultProtein;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the rogid computation of the previous RogidGenerator implementation (one MessageDigest and one
+ * upper cased copy of the sequence per rogid) with the current RogidGenerator and the BulkChecksumGenerator
+ * on random protein sequences.
+ *
+ * It is not run with the unit tests, run the main method to execute it.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ChecksumGeneratorBenchmark {
+
+    private static final String AMINO_ACIDS = "ACDEFGHIKLMNPQRSTVWY";
+
+    @Param({"10000"})
+    public int numberOfProteins;
+
+    private List<Interactor> proteins;
+    private BulkChecksumGenerator bulkGenerator;
+
+    @Setup(Level.Trial)
+    public void createProteins() {
+        Random random = new Random(42);
+        this.proteins = new ArrayList<Interactor>(numberOfProteins);
+        for (int i = 0; i < numberOfProteins; i++){
+            // average length of UniProtKB sequences
+            int length = 50 + random.nextInt(600);
+            StringBuilder sequence = new StringBuilder(length);
+            for (int j = 0; j < length; j++){
+                sequence.append(AMINO_ACIDS.charAt(random.nextInt(AMINO_ACIDS.length())));
+            }
+            Protein protein = new DefaultProtein("protein" + i, new DefaultOrganism(9606));
+            protein.setSequence(sequence.toString());
+            this.proteins.add(protein);
+        }
+        this.bulkGenerator = new BulkChecksumGenerator();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        this.bulkGenerator.shutdown();
+    }
+
+    @Benchmark
+    public void previousRogidGenerator(Blackhole blackhole) throws NoSuchAlgorithmException {
+        for (Interactor interactor : this.proteins){
+            Protein protein = (Protein) interactor;
+            MessageDigest messageDigest = MessageDigest.getInstance( "SHA" );
+            messageDigest.update( protein.getSequence().trim().toUpperCase().getBytes() );
+            blackhole.consume(Base64.encodeBytes( messageDigest.digest() ).replace( "=", "" )
+                    + Integer.toString(protein.getOrganism().getTaxId()));
+        }
+    }
+
+    @Benchmark
+    public void rogidGenerator(Blackhole blackhole) throws SeguidException {
+        RogidGenerator generator = new RogidGenerator();
+        for (Interactor interactor : this.proteins){
+            Protein protein = (Protein) interactor;
+            blackhole.consume(generator.computeRogidFrom(protein.getSequence(), Integer.toString(protein.getOrganism().getTaxId())));
+        }
+    }
+
+    @Benchmark
+    public int bulkChecksumGenerator() throws SeguidException {
+        return this.bulkGenerator.generateRogids(this.proteins.iterator());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ChecksumGeneratorBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
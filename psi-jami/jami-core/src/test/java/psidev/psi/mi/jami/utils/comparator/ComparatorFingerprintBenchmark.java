@@ -0,0 +1,119 @@
+package psidev.psi.mi.jami.utils.comparator;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import psidev.psi.mi.jami.model.*;
+import psidev.psi.mi.jami.model.impl.DefaultInteraction;
+import psidev.psi.mi.jami.model.impl.DefaultParticipant;
+import psidev.psi.mi.jami.model.impl.DefaultProtein;
+import psidev.psi.mi.jami.utils.CvTermUtils;
+import psidev.psi.mi.jami.utils.XrefUtils;
+import psidev.psi.mi.jami.utils.comparator.interaction.UnambiguousInteractionBaseComparator;
+import psidev.psi.mi.jami.utils.comparator.participant.UnambiguousParticipantBaseComparator;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the unambiguous comparators with the same comparators wrapped in a FingerprintComparator
+ * on a synthetic interaction graph (interactions sharing proteins, with duplicated interactions).
+ *
+ * It is not run with the unit tests, run the main method to execute it.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ComparatorFingerprintBenchmark {
+
+    @Param({"1000", "10000"})
+    public int numberOfInteractions;
+
+    private List<Interaction> interactions;
+
+    @Setup(Level.Trial)
+    public void createInteractions() {
+        Random random = new Random(42);
+        CvTerm proteinType = CvTermUtils.createProteinInteractorType();
+        CvTerm physicalAssociation = CvTermUtils.createMICvTerm("physical association", "MI:0915");
+
+        List<Protein> proteins = new ArrayList<Protein>(numberOfInteractions);
+        for (int i = 0; i < numberOfInteractions / 2 + 1; i++){
+            Protein protein = new DefaultProtein("protein" + i, proteinType, XrefUtils.createUniprotIdentity("P" + (10000 + i)));
+            protein.getIdentifiers().add(XrefUtils.createUniprotSecondary("Q" + (10000 + i)));
+            protein.getXrefs().add(XrefUtils.createXref("go", "MI:0448", "GO:" + (5000 + random.nextInt(100))));
+            proteins.add(protein);
+        }
+
+        this.interactions = new ArrayList<Interaction>(numberOfInteractions);
+        for (int i = 0; i < numberOfInteractions; i++){
+            // one interaction out of five is a copy of a previous interaction
+            int id = i % 5 == 4 ? random.nextInt(i) : i;
+            Random interactionRandom = new Random(id);
+            Interaction interaction = new DefaultInteraction("interaction" + id, physicalAssociation);
+            interaction.getIdentifiers().add(XrefUtils.createXref("intact", "MI:0469", "EBI-" + id));
+            int numberOfParticipants = 2 + interactionRandom.nextInt(5);
+            for (int j = 0; j < numberOfParticipants; j++){
+                interaction.addParticipant(new DefaultParticipant(proteins.get(interactionRandom.nextInt(proteins.size()))));
+            }
+            this.interactions.add(interaction);
+        }
+    }
+
+    @Benchmark
+    public int deduplicateInteractions() {
+        Set<Interaction> set = new TreeSet<Interaction>(new UnambiguousInteractionBaseComparator());
+        set.addAll(this.interactions);
+        return set.size();
+    }
+
+    @Benchmark
+    public int deduplicateInteractionsWithFingerprints() {
+        Set<Interaction> set = new TreeSet<Interaction>(
+                new FingerprintComparator<Interaction>(new UnambiguousInteractionBaseComparator()));
+        set.addAll(this.interactions);
+        return set.size();
+    }
+
+    @Benchmark
+    public int compareParticipants() {
+        return compareAllParticipants(new CollectionComparator<Participant>(new UnambiguousParticipantBaseComparator()));
+    }
+
+    @Benchmark
+    public int compareParticipantsWithFingerprints() {
+        return compareAllParticipants(new CollectionComparator<Participant>(
+                new FingerprintComparator<Participant>(new UnambiguousParticipantBaseComparator())));
+    }
+
+    private int compareAllParticipants(CollectionComparator<Participant> comparator){
+        int equals = 0;
+        for (int i = 1; i < this.interactions.size(); i++){
+            Interaction interaction = this.interactions.get(i);
+            // compares with a few previous interactions as a clustering algorithm would do
+            for (int j = Math.max(0, i - 10); j < i; j++){
+                if (comparator.compare(interaction.getParticipants(), this.interactions.get(j).getParticipants()) == 0){
+                    equals++;
+                }
+            }
+        }
+        return equals;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ComparatorFingerprintBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
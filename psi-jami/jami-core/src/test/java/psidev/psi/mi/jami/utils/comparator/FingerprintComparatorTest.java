@@ -0,0 +1,88 @@
+package psidev.psi.mi.jami.utils.comparator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import psidev.psi.mi.jami.model.CvTerm;
+import psidev.psi.mi.jami.model.Xref;
+import psidev.psi.mi.jami.model.impl.DefaultCvTerm;
+import psidev.psi.mi.jami.model.impl.DefaultXref;
+import psidev.psi.mi.jami.utils.CvTermUtils;
+import psidev.psi.mi.jami.utils.comparator.cv.UnambiguousCvTermComparator;
+import psidev.psi.mi.jami.utils.comparator.xref.UnambiguousXrefComparator;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tester for FingerprintComparator and the CollectionComparator shortcuts
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class FingerprintComparatorTest {
+
+    private FingerprintComparator<Xref> comparator = new FingerprintComparator<Xref>(new UnambiguousXrefComparator());
+
+    @Test
+    public void test_equal_objects_same_fingerprint() throws Exception {
+        Xref id1 = new DefaultXref(CvTermUtils.createChebiDatabase(), "CHEBI:xxx");
+        Xref id2 = new DefaultXref(CvTermUtils.createChebiDatabase(), "CHEBI:xxx");
+
+        Assert.assertTrue(comparator.compare(id1, id2) == 0);
+        Assert.assertTrue(comparator.computeHashCode(id1) == comparator.computeHashCode(id2));
+    }
+
+    @Test
+    public void test_different_objects_consistent_order() throws Exception {
+        Xref id1 = new DefaultXref(CvTermUtils.createChebiDatabase(), "CHEBI:xxx");
+        Xref id2 = new DefaultXref(CvTermUtils.createUniprotkbDatabase(), "P12345");
+
+        Assert.assertTrue(comparator.compare(id1, id2) != 0);
+        Assert.assertTrue(Integer.signum(comparator.compare(id1, id2)) == -Integer.signum(comparator.compare(id2, id1)));
+        Assert.assertTrue(comparator.compare(id1, null) < 0);
+        Assert.assertTrue(comparator.compare(null, id1) > 0);
+    }
+
+    @Test
+    public void test_invalidate_modified_object() throws Exception {
+        FingerprintComparator<CvTerm> cvComparator = new FingerprintComparator<CvTerm>(new UnambiguousCvTermComparator());
+        CvTerm cv1 = new DefaultCvTerm("test");
+        CvTerm cv2 = new DefaultCvTerm("other");
+
+        Assert.assertTrue(cvComparator.compare(cv1, cv2) != 0);
+
+        cv1.setShortName("other");
+        // the cached fingerprint of the modified object is not valid anymore
+        cvComparator.invalidate(cv1);
+        Assert.assertTrue(cvComparator.compare(cv1, cv2) == 0);
+
+        cv1.setShortName("test");
+        cvComparator.clear();
+        Assert.assertTrue(cvComparator.compare(cv1, cv2) != 0);
+    }
+
+    @Test
+    public void test_collections_order_independent() throws Exception {
+        CollectionComparator<Xref> collectionComparator = new CollectionComparator<Xref>(comparator);
+        CollectionComparator<Xref> defaultComparator = new CollectionComparator<Xref>(new UnambiguousXrefComparator());
+
+        Xref id1 = new DefaultXref(CvTermUtils.createChebiDatabase(), "CHEBI:xxx");
+        Xref id2 = new DefaultXref(CvTermUtils.createUniprotkbDatabase(), "P12345");
+        Xref id3 = new DefaultXref(CvTermUtils.createUniprotkbDatabase(), "P12346");
+
+        List<Xref> list1 = Arrays.asList(id1, id2);
+        List<Xref> list2 = Arrays.<Xref>asList(new DefaultXref(CvTermUtils.createUniprotkbDatabase(), "P12345"), new DefaultXref(CvTermUtils.createChebiDatabase(), "CHEBI:xxx"));
+        List<Xref> list3 = Arrays.asList(id1, id3);
+
+        Assert.assertTrue(collectionComparator.compare(list1, list2) == 0);
+        Assert.assertTrue(defaultComparator.compare(list1, list2) == 0);
+        Assert.assertTrue(collectionComparator.compare(list1, list3) != 0);
+        Assert.assertTrue(Integer.signum(defaultComparator.compare(list1, list3)) == -Integer.signum(defaultComparator.compare(list3, list1)));
+        Assert.assertTrue(defaultComparator.compare(Collections.<Xref>emptyList(), Collections.<Xref>emptyList()) == 0);
+        Assert.assertTrue(defaultComparator.compare(Collections.singletonList(id1), Collections.singletonList(id2))
+                == new UnambiguousXrefComparator().compare(id1, id2));
+    }
+}
@@ -3,11 +3,24 @@ package psidev.psi.mi.jami.enricher.impl;
 import psidev.psi.mi.jami.enricher.MIEnricher;
 import psidev.psi.mi.jami.enricher.exception.EnricherException;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Abstract implementation of a MIEnricher
  *
+ * When enriching a collection of objects, the objects can be processed by batches (see setBatchSize).
+ * Before enriching the objects of a batch, the enricher can prefetch all of them at once (see prefetch) so the
+ * fetchers are queried with the deduplicated identifiers of the batch instead of one identifier at a time.
+ * The prefetch queries can run concurrently in the executor service of the enricher. The objects are then enriched one after
+ * the other in the calling thread, in the order of the collection, so the listeners are notified in the same order as
+ * without batches.
+ *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  * @version $Id$
  * @since <pre>30/09/13</pre>
@@ -15,6 +28,9 @@ import java.util.Collection;
 
 public abstract class AbstractMIEnricher<T extends Object> implements MIEnricher<T>{
 
+    private int batchSize = 1;
+    private ExecutorService executorService = null;
+
     public void enrich(T objectToEnrich) throws EnricherException {
         if(objectToEnrich == null)
             throw new IllegalArgumentException("Cannot enrich a null object.");
@@ -36,8 +52,23 @@ public abstract class AbstractMIEnricher<T extends Object> implements MIEnricher
         if(objects == null)
             throw new IllegalArgumentException("Cannot enrich a null collection of objects.");
 
-        for (T object : objects){
-            enrich(object);
+        if (batchSize <= 1){
+            for (T object : objects){
+                enrich(object);
+            }
+        }
+        else{
+            List<T> batch = new ArrayList<T>(batchSize);
+            for (T object : objects){
+                batch.add(object);
+                if (batch.size() == batchSize){
+                    enrichBatch(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()){
+                enrichBatch(batch);
+            }
         }
     }
 
@@ -46,4 +77,106 @@ public abstract class AbstractMIEnricher<T extends Object> implements MIEnricher
     public abstract T find(T objectToEnrich) throws EnricherException ;
 
     protected abstract void onEnrichedVersionNotFound(T objectToEnrich) throws EnricherException ;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of objects prefetched together when enriching a collection of objects.
+     * By default, the batch size is 1 and each object is fetched when it is enriched.
+     * @param batchSize
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1){
+            throw new IllegalArgumentException("The batch size must be at least 1: "+batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Sets the executor service running the prefetch queries of a batch concurrently.
+     * If null, the prefetch queries run in the calling thread. The enricher does not shut down the executor service.
+     * @param executorService
+     */
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    /**
+     * Prefetches and enriches a batch of objects. The objects are enriched in the order of the batch.
+     * @param batch
+     * @throws EnricherException
+     */
+    protected void enrichBatch(List<T> batch) throws EnricherException {
+        try{
+            prefetch(batch);
+            for (T object : batch){
+                enrich(object);
+            }
+        }
+        finally {
+            clearPrefetchedObjects();
+        }
+    }
+
+    /**
+     * Fetches at once the objects which will be needed to enrich this batch of objects.
+     * The prefetched objects have to be kept until clearPrefetchedObjects is called and used by find.
+     * This method is called in the calling thread and does nothing by default.
+     * @param objectsToEnrich
+     * @throws EnricherException
+     */
+    protected void prefetch(Collection<T> objectsToEnrich) throws EnricherException {
+        // nothing to prefetch by default
+    }
+
+    /**
+     * Clears the objects kept by the last prefetch. Does nothing by default.
+     */
+    protected void clearPrefetchedObjects() {
+        // nothing to clear by default
+    }
+
+    /**
+     * Runs the tasks in the executor service if there is one, in the calling thread otherwise.
+     * @param tasks
+     * @param <R>
+     * @return the results of the tasks, in the order of the tasks
+     * @throws EnricherException if one of the tasks failed
+     */
+    protected <R> List<R> executeAll(List<Callable<R>> tasks) throws EnricherException {
+        List<R> results = new ArrayList<R>(tasks.size());
+        if (executorService == null || tasks.size() <= 1){
+            for (Callable<R> task : tasks){
+                try {
+                    results.add(task.call());
+                } catch (EnricherException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new EnricherException("Cannot prefetch the objects to enrich", e);
+                }
+            }
+        }
+        else{
+            try {
+                for (Future<R> future : executorService.invokeAll(tasks)){
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EnricherException("Interrupted while prefetching the objects to enrich", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof EnricherException){
+                    throw (EnricherException)e.getCause();
+                }
+                throw new EnricherException("Cannot prefetch the objects to enrich", e.getCause());
+            }
+        }
+        return results;
+    }
 }
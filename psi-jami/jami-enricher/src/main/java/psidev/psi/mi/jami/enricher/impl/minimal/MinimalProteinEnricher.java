@@ -16,8 +16,8 @@ import psidev.psi.mi.jami.utils.CvTermUtils;
 import psidev.psi.mi.jami.utils.XrefUtils;
 import psidev.psi.mi.jami.utils.comparator.organism.OrganismTaxIdComparator;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * Enriches a protein to the minimum level. As an enricher, no data will be overwritten in the protein being enriched.
@@ -28,6 +28,11 @@ import java.util.Collections;
  *
  * The protein fetcher is require to enrich proteins
  *
+ * When enriching a collection of proteins by batches, the distinct uniprot identifiers of a batch are fetched with fetchByIdentifiers.
+ * A fetched protein is only assigned to the identifier equal to its uniprot identifier, and only if no other fetched protein has this
+ * identifier (secondary accessions and demerged entries). The proteins having an identifier which cannot be assigned are fetched one by one
+ * as before.
+ *
  * @author Gabriel Aldam (galdam@ebi.ac.uk)
  * @since 14/05/13
  */
@@ -37,6 +42,14 @@ public class MinimalProteinEnricher extends AbstractInteractorEnricher<Protein>
     private static final Logger log = LoggerFactory.getLogger(MinimalProteinEnricher.class.getName());
 
     public static final String CAUTION_MESSAGE = "This sequence has been withdrawn from Uniprot.";
+
+    /**
+     * Maximum number of uniprot identifiers queried at once when prefetching a batch of proteins.
+     * The queries of a batch run concurrently if the enricher has an executor service.
+     */
+    public static final int PREFETCH_QUERY_SIZE = 100;
+
+    private Map<String, Collection<Protein>> prefetchedProteins = null;
     /**
      * The only constructor, fulfilling the requirement of a protein fetcher.
      * If the protein fetcher is null, an illegal state exception will be thrown at the next enrichment.
@@ -284,20 +297,111 @@ public class MinimalProteinEnricher extends AbstractInteractorEnricher<Protein>
         return fetchedProteins;
     }
 
+    @Override
+    protected void prefetch(Collection<Protein> objectsToEnrich) throws EnricherException {
+        Set<String> identifiers = new LinkedHashSet<String>(objectsToEnrich.size());
+        for (Protein protein : objectsToEnrich){
+            if (protein.getUniprotkb() != null){
+                identifiers.add(protein.getUniprotkb());
+            }
+        }
+        if (identifiers.isEmpty()){
+            return;
+        }
+
+        List<Callable<Collection<Protein>>> queries = new ArrayList<Callable<Collection<Protein>>>(identifiers.size() / PREFETCH_QUERY_SIZE + 1);
+        List<String> query = new ArrayList<String>(Math.min(PREFETCH_QUERY_SIZE, identifiers.size()));
+        for (String identifier : identifiers){
+            query.add(identifier);
+            if (query.size() == PREFETCH_QUERY_SIZE){
+                queries.add(createPrefetchQuery(query));
+                query = new ArrayList<String>(PREFETCH_QUERY_SIZE);
+            }
+        }
+        if (!query.isEmpty()){
+            queries.add(createPrefetchQuery(query));
+        }
+
+        Map<String, Collection<Protein>> proteinsByIdentifier = new HashMap<String, Collection<Protein>>(identifiers.size());
+        Set<String> ambiguousIdentifiers = new HashSet<String>();
+        for (Collection<Protein> proteins : executeAll(queries)){
+            for (Protein protein : proteins){
+                String uniprotkb = protein.getUniprotkb();
+                // the identifier also identifies another protein (secondary accession, demerge),
+                // we cannot know which proteins a query with this identifier returns
+                for (Xref identifier : protein.getIdentifiers()){
+                    if (!identifier.getId().equals(uniprotkb) && identifiers.contains(identifier.getId())){
+                        ambiguousIdentifiers.add(identifier.getId());
+                    }
+                }
+                if (uniprotkb != null && identifiers.contains(uniprotkb)){
+                    Collection<Protein> fetched = proteinsByIdentifier.get(uniprotkb);
+                    if (fetched == null){
+                        fetched = new ArrayList<Protein>(1);
+                        proteinsByIdentifier.put(uniprotkb, fetched);
+                    }
+                    fetched.add(protein);
+                }
+            }
+        }
+        for (String identifier : ambiguousIdentifiers){
+            proteinsByIdentifier.remove(identifier);
+        }
+
+        this.prefetchedProteins = proteinsByIdentifier;
+    }
+
+    @Override
+    protected void clearPrefetchedObjects() {
+        this.prefetchedProteins = null;
+    }
+
+    private Callable<Collection<Protein>> createPrefetchQuery(final Collection<String> identifiers){
+        return new Callable<Collection<Protein>>() {
+            public Collection<Protein> call() throws EnricherException {
+                return fetchProteins(identifiers);
+            }
+        };
+    }
+
+    private Collection<Protein> fetchProteins(Collection<String> uniprotkbs) throws EnricherException {
+        try {
+            return getInteractorFetcher().fetchByIdentifiers(uniprotkbs);
+        } catch (BridgeFailedException e) {
+            BridgeFailedException lastException = e;
+            int index = 0;
+            while(index < getRetryCount()){
+                try {
+                    return getInteractorFetcher().fetchByIdentifiers(uniprotkbs);
+                } catch (BridgeFailedException ee) {
+                    log.warn("Cannot fetch the proteins of "+uniprotkbs+", retry "+(index+1)+"/"+getRetryCount(), ee);
+                    lastException = ee;
+                }
+                index++;
+            }
+            throw new EnricherException("Retried "+getRetryCount()+" times", lastException);
+        }
+    }
+
     private Collection<Protein> fetchProteins(String uniprotkb) throws EnricherException {
+        if (prefetchedProteins != null && prefetchedProteins.containsKey(uniprotkb)){
+            return prefetchedProteins.get(uniprotkb);
+        }
         try {
             return getInteractorFetcher().fetchByIdentifier(uniprotkb);
         } catch (BridgeFailedException e) {
+            BridgeFailedException lastException = e;
             int index = 0;
             while(index < getRetryCount()){
                 try {
                     return getInteractorFetcher().fetchByIdentifier(uniprotkb);
                 } catch (BridgeFailedException ee) {
-                    ee.printStackTrace();
+                    log.warn("Cannot fetch the proteins of "+uniprotkb+", retry "+(index+1)+"/"+getRetryCount(), ee);
+                    lastException = ee;
                 }
                 index++;
             }
-            throw new EnricherException("Retried "+getRetryCount()+" times", e);
+            throw new EnricherException("Retried "+getRetryCount()+" times", lastException);
         }
     }
 }
@@ -3,6 +3,7 @@ package psidev.psi.mi.jami.enricher.impl;
 import junit.framework.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import psidev.psi.mi.jami.bridges.exception.BridgeFailedException;
 import psidev.psi.mi.jami.bridges.fetcher.mock.FailingProteinFetcher;
 import psidev.psi.mi.jami.bridges.fetcher.mock.MockProteinFetcher;
 import psidev.psi.mi.jami.bridges.mapper.mock.MockProteinMapper;
@@ -21,6 +22,10 @@ import psidev.psi.mi.jami.utils.CvTermUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static junit.framework.Assert.*;
 
@@ -1656,6 +1661,80 @@ public class MinimalProteinEnricherTest {
         assertNull(protein_without_organism.getOrganism());
     }
 
+    // == BATCHES ======================================================================
+
+    /**
+     * Assert that when a collection of proteins is enriched by batches, the distinct identifiers are fetched together
+     * and the listener is notified in the order of the collection.
+     */
+    @Test
+    public void test_enrich_collection_by_batches_fetches_identifiers_together() throws EnricherException {
+        final List<String> singleQueries = new ArrayList<String>();
+        final List<Collection<String>> batchQueries = new ArrayList<Collection<String>>();
+        MockProteinFetcher countingFetcher = new MockProteinFetcher(){
+            @Override
+            public Collection<Protein> fetchByIdentifier(String identifier) throws BridgeFailedException {
+                synchronized (singleQueries){
+                    singleQueries.add(identifier);
+                }
+                return super.fetchByIdentifier(identifier);
+            }
+
+            @Override
+            public Collection<Protein> fetchByIdentifiers(Collection<String> identifiers) throws BridgeFailedException {
+                synchronized (batchQueries){
+                    batchQueries.add(new ArrayList<String>(identifiers));
+                }
+                return super.fetchByIdentifiers(identifiers);
+            }
+        };
+        Protein fullProtein = new DefaultProtein(TEST_SHORTNAME, TEST_FULLNAME);
+        fullProtein.setUniprotkb(TEST_AC_FULL_PROT);
+        countingFetcher.addEntry(TEST_AC_FULL_PROT, Collections.singletonList(fullProtein));
+
+        List<Protein> proteinsToEnrich = new ArrayList<Protein>();
+        for (int i = 0; i < 3; i++){
+            Protein protein = new DefaultProtein(TEST_OLD_SHORTNAME);
+            protein.setUniprotkb(TEST_AC_FULL_PROT);
+            proteinsToEnrich.add(protein);
+        }
+        // dead protein, not returned by the batch query
+        Protein deadProtein = new DefaultProtein(TEST_OLD_SHORTNAME);
+        deadProtein.setUniprotkb(TEST_AC_DEAD_PROT);
+        proteinsToEnrich.add(1, deadProtein);
+
+        final List<Protein> completedProteins = new ArrayList<Protein>();
+        proteinEnricher = new MinimalProteinEnricher(countingFetcher);
+        proteinEnricher.setListener(new ProteinEnricherLogger(){
+            @Override
+            public void onEnrichmentComplete(Protein protein, EnrichmentStatus status, String message) {
+                completedProteins.add(protein);
+            }
+        });
+        proteinEnricher.setBatchSize(10);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        proteinEnricher.setExecutorService(executor);
+        try{
+            proteinEnricher.enrich(proteinsToEnrich);
+        }
+        finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, batchQueries.size());
+        assertEquals(2, batchQueries.get(0).size());
+        // only the identifier without prefetched protein is fetched again
+        assertEquals(Collections.singletonList(TEST_AC_DEAD_PROT), singleQueries);
+
+        assertEquals(proteinsToEnrich, completedProteins);
+        for (Protein protein : proteinsToEnrich){
+            if (protein != deadProtein){
+                assertEquals(TEST_FULLNAME, protein.getFullName());
+            }
+        }
+        assertNull(deadProtein.getFullName());
+    }
+
     // TODO  onRefseqUpdate, onGeneNameUpdate
 
 
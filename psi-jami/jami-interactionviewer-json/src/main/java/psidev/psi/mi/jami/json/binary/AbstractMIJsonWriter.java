@@ -130,11 +130,11 @@ public abstract class AbstractMIJsonWriter<I extends Interaction, B extends Bina
 
         // reset expansion id
         this.binaryWriter.setExpansionId(null);
-        Collection<B> binaryInteractions = null;
+        Iterator<B> binaryInteractions = null;
         try {
-            binaryInteractions = expansionMethod.expand(interaction);
+            binaryInteractions = expansionMethod.expandAsIterator(interaction);
             // we expanded a n-ary interaction
-            if(binaryInteractions.size() >= 1){
+            if(binaryInteractions.hasNext()){
                 this.binaryWriter.setExpansionId(currentExpansionId);
                 currentExpansionId++;
             }
@@ -11,7 +11,9 @@ import psidev.psi.mi.jami.listener.MIFileParserListener;
 import psidev.psi.mi.jami.model.*;
 import psidev.psi.mi.jami.tab.extension.*;
 import psidev.psi.mi.jami.tab.extension.MitabSource;
+import psidev.psi.mi.jami.tab.extension.factory.options.MitabDataSourceOptions;
 import psidev.psi.mi.jami.tab.io.parser.AbstractInteractionLineParser;
+import psidev.psi.mi.jami.tab.io.parser.FastMitabLineParser;
 import psidev.psi.mi.jami.tab.io.parser.MitabLineParser;
 import psidev.psi.mi.jami.tab.io.parser.ParseException;
 import psidev.psi.mi.jami.tab.listener.MitabParserListener;
@@ -42,6 +44,9 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
 
     private static final Logger logger = Logger.getLogger("AbstractMitabStreamSource");
     private AbstractInteractionLineParser<T,P,F> lineParser;
+    private FastMitabLineParser<T,P,F> fastLineParser;
+    private boolean useFastLineParser = false;
+    private int firstLineNumber = 1;
     private boolean isInitialised = false;
 
     private URL originalURL;
@@ -162,6 +167,10 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
             setInteractorFactory((InteractorFactory) options.get(MIDataSourceOptions.INTERACTOR_FACTORY_OPTION_KEY));
         }
 
+        if (options.containsKey(MitabDataSourceOptions.FAST_LINE_PARSER_OPTION_KEY)){
+            setUseFastLineParser((Boolean) options.get(MitabDataSourceOptions.FAST_LINE_PARSER_OPTION_KEY));
+        }
+
         isInitialised = true;
     }
 
@@ -180,6 +189,7 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
                     this.originalStream = null;
                     this.originalReader = null;
                     this.lineParser = null;
+                    this.fastLineParser = null;
                     this.parserListener = null;
                     this.defaultParserListener = null;
                     isInitialised = false;
@@ -200,6 +210,7 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
                     this.originalStream = null;
                     this.originalReader = null;
                     this.lineParser = null;
+                    this.fastLineParser = null;
                     this.parserListener = null;
                     this.defaultParserListener = null;
                     isInitialised = false;
@@ -214,6 +225,7 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
                 this.originalStream = null;
                 this.originalReader = null;
                 this.lineParser = null;
+                this.fastLineParser = null;
                 this.parserListener = null;
                 this.defaultParserListener = null;
                 isInitialised = false;
@@ -231,6 +243,7 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
             this.originalStream = null;
             this.originalReader = null;
             this.lineParser = null;
+            this.fastLineParser = null;
             this.parserListener = null;
             this.defaultParserListener = null;
             isInitialised = false;
@@ -250,7 +263,7 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
             throw new IllegalStateException("The Mitab interaction datasource has not been initialised. The options for the Mitab interaction datasource should contain at least "+ MIFileDataSourceOptions.INPUT_OPTION_KEY + " to know where to read the interactions from.");
         }
 
-        if (lineParser.hasFinished() && isValid == null){
+        if (hasParserFinished() && isValid == null){
             isValid = true;
         }
 
@@ -547,7 +560,7 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
             throw new IllegalStateException("The Mitab interaction datasource has not been initialised. The options for the Mitab interaction datasource should contain at least "+ MIFileDataSourceOptions.INPUT_OPTION_KEY + " to know where to read the interactions from.");
         }
         // reset parser if possible
-        if (lineParser.hasFinished()){
+        if (hasParserFinished()){
            reInit();
         }
         return createMitabIterator();
@@ -572,6 +585,59 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
         this.lineParser = lineParser;
         this.lineParser.setParserListener(this);
         this.lineParser.setInteractorFactory(this.interactorFactory);
+        this.fastLineParser = null;
+    }
+
+    public boolean isUsingFastLineParser() {
+        return useFastLineParser;
+    }
+
+    /**
+     * Sets the parser reading the MITAB lines of the next iterators.
+     * @param useFastLineParser : true if the lines should be parsed with the FastMitabLineParser, false if they should be parsed
+     * with the MitabLineParser
+     */
+    public void setUseFastLineParser(boolean useFastLineParser) {
+        this.useFastLineParser = useFastLineParser;
+        if (!useFastLineParser){
+            this.fastLineParser = null;
+        }
+    }
+
+    /**
+     *
+     * @return the FastMitabLineParser reading the original stream or reader, null if the MITAB lines should be parsed by the line parser
+     */
+    protected FastMitabLineParser<T,P,F> getFastLineParser() {
+        if (!useFastLineParser || lineParser == null){
+            return null;
+        }
+        if (fastLineParser == null){
+            if (originalReader != null){
+                fastLineParser = new FastMitabLineParser<T,P,F>(lineParser, originalReader, firstLineNumber);
+            }
+            else if (originalStream != null){
+                fastLineParser = new FastMitabLineParser<T,P,F>(lineParser, originalStream);
+            }
+        }
+        return fastLineParser;
+    }
+
+    protected int getFirstLineNumber() {
+        return firstLineNumber;
+    }
+
+    /**
+     * Sets the line number of the first line of the reader this datasource will be initialised with, when the reader only reads a part of a
+     * MITAB file. The source locators then have the line numbers of the MITAB file.
+     * It has to be set before initialising the reader and it is ignored for files, URLs and input streams.
+     * @param firstLineNumber : the line number of the first line of the reader
+     */
+    protected void setFirstLineNumber(int firstLineNumber) {
+        if (firstLineNumber < 1){
+            throw new IllegalArgumentException("The first line number must be at least 1: "+firstLineNumber);
+        }
+        this.firstLineNumber = firstLineNumber;
     }
 
     protected abstract void initialiseMitabLineParser(Reader reader);
@@ -586,6 +652,8 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
 
     protected void reInit() throws MIIOException{
         if (isInitialised){
+            // the fast line parser is created again for the new stream
+            this.fastLineParser = null;
             if (this.originalFile != null){
                 // close the previous stream
                 if (this.originalStream != null){
@@ -642,7 +710,7 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
                 if (this.originalReader.markSupported()){
                     try {
                         this.originalReader.reset();
-                        this.lineParser.ReInit(this.originalReader);
+                        this.lineParser.ReInit(this.originalReader, firstLineNumber);
                     } catch (IOException e) {
                         throw new MIIOException("The reader has been consumed and cannot be reset", e);
                     }
@@ -654,6 +722,10 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
         }
     }
 
+    private boolean hasParserFinished() {
+        return fastLineParser != null ? fastLineParser.hasFinished() : lineParser.hasFinished();
+    }
+
     private void initialiseReader(Reader reader) {
         if (reader == null){
             throw new IllegalArgumentException("The reader cannot be null.");
@@ -664,6 +736,9 @@ public abstract class AbstractMitabStreamSource<T extends Interaction, P extends
         this.originalURL = null;
 
         initialiseMitabLineParser(reader);
+        if (firstLineNumber != 1){
+            this.lineParser.ReInit(reader, firstLineNumber);
+        }
     }
 
     private void initialiseInputStream(InputStream input) {
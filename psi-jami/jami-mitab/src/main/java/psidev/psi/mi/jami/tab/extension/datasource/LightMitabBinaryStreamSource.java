@@ -86,6 +86,9 @@ public class LightMitabBinaryStreamSource extends AbstractMitabStreamSource<Bina
 
     @Override
     protected Iterator<BinaryInteraction> createMitabIterator() throws MIIOException {
+        if (getFastLineParser() != null){
+            return new MitabBinaryIterator(getFastLineParser());
+        }
         return new MitabBinaryIterator(getLineParser());
     }
 }
\ No newline at end of file
@@ -85,6 +85,9 @@ public class LightMitabStreamSource extends AbstractMitabStreamSource<Interactio
 
     @Override
     protected Iterator<Interaction> createMitabIterator() throws MIIOException{
+        if (getFastLineParser() != null){
+            return new MitabInteractionIterator(getFastLineParser());
+        }
         return new MitabInteractionIterator(getLineParser());
     }
 }
\ No newline at end of file
@@ -72,6 +72,9 @@ public class MitabBinaryEvidenceStreamSource extends AbstractMitabStreamSource<B
 
     @Override
     protected Iterator<BinaryInteractionEvidence> createMitabIterator() {
+        if (getFastLineParser() != null){
+            return new MitabBinaryEvidenceIterator(getFastLineParser());
+        }
         return new MitabBinaryEvidenceIterator(getLineParser());
     }
 
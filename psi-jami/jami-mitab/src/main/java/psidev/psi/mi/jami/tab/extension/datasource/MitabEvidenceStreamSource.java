@@ -72,6 +72,9 @@ public class MitabEvidenceStreamSource extends AbstractMitabStreamSource<Interac
 
     @Override
     protected Iterator<InteractionEvidence> createMitabIterator() throws MIIOException {
+        if (getFastLineParser() != null){
+            return new MitabInteractionEvidenceIterator(getFastLineParser());
+        }
         return new MitabInteractionEvidenceIterator(getLineParser());
     }
 
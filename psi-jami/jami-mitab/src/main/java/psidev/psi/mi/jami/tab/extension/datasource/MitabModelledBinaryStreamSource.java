@@ -73,6 +73,9 @@ public class MitabModelledBinaryStreamSource extends AbstractMitabStreamSource<M
 
     @Override
     protected Iterator<ModelledBinaryInteraction> createMitabIterator() throws MIIOException{
+        if (getFastLineParser() != null){
+            return new MitabModelledBinaryIterator(getFastLineParser());
+        }
         return new MitabModelledBinaryIterator(getLineParser());
     }
 
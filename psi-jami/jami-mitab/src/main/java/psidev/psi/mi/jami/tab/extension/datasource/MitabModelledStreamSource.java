@@ -73,6 +73,9 @@ public class MitabModelledStreamSource extends AbstractMitabStreamSource<Modelle
 
     @Override
     protected Iterator<ModelledInteraction> createMitabIterator() throws MIIOException {
+        if (getFastLineParser() != null){
+            return new MitabModelledInteractionIterator(getFastLineParser());
+        }
         return new MitabModelledInteractionIterator(getLineParser());
     }
 
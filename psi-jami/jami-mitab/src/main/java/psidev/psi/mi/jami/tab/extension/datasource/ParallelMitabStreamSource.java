@@ -0,0 +1,685 @@
+package psidev.psi.mi.jami.tab.extension.datasource;
+
+import psidev.psi.mi.jami.datasource.InteractionStream;
+import psidev.psi.mi.jami.datasource.MIFileDataSource;
+import psidev.psi.mi.jami.datasource.SourceCategory;
+import psidev.psi.mi.jami.exception.MIIOException;
+import psidev.psi.mi.jami.factory.InteractorFactory;
+import psidev.psi.mi.jami.factory.options.MIDataSourceOptions;
+import psidev.psi.mi.jami.factory.options.MIFileDataSourceOptions;
+import psidev.psi.mi.jami.listener.MIFileParserListener;
+import psidev.psi.mi.jami.model.Interaction;
+import psidev.psi.mi.jami.tab.extension.factory.options.MitabDataSourceOptions;
+import psidev.psi.mi.jami.tab.io.parser.MitabChunk;
+import psidev.psi.mi.jami.tab.io.parser.MitabChunkSplitter;
+import psidev.psi.mi.jami.tab.listener.MitabParserListener;
+import psidev.psi.mi.jami.utils.MIFileDatasourceUtils;
+
+import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A MITAB datasource which parses the lines of a MITAB file with several threads.
+ *
+ * The file is split in chunks of complete lines by the MitabChunkSplitter and each chunk is parsed in a worker thread by its own
+ * instance of the MITAB stream source class given to this datasource (MitabBinaryEvidenceStreamSource, LightMitabStreamSource, etc.).
+ * The chunks know the line number of their first line so the source locators of the objects and of the syntax errors have the line numbers of the file.
+ *
+ * The iterator can return the interactions in the order of the file, the chunks which have been parsed are then kept until the previous chunks have
+ * been returned, or in the order the chunks are parsed.
+ * The events of the MitabParserListener are recorded by the worker threads and are fired in the thread of the iterator, before the interaction
+ * of the same line is returned, so the parser listener does not need to be thread safe. The InteractorFactory is shared by the worker threads.
+ * As each chunk is parsed on its own, a line with missing columns at the end of a chunk is not read with the first line of the next chunk.
+ *
+ * The chunks are read from a file, a URL or an InputStream. The encoding of the file must be compatible with ASCII (UTF-8, ISO-8859-1, etc.).
+ * A Reader cannot be split in chunks of bytes and is not supported.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ParallelMitabStreamSource<T extends Interaction> implements MIFileDataSource, InteractionStream<T> {
+
+    private static final Logger logger = Logger.getLogger("ParallelMitabStreamSource");
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private Class<? extends AbstractMitabStreamSource<T,?,?>> sourceClass;
+    private boolean isInitialised = false;
+
+    private URL originalURL;
+    private File originalFile;
+    private InputStream originalStream;
+
+    private Boolean isValid = null;
+    private MIFileParserListener parserListener;
+    private InteractorFactory interactorFactory;
+    private boolean useFastLineParser = false;
+
+    private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int maxPendingChunks = -1;
+    private boolean isOrdered = true;
+
+    private ParallelMitabIterator currentIterator;
+
+    /**
+     * Constructor for the factory
+     * @param sourceClass : the MITAB stream source class parsing each chunk. It must have an empty constructor.
+     */
+    public ParallelMitabStreamSource(Class<? extends AbstractMitabStreamSource<T,?,?>> sourceClass){
+        if (sourceClass == null){
+            throw new IllegalArgumentException("The parallel MITAB datasource needs the class of the MITAB stream source parsing the chunks.");
+        }
+        this.sourceClass = sourceClass;
+    }
+
+    public ParallelMitabStreamSource(Class<? extends AbstractMitabStreamSource<T,?,?>> sourceClass, File file){
+        this(sourceClass);
+        initialiseFile(file);
+        isInitialised = true;
+    }
+
+    public ParallelMitabStreamSource(Class<? extends AbstractMitabStreamSource<T,?,?>> sourceClass, InputStream input){
+        this(sourceClass);
+        initialiseInputStream(input);
+        isInitialised = true;
+    }
+
+    public ParallelMitabStreamSource(Class<? extends AbstractMitabStreamSource<T,?,?>> sourceClass, URL url){
+        this(sourceClass);
+        initialiseURL(url);
+        isInitialised = true;
+    }
+
+    public void initialiseContext(Map<String, Object> options) {
+        if (options == null && !isInitialised){
+            throw new IllegalArgumentException("The options for the parallel Mitab interaction datasource should contain at least "+ MIFileDataSourceOptions.INPUT_OPTION_KEY + " to know where to read the interactions from.");
+        }
+        else if (options == null){
+            return;
+        }
+        else if (options.containsKey(MIFileDataSourceOptions.INPUT_OPTION_KEY)){
+            Object input = options.get(MIFileDataSourceOptions.INPUT_OPTION_KEY);
+            if (input instanceof URL){
+                initialiseURL((URL) input);
+            }
+            else if (input instanceof File){
+                initialiseFile((File) input);
+            }
+            else if (input instanceof InputStream){
+                initialiseInputStream((InputStream) input);
+            }
+            // suspect a file/url path
+            else if (input instanceof String){
+                String inputString = (String)input;
+                SourceCategory category = MIFileDatasourceUtils.findSourceCategoryFromString(inputString);
+                switch (category){
+                    // file uri
+                    case file_URI:
+                        try {
+                            initialiseFile(new File(new URI(inputString)));
+                        } catch (URISyntaxException e) {
+                            throw new IllegalArgumentException("Impossible to open and read the file " + inputString, e);
+                        }
+                        break;
+                    // we have a url
+                    case URL:
+                        try {
+                            initialiseURL(new URL(inputString));
+                        } catch (MalformedURLException e) {
+                            throw new IllegalArgumentException("Impossible to open and read the URL " + inputString, e);
+                        }
+                        break;
+                    // we have a file
+                    default:
+                        initialiseFile(new File(inputString));
+                        break;
+                }
+            }
+            else {
+                throw new IllegalArgumentException("Impossible to read the provided input "+input.getClass().getName() + ", a File, InputStream, URL or file/URL path was expected.");
+            }
+        }
+        else if (!isInitialised){
+            throw new IllegalArgumentException("The options for the parallel Mitab interaction datasource should contain at least "+ MIFileDataSourceOptions.INPUT_OPTION_KEY + " to know where to read the interactions from.");
+        }
+
+        if (options.containsKey(MIFileDataSourceOptions.PARSER_LISTENER_OPTION_KEY)){
+            setFileParserListener((MIFileParserListener) options.get(MIFileDataSourceOptions.PARSER_LISTENER_OPTION_KEY));
+        }
+
+        if (options.containsKey(MIDataSourceOptions.INTERACTOR_FACTORY_OPTION_KEY)){
+            setInteractorFactory((InteractorFactory) options.get(MIDataSourceOptions.INTERACTOR_FACTORY_OPTION_KEY));
+        }
+
+        if (options.containsKey(MitabDataSourceOptions.FAST_LINE_PARSER_OPTION_KEY)){
+            setUseFastLineParser((Boolean) options.get(MitabDataSourceOptions.FAST_LINE_PARSER_OPTION_KEY));
+        }
+
+        if (options.containsKey(MitabDataSourceOptions.PARALLEL_THREADS_OPTION_KEY)){
+            setNumberOfThreads((Integer) options.get(MitabDataSourceOptions.PARALLEL_THREADS_OPTION_KEY));
+        }
+
+        if (options.containsKey(MitabDataSourceOptions.CHUNK_SIZE_OPTION_KEY)){
+            setChunkSize((Integer) options.get(MitabDataSourceOptions.CHUNK_SIZE_OPTION_KEY));
+        }
+
+        if (options.containsKey(MitabDataSourceOptions.MAX_PENDING_CHUNKS_OPTION_KEY)){
+            setMaxPendingChunks((Integer) options.get(MitabDataSourceOptions.MAX_PENDING_CHUNKS_OPTION_KEY));
+        }
+
+        if (options.containsKey(MitabDataSourceOptions.ORDERED_ITERATOR_OPTION_KEY)){
+            setOrdered((Boolean) options.get(MitabDataSourceOptions.ORDERED_ITERATOR_OPTION_KEY));
+        }
+
+        isInitialised = true;
+    }
+
+    public Iterator<T> getInteractionsIterator() throws MIIOException {
+        if (!isInitialised){
+            throw new IllegalStateException("The parallel Mitab interaction datasource has not been initialised. The options for the parallel Mitab interaction datasource should contain at least "+ MIFileDataSourceOptions.INPUT_OPTION_KEY + " to know where to read the interactions from.");
+        }
+        if (this.currentIterator != null){
+            this.currentIterator.close();
+        }
+        this.currentIterator = new ParallelMitabIterator(openStream());
+        return this.currentIterator;
+    }
+
+    public MIFileParserListener getFileParserListener() {
+        return this.parserListener;
+    }
+
+    public void setFileParserListener(MIFileParserListener listener) {
+        this.parserListener = listener;
+    }
+
+    public boolean validateSyntax() throws MIIOException {
+        if (!isInitialised){
+            throw new IllegalStateException("The parallel Mitab interaction datasource has not been initialised. The options for the parallel Mitab interaction datasource should contain at least "+ MIFileDataSourceOptions.INPUT_OPTION_KEY + " to know where to read the interactions from.");
+        }
+
+        if (isValid != null){
+            return isValid;
+        }
+
+        // read the datasource
+        Iterator<T> interactionIterator = getInteractionsIterator();
+        while(interactionIterator.hasNext()){
+            interactionIterator.next();
+        }
+        // if isValid is not null, it means that the file syntax is invalid, otherwise, we say that the file syntax is valid
+        if (isValid == null){
+            isValid = true;
+        }
+        return isValid;
+    }
+
+    public boolean validateSyntax(MIFileParserListener listener) throws MIIOException {
+        setFileParserListener(listener);
+        return validateSyntax();
+    }
+
+    public void close() throws MIIOException {
+        if (isInitialised){
+            try {
+                if (this.currentIterator != null){
+                    this.currentIterator.close();
+                }
+                if (this.originalStream != null){
+                    this.originalStream.close();
+                }
+            } catch (IOException e) {
+                throw new MIIOException("Impossible to close the original stream", e);
+            }
+            finally {
+                reset();
+            }
+        }
+    }
+
+    public void reset() throws MIIOException {
+        if (isInitialised){
+            if (this.currentIterator != null){
+                this.currentIterator.close();
+            }
+            this.currentIterator = null;
+            this.originalFile = null;
+            this.originalURL = null;
+            this.originalStream = null;
+            this.parserListener = null;
+            this.interactorFactory = null;
+            isValid = null;
+            isInitialised = false;
+        }
+    }
+
+    public InteractorFactory getInteractorFactory() {
+        return interactorFactory;
+    }
+
+    /**
+     *
+     * @param interactorFactory : the interactor factory shared by the threads. It must be thread safe.
+     */
+    public void setInteractorFactory(InteractorFactory interactorFactory) {
+        this.interactorFactory = interactorFactory;
+    }
+
+    public boolean isUsingFastLineParser() {
+        return useFastLineParser;
+    }
+
+    public void setUseFastLineParser(boolean useFastLineParser) {
+        this.useFastLineParser = useFastLineParser;
+    }
+
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * Sets the number of threads parsing the chunks of the next iterators
+     * @param numberOfThreads
+     */
+    public void setNumberOfThreads(int numberOfThreads) {
+        if (numberOfThreads < 1){
+            throw new IllegalArgumentException("The number of threads must be at least 1: "+numberOfThreads);
+        }
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the minimum number of bytes of the chunks of the next iterators
+     * @param chunkSize
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1){
+            throw new IllegalArgumentException("The chunk size must be positive: "+chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     *
+     * @return the maximum number of chunks read in advance by the iterators
+     */
+    public int getMaxPendingChunks() {
+        return maxPendingChunks > 0 ? maxPendingChunks : 2 * numberOfThreads;
+    }
+
+    /**
+     * Sets the maximum number of chunks read in advance by the next iterators. In an ordered iterator, it is the maximum number of
+     * chunks which have been parsed and wait for the previous chunks.
+     * @param maxPendingChunks
+     */
+    public void setMaxPendingChunks(int maxPendingChunks) {
+        if (maxPendingChunks < 1){
+            throw new IllegalArgumentException("The maximum number of pending chunks must be at least 1: "+maxPendingChunks);
+        }
+        this.maxPendingChunks = maxPendingChunks;
+    }
+
+    public boolean isOrdered() {
+        return isOrdered;
+    }
+
+    /**
+     * Sets the order of the interactions returned by the next iterators
+     * @param ordered : true if the interactions are returned in the order of the file, false if the interactions of a chunk are returned
+     * as soon as the chunk has been parsed
+     */
+    public void setOrdered(boolean ordered) {
+        isOrdered = ordered;
+    }
+
+    private InputStream openStream() {
+        if (this.originalFile != null){
+            try {
+                return new FileInputStream(this.originalFile);
+            } catch (FileNotFoundException e) {
+                throw new MIIOException("We cannot open the file " + this.originalFile.getName(), e);
+            }
+        }
+        else if (this.originalURL != null){
+            try {
+                return this.originalURL.openStream();
+            } catch (IOException e) {
+                throw new MIIOException("We cannot open the URL " + this.originalURL.toExternalForm(), e);
+            }
+        }
+        else {
+            // the stream is read once
+            InputStream stream = this.originalStream;
+            if (stream == null){
+                throw new MIIOException("The inputStream has been consumed and cannot be reset");
+            }
+            this.originalStream = null;
+            return stream;
+        }
+    }
+
+    private void initialiseInputStream(InputStream input) {
+        if (input == null){
+            throw new IllegalArgumentException("The input stream cannot be null.");
+        }
+        this.originalFile = null;
+        this.originalStream = input;
+        this.originalURL = null;
+    }
+
+    private void initialiseFile(File file)  {
+        if (file == null){
+            throw new IllegalArgumentException("The file cannot be null.");
+        }
+        else if (!file.canRead()){
+            throw new IllegalArgumentException("Does not have the permissions to read the file "+file.getAbsolutePath());
+        }
+        this.originalFile = file;
+        this.originalStream = null;
+        this.originalURL = null;
+    }
+
+    private void initialiseURL(URL url)  {
+        if (url == null){
+            throw new IllegalArgumentException("The url cannot be null.");
+        }
+        this.originalURL = url;
+        this.originalStream = null;
+        this.originalFile = null;
+    }
+
+    /**
+     * Iterator submitting the chunks to its own pool of threads and returning the interactions of the parsed chunks
+     */
+    private class ParallelMitabIterator implements Iterator<T> {
+
+        private MitabChunkSplitter splitter;
+        private ExecutorService executorService;
+        // only used by an unordered iterator, the futures of an ordered iterator are taken from the pending chunks
+        private CompletionService<ParsedChunk<T>> completionService;
+        private LinkedList<Future<ParsedChunk<T>>> pendingChunks = new LinkedList<Future<ParsedChunk<T>>>();
+        private int maxPendingChunks;
+        private boolean isOrdered;
+        private boolean hasReadAllChunks = false;
+
+        private ParsedChunk<T> currentChunk;
+        private int currentIndex;
+        private int firedEvents;
+        private T nextInteraction;
+
+        private ParallelMitabIterator(InputStream stream) throws MIIOException {
+            this.splitter = new MitabChunkSplitter(stream, chunkSize);
+            this.executorService = Executors.newFixedThreadPool(numberOfThreads);
+            this.maxPendingChunks = getMaxPendingChunks();
+            this.isOrdered = ParallelMitabStreamSource.this.isOrdered;
+            if (!this.isOrdered){
+                this.completionService = new ExecutorCompletionService<ParsedChunk<T>>(executorService);
+            }
+            submitChunks();
+            processNextInteraction();
+        }
+
+        public boolean hasNext() {
+            return this.nextInteraction != null;
+        }
+
+        public T next() throws MIIOException {
+            T current = this.nextInteraction;
+            processNextInteraction();
+            return current;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("A MITAB iterator does not support the remove method");
+        }
+
+        private void processNextInteraction() throws MIIOException {
+            this.nextInteraction = null;
+            while (this.nextInteraction == null){
+                if (this.currentChunk != null && this.currentIndex < this.currentChunk.interactions.size()){
+                    fireEvents(this.currentChunk.eventsBeforeInteraction[this.currentIndex]);
+                    // the chunk does not keep the interactions which have been returned
+                    this.nextInteraction = this.currentChunk.interactions.set(this.currentIndex, null);
+                    this.currentIndex++;
+                }
+                else {
+                    if (this.currentChunk != null){
+                        fireEvents(this.currentChunk.events != null ? this.currentChunk.events.size() : 0);
+                        this.currentChunk = null;
+                    }
+                    ParsedChunk<T> chunk = takeParsedChunk();
+                    if (chunk == null){
+                        break;
+                    }
+                    if (!chunk.isValid){
+                        isValid = false;
+                    }
+                    this.currentChunk = chunk;
+                    this.currentIndex = 0;
+                    this.firedEvents = 0;
+                    submitChunks();
+                }
+            }
+        }
+
+        private void fireEvents(int end) throws MIIOException {
+            if (this.currentChunk.events != null && parserListener != null){
+                this.currentChunk.events.fire(parserListener, this.firedEvents, end);
+            }
+            this.firedEvents = end;
+        }
+
+        private ParsedChunk<T> takeParsedChunk() throws MIIOException {
+            Future<ParsedChunk<T>> result;
+            if (this.pendingChunks.isEmpty()){
+                return null;
+            }
+            try {
+                if (this.isOrdered){
+                    result = this.pendingChunks.removeFirst();
+                }
+                else {
+                    result = this.completionService.take();
+                    this.pendingChunks.remove(result);
+                }
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new MIIOException("Interrupted while parsing the MITAB chunks", e);
+            } catch (ExecutionException e) {
+                close();
+                if (e.getCause() instanceof MIIOException){
+                    throw (MIIOException) e.getCause();
+                }
+                throw new MIIOException("Impossible to parse the MITAB chunk", e.getCause());
+            }
+        }
+
+        private void submitChunks() throws MIIOException {
+            while (!this.hasReadAllChunks && this.pendingChunks.size() < this.maxPendingChunks){
+                MitabChunk chunk;
+                try {
+                    chunk = this.splitter.nextChunk();
+                } catch (IOException e) {
+                    close();
+                    throw new MIIOException("Impossible to read the next MITAB chunk", e);
+                }
+                if (chunk == null){
+                    this.hasReadAllChunks = true;
+                    closeSplitter();
+                    // the threads stop once the submitted chunks have been parsed
+                    this.executorService.shutdown();
+                }
+                else {
+                    submit(new ChunkParsingTask<T>(sourceClass, chunk, interactorFactory, useFastLineParser, parserListener));
+                }
+            }
+        }
+
+        private void submit(ChunkParsingTask<T> task){
+            // the completion service keeps each completed future until it is taken, so an ordered iterator which
+            // takes its futures from the pending chunks submits directly to the executor
+            if (this.isOrdered){
+                this.pendingChunks.add(this.executorService.submit(task));
+            }
+            else {
+                this.pendingChunks.add(this.completionService.submit(task));
+            }
+        }
+
+        private void close() {
+            this.hasReadAllChunks = true;
+            this.nextInteraction = null;
+            this.currentChunk = null;
+            for (Future<ParsedChunk<T>> pendingChunk : this.pendingChunks){
+                pendingChunk.cancel(false);
+            }
+            this.pendingChunks.clear();
+            // the completed futures which have not been taken are released with the completion service
+            this.completionService = null;
+            this.executorService.shutdown();
+            closeSplitter();
+        }
+
+        private void closeSplitter() {
+            try {
+                this.splitter.close();
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Could not close the inputStream.", e);
+            }
+        }
+    }
+
+    /**
+     * Parses a chunk with a new instance of the MITAB stream source class.
+     */
+    private static class ChunkParsingTask<T extends Interaction> implements Callable<ParsedChunk<T>> {
+        private final Class<? extends AbstractMitabStreamSource<T,?,?>> sourceClass;
+        private final MitabChunk chunk;
+        private final InteractorFactory interactorFactory;
+        private final boolean useFastLineParser;
+        private final MIFileParserListener parserListener;
+
+        private ChunkParsingTask(Class<? extends AbstractMitabStreamSource<T,?,?>> sourceClass, MitabChunk chunk,
+                                 InteractorFactory interactorFactory, boolean useFastLineParser, MIFileParserListener parserListener) {
+            this.sourceClass = sourceClass;
+            this.chunk = chunk;
+            this.interactorFactory = interactorFactory;
+            this.useFastLineParser = useFastLineParser;
+            this.parserListener = parserListener;
+        }
+
+        public ParsedChunk<T> call() throws Exception {
+            AbstractMitabStreamSource<T,?,?> source = sourceClass.newInstance();
+            source.setFirstLineNumber(chunk.getFirstLineNumber());
+
+            Map<String, Object> options = new HashMap<String, Object>();
+            options.put(MIFileDataSourceOptions.INPUT_OPTION_KEY,
+                    new InputStreamReader(new ByteArrayInputStream(chunk.getData(), 0, chunk.getLength())));
+            options.put(MitabDataSourceOptions.FAST_LINE_PARSER_OPTION_KEY, useFastLineParser);
+            if (interactorFactory != null){
+                options.put(MIDataSourceOptions.INTERACTOR_FACTORY_OPTION_KEY, interactorFactory);
+            }
+            RecordedEvents events = null;
+            if (parserListener != null){
+                // the stream source fires the same events it would fire to the parser listener
+                events = new RecordedEvents();
+                Class<?> listenerInterface = parserListener instanceof MitabParserListener ? MitabParserListener.class : MIFileParserListener.class;
+                options.put(MIFileDataSourceOptions.PARSER_LISTENER_OPTION_KEY,
+                        Proxy.newProxyInstance(listenerInterface.getClassLoader(), new Class[]{listenerInterface}, events));
+            }
+            source.initialiseContext(options);
+
+            List<T> interactions = new ArrayList<T>();
+            int[] eventsBeforeInteraction = new int[16];
+            try {
+                Iterator<T> iterator = source.getInteractionsIterator();
+                while (iterator.hasNext()){
+                    if (interactions.size() == eventsBeforeInteraction.length){
+                        int[] newEvents = new int[eventsBeforeInteraction.length * 2];
+                        System.arraycopy(eventsBeforeInteraction, 0, newEvents, 0, eventsBeforeInteraction.length);
+                        eventsBeforeInteraction = newEvents;
+                    }
+                    // the iterator has already parsed the line of the next interaction
+                    eventsBeforeInteraction[interactions.size()] = events != null ? events.size() : 0;
+                    interactions.add(iterator.next());
+                }
+                return new ParsedChunk<T>(interactions, eventsBeforeInteraction, events, source.validateSyntax());
+            }
+            finally {
+                source.close();
+            }
+        }
+    }
+
+    /**
+     * The interactions and events of a chunk
+     */
+    private static class ParsedChunk<T extends Interaction> {
+        private final List<T> interactions;
+        private final int[] eventsBeforeInteraction;
+        private final RecordedEvents events;
+        private final boolean isValid;
+
+        private ParsedChunk(List<T> interactions, int[] eventsBeforeInteraction, RecordedEvents events, boolean isValid) {
+            this.interactions = interactions;
+            this.eventsBeforeInteraction = eventsBeforeInteraction;
+            this.events = events;
+            this.isValid = isValid;
+        }
+    }
+
+    /**
+     * Records the calls to a parser listener so they can be fired later to the parser listener of the datasource
+     */
+    private static class RecordedEvents implements InvocationHandler {
+        private final List<Method> methods = new ArrayList<Method>();
+        private final List<Object[]> arguments = new ArrayList<Object[]>();
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class){
+                return method.invoke(this, args);
+            }
+            methods.add(method);
+            arguments.add(args);
+            return null;
+        }
+
+        private int size(){
+            return methods.size();
+        }
+
+        private void fire(MIFileParserListener listener, int start, int end) throws MIIOException {
+            for (int i = start; i < end; i++){
+                try {
+                    methods.get(i).invoke(listener, arguments.get(i));
+                } catch (IllegalAccessException e) {
+                    throw new MIIOException("Impossible to fire the parser event " + methods.get(i).getName(), e);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof RuntimeException){
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new MIIOException("Impossible to fire the parser event " + methods.get(i).getName(), e.getCause());
+                }
+            }
+        }
+    }
+}
@@ -25,4 +25,42 @@ public class MitabDataSourceOptions extends MIFileDataSourceOptions{
      * - basic: the MITAB datasource will return interactions implementing Interaction interface but will ignore all details related to experiments, confidences,
      * parameters and source. This aims at having a light datasource that only loads basic information about the interactions it parses.
      */
+
+    /**
+     * The option to parse the MITAB lines with the hand written FastMitabLineParser instead of the MitabLineParser generated by JavaCC.
+     * The lines which do not follow the MITAB syntax are still parsed by the MitabLineParser so the same errors are reported.
+     * It has to be a boolean value.
+     * If this option is not provided, it will be false by default
+     */
+    public static final String FAST_LINE_PARSER_OPTION_KEY = "mitab_fast_line_parser_key";
+
+    /**
+     * The option to set the number of threads parsing the chunks of a ParallelMitabStreamSource.
+     * It has to be a positive integer.
+     * If this option is not provided, it will be the number of available processors
+     */
+    public static final String PARALLEL_THREADS_OPTION_KEY = "mitab_parallel_threads_key";
+
+    /**
+     * The option to set the minimum number of bytes of the chunks parsed by a ParallelMitabStreamSource.
+     * It has to be a positive integer.
+     * If this option is not provided, it will be 4 MB by default
+     */
+    public static final String CHUNK_SIZE_OPTION_KEY = "mitab_chunk_size_key";
+
+    /**
+     * The option to set the maximum number of chunks a ParallelMitabStreamSource reads in advance. The interactions of these chunks
+     * are kept in memory until they are returned by the iterator.
+     * It has to be a positive integer.
+     * If this option is not provided, it will be twice the number of threads
+     */
+    public static final String MAX_PENDING_CHUNKS_OPTION_KEY = "mitab_max_pending_chunks_key";
+
+    /**
+     * The option to return the interactions of a ParallelMitabStreamSource in the order of the file.
+     * It has to be a boolean value. If false, the interactions of a chunk are returned as soon as the chunk has been parsed, which does not wait
+     * for the slowest chunks.
+     * If this option is not provided, it will be true by default
+     */
+    public static final String ORDERED_ITERATOR_OPTION_KEY = "mitab_ordered_iterator_key";
 }
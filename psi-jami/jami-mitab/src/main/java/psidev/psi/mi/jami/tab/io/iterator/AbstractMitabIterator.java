@@ -6,7 +6,9 @@ import psidev.psi.mi.jami.model.Feature;
 import psidev.psi.mi.jami.model.Interaction;
 import psidev.psi.mi.jami.model.Participant;
 import psidev.psi.mi.jami.tab.extension.MitabSourceLocator;
+import psidev.psi.mi.jami.tab.io.parser.FastMitabLineParser;
 import psidev.psi.mi.jami.tab.io.parser.MitabLineParser;
+import psidev.psi.mi.jami.tab.listener.MitabParserListener;
 
 import java.util.Iterator;
 
@@ -21,6 +23,7 @@ import java.util.Iterator;
 public abstract class AbstractMitabIterator<T extends Interaction, P extends Participant, F extends Feature> implements Iterator<T>{
 
     private MitabLineParser<T,P,F> lineParser;
+    private FastMitabLineParser<T,P,F> fastLineParser;
     private T nextBinary;
 
     public AbstractMitabIterator(MitabLineParser<T,P,F> lineParser) throws MIIOException {
@@ -31,15 +34,30 @@ public abstract class AbstractMitabIterator<T extends Interaction, P extends Par
         processNextBinary();
     }
 
+    public AbstractMitabIterator(FastMitabLineParser<T,P,F> fastLineParser) throws MIIOException {
+        if (fastLineParser == null){
+            throw new IllegalArgumentException("The Mitab iterator needs a non null lineParser.");
+        }
+        this.lineParser = fastLineParser.getFallbackParser();
+        this.fastLineParser = fastLineParser;
+        processNextBinary();
+    }
+
     private void processNextBinary() throws MIIOException{
         this.nextBinary = null;
 
-        while (!this.lineParser.hasFinished() && this.nextBinary == null){
+        while (!hasParserFinished() && this.nextBinary == null){
             try {
-                this.nextBinary = this.lineParser.MitabLine();
+                this.nextBinary = this.fastLineParser != null ? this.fastLineParser.MitabLine() : this.lineParser.MitabLine();
             } catch (Exception e) {
-                if (this.lineParser.getParserListener() != null){
-                    this.lineParser.getParserListener().onInvalidSyntax(new DefaultFileSourceContext(new MitabSourceLocator(lineParser.getToken(0).beginLine, lineParser.getToken(0).beginColumn, 0)), e);
+                MitabParserListener listener = this.lineParser.getParserListener();
+                if (listener != null){
+                    if (this.fastLineParser != null){
+                        listener.onInvalidSyntax(new DefaultFileSourceContext(new MitabSourceLocator(fastLineParser.getTokenLine(), fastLineParser.getTokenColumn(), 0)), e);
+                    }
+                    else {
+                        listener.onInvalidSyntax(new DefaultFileSourceContext(new MitabSourceLocator(lineParser.getToken(0).beginLine, lineParser.getToken(0).beginColumn, 0)), e);
+                    }
                 }
                 else{
                     throw new MIIOException("Impossible to read next interaction.", e);
@@ -48,6 +66,10 @@ public abstract class AbstractMitabIterator<T extends Interaction, P extends Par
         }
     }
 
+    private boolean hasParserFinished() {
+        return this.fastLineParser != null ? this.fastLineParser.hasFinished() : this.lineParser.hasFinished();
+    }
+
     public boolean hasNext() {
         return this.nextBinary != null;
     }
@@ -4,6 +4,7 @@ import psidev.psi.mi.jami.binary.BinaryInteractionEvidence;
 import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.model.FeatureEvidence;
 import psidev.psi.mi.jami.model.ParticipantEvidence;
+import psidev.psi.mi.jami.tab.io.parser.FastMitabLineParser;
 import psidev.psi.mi.jami.tab.io.parser.MitabLineParser;
 
 /**
@@ -18,4 +19,8 @@ public class MitabBinaryEvidenceIterator extends AbstractMitabIterator<BinaryInt
     public MitabBinaryEvidenceIterator(MitabLineParser<BinaryInteractionEvidence, ParticipantEvidence, FeatureEvidence> lineParser) throws MIIOException {
         super(lineParser);
     }
+
+    public MitabBinaryEvidenceIterator(FastMitabLineParser<BinaryInteractionEvidence, ParticipantEvidence, FeatureEvidence> lineParser) throws MIIOException {
+        super(lineParser);
+    }
 }
@@ -4,6 +4,7 @@ import psidev.psi.mi.jami.binary.BinaryInteraction;
 import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.model.Feature;
 import psidev.psi.mi.jami.model.Participant;
+import psidev.psi.mi.jami.tab.io.parser.FastMitabLineParser;
 import psidev.psi.mi.jami.tab.io.parser.MitabLineParser;
 
 /**
@@ -18,4 +19,8 @@ public class MitabBinaryIterator extends AbstractMitabIterator<BinaryInteraction
     public MitabBinaryIterator(MitabLineParser<BinaryInteraction, Participant, Feature> lineParser) throws MIIOException {
         super(lineParser);
     }
+
+    public MitabBinaryIterator(FastMitabLineParser<BinaryInteraction, Participant, Feature> lineParser) throws MIIOException {
+        super(lineParser);
+    }
 }
@@ -4,6 +4,7 @@ import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.model.FeatureEvidence;
 import psidev.psi.mi.jami.model.InteractionEvidence;
 import psidev.psi.mi.jami.model.ParticipantEvidence;
+import psidev.psi.mi.jami.tab.io.parser.FastMitabLineParser;
 import psidev.psi.mi.jami.tab.io.parser.MitabLineParser;
 
 /**
@@ -18,4 +19,8 @@ public class MitabInteractionEvidenceIterator extends AbstractMitabIterator<Inte
     public MitabInteractionEvidenceIterator(MitabLineParser<InteractionEvidence, ParticipantEvidence, FeatureEvidence> lineParser) throws MIIOException {
         super(lineParser);
     }
+
+    public MitabInteractionEvidenceIterator(FastMitabLineParser<InteractionEvidence, ParticipantEvidence, FeatureEvidence> lineParser) throws MIIOException {
+        super(lineParser);
+    }
 }
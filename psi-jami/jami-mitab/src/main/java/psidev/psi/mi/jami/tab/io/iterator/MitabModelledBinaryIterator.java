@@ -4,6 +4,7 @@ import psidev.psi.mi.jami.binary.ModelledBinaryInteraction;
 import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.model.ModelledFeature;
 import psidev.psi.mi.jami.model.ModelledParticipant;
+import psidev.psi.mi.jami.tab.io.parser.FastMitabLineParser;
 import psidev.psi.mi.jami.tab.io.parser.MitabLineParser;
 
 /**
@@ -18,4 +19,8 @@ public class MitabModelledBinaryIterator extends AbstractMitabIterator<ModelledB
     public MitabModelledBinaryIterator(MitabLineParser<ModelledBinaryInteraction, ModelledParticipant, ModelledFeature> lineParser) throws MIIOException {
         super(lineParser);
     }
+
+    public MitabModelledBinaryIterator(FastMitabLineParser<ModelledBinaryInteraction, ModelledParticipant, ModelledFeature> lineParser) throws MIIOException {
+        super(lineParser);
+    }
 }
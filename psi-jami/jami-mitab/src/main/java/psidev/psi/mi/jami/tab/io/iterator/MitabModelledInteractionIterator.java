@@ -4,6 +4,7 @@ import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.model.ModelledFeature;
 import psidev.psi.mi.jami.model.ModelledInteraction;
 import psidev.psi.mi.jami.model.ModelledParticipant;
+import psidev.psi.mi.jami.tab.io.parser.FastMitabLineParser;
 import psidev.psi.mi.jami.tab.io.parser.MitabLineParser;
 
 /**
@@ -18,4 +19,8 @@ public class MitabModelledInteractionIterator extends AbstractMitabIterator<Mode
     public MitabModelledInteractionIterator(MitabLineParser<ModelledInteraction, ModelledParticipant, ModelledFeature> lineParser) throws MIIOException {
         super(lineParser);
     }
+
+    public MitabModelledInteractionIterator(FastMitabLineParser<ModelledInteraction, ModelledParticipant, ModelledFeature> lineParser) throws MIIOException {
+        super(lineParser);
+    }
 }
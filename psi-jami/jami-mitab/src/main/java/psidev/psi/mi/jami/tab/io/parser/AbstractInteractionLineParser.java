@@ -102,6 +102,17 @@ public abstract class AbstractInteractionLineParser<T extends Interaction, P ext
         super.ReInit(stream);
     }
 
+    /**
+     * Reinitialises the parser with a reader which starts at the given line of a MITAB file
+     * so the source locators have the line numbers of the file
+     * @param stream : the reader
+     * @param firstLineNumber : the line number of the first line of the reader
+     */
+    public void ReInit(Reader stream, int firstLineNumber) {
+        ReInit(stream);
+        jj_input_stream.ReInit(stream, firstLineNumber, 1);
+    }
+
     @Override
     public void ReInit(MitabLineParserTokenManager tm) {
         hasFinished = false;
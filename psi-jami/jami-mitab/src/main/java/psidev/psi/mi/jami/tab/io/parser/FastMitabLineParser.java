@@ -0,0 +1,1117 @@
+package psidev.psi.mi.jami.tab.io.parser;
+
+import psidev.psi.mi.jami.datasource.DefaultFileSourceContext;
+import psidev.psi.mi.jami.datasource.FileSourceContext;
+import psidev.psi.mi.jami.exception.IllegalParameterException;
+import psidev.psi.mi.jami.exception.IllegalRangeException;
+import psidev.psi.mi.jami.model.*;
+import psidev.psi.mi.jami.tab.extension.*;
+import psidev.psi.mi.jami.tab.listener.MitabParserListener;
+import psidev.psi.mi.jami.utils.CvTermUtils;
+import psidev.psi.mi.jami.utils.PositionUtils;
+
+import java.io.CharArrayReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Hand written MITAB line parser reading the tokens of a MitabLineTokenizer.
+ *
+ * It follows the grammar of the MitabLineParser for MITAB 2.5, 2.6 and 2.7 lines : it creates the same Mitab objects, fires the same
+ * MitabParserListener events with the same source locators and creates the participants and interactions with the AbstractInteractionLineParser
+ * it is given. It does not create any Token and the Strings are created directly from the buffer of the tokenizer.
+ *
+ * The lines which do not follow the grammar (syntax errors, unexpected number of columns, etc.) and the lines which cannot be tokenized
+ * are given to the AbstractInteractionLineParser so they are reported and recovered exactly as before. The events of a line are fired
+ * once the line has been parsed so the events of a malformed line are only fired by the AbstractInteractionLineParser.
+ * The AbstractInteractionLineParser only reads the malformed line : a line with missing columns is reported on its own and the next line
+ * is parsed as a new interaction instead of being read as the remaining columns. In the same way, when the AbstractInteractionLineParser throws
+ * an exception in the middle of a line, the remaining of the line is parsed by the AbstractInteractionLineParser but the next line is parsed
+ * by this parser.
+ *
+ * This parser is not thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class FastMitabLineParser<T extends Interaction, P extends Participant, F extends Feature> implements MitabLineParserConstants {
+
+    private static final int STRING_STOPS = mask(FIELD_SEPARATOR, COLON, OPEN_PAREN, CLOSE_PAREN, LINE_SEPARATOR, COLUMN_SEPARATOR);
+    private static final int FREE_TEXT_STOPS = mask(FIELD_SEPARATOR, LINE_SEPARATOR, COLUMN_SEPARATOR);
+    private static final int POSITION_STOPS = mask(DASH, RANGE_SEPARATOR, FIELD_SEPARATOR, OPEN_PAREN, CLOSE_PAREN, LINE_SEPARATOR, COLUMN_SEPARATOR);
+    private static final int STOICHIOMETRY_STOPS = mask(DASH, FIELD_SEPARATOR, LINE_SEPARATOR, COLUMN_SEPARATOR);
+    private static final int FIELD_STOPS = mask(COLUMN_SEPARATOR, LINE_SEPARATOR);
+
+    private static final int MITAB_COLUMNS = 42;
+
+    // events fired once a line has been parsed
+    private static final int SYNTAX_ERROR = 0;
+    private static final int TEXT_FOUND_IN_IDENTIFIER = 1;
+    private static final int XREF_WITHOUT_DATABASE = 2;
+    private static final int XREF_WITHOUT_ID = 3;
+    private static final int ALIAS_WITHOUT_DB_SOURCE = 4;
+    private static final int ALIAS_WITHOUT_NAME = 5;
+    private static final int MISSING_CV_TERM_NAME = 6;
+    private static final int INVALID_ORGANISM_TAXID = 7;
+    private static final int TEXT_FOUND_IN_CONFIDENCE = 8;
+    private static final int MISSING_CONFIDENCE_TYPE = 9;
+    private static final int MISSING_CONFIDENCE_VALUE = 10;
+    private static final int MISSING_EXPANSION_ID = 11;
+    private static final int ANNOTATION_WITHOUT_TOPIC = 12;
+    private static final int MISSING_PARAMETER_TYPE = 13;
+    private static final int MISSING_PARAMETER_VALUE = 14;
+    private static final int MISSING_CHECKSUM_METHOD = 15;
+    private static final int MISSING_CHECKSUM_VALUE = 16;
+    private static final int INVALID_POSITION = 17;
+    private static final int INVALID_RANGE = 18;
+    private static final int INVALID_STOICHIOMETRY = 19;
+
+    private static final MalformedLineException MALFORMED_LINE = new MalformedLineException();
+
+    private AbstractInteractionLineParser<T,P,F> fallbackParser;
+    private MitabLineTokenizer tokenizer;
+    private boolean isFallbackActive;
+    private boolean hasFinished;
+    private int fallbackLineCount;
+
+    // position in the tokens of the current line
+    private int position;
+    private int lineNumber;
+    // position of the last consumed token
+    private int tokenLine;
+    private int tokenColumn;
+
+    // the values of the MITAB columns of the current line, indexed by column number
+    private Collection[] columnValues = new Collection[MITAB_COLUMNS + 1];
+    private boolean isNegative;
+    private int line;
+    private int columnA;
+    private int columnB;
+
+    private int eventCount;
+    private int[] eventKinds = new int[16];
+    private Object[] eventSubjects = new Object[16];
+    private Object[] eventArguments = new Object[16];
+
+    public FastMitabLineParser(AbstractInteractionLineParser<T,P,F> fallbackParser, InputStream stream){
+        this(fallbackParser, new InputStreamReader(stream));
+    }
+
+    public FastMitabLineParser(AbstractInteractionLineParser<T,P,F> fallbackParser, Reader reader){
+        this(fallbackParser, reader, 1);
+    }
+
+    /**
+     *
+     * @param fallbackParser : the parser of the malformed lines
+     * @param reader : the reader
+     * @param firstLineNumber : the line number of the first line of the reader in the MITAB file
+     */
+    public FastMitabLineParser(AbstractInteractionLineParser<T,P,F> fallbackParser, Reader reader, int firstLineNumber){
+        if (fallbackParser == null){
+            throw new IllegalArgumentException("The fast MITAB line parser needs a MITAB line parser to parse the malformed lines.");
+        }
+        this.fallbackParser = fallbackParser;
+        this.tokenizer = new MitabLineTokenizer(reader);
+        this.tokenizer.reset(reader, firstLineNumber);
+    }
+
+    /**
+     * Parses the next line.
+     * @return the interaction of the next line, null if the line is empty or is a comment or if the end of the file has been reached
+     * @throws ParseException
+     */
+    public T MitabLine() throws ParseException {
+        while (true){
+            if (!isFallbackActive){
+                if (!tokenizer.readLine()){
+                    hasFinished = true;
+                    return null;
+                }
+                if (tokenizer.isTokenized()){
+                    try {
+                        return parseTokenizedLine();
+                    } catch (MalformedLineException e) {
+                        // the line is parsed again by the fallback parser which reports the errors
+                    }
+                }
+                startFallbackParser();
+            }
+
+            T interaction = fallbackParser.MitabLine();
+            if (fallbackParser.hasFinished()){
+                isFallbackActive = false;
+                hasFinished = !tokenizer.hasLineSeparator();
+            }
+            if (interaction != null || isFallbackActive || hasFinished){
+                return interaction;
+            }
+        }
+    }
+
+    public boolean hasFinished() {
+        return hasFinished;
+    }
+
+    public MitabParserListener getParserListener() {
+        return fallbackParser.getParserListener();
+    }
+
+    public AbstractInteractionLineParser<T, P, F> getFallbackParser() {
+        return fallbackParser;
+    }
+
+    /**
+     * @return the number of lines which have been parsed by the fallback parser
+     */
+    public int getFallbackLineCount() {
+        return fallbackLineCount;
+    }
+
+    /**
+     * @return the line number of the last token read by the parser
+     */
+    public int getTokenLine() {
+        return isFallbackActive ? fallbackParser.getToken(0).beginLine : tokenLine;
+    }
+
+    /**
+     * @return the column of the last token read by the parser
+     */
+    public int getTokenColumn() {
+        return isFallbackActive ? fallbackParser.getToken(0).beginColumn : tokenColumn;
+    }
+
+    public void ReInit(InputStream stream){
+        ReInit(new InputStreamReader(stream));
+    }
+
+    public void ReInit(Reader reader){
+        ReInit(reader, 1);
+    }
+
+    /**
+     * Reinitialises the parser with a reader which starts at the given line of a MITAB file
+     * @param reader : the reader
+     * @param firstLineNumber : the line number of the first line of the reader
+     */
+    public void ReInit(Reader reader, int firstLineNumber){
+        tokenizer.reset(reader, firstLineNumber);
+        isFallbackActive = false;
+        hasFinished = false;
+        tokenLine = 0;
+        tokenColumn = 0;
+    }
+
+    private void startFallbackParser() {
+        boolean hasPreviousLine = tokenizer.getPreviousSeparatorLine() > 0;
+        Reader reader = new CharArrayReader(tokenizer.copyLine(hasPreviousLine));
+        fallbackParser.ReInit(reader, tokenizer.getLineNumber());
+        if (hasPreviousLine){
+            // the fallback parser reads again the line separator of the previous line so the positions
+            // of the tokens and the previous token are the same as if it had read the whole file
+            fallbackParser.jj_input_stream.ReInit(reader, tokenizer.getPreviousSeparatorLine(), tokenizer.getPreviousSeparatorColumn());
+            try {
+                fallbackParser.MitabLine();
+            } catch (ParseException e) {
+                throw new IllegalStateException("The line separator of the previous line should be read as an empty line", e);
+            }
+        }
+        isFallbackActive = true;
+        fallbackLineCount++;
+    }
+
+    private T parseTokenizedLine() throws MalformedLineException {
+        position = 0;
+        lineNumber = tokenizer.getLineNumber();
+        tokenLine = tokenizer.getPreviousSeparatorLine();
+        tokenColumn = tokenizer.getPreviousSeparatorColumn();
+
+        switch (tokenizer.getKind(0)){
+            case LINE_SEPARATOR:
+                consumeToken();
+                return null;
+            case EOF:
+                hasFinished = true;
+                return null;
+            case COMMENT:
+                // the comment ends with the line
+                position = tokenizer.getTokenCount() - 1;
+                hasFinished = tokenizer.getKind(position) == EOF;
+                consumeToken();
+                return null;
+            default:
+                break;
+        }
+
+        eventCount = 0;
+        Arrays.fill(columnValues, Collections.EMPTY_LIST);
+        isNegative = false;
+        try {
+            parseColumns();
+        } catch (RuntimeException e) {
+            throw MALFORMED_LINE;
+        }
+
+        fireEvents();
+        T interaction = finishLine();
+        hasFinished = tokenizer.getKind(position) == EOF;
+        consumeToken();
+        return interaction;
+    }
+
+    private void parseColumns() throws MalformedLineException {
+        CvTerm identity = CvTermUtils.createIdentityQualifier();
+
+        // MITAB 2.5
+        if (!consumeDash()){
+            columnValues[1] = ids(identity, false, 1);
+        }
+        line = tokenLine;
+        columnA = tokenColumn;
+        consume(COLUMN_SEPARATOR);
+        if (!consumeDash()){
+            columnValues[2] = ids(identity, false, 2);
+        }
+        columnB = tokenColumn;
+        consume(COLUMN_SEPARATOR);
+        for (int column = 3; column <= 4; column++){
+            if (!consumeDash()){
+                columnValues[column] = ids(CvTermUtils.getSecondary(), false, column);
+            }
+            consume(COLUMN_SEPARATOR);
+        }
+        for (int column = 5; column <= 6; column++){
+            if (!consumeDash()){
+                columnValues[column] = aliases(column);
+            }
+            consume(COLUMN_SEPARATOR);
+        }
+        if (!consumeDash()){
+            columnValues[7] = cvTerms(7);
+        }
+        consume(COLUMN_SEPARATOR);
+        if (!consumeEmptyColumn()){
+            columnValues[8] = authors();
+            consume(COLUMN_SEPARATOR);
+        }
+        if (!consumeDash()){
+            columnValues[9] = ids(identity, true, 9);
+        }
+        consume(COLUMN_SEPARATOR);
+        for (int column = 10; column <= 11; column++){
+            if (!consumeDash()){
+                columnValues[column] = organisms(column);
+            }
+            consume(COLUMN_SEPARATOR);
+        }
+        if (!consumeDash()){
+            columnValues[12] = cvTerms(12);
+        }
+        consume(COLUMN_SEPARATOR);
+        if (!consumeDash()){
+            columnValues[13] = sources();
+        }
+        consume(COLUMN_SEPARATOR);
+        if (!consumeDash()){
+            columnValues[14] = ids(identity, true, 14);
+        }
+        consume(COLUMN_SEPARATOR);
+        if (!consumeDash()){
+            columnValues[15] = confidences();
+        }
+
+        // MITAB 2.6
+        if (consumeIfNext(COLUMN_SEPARATOR)){
+            if (!consumeDash()){
+                columnValues[16] = expansions();
+            }
+            consume(COLUMN_SEPARATOR);
+            for (int column = 17; column <= 22; column++){
+                if (!consumeDash()){
+                    columnValues[column] = cvTerms(column);
+                }
+                consume(COLUMN_SEPARATOR);
+            }
+            for (int column = 23; column <= 25; column++){
+                if (!consumeDash()){
+                    columnValues[column] = ids(null, false, column);
+                }
+                consume(COLUMN_SEPARATOR);
+            }
+            for (int column = 26; column <= 28; column++){
+                if (!consumeDash()){
+                    columnValues[column] = annotations(column);
+                }
+                consume(COLUMN_SEPARATOR);
+            }
+            if (!consumeDash()){
+                columnValues[29] = organisms(29);
+            }
+            consume(COLUMN_SEPARATOR);
+            if (!consumeDash()){
+                columnValues[30] = parameters();
+            }
+            consume(COLUMN_SEPARATOR);
+            for (int column = 31; column <= 32; column++){
+                if (!consumeDash()){
+                    columnValues[column] = dates(column);
+                }
+                consume(COLUMN_SEPARATOR);
+            }
+            for (int column = 33; column <= 35; column++){
+                if (!consumeDash()){
+                    columnValues[column] = checksums(column);
+                }
+                consume(COLUMN_SEPARATOR);
+            }
+            if (!consumeDash()){
+                isNegative = Boolean.parseBoolean(safeString(FREE_TEXT_STOPS));
+            }
+
+            // MITAB 2.7
+            if (consumeIfNext(COLUMN_SEPARATOR)){
+                for (int column = 37; column <= 38; column++){
+                    if (!consumeDash()){
+                        columnValues[column] = features(column);
+                    }
+                    consume(COLUMN_SEPARATOR);
+                }
+                for (int column = 39; column <= 40; column++){
+                    if (!consumeEmptyColumn()){
+                        columnValues[column] = stoichiometries(column);
+                        consume(COLUMN_SEPARATOR);
+                    }
+                }
+                if (!consumeDash()){
+                    columnValues[41] = cvTerms(41);
+                }
+                consume(COLUMN_SEPARATOR);
+                if (!consumeDash()){
+                    columnValues[42] = cvTerms(42);
+                }
+            }
+        }
+
+        int kind = tokenizer.getKind(position);
+        if (kind != LINE_SEPARATOR && kind != EOF){
+            throw MALFORMED_LINE;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T finishLine() {
+        // the collections are raw so the participant and the interaction are cast
+        Collection[] c = columnValues;
+        P participantA = (P) fallbackParser.finishParticipant(c[1], c[3], c[5], c[10], c[17], c[19], c[21], c[23], c[26], c[33], c[37], c[39], c[41],
+                line, columnA, 1);
+        P participantB = (P) fallbackParser.finishParticipant(c[2], c[4], c[6], c[11], c[18], c[20], c[22], c[24], c[27], c[34], c[38], c[40], c[42],
+                line, columnB, 2);
+        return (T) fallbackParser.finishInteraction(participantA, participantB, c[7], c[8], c[9], c[12], c[13], c[14], c[15], c[16], c[25], c[28],
+                c[29], c[30], c[31], c[32], c[35], isNegative, line);
+    }
+
+    private Collection<MitabXref> ids(CvTerm qualifier, boolean recognizeImexPrimary, int column) throws MalformedLineException {
+        Collection<MitabXref> xrefs = new ArrayList<MitabXref>(countFields());
+        do {
+            xrefs.add(id(qualifier, recognizeImexPrimary, column));
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return xrefs;
+    }
+
+    private Collection<MitabAlias> aliases(int column) throws MalformedLineException {
+        Collection<MitabAlias> aliases = new ArrayList<MitabAlias>(countFields());
+        do {
+            aliases.add(alias(column));
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return aliases;
+    }
+
+    private Collection<MitabCvTerm> cvTerms(int column) throws MalformedLineException {
+        Collection<MitabCvTerm> terms = new ArrayList<MitabCvTerm>(countFields());
+        do {
+            terms.add(cvTerm(column));
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return terms;
+    }
+
+    private Collection<MitabAuthor> authors() throws MalformedLineException {
+        Collection<MitabAuthor> authors = new ArrayList<MitabAuthor>(countFields());
+        do {
+            MitabAuthor author = new MitabAuthor(safeString(FREE_TEXT_STOPS));
+            author.setSourceLocator(new MitabSourceLocator(tokenLine, tokenColumn, 8));
+            authors.add(author);
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return authors;
+    }
+
+    private Collection<MitabOrganism> organisms(int column) throws MalformedLineException {
+        Collection<MitabOrganism> organisms = new ArrayList<MitabOrganism>(countFields());
+        do {
+            organisms.add(organism(column));
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return organisms;
+    }
+
+    private Collection<MitabSource> sources() throws MalformedLineException {
+        Collection<MitabSource> sources = new ArrayList<MitabSource>(countFields());
+        do {
+            sources.add(source());
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return sources;
+    }
+
+    private Collection<MitabConfidence> confidences() throws MalformedLineException {
+        Collection<MitabConfidence> confidences = new ArrayList<MitabConfidence>(countFields());
+        do {
+            confidences.add(confidence());
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return confidences;
+    }
+
+    private Collection<MitabCvTerm> expansions() throws MalformedLineException {
+        Collection<MitabCvTerm> expansions = new ArrayList<MitabCvTerm>(countFields());
+        do {
+            expansions.add(expansion());
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return expansions;
+    }
+
+    private Collection<MitabAnnotation> annotations(int column) throws MalformedLineException {
+        Collection<MitabAnnotation> annotations = new ArrayList<MitabAnnotation>(countFields());
+        do {
+            annotations.add(annotation(column));
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return annotations;
+    }
+
+    private Collection<MitabParameter> parameters() throws MalformedLineException {
+        Collection<MitabParameter> parameters = new ArrayList<MitabParameter>(countFields());
+        do {
+            MitabParameter parameter = parameter();
+            if (parameter != null){
+                parameters.add(parameter);
+            }
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return parameters;
+    }
+
+    private Collection<MitabDate> dates(int column) throws MalformedLineException {
+        Collection<MitabDate> dates = new ArrayList<MitabDate>(countFields());
+        do {
+            MitabDate date = date(column);
+            if (date != null){
+                dates.add(date);
+            }
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return dates;
+    }
+
+    private Collection<MitabChecksum> checksums(int column) throws MalformedLineException {
+        Collection<MitabChecksum> checksums = new ArrayList<MitabChecksum>(countFields());
+        do {
+            checksums.add(checksum(column));
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return checksums;
+    }
+
+    private Collection<F> features(int column) throws MalformedLineException {
+        Collection<F> features = new ArrayList<F>(countFields());
+        do {
+            F feature = feature(column);
+            if (feature != null){
+                features.add(feature);
+            }
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return features;
+    }
+
+    private Collection<MitabStoichiometry> stoichiometries(int column) throws MalformedLineException {
+        Collection<MitabStoichiometry> stoichiometries = new ArrayList<MitabStoichiometry>(countFields());
+        do {
+            stoichiometries.add(stoichiometry(column));
+        }
+        while (consumeIfNext(FIELD_SEPARATOR));
+        return stoichiometries;
+    }
+
+    private MitabXref id(CvTerm qualifier, boolean recognizeImexPrimary, int column) throws MalformedLineException {
+        //db:id(text)
+        String db = safeString(STRING_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, column);
+        consume(COLON);
+        String id = safeString(STRING_STOPS);
+        String text = null;
+        if (consumeIfNext(OPEN_PAREN)){
+            text = safeString(STRING_STOPS);
+            consume(CLOSE_PAREN);
+        }
+
+        MitabXref ref;
+        if (recognizeImexPrimary && Xref.IMEX.equalsIgnoreCase(db.trim())){
+            if (text == null){
+                ref = new MitabXref(db, id, CvTermUtils.getImexPrimary());
+            }
+            else {
+                ref = new MitabXref(db, id, text);
+                if (qualifier != null){
+                    addEvent(TEXT_FOUND_IN_IDENTIFIER, ref, null);
+                }
+            }
+        }
+        else if (text == null){
+            ref = new MitabXref(db, id, qualifier);
+        }
+        else {
+            ref = new MitabXref(db, id, text);
+            if (qualifier != null){
+                addEvent(TEXT_FOUND_IN_IDENTIFIER, ref, null);
+            }
+        }
+        ref.setSourceLocator(locator);
+        if (db == null){
+            addEvent(XREF_WITHOUT_DATABASE, ref, null);
+        }
+        if (id == null){
+            addEvent(XREF_WITHOUT_ID, ref, null);
+        }
+        return ref;
+    }
+
+    private MitabAlias alias(int column) throws MalformedLineException {
+        //db:name(type)
+        String db = safeString(STRING_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, column);
+        consume(COLON);
+        String name = safeString(STRING_STOPS);
+        String type = null;
+        if (consumeIfNext(OPEN_PAREN)){
+            type = safeString(STRING_STOPS);
+            consume(CLOSE_PAREN);
+        }
+
+        MitabAlias alias = new MitabAlias(db, name, type);
+        alias.setSourceLocator(locator);
+        if (db == null){
+            addEvent(ALIAS_WITHOUT_DB_SOURCE, alias, null);
+        }
+        if (name == null){
+            addEvent(ALIAS_WITHOUT_NAME, alias, null);
+        }
+        return alias;
+    }
+
+    private MitabCvTerm cvTerm(int column) throws MalformedLineException {
+        //db:id(name)
+        String db = safeString(STRING_STOPS);
+        consume(COLON);
+        String id = safeString(STRING_STOPS);
+        String name = null;
+        if (consumeIfNext(OPEN_PAREN)){
+            name = safeString(STRING_STOPS);
+            consume(CLOSE_PAREN);
+        }
+
+        MitabCvTerm cv = new MitabCvTerm(name, null, db, id);
+        cv.setSourceLocator(new MitabSourceLocator(tokenLine, tokenColumn, column));
+        if (name == null){
+            addEvent(MISSING_CV_TERM_NAME, cv, "The term at the column " + column + " does not have a name.");
+        }
+        return cv;
+    }
+
+    private MitabOrganism organism(int column) throws MalformedLineException {
+        //taxid:id(name)
+        String db = safeString(STRING_STOPS);
+        if (db == null || !db.equalsIgnoreCase("taxid")){
+            throw MALFORMED_LINE;
+        }
+        consume(COLON);
+        String id = safeString(STRING_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, column);
+        String name = null;
+        if (consumeIfNext(OPEN_PAREN)){
+            name = safeString(STRING_STOPS);
+            consume(CLOSE_PAREN);
+        }
+
+        MitabOrganism organism;
+        try {
+            int tax = Integer.parseInt(id);
+            organism = new MitabOrganism(tax, name);
+            organism.setSourceLocator(locator);
+            if (tax == 0 || tax < -5){
+                addEvent(INVALID_ORGANISM_TAXID, organism, id);
+            }
+        } catch (NumberFormatException e) {
+            organism = new MitabOrganism(-3, name);
+            organism.setSourceLocator(locator);
+            addEvent(INVALID_ORGANISM_TAXID, organism, id);
+        }
+        return organism;
+    }
+
+    private MitabSource source() throws MalformedLineException {
+        //db:id(name)
+        String db = safeString(STRING_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, 13);
+        consume(COLON);
+        String id = safeString(STRING_STOPS);
+        String name = null;
+        if (consumeIfNext(OPEN_PAREN)){
+            name = safeString(STRING_STOPS);
+            consume(CLOSE_PAREN);
+        }
+
+        MitabSource source = new MitabSource(name, null, db, id);
+        source.setSourceLocator(locator);
+        if (name == null){
+            addEvent(MISSING_CV_TERM_NAME, source, "The source at the column 13 does not have a name.");
+        }
+        return source;
+    }
+
+    private MitabConfidence confidence() throws MalformedLineException {
+        //type:value(text)
+        String type = safeString(STRING_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, 15);
+        consume(COLON);
+        String value = safeString(STRING_STOPS);
+        String text = null;
+        if (consumeIfNext(OPEN_PAREN)){
+            text = safeString(STRING_STOPS);
+            consume(CLOSE_PAREN);
+        }
+
+        MitabConfidence confidence = new MitabConfidence(type, value, text);
+        confidence.setSourceLocator(locator);
+        if (text != null){
+            addEvent(TEXT_FOUND_IN_CONFIDENCE, confidence, null);
+        }
+        if (type == null){
+            addEvent(MISSING_CONFIDENCE_TYPE, confidence, null);
+        }
+        if (value == null){
+            addEvent(MISSING_CONFIDENCE_VALUE, confidence, null);
+        }
+        return confidence;
+    }
+
+    private MitabCvTerm expansion() throws MalformedLineException {
+        //db:id(name)
+        String db = safeString(STRING_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, 16);
+        consume(COLON);
+        String id = safeString(STRING_STOPS);
+        String name = null;
+        if (consumeIfNext(OPEN_PAREN)){
+            name = safeString(STRING_STOPS);
+            consume(CLOSE_PAREN);
+        }
+
+        MitabCvTerm expansion;
+        if (id == null){
+            expansion = new MitabCvTerm(name);
+            expansion.setSourceLocator(locator);
+            addEvent(MISSING_EXPANSION_ID, expansion, null);
+        }
+        else {
+            expansion = new MitabCvTerm(name, null, db, id);
+            expansion.setSourceLocator(locator);
+        }
+        if (name == null){
+            addEvent(MISSING_CV_TERM_NAME, expansion, "The expansion method at the column 16 does not have a name.");
+        }
+        return expansion;
+    }
+
+    private MitabAnnotation annotation(int column) throws MalformedLineException {
+        //topic:value
+        String topic = safeString(STRING_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, column);
+        String value = null;
+        if (consumeIfNext(COLON)){
+            value = safeString(STRING_STOPS);
+        }
+
+        MitabAnnotation annotation = new MitabAnnotation(topic, value);
+        annotation.setSourceLocator(locator);
+        if (topic == null){
+            addEvent(ANNOTATION_WITHOUT_TOPIC, annotation, null);
+        }
+        return annotation;
+    }
+
+    private MitabParameter parameter() throws MalformedLineException {
+        //type:value(unit)
+        String type = safeString(STRING_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, 30);
+        consume(COLON);
+        String value = safeString(STRING_STOPS);
+        String unit = null;
+        if (consumeIfNext(OPEN_PAREN)){
+            unit = safeString(STRING_STOPS);
+            consume(CLOSE_PAREN);
+        }
+
+        try {
+            MitabParameter parameter = new MitabParameter(type, value, unit);
+            parameter.setSourceLocator(locator);
+            if (type == null){
+                addEvent(MISSING_PARAMETER_TYPE, parameter, null);
+            }
+            if (value == null){
+                addEvent(MISSING_PARAMETER_VALUE, parameter, null);
+            }
+            return parameter;
+        } catch (IllegalParameterException e) {
+            addEvent(SYNTAX_ERROR, e, locator);
+            return null;
+        }
+    }
+
+    private MitabDate date(int column) throws MalformedLineException {
+        //yyyy/mm/dd
+        String date = safeString(STRING_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, column);
+        try {
+            MitabDate mitabDate = new MitabDate(date);
+            mitabDate.setSourceLocator(locator);
+            return mitabDate;
+        } catch (java.text.ParseException e) {
+            addEvent(SYNTAX_ERROR, e, locator);
+            return null;
+        }
+    }
+
+    private MitabChecksum checksum(int column) throws MalformedLineException {
+        //method:value
+        String method = safeString(STRING_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, column);
+        consume(COLON);
+        String value = safeString(STRING_STOPS);
+
+        MitabChecksum checksum = new MitabChecksum(method, value);
+        checksum.setSourceLocator(locator);
+        if (method == null){
+            addEvent(MISSING_CHECKSUM_METHOD, checksum, null);
+        }
+        if (value == null){
+            addEvent(MISSING_CHECKSUM_VALUE, checksum, null);
+        }
+        return checksum;
+    }
+
+    private F feature(int column) throws MalformedLineException {
+        //type:range1,range2(text)
+        String type = safeString(STRING_STOPS);
+        int beginLine = tokenLine;
+        int beginColumn = tokenColumn;
+        consume(COLON);
+        Collection<Range> ranges = new ArrayList<Range>();
+        do {
+            ranges.add(range(column));
+        }
+        while (consumeIfNext(RANGE_SEPARATOR));
+        String text = null;
+        if (consumeIfNext(OPEN_PAREN)){
+            text = safeString(STRING_STOPS);
+            consume(CLOSE_PAREN);
+        }
+
+        try {
+            return fallbackParser.createFeature(type, ranges, text, beginLine, beginColumn, column);
+        } catch (IllegalArgumentException e) {
+            addEvent(SYNTAX_ERROR, e, new MitabSourceLocator(beginLine, beginColumn, column));
+            return null;
+        }
+    }
+
+    private MitabRange range(int column) throws MalformedLineException {
+        //start-end
+        String startString = safeString(POSITION_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, column);
+        consume(DASH);
+        String endString = safeString(POSITION_STOPS);
+
+        Position start = position(startString, locator);
+        Position end = position(endString, locator);
+        MitabRange range;
+        try {
+            range = new MitabRange(start, end);
+            range.setSourceLocator(locator);
+        } catch (IllegalArgumentException e) {
+            range = new MitabRange(PositionUtils.createUndeterminedPosition(), PositionUtils.createUndeterminedPosition());
+            range.setSourceLocator(locator);
+            addEvent(INVALID_RANGE, range, e.getMessage());
+        }
+        return range;
+    }
+
+    private Position position(String value, MitabSourceLocator locator) {
+        try {
+            return PositionUtils.createPositionFromString(value);
+        } catch (IllegalRangeException e) {
+            addEvent(INVALID_POSITION, new DefaultFileSourceContext(locator), e.getMessage());
+        } catch (IllegalArgumentException e) {
+            addEvent(INVALID_POSITION, new DefaultFileSourceContext(locator), e.getMessage());
+        }
+        return PositionUtils.createUndeterminedPosition();
+    }
+
+    private MitabStoichiometry stoichiometry(int column) throws MalformedLineException {
+        //min-max
+        String minString = safeString(STOICHIOMETRY_STOPS);
+        MitabSourceLocator locator = new MitabSourceLocator(tokenLine, tokenColumn, column);
+        String maxString = null;
+        if (consumeIfNext(DASH)){
+            maxString = safeString(STOICHIOMETRY_STOPS);
+        }
+
+        int min;
+        try {
+            min = Integer.parseInt(minString);
+        } catch (NumberFormatException e) {
+            min = 0;
+            addEvent(INVALID_STOICHIOMETRY, new DefaultFileSourceContext(locator), e.getMessage());
+        }
+        MitabStoichiometry stoichiometry;
+        if (maxString != null){
+            int max;
+            try {
+                max = Integer.parseInt(maxString);
+            } catch (NumberFormatException e) {
+                max = min;
+                addEvent(INVALID_STOICHIOMETRY, new DefaultFileSourceContext(locator), e.getMessage());
+            }
+            try {
+                stoichiometry = new MitabStoichiometry(min, max);
+            } catch (IllegalArgumentException e) {
+                // the MitabLineParser reports the invalid stoichiometry before setting its source locator
+                throw MALFORMED_LINE;
+            }
+        }
+        else {
+            stoichiometry = new MitabStoichiometry(min);
+        }
+        stoichiometry.setSourceLocator(locator);
+        return stoichiometry;
+    }
+
+    /**
+     * Reads a quoted string or the tokens until one of the stop tokens
+     * @param stops : the mask of the token kinds ending the string
+     * @return the trimmed string, null if the string is empty and is not quoted
+     */
+    private String safeString(int stops) {
+        if (tokenizer.getKind(position) == QUOTED_STRING){
+            String value = tokenizer.getQuotedString(position);
+            consumeToken();
+            return value;
+        }
+        int first = position;
+        while ((stops & (1 << tokenizer.getKind(position))) == 0){
+            consumeToken();
+        }
+        return position > first ? tokenizer.getString(first, position) : null;
+    }
+
+    private int countFields() {
+        int count = 1;
+        for (int i = position; (FIELD_STOPS & (1 << tokenizer.getKind(i))) == 0; i++){
+            if (tokenizer.getKind(i) == FIELD_SEPARATOR){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void consumeToken() {
+        tokenLine = lineNumber;
+        tokenColumn = tokenizer.getColumn(position);
+        position++;
+    }
+
+    private void consume(int kind) throws MalformedLineException {
+        if (tokenizer.getKind(position) != kind){
+            throw MALFORMED_LINE;
+        }
+        consumeToken();
+    }
+
+    private boolean consumeIfNext(int kind) {
+        if (tokenizer.getKind(position) == kind){
+            consumeToken();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Consumes the dash of an empty column. The column separator following the dash is not consumed.
+     * @return true if the column is empty
+     * @throws MalformedLineException if the dash is not followed by the end of the column
+     */
+    private boolean consumeDash() throws MalformedLineException {
+        if (consumeIfNext(DASH)){
+            int kind = tokenizer.getKind(position);
+            if (kind != COLUMN_SEPARATOR && kind != LINE_SEPARATOR && kind != EOF){
+                throw MALFORMED_LINE;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Consumes the dash and the column separator of an empty column when the values of the column can start with a dash
+     * @return true if the column is empty
+     */
+    private boolean consumeEmptyColumn() {
+        if (tokenizer.getKind(position) == DASH && tokenizer.getKind(position + 1) == COLUMN_SEPARATOR){
+            consumeToken();
+            consumeToken();
+            return true;
+        }
+        return false;
+    }
+
+    private void addEvent(int kind, Object subject, Object argument) {
+        if (eventCount == eventKinds.length){
+            int capacity = 2 * eventCount;
+            eventKinds = Arrays.copyOf(eventKinds, capacity);
+            eventSubjects = Arrays.copyOf(eventSubjects, capacity);
+            eventArguments = Arrays.copyOf(eventArguments, capacity);
+        }
+        eventKinds[eventCount] = kind;
+        eventSubjects[eventCount] = subject;
+        eventArguments[eventCount] = argument;
+        eventCount++;
+    }
+
+    private void fireEvents() {
+        MitabParserListener listener = fallbackParser.getParserListener();
+        for (int i = 0; i < eventCount; i++){
+            Object subject = eventSubjects[i];
+            Object argument = eventArguments[i];
+            eventSubjects[i] = null;
+            eventArguments[i] = null;
+
+            if (eventKinds[i] == SYNTAX_ERROR){
+                MitabSourceLocator locator = (MitabSourceLocator) argument;
+                fallbackParser.processSyntaxError(locator.getLineNumber(), locator.getCharNumber(), locator.getColumnNumber(), (Exception) subject);
+                continue;
+            }
+            else if (listener == null){
+                continue;
+            }
+
+            switch (eventKinds[i]){
+                case TEXT_FOUND_IN_IDENTIFIER:
+                    listener.onTextFoundInIdentifier((MitabXref) subject);
+                    break;
+                case XREF_WITHOUT_DATABASE:
+                    listener.onXrefWithoutDatabase((MitabXref) subject);
+                    break;
+                case XREF_WITHOUT_ID:
+                    listener.onXrefWithoutId((MitabXref) subject);
+                    break;
+                case ALIAS_WITHOUT_DB_SOURCE:
+                    listener.onAliasWithoutDbSource((MitabAlias) subject);
+                    break;
+                case ALIAS_WITHOUT_NAME:
+                    listener.onAliasWithoutName((MitabAlias) subject);
+                    break;
+                case MISSING_CV_TERM_NAME:
+                    listener.onMissingCvTermName((CvTerm) subject, (FileSourceContext) subject, (String) argument);
+                    break;
+                case INVALID_ORGANISM_TAXID:
+                    listener.onInvalidOrganismTaxid((String) argument, (MitabOrganism) subject);
+                    break;
+                case TEXT_FOUND_IN_CONFIDENCE:
+                    listener.onTextFoundInConfidence((MitabConfidence) subject);
+                    break;
+                case MISSING_CONFIDENCE_TYPE:
+                    listener.onMissingConfidenceType((MitabConfidence) subject);
+                    break;
+                case MISSING_CONFIDENCE_VALUE:
+                    listener.onMissingConfidenceValue((MitabConfidence) subject);
+                    break;
+                case MISSING_EXPANSION_ID:
+                    listener.onMissingExpansionId((MitabCvTerm) subject);
+                    break;
+                case ANNOTATION_WITHOUT_TOPIC:
+                    listener.onAnnotationWithoutTopic((MitabAnnotation) subject);
+                    break;
+                case MISSING_PARAMETER_TYPE:
+                    listener.onMissingParameterType((MitabParameter) subject);
+                    break;
+                case MISSING_PARAMETER_VALUE:
+                    listener.onMissingParameterValue((MitabParameter) subject);
+                    break;
+                case MISSING_CHECKSUM_METHOD:
+                    listener.onMissingChecksumMethod((MitabChecksum) subject);
+                    break;
+                case MISSING_CHECKSUM_VALUE:
+                    listener.onMissingChecksumValue((MitabChecksum) subject);
+                    break;
+                case INVALID_POSITION:
+                    listener.onInvalidPosition((String) argument, (FileSourceContext) subject);
+                    break;
+                case INVALID_RANGE:
+                    listener.onInvalidRange((String) argument, (MitabRange) subject);
+                    break;
+                case INVALID_STOICHIOMETRY:
+                    listener.onInvalidStoichiometry((String) argument, (FileSourceContext) subject);
+                    break;
+                default:
+                    break;
+            }
+        }
+        eventCount = 0;
+    }
+
+    private static int mask(int... kinds){
+        int mask = 1 << EOF;
+        for (int kind : kinds){
+            mask |= 1 << kind;
+        }
+        return mask;
+    }
+
+    /**
+     * Thrown when a line does not follow the grammar. The line is then parsed by the fallback parser.
+     */
+    private static class MalformedLineException extends Exception {
+
+        private MalformedLineException() {
+            super("Malformed MITAB line");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            // the same instance is thrown for every malformed line
+            return this;
+        }
+    }
+}
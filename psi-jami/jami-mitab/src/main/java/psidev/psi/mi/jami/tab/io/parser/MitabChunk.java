@@ -0,0 +1,66 @@
+package psidev.psi.mi.jami.tab.io.parser;
+
+/**
+ * A range of complete lines of a MITAB file.
+ *
+ * It keeps the bytes of the lines and the line number of its first line in the file so it can be parsed
+ * independently of the other chunks of the file.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class MitabChunk {
+
+    private byte[] data;
+    private int length;
+    private int firstLineNumber;
+    private long offset;
+
+    public MitabChunk(byte[] data, int length, int firstLineNumber, long offset) {
+        if (data == null){
+            throw new IllegalArgumentException("The data of a MITAB chunk cannot be null");
+        }
+        if (length < 0 || length > data.length){
+            throw new IllegalArgumentException("The length of a MITAB chunk must be between 0 and "+data.length+": "+length);
+        }
+        this.data = data;
+        this.length = length;
+        this.firstLineNumber = firstLineNumber;
+        this.offset = offset;
+    }
+
+    /**
+     *
+     * @return the bytes of the chunk. Only the first getLength() bytes belong to the chunk
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     *
+     * @return the line number of the first line of the chunk in the MITAB file
+     */
+    public int getFirstLineNumber() {
+        return firstLineNumber;
+    }
+
+    /**
+     *
+     * @return the position of the first byte of the chunk in the MITAB file
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public String toString() {
+        return "MITAB chunk: first line "+firstLineNumber+", bytes "+offset+"-"+(offset+length);
+    }
+}
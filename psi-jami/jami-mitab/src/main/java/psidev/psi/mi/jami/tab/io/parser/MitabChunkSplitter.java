@@ -0,0 +1,147 @@
+package psidev.psi.mi.jami.tab.io.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Splits a MITAB stream in chunks of complete lines.
+ *
+ * Each chunk is at least as big as the chunk size (excepted the last one) and ends with a line feed which is not within a quoted string,
+ * so a MITAB line is never split between two chunks. The lines are counted like the MitabLineParser counts them (a line feed, a carriage return
+ * followed by a line feed or a carriage return alone end a line) so each chunk knows the line number of its first line in the stream.
+ *
+ * The bytes are read in one pass and are not decoded. The encoding of the stream must be compatible with ASCII (UTF-8, ISO-8859-1, etc.).
+ *
+ * This splitter is not thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class MitabChunkSplitter {
+
+    private static final int READ_SIZE = 64 * 1024;
+
+    private InputStream stream;
+    private int chunkSize;
+
+    // bytes read after the end of the previous chunk
+    private byte[] pending = new byte[0];
+    private int pendingLength;
+    private boolean isEndOfStream;
+
+    private int lineNumber = 1;
+    private long offset;
+    private byte previous;
+    private boolean withinQuotes;
+
+    /**
+     *
+     * @param stream : the MITAB stream
+     * @param chunkSize : the minimum number of bytes of a chunk
+     */
+    public MitabChunkSplitter(InputStream stream, int chunkSize){
+        if (stream == null){
+            throw new IllegalArgumentException("The MITAB chunk splitter needs an InputStream.");
+        }
+        if (chunkSize <= 0){
+            throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+        }
+        this.stream = stream;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads the next chunk of lines
+     * @return the next chunk, null if the end of the stream has been reached
+     * @throws IOException
+     */
+    public MitabChunk nextChunk() throws IOException {
+        if (isEndOfStream && pendingLength == 0){
+            return null;
+        }
+
+        byte[] data = new byte[Math.max(chunkSize, pendingLength) + READ_SIZE];
+        System.arraycopy(pending, 0, data, 0, pendingLength);
+        int length = pendingLength;
+        pendingLength = 0;
+
+        int firstLineNumber = lineNumber;
+        long chunkOffset = offset;
+        int scanned = 0;
+
+        while (true){
+            while (scanned < length){
+                byte b = data[scanned++];
+                if (previous == '\r' && b != '\n'){
+                    lineNumber++;
+                }
+
+                if (withinQuotes){
+                    if (b == '"' && previous != '\\'){
+                        withinQuotes = false;
+                    }
+                }
+                else if (b == '"'){
+                    withinQuotes = true;
+                }
+                previous = b;
+
+                if (b == '\n'){
+                    lineNumber++;
+                    if (!withinQuotes && scanned >= chunkSize){
+                        keepPendingBytes(data, scanned, length - scanned);
+                        offset += scanned;
+                        return new MitabChunk(data, scanned, firstLineNumber, chunkOffset);
+                    }
+                }
+            }
+
+            if (isEndOfStream){
+                if (length == 0){
+                    return null;
+                }
+                offset += length;
+                return new MitabChunk(data, length, firstLineNumber, chunkOffset);
+            }
+
+            if (length == data.length){
+                byte[] newData = new byte[data.length * 2];
+                System.arraycopy(data, 0, newData, 0, length);
+                data = newData;
+            }
+            int read = stream.read(data, length, Math.min(READ_SIZE, data.length - length));
+            if (read == -1){
+                isEndOfStream = true;
+            }
+            else {
+                length += read;
+            }
+        }
+    }
+
+    /**
+     *
+     * @return the line number of the first line of the next chunk
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Closes the stream
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    private void keepPendingBytes(byte[] data, int start, int length){
+        if (pending.length < length){
+            pending = new byte[length];
+        }
+        System.arraycopy(data, start, pending, 0, length);
+        pendingLength = length;
+    }
+}
@@ -0,0 +1,473 @@
+package psidev.psi.mi.jami.tab.io.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Tokenizer reading a MITAB file line by line.
+ *
+ * The characters of a line are read in a reusable buffer and split in one pass into the tokens of the MitabLineParser grammar
+ * (separators, quoted strings and unreserved strings). The tokenizer keeps the kind, the bounds and the column of each token in int arrays
+ * and does not create any Token or String. The columns are computed like the JavaCharStream of the MitabLineParser does (tabs
+ * of 8 characters) so the parsers using this tokenizer can create the same source locators as the MitabLineParser.
+ *
+ * Some lines are not tokenized because the MitabLineParser would not read them as one line of plain characters : the quoted strings
+ * spanning several lines, the unicode escapes, the form feeds and the carriage returns which are not followed by a line feed.
+ * Such a line is read until its end (after the end of its quoted strings) and isTokenized() returns false.
+ * The characters of the line can then be given to the MitabLineParser.
+ *
+ * As the MitabLineParserTokenManager does, an IOException is read as the end of the stream.
+ *
+ * This tokenizer is not thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class MitabLineTokenizer {
+
+    private static final int TAB_SIZE = 8;
+
+    private Reader reader;
+    private boolean isEndOfStream;
+
+    private char[] buffer;
+    // number of characters read in the buffer
+    private int bufferLength;
+    // position of the first character of the current line in the buffer
+    private int lineStart;
+    // number of characters of the current line
+    private int lineLength;
+
+    private boolean isTokenized;
+    private boolean hasLineSeparator;
+
+    // tokens of the current line, the positions are relative to the start of the line
+    private int tokenCount;
+    private int[] kinds;
+    private int[] starts;
+    private int[] ends;
+    private int[] columns;
+
+    // line number of the current line
+    private int lineNumber;
+    private int firstLineNumber = 1;
+    // position of the line separator ending the previous line, 0 if there is no previous line
+    private int previousSeparatorLine;
+    private int previousSeparatorColumn;
+    // position of the line separator ending the current line
+    private int separatorLine;
+    private int separatorColumn;
+
+    public MitabLineTokenizer(Reader reader){
+        this(reader, 8192);
+    }
+
+    public MitabLineTokenizer(Reader reader, int initialCapacity){
+        if (reader == null){
+            throw new IllegalArgumentException("The MITAB line tokenizer needs a Reader.");
+        }
+        if (initialCapacity <= 0){
+            throw new IllegalArgumentException("The initial capacity of the MITAB line tokenizer must be positive: " + initialCapacity);
+        }
+        this.buffer = new char[initialCapacity];
+        this.kinds = new int[128];
+        this.starts = new int[128];
+        this.ends = new int[128];
+        this.columns = new int[128];
+        reset(reader);
+    }
+
+    /**
+     * Discards the current line and starts reading a new reader from its first line
+     * @param reader : the new reader
+     */
+    public void reset(Reader reader){
+        reset(reader, 1);
+    }
+
+    /**
+     * Discards the current line and starts reading a new reader which starts at the given line of a MITAB file
+     * @param reader : the new reader
+     * @param firstLineNumber : the line number of the first line of the reader
+     */
+    public void reset(Reader reader, int firstLineNumber){
+        if (reader == null){
+            throw new IllegalArgumentException("The MITAB line tokenizer needs a Reader.");
+        }
+        this.reader = reader;
+        this.isEndOfStream = false;
+        this.bufferLength = 0;
+        this.lineStart = 0;
+        this.lineLength = 0;
+        this.tokenCount = 0;
+        this.isTokenized = false;
+        this.hasLineSeparator = false;
+        this.lineNumber = 0;
+        this.firstLineNumber = firstLineNumber;
+        this.previousSeparatorLine = 0;
+        this.previousSeparatorColumn = 0;
+        this.separatorLine = 0;
+        this.separatorColumn = 0;
+    }
+
+    /**
+     * Reads the next line. The line ends with a line feed which is not within a quoted string or with the end of the stream.
+     * The last token of a tokenized line is a LINE_SEPARATOR or an EOF token.
+     * @return false if the end of the stream has been reached before reading any character
+     */
+    public boolean readLine(){
+        lineStart += lineLength;
+        lineLength = 0;
+        tokenCount = 0;
+        isTokenized = true;
+        previousSeparatorLine = hasLineSeparator ? separatorLine : 0;
+        previousSeparatorColumn = hasLineSeparator ? separatorColumn : 0;
+        lineNumber = hasLineSeparator ? separatorLine + 1 : firstLineNumber;
+        hasLineSeparator = false;
+
+        int i = 0;
+        int column = 0;
+        char previous = 0;
+        boolean withinQuotes = false;
+        int stringStart = -1;
+        int stringColumn = 0;
+
+        while (true){
+            if (lineStart + i == bufferLength && !fillBuffer()){
+                if (i == 0){
+                    return false;
+                }
+                if (stringStart >= 0){
+                    if (withinQuotes){
+                        // the MitabLineParser does not read the unterminated quoted strings as one token
+                        isTokenized = false;
+                    }
+                    else {
+                        addToken(MitabLineParserConstants.UNRESERVED_STRING, stringStart, i, stringColumn);
+                    }
+                }
+                addToken(MitabLineParserConstants.EOF, i, i, column);
+                lineLength = i;
+                break;
+            }
+
+            char c = buffer[lineStart + i];
+            column = c == '\t' ? (column / TAB_SIZE + 1) * TAB_SIZE : column + 1;
+
+            if (previous == '\r' && c != '\n'){
+                // the carriage return starts a new line for the JavaCharStream
+                isTokenized = false;
+            }
+
+            if (withinQuotes){
+                if (c == '"' && previous != '\\'){
+                    withinQuotes = false;
+                    addToken(MitabLineParserConstants.QUOTED_STRING, stringStart, i + 1, stringColumn);
+                    stringStart = -1;
+                }
+                else if (c == '\n'){
+                    isTokenized = false;
+                }
+                else if (c == 'u' && previous == '\\'){
+                    isTokenized = false;
+                }
+            }
+            else {
+                int kind = getSeparatorKind(c);
+                if (kind >= 0 || c == '"' || c == '\r' || c == '\f'){
+                    if (stringStart >= 0){
+                        addToken(MitabLineParserConstants.UNRESERVED_STRING, stringStart, i, stringColumn);
+                        stringStart = -1;
+                    }
+                    if (kind >= 0){
+                        addToken(kind, i, i + 1, column);
+                    }
+                    else if (c == '"'){
+                        withinQuotes = true;
+                        stringStart = i;
+                        stringColumn = column;
+                    }
+                    else if (c == '\f'){
+                        isTokenized = false;
+                    }
+                    // a carriage return followed by a line feed is skipped by the MitabLineParser or ends a string which is trimmed
+
+                    if (c == '\n'){
+                        hasLineSeparator = true;
+                        lineLength = i + 1;
+                        break;
+                    }
+                }
+                else {
+                    if (c == 'u' && previous == '\\'){
+                        isTokenized = false;
+                    }
+                    if (stringStart < 0){
+                        stringStart = i;
+                        stringColumn = column;
+                    }
+                }
+            }
+            previous = c;
+            i++;
+        }
+
+        if (!hasLineSeparator){
+            return true;
+        }
+        else if (isTokenized){
+            separatorLine = lineNumber;
+            separatorColumn = column;
+        }
+        else {
+            updateSeparatorPosition();
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the current line has been split into tokens, false if the line should be read by the MitabLineParser
+     */
+    public boolean isTokenized() {
+        return isTokenized;
+    }
+
+    /**
+     * @return true if the current line ends with a line feed, false if it ends with the end of the stream
+     */
+    public boolean hasLineSeparator() {
+        return hasLineSeparator;
+    }
+
+    /**
+     * @return the line number of the first character of the current line
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return the line number of the line separator ending the previous line, 0 if the current line is the first line
+     */
+    public int getPreviousSeparatorLine() {
+        return previousSeparatorLine;
+    }
+
+    /**
+     * @return the column of the line separator ending the previous line, 0 if the current line is the first line
+     */
+    public int getPreviousSeparatorColumn() {
+        return previousSeparatorColumn;
+    }
+
+    /**
+     * @return the number of tokens of the current line
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * @param index : the index of the token
+     * @return the kind of the token as defined in MitabLineParserConstants
+     */
+    public int getKind(int index) {
+        return kinds[index];
+    }
+
+    /**
+     * @param index : the index of the token
+     * @return the column of the first character of the token
+     */
+    public int getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * @param from : the index of the first token
+     * @param to : the index after the last token
+     * @return the trimmed characters of the tokens [from, to), null if they are empty
+     */
+    public String getString(int from, int to) {
+        int start = lineStart + starts[from];
+        int end = lineStart + ends[to - 1];
+        while (start < end && buffer[start] <= ' '){
+            start++;
+        }
+        while (end > start && buffer[end - 1] <= ' '){
+            end--;
+        }
+        return start < end ? new String(buffer, start, end - start) : null;
+    }
+
+    /**
+     * @param index : the index of a QUOTED_STRING token
+     * @return the trimmed characters between the double quotes of the token with the escaped double quotes unescaped
+     */
+    public String getQuotedString(int index) {
+        int start = lineStart + starts[index] + 1;
+        int end = lineStart + ends[index] - 1;
+        while (start < end && buffer[start] <= ' '){
+            start++;
+        }
+        while (end > start && buffer[end - 1] <= ' '){
+            end--;
+        }
+
+        StringBuilder builder = null;
+        int copied = start;
+        for (int i = start; i < end - 1; i++){
+            if (buffer[i] == '\\' && buffer[i + 1] == '"'){
+                if (builder == null){
+                    builder = new StringBuilder(end - start);
+                }
+                builder.append(buffer, copied, i - copied).append('"');
+                copied = i + 2;
+                i++;
+            }
+        }
+        if (builder == null){
+            return new String(buffer, start, end - start);
+        }
+        return builder.append(buffer, copied, end - copied).toString();
+    }
+
+    /**
+     * @param withPreviousSeparator : true if the line feed ending the previous line should be the first character of the copy
+     * @return a copy of the characters of the current line
+     */
+    public char[] copyLine(boolean withPreviousSeparator) {
+        if (!withPreviousSeparator){
+            return Arrays.copyOfRange(buffer, lineStart, lineStart + lineLength);
+        }
+        char[] line = new char[lineLength + 1];
+        line[0] = '\n';
+        System.arraycopy(buffer, lineStart, line, 1, lineLength);
+        return line;
+    }
+
+    private static int getSeparatorKind(char c){
+        switch (c){
+            case ',':
+                return MitabLineParserConstants.RANGE_SEPARATOR;
+            case '#':
+                return MitabLineParserConstants.COMMENT;
+            case '|':
+                return MitabLineParserConstants.FIELD_SEPARATOR;
+            case '\t':
+                return MitabLineParserConstants.COLUMN_SEPARATOR;
+            case '\n':
+                return MitabLineParserConstants.LINE_SEPARATOR;
+            case '(':
+                return MitabLineParserConstants.OPEN_PAREN;
+            case ')':
+                return MitabLineParserConstants.CLOSE_PAREN;
+            case ':':
+                return MitabLineParserConstants.COLON;
+            case '-':
+                return MitabLineParserConstants.DASH;
+            default:
+                return -1;
+        }
+    }
+
+    private void addToken(int kind, int start, int end, int column){
+        if (tokenCount == kinds.length){
+            int capacity = 2 * tokenCount;
+            kinds = Arrays.copyOf(kinds, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+        }
+        kinds[tokenCount] = kind;
+        starts[tokenCount] = start;
+        ends[tokenCount] = end;
+        columns[tokenCount] = column;
+        tokenCount++;
+    }
+
+    /**
+     * Reads more characters after the characters of the buffer. The characters of the current line are moved to the beginning
+     * of the buffer and the buffer grows if the current line fills it.
+     * @return false if the end of the stream has been reached
+     */
+    private boolean fillBuffer(){
+        if (isEndOfStream){
+            return false;
+        }
+        if (lineStart > 0){
+            System.arraycopy(buffer, lineStart, buffer, 0, bufferLength - lineStart);
+            bufferLength -= lineStart;
+            lineStart = 0;
+        }
+        if (bufferLength == buffer.length){
+            buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+        }
+        try {
+            int read = 0;
+            while (read == 0){
+                read = reader.read(buffer, bufferLength, buffer.length - bufferLength);
+            }
+            if (read < 0){
+                isEndOfStream = true;
+                return false;
+            }
+            bufferLength += read;
+            return true;
+        } catch (IOException e) {
+            isEndOfStream = true;
+            return false;
+        }
+    }
+
+    /**
+     * Computes the position of the last line feed of the current line as the JavaCharStream does when the line
+     * contains several line breaks
+     */
+    private void updateSeparatorPosition(){
+        int line = previousSeparatorLine > 0 ? previousSeparatorLine : firstLineNumber;
+        int column = previousSeparatorColumn;
+        boolean previousIsLineFeed = previousSeparatorLine > 0;
+        boolean previousIsCarriageReturn = false;
+
+        for (int i = lineStart; i < lineStart + lineLength; i++){
+            char c = buffer[i];
+            column++;
+            if (previousIsLineFeed){
+                previousIsLineFeed = false;
+                line++;
+                column = 1;
+            }
+            else if (previousIsCarriageReturn){
+                previousIsCarriageReturn = false;
+                if (c == '\n'){
+                    previousIsLineFeed = true;
+                }
+                else {
+                    line++;
+                    column = 1;
+                }
+            }
+
+            switch (c){
+                case '\r':
+                    previousIsCarriageReturn = true;
+                    break;
+                case '\n':
+                    previousIsLineFeed = true;
+                    separatorLine = line;
+                    separatorColumn = column;
+                    break;
+                case '\t':
+                    column--;
+                    column += TAB_SIZE - (column % TAB_SIZE);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
@@ -26,7 +26,7 @@ import java.util.Map;
 
 public abstract class AbstractMitab25BinaryWriter<T extends BinaryInteraction, P extends Participant> implements InteractionWriter<T> {
 
-    private Writer writer;
+    private MitabLineWriter writer;
     private boolean isInitialised = false;
     private MitabVersion version = MitabVersion.v2_5;
     private boolean writeHeader = true;
@@ -129,6 +129,7 @@ public abstract class AbstractMitab25BinaryWriter<T extends BinaryInteraction, P
             try {
                 writeHeader();
                 writer.write(MitabUtils.LINE_BREAK);
+                writer.flushLine();
             } catch (IOException e) {
                 throw new MIIOException("Impossible to write the MITAB header.", e);
             }
@@ -154,6 +155,8 @@ public abstract class AbstractMitab25BinaryWriter<T extends BinaryInteraction, P
             P A = (P) interaction.getParticipantA();
             P B = (P) interaction.getParticipantB();
             writeBinary(interaction, A, B);
+            // the line is written at once
+            writer.flushLine();
         }
         catch (IOException e) {
             throw new MIIOException("Impossible to write " +interaction.toString(), e);
@@ -346,7 +349,7 @@ public abstract class AbstractMitab25BinaryWriter<T extends BinaryInteraction, P
             throw new IllegalArgumentException("The writer cannot be null.");
         }
 
-        this.writer = writer;
+        this.writer = writer instanceof MitabLineWriter ? (MitabLineWriter) writer : new MitabLineWriter(writer);
         initialiseColumnFeeder();
     }
 
@@ -355,7 +358,7 @@ public abstract class AbstractMitab25BinaryWriter<T extends BinaryInteraction, P
             throw new IllegalArgumentException("The output stream cannot be null.");
         }
 
-        this.writer = new OutputStreamWriter(output);
+        this.writer = new MitabLineWriter(new OutputStreamWriter(output));
         initialiseColumnFeeder();
     }
 
@@ -364,7 +367,7 @@ public abstract class AbstractMitab25BinaryWriter<T extends BinaryInteraction, P
             throw new IllegalArgumentException("The file cannot be null.");
         }
 
-        this.writer = new BufferedWriter(new FileWriter(file));
+        this.writer = new MitabLineWriter(new BufferedWriter(new FileWriter(file)));
         initialiseColumnFeeder();
     }
 }
\ No newline at end of file
@@ -151,7 +151,7 @@ public abstract class AbstractMitabWriter<T extends Interaction, B extends Binar
         }
 
         try {
-            this.binaryWriter.write(getExpansionMethod().expand(interaction));
+            this.binaryWriter.write(getExpansionMethod().expandAsIterator(interaction));
         } catch (ComplexExpansionException e) {
             throw new MIIOException("Impossible to expand the n-ary interaction "+interaction.toString(), e);
         }
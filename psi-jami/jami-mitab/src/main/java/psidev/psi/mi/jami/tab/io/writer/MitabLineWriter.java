@@ -0,0 +1,183 @@
+package psidev.psi.mi.jami.tab.io.writer;
+
+import psidev.psi.mi.jami.tab.utils.MitabUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer keeping the characters of a MITAB line in a reusable buffer.
+ *
+ * The column feeders write many small strings for each column (separators, database names, identifiers, etc.). This writer appends them
+ * to its buffer and writes the whole line to the underlying writer when flushLine() is called, so the underlying writer receives one write
+ * per line.
+ *
+ * It can also escape a string in one pass over its characters : tabs and line breaks are replaced with spaces, double quotes are escaped
+ * and the string is surrounded with double quotes if it contains MITAB special characters.
+ *
+ * This writer is not thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class MitabLineWriter extends Writer {
+
+    private static final char[] LINE_BREAK = MitabUtils.LINE_BREAK.toCharArray();
+
+    private Writer writer;
+    private char[] buffer;
+    private int length;
+
+    public MitabLineWriter(Writer writer){
+        this(writer, 4096);
+    }
+
+    public MitabLineWriter(Writer writer, int initialCapacity){
+        if (writer == null){
+            throw new IllegalArgumentException("The MITAB line writer needs a Writer.");
+        }
+        if (initialCapacity <= 0){
+            throw new IllegalArgumentException("The initial capacity of the MITAB line writer must be positive: " + initialCapacity);
+        }
+        this.writer = writer;
+        this.buffer = new char[initialCapacity];
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureCapacity(1);
+        buffer[length++] = (char) c;
+    }
+
+    @Override
+    public void write(char[] chars, int off, int len) throws IOException {
+        ensureCapacity(len);
+        System.arraycopy(chars, off, buffer, length, len);
+        length += len;
+    }
+
+    @Override
+    public void write(String str) throws IOException {
+        write(str, 0, str.length());
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        ensureCapacity(len);
+        str.getChars(off, off + len, buffer, length);
+        length += len;
+    }
+
+    /**
+     * Escapes the string and appends it to the current line.
+     * Tabs and line breaks are replaced with a space, double quotes are escaped and the string is surrounded with double quotes
+     * if it contains one of the MitabUtils.SPECIAL_CHARACTERS
+     * @param str : the string to escape
+     */
+    public void writeEscaped(String str) {
+        int strLength = str.length();
+        // each char can be escaped and we may need two double quotes
+        ensureCapacity(2 * strLength + 2);
+
+        // leave space for the opening double quote
+        int start = length;
+        int pos = start + 1;
+        boolean needsQuotes = false;
+
+        for (int i = 0; i < strLength; i++){
+            char c = str.charAt(i);
+            switch (c){
+                case '\t':
+                    buffer[pos++] = ' ';
+                    break;
+                case '"':
+                    buffer[pos++] = '\\';
+                    buffer[pos++] = '"';
+                    break;
+                case '|':
+                case ':':
+                case '(':
+                case ')':
+                    needsQuotes = true;
+                    buffer[pos++] = c;
+                    break;
+                default:
+                    if (c == LINE_BREAK[0] && str.regionMatches(i, MitabUtils.LINE_BREAK, 0, LINE_BREAK.length)){
+                        buffer[pos++] = ' ';
+                        i += LINE_BREAK.length - 1;
+                    }
+                    else {
+                        buffer[pos++] = c;
+                    }
+                    break;
+            }
+        }
+
+        if (needsQuotes){
+            buffer[start] = '"';
+            buffer[pos++] = '"';
+            length = pos;
+        }
+        else {
+            System.arraycopy(buffer, start + 1, buffer, start, pos - start - 1);
+            length = pos - 1;
+        }
+    }
+
+    /**
+     * Writes the characters of the current line to the underlying writer and empties the buffer
+     * @throws IOException
+     */
+    public void flushLine() throws IOException {
+        if (length > 0){
+            writer.write(buffer, 0, length);
+            length = 0;
+        }
+    }
+
+    /**
+     *
+     * @return the number of characters of the current line which have not been written to the underlying writer
+     */
+    public int getLineLength(){
+        return length;
+    }
+
+    /**
+     * Flushes the current line and the underlying writer
+     * @throws IOException
+     */
+    @Override
+    public void flush() throws IOException {
+        flushLine();
+        writer.flush();
+    }
+
+    /**
+     * Flushes the current line and closes the underlying writer
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushLine();
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    public Writer getWriter() {
+        return writer;
+    }
+
+    private void ensureCapacity(int extra){
+        if (length + extra > buffer.length){
+            char[] newBuffer = new char[Math.max(buffer.length * 2, length + extra)];
+            System.arraycopy(buffer, 0, newBuffer, 0, length);
+            buffer = newBuffer;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package psidev.psi.mi.jami.tab.io.writer.feeder;
 import psidev.psi.mi.jami.binary.BinaryInteraction;
 import psidev.psi.mi.jami.model.*;
 import psidev.psi.mi.jami.model.impl.DefaultXref;
+import psidev.psi.mi.jami.tab.io.writer.MitabLineWriter;
 import psidev.psi.mi.jami.tab.utils.MitabUtils;
 import psidev.psi.mi.jami.utils.CvTermUtils;
 import psidev.psi.mi.jami.utils.ParameterUtils;
@@ -24,6 +25,8 @@ import java.util.Iterator;
 public abstract class AbstractMitabColumnFeeder<T extends BinaryInteraction, P extends Participant> implements MitabColumnFeeder<T, P> {
 
     private Writer writer;
+    // used to escape strings when the writer is not a MitabLineWriter
+    private MitabLineWriter escapeBuffer;
 
     public AbstractMitabColumnFeeder(Writer writer){
         if (writer == null){
@@ -320,21 +323,17 @@ public abstract class AbstractMitabColumnFeeder<T extends BinaryInteraction, P e
     }
 
     public void escapeAndWriteString(String stringToEscape) throws IOException {
-        // replace first tabs and break line with a space and escape double quote
-        String replaced = stringToEscape.replaceAll(MitabUtils.LINE_BREAK+"|"+ MitabUtils.COLUMN_SEPARATOR, " ");
-        replaced = replaced.replaceAll("\"", "\\\\\"");
-
-        for (String special : MitabUtils.SPECIAL_CHARACTERS){
-
-            if (replaced.contains(special)){
-                writer.write("\"");
-                writer.write(replaced);
-                writer.write("\"");
-                return;
+        // replace tabs and break line with a space, escape double quote and quote the string in one pass
+        if (writer instanceof MitabLineWriter){
+            ((MitabLineWriter) writer).writeEscaped(stringToEscape);
+        }
+        else {
+            if (escapeBuffer == null){
+                escapeBuffer = new MitabLineWriter(writer, 256);
             }
+            escapeBuffer.writeEscaped(stringToEscape);
+            escapeBuffer.flushLine();
         }
-
-        writer.write(replaced);
     }
 
     public void writeComplexExpansion(T binary) throws IOException {
@@ -7,6 +7,7 @@ import psidev.psi.mi.jami.binary.BinaryInteractionEvidence;
 import psidev.psi.mi.jami.factory.options.MIFileDataSourceOptions;
 import psidev.psi.mi.jami.model.InteractionEvidence;
 import psidev.psi.mi.jami.tab.extension.datasource.MitabBinaryEvidenceStreamSource;
+import psidev.psi.mi.jami.tab.extension.factory.options.MitabDataSourceOptions;
 
 import java.io.File;
 import java.io.IOException;
@@ -118,6 +119,40 @@ public class MitabBinaryEvidenceStreamSourceTest {
         dataSource.close();
     }
 
+    @Test
+    public void iterate_file_fast_line_parser(){
+        MitabBinaryEvidenceStreamSource dataSource = new MitabBinaryEvidenceStreamSource();
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(MIFileDataSourceOptions.INPUT_OPTION_KEY, MitabBinaryEvidenceStreamSourceTest.class.getResourceAsStream("/samples/mitab27_line.txt"));
+        options.put(MitabDataSourceOptions.FAST_LINE_PARSER_OPTION_KEY, true);
+        dataSource.initialiseContext(options);
+        Assert.assertTrue(dataSource.isUsingFastLineParser());
+        Iterator<BinaryInteractionEvidence> iterator = dataSource.getInteractionsIterator();
+        InteractionEvidence i1 = iterator.next();
+        Assert.assertNotNull(i1);
+        Assert.assertTrue(iterator.hasNext());
+        InteractionEvidence i2 = iterator.next();
+        Assert.assertNotNull(i2);
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertTrue(dataSource.validateSyntax());
+        dataSource.close();
+
+        dataSource = new MitabBinaryEvidenceStreamSource();
+        options = new HashMap<String, Object>();
+        options.put(MIFileDataSourceOptions.INPUT_OPTION_KEY, MitabBinaryEvidenceStreamSourceTest.class.getResourceAsStream("/samples/mitab27_line_too_many_columns.txt"));
+        options.put(MitabDataSourceOptions.FAST_LINE_PARSER_OPTION_KEY, true);
+        dataSource.initialiseContext(options);
+        iterator = dataSource.getInteractionsIterator();
+        i1 = iterator.next();
+        Assert.assertNotNull(i1);
+        Assert.assertTrue(iterator.hasNext());
+        i2 = iterator.next();
+        Assert.assertNotNull(i2);
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertFalse(dataSource.validateSyntax());
+        dataSource.close();
+    }
+
     @Test(expected = RuntimeException.class)
     public void test_validate_datasource_impossible_to_reinit(){
         MitabBinaryEvidenceStreamSource dataSource = new MitabBinaryEvidenceStreamSource(MitabBinaryEvidenceStreamSourceTest.class.getResourceAsStream("/samples/mitab27_line_too_many_columns.txt"));
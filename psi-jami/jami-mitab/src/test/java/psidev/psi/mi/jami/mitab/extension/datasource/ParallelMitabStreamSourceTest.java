@@ -0,0 +1,218 @@
+package psidev.psi.mi.jami.mitab.extension.datasource;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import psidev.psi.mi.jami.binary.BinaryInteractionEvidence;
+import psidev.psi.mi.jami.datasource.FileSourceContext;
+import psidev.psi.mi.jami.datasource.InteractionStream;
+import psidev.psi.mi.jami.factory.options.MIFileDataSourceOptions;
+import psidev.psi.mi.jami.model.Interaction;
+import psidev.psi.mi.jami.model.ModelledInteraction;
+import psidev.psi.mi.jami.tab.extension.datasource.LightMitabStreamSource;
+import psidev.psi.mi.jami.tab.extension.datasource.MitabBinaryEvidenceStreamSource;
+import psidev.psi.mi.jami.tab.extension.datasource.MitabModelledStreamSource;
+import psidev.psi.mi.jami.tab.extension.datasource.ParallelMitabStreamSource;
+import psidev.psi.mi.jami.tab.extension.factory.options.MitabDataSourceOptions;
+import psidev.psi.mi.jami.tab.listener.MitabParserListener;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.Future;
+
+/**
+ * Unit tester for ParallelMitabStreamSource
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ParallelMitabStreamSourceTest {
+
+    @Test(expected = IllegalStateException.class)
+    public void test_iterate_fails_not_initialised(){
+        ParallelMitabStreamSource<BinaryInteractionEvidence> dataSource =
+                new ParallelMitabStreamSource<BinaryInteractionEvidence>(MitabBinaryEvidenceStreamSource.class);
+        dataSource.getInteractionsIterator();
+    }
+
+    @Test
+    public void validate_and_iterate_file() throws IOException {
+        File file = new File(ParallelMitabStreamSourceTest.class.getResource("/samples/mitab27_line.txt").getFile());
+        ParallelMitabStreamSource<BinaryInteractionEvidence> dataSource =
+                new ParallelMitabStreamSource<BinaryInteractionEvidence>(MitabBinaryEvidenceStreamSource.class, file);
+        Assert.assertTrue(dataSource.validateSyntax());
+
+        Iterator<BinaryInteractionEvidence> iterator = dataSource.getInteractionsIterator();
+        Assert.assertNotNull(iterator.next());
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertNotNull(iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+        dataSource.close();
+
+        dataSource = new ParallelMitabStreamSource<BinaryInteractionEvidence>(MitabBinaryEvidenceStreamSource.class);
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(MIFileDataSourceOptions.INPUT_OPTION_KEY, ParallelMitabStreamSourceTest.class.getResourceAsStream("/samples/mitab27_line_too_many_columns.txt"));
+        dataSource.initialiseContext(options);
+        Assert.assertFalse(dataSource.validateSyntax());
+        dataSource.close();
+    }
+
+    @Test
+    public void test_ordered_iterator_same_as_stream_source() throws IOException {
+        String content = createContent();
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(MitabDataSourceOptions.CHUNK_SIZE_OPTION_KEY, 3000);
+        options.put(MitabDataSourceOptions.PARALLEL_THREADS_OPTION_KEY, 4);
+        options.put(MitabDataSourceOptions.MAX_PENDING_CHUNKS_OPTION_KEY, 3);
+
+        List<String> expected = readWithStreamSource(new MitabBinaryEvidenceStreamSource(), content, false);
+        Assert.assertEquals(expected, readWithParallelSource(
+                new ParallelMitabStreamSource<BinaryInteractionEvidence>(MitabBinaryEvidenceStreamSource.class), content, options));
+
+        options.put(MitabDataSourceOptions.FAST_LINE_PARSER_OPTION_KEY, true);
+        Assert.assertEquals(expected, readWithParallelSource(
+                new ParallelMitabStreamSource<BinaryInteractionEvidence>(MitabBinaryEvidenceStreamSource.class), content, options));
+
+        Assert.assertEquals(readWithStreamSource(new MitabModelledStreamSource(), content, false), readWithParallelSource(
+                new ParallelMitabStreamSource<ModelledInteraction>(MitabModelledStreamSource.class), content, options));
+        Assert.assertEquals(readWithStreamSource(new LightMitabStreamSource(), content, false), readWithParallelSource(
+                new ParallelMitabStreamSource<Interaction>(LightMitabStreamSource.class), content, options));
+    }
+
+    @Test
+    public void test_unordered_iterator() throws IOException {
+        String content = createContent();
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(MitabDataSourceOptions.CHUNK_SIZE_OPTION_KEY, 3000);
+        options.put(MitabDataSourceOptions.PARALLEL_THREADS_OPTION_KEY, 4);
+        options.put(MitabDataSourceOptions.ORDERED_ITERATOR_OPTION_KEY, false);
+
+        List<String> expected = readWithStreamSource(new MitabBinaryEvidenceStreamSource(), content, true);
+        Collections.sort(expected);
+        List<String> interactions = readWithParallelSource(
+                new ParallelMitabStreamSource<BinaryInteractionEvidence>(MitabBinaryEvidenceStreamSource.class), content, options);
+        Collections.sort(interactions);
+        Assert.assertEquals(expected, interactions);
+    }
+
+    @Test
+    public void test_completed_chunks_not_retained() throws Exception {
+        String content = createContent();
+        for (boolean isOrdered : new boolean[]{true, false}){
+            ParallelMitabStreamSource<BinaryInteractionEvidence> dataSource =
+                    new ParallelMitabStreamSource<BinaryInteractionEvidence>(MitabBinaryEvidenceStreamSource.class);
+            Map<String, Object> options = new HashMap<String, Object>();
+            options.put(MIFileDataSourceOptions.INPUT_OPTION_KEY, new ByteArrayInputStream(content.getBytes()));
+            options.put(MitabDataSourceOptions.CHUNK_SIZE_OPTION_KEY, 3000);
+            options.put(MitabDataSourceOptions.PARALLEL_THREADS_OPTION_KEY, 2);
+            options.put(MitabDataSourceOptions.MAX_PENDING_CHUNKS_OPTION_KEY, 2);
+            options.put(MitabDataSourceOptions.ORDERED_ITERATOR_OPTION_KEY, isOrdered);
+            dataSource.initialiseContext(options);
+
+            Iterator<BinaryInteractionEvidence> iterator = dataSource.getInteractionsIterator();
+            for (int i = 0; i < 40; i++){
+                Assert.assertNotNull(iterator.next());
+            }
+
+            // the only completed futures kept by the iterator are the ones of the chunks not returned yet
+            CompletionService<?> completionService = (CompletionService<?>) getField(iterator, "completionService");
+            List<?> pendingChunks = (List<?>) getField(iterator, "pendingChunks");
+            Assert.assertTrue(pendingChunks.size() <= 2);
+            if (completionService != null){
+                Future<?> completed;
+                while ((completed = completionService.poll()) != null){
+                    Assert.assertTrue(pendingChunks.contains(completed));
+                }
+            }
+            dataSource.close();
+        }
+    }
+
+    private Object getField(Object object, String name) throws Exception {
+        Field field = object.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(object);
+    }
+
+    private String createContent() throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ParallelMitabStreamSourceTest.class.getResourceAsStream("/samples/mitab27_line.txt")));
+        String line1 = reader.readLine();
+        String line2 = reader.readLine();
+        reader.close();
+
+        StringBuilder builder = new StringBuilder("#header\n");
+        for (int i = 0; i < 30; i++){
+            builder.append(line1).append("\n");
+            if (i % 7 == 3){
+                // syntax error and line with too many columns
+                builder.append(line2.replace("taxid:4932", "foo:4932")).append("\r\n");
+                builder.append(line2).append("\textra column\n");
+            }
+            else if (i % 5 == 2){
+                // quoted string with a line break
+                builder.append(line1.replace("caution:test", "caution:\"test\nline\"")).append("\n\n");
+            }
+            else {
+                builder.append(line2).append("\n");
+            }
+        }
+        return builder.toString();
+    }
+
+    private List<String> readWithStreamSource(InteractionStream<? extends Interaction> dataSource, String content, boolean onlyInteractions){
+        return read(dataSource, content, new HashMap<String, Object>(), onlyInteractions);
+    }
+
+    private List<String> readWithParallelSource(ParallelMitabStreamSource<? extends Interaction> dataSource, String content, Map<String, Object> options){
+        return read(dataSource, content, options, options.containsKey(MitabDataSourceOptions.ORDERED_ITERATOR_OPTION_KEY));
+    }
+
+    private List<String> read(InteractionStream<? extends Interaction> dataSource, String content, Map<String, Object> options, boolean onlyInteractions){
+        List<String> results = new ArrayList<String>();
+        Map<String, Object> sourceOptions = new HashMap<String, Object>(options);
+        sourceOptions.put(MIFileDataSourceOptions.INPUT_OPTION_KEY, new ByteArrayInputStream(content.getBytes()));
+        sourceOptions.put(MIFileDataSourceOptions.PARSER_LISTENER_OPTION_KEY, createRecordingListener(onlyInteractions ? null : results));
+        dataSource.initialiseContext(sourceOptions);
+
+        Iterator<? extends Interaction> iterator = dataSource.getInteractionsIterator();
+        while (iterator.hasNext()){
+            Interaction interaction = iterator.next();
+            results.add("interaction " + ((FileSourceContext) interaction).getSourceLocator() + " " + interaction.getParticipants().size());
+        }
+        dataSource.close();
+        return results;
+    }
+
+    private MitabParserListener createRecordingListener(final List<String> events) {
+        return (MitabParserListener) Proxy.newProxyInstance(ParallelMitabStreamSourceTest.class.getClassLoader(),
+                new Class[]{MitabParserListener.class}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (events == null){
+                    return null;
+                }
+                StringBuilder event = new StringBuilder(method.getName());
+                if (args != null){
+                    for (Object arg : args){
+                        if (arg instanceof FileSourceContext){
+                            event.append(" ").append(((FileSourceContext) arg).getSourceLocator());
+                        }
+                        else if (arg instanceof Exception){
+                            event.append(" ").append(((Exception) arg).getMessage());
+                        }
+                        else if (!(arg instanceof Collection)){
+                            event.append(" ").append(arg);
+                        }
+                    }
+                }
+                events.add(event.toString());
+                return null;
+            }
+        });
+    }
+}
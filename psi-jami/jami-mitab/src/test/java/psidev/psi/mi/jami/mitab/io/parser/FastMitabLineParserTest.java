@@ -0,0 +1,220 @@
+package psidev.psi.mi.jami.mitab.io.parser;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import psidev.psi.mi.jami.binary.BinaryInteractionEvidence;
+import psidev.psi.mi.jami.datasource.FileSourceContext;
+import psidev.psi.mi.jami.model.FeatureEvidence;
+import psidev.psi.mi.jami.model.ParticipantEvidence;
+import psidev.psi.mi.jami.tab.io.parser.BinaryEvidenceLineParser;
+import psidev.psi.mi.jami.tab.io.parser.FastMitabLineParser;
+import psidev.psi.mi.jami.tab.io.writer.Mitab27BinaryEvidenceWriter;
+import psidev.psi.mi.jami.tab.listener.MitabParserListener;
+
+import java.io.*;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Unit tester for FastMitabLineParser. The interactions, source locators and listener events are compared with the ones
+ * of the MitabLineParser.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class FastMitabLineParserTest {
+
+    @Test
+    public void test_read_valid_samples() throws IOException {
+        assertSameResults(readSample("/samples/mitab25_line.txt"), 0);
+        assertSameResults(readSample("/samples/mitab26_line.txt"), 0);
+        assertSameResults(readSample("/samples/mitab27_line.txt"), 0);
+        assertSameResults(readSample("/samples/mitab27_clustered_line.txt"), 0);
+        assertSameResults(readSample("/samples/mitab27_line_header.txt"), 0);
+        assertSameResults(readSample("/samples/10075675.txt"), 0);
+        assertSameResults(readSample("/samples/mitab27_no_interactor_details.txt"), 0);
+        assertSameResults(readSample("/samples/mitab27_no_participants.txt"), 0);
+        assertSameResults(readSample("/samples/empty_file.txt"), 0);
+    }
+
+    @Test
+    public void test_read_invalid_samples() throws IOException {
+        assertSameResults(readSample("/samples/mitab27_line_too_many_columns.txt"), 1);
+        assertSameResults(readSample("/samples/mitab27_unique_identifier_error.txt"), 1);
+    }
+
+    @Test
+    public void test_read_line_breaks_comments_and_empty_lines() throws IOException {
+        String[] lines = readSample("/samples/mitab27_line.txt").split("\n");
+
+        assertSameResults(lines[0] + "\r\n" + lines[1] + "\r\n", 0);
+        assertSameResults("#header\n\n" + lines[0] + "\n\n#comment\n" + lines[1], 0);
+        assertSameResults(lines[0] + "\n" + lines[1] + "\n#last comment", 0);
+        assertSameResults("\n\n" + lines[1] + "\n\n", 0);
+        assertSameResults(lines[0] + "\r", 0);
+    }
+
+    @Test
+    public void test_read_events() throws IOException {
+        String line = readSample("/samples/mitab27_line.txt").split("\n")[0];
+
+        // missing names, identifiers and databases
+        assertSameResults(replaceColumn(line, 5, "uniprotkb:|:name|uniprotkb:O00206"), 0);
+        assertSameResults(replaceColumn(line, 7, "psi-mi:\"MI:0007\""), 0);
+        assertSameResults(replaceColumn(line, 13, "psi-mi:\"MI:0974\""), 0);
+        assertSameResults(replaceColumn(line, 16, "psi-mi:(spoke)|psi-mi:\"MI:1060\""), 0);
+        assertSameResults(replaceColumn(line, 24, ":\"GO:0001\"|go:"), 0);
+        assertSameResults(replaceColumn(line, 28, ":value|topic"), 0);
+        assertSameResults(replaceColumn(line, 33, "rogid:|:xxx"), 0);
+        // text in identifiers and confidences
+        assertSameResults(replaceColumn(line, 14, "imex:IM-1-1(primary)|innatedb:IDB-1(text)"), 0);
+        assertSameResults(replaceColumn(line, 15, "lpr:2(text)|:3|hpr:"), 0);
+        // invalid values
+        assertSameResults(replaceColumn(line, 10, "taxid:abc(human)|taxid:0|taxid:-2(in vitro)"), 0);
+        assertSameResults(replaceColumn(line, 30, "kd:abc|kd:2x10^-1(molar)"), 0);
+        assertSameResults(replaceColumn(line, 31, "not a date|2008/03/30"), 0);
+        assertSameResults(replaceColumn(line, 37, "binding site:5-3|binding site:x-3,?-?(text)"), 0);
+        assertSameResults(replaceColumn(line, 39, "abc|3-x"), 0);
+        // quoted strings
+        assertSameResults(replaceColumn(line, 13, "psi-mi:\"MI:0974\"(\" inna\\\"te db \")|psi-mi:\"\"(\"\")"), 0);
+        assertSameResults(replaceColumn(line, 36, "true"), 0);
+    }
+
+    @Test
+    public void test_read_lines_parsed_by_fallback_parser() throws IOException {
+        String[] lines = readSample("/samples/mitab27_line.txt").split("\n");
+
+        // quoted string spanning two lines
+        assertSameResults(lines[0] + "\n" + replaceColumn(lines[1], 27, "caution:\"first line\nsecond line\"") + "\n" + lines[0], 1);
+        // carriage return and unicode escape
+        assertSameResults(replaceColumn(lines[0], 27, "caution:first\rsecond") + "\n" + lines[1], 1);
+        assertSameResults(lines[0] + "\n" + replaceColumn(lines[1], 27, "caution:\\u0041") + "\n" + lines[0], 1);
+        // unexpected number of columns
+        assertSameResults(lines[0] + "\n" + lines[1].substring(0, lines[1].lastIndexOf('\t')), 1);
+        assertSameResults(lines[0] + "\n" + lines[1] + "\tunexpected\n" + lines[0], 1);
+        // syntax errors
+        assertSameResults(lines[0] + "\n" + replaceColumn(lines[1], 29, "foo:10090") + "\n" + lines[0], 1);
+        assertSameResults(replaceColumn(lines[0], 39, "5-2") + "\n" + lines[1], 1);
+        assertSameResults(replaceColumn(lines[0], 1, "innatedb:IDBG-82738(a(b))") + "\n" + lines[1], 1);
+        // null database of a publication identifier
+        assertSameResults(lines[0] + "\n" + replaceColumn(lines[1], 9, ":10359581"), 1);
+    }
+
+    private void assertSameResults(String content, int expectedFallbackLines) {
+        List<String> expected = new ArrayList<String>();
+        BinaryEvidenceLineParser parser = new BinaryEvidenceLineParser(new StringReader(content));
+        parser.setParserListener(createRecordingListener(expected));
+        while (!parser.hasFinished()){
+            try {
+                BinaryInteractionEvidence interaction = parser.MitabLine();
+                if (interaction != null){
+                    expected.add(describe(interaction));
+                }
+            } catch (Exception e) {
+                expected.add("Exception " + e + " at " + parser.getToken(0).beginLine + ":" + parser.getToken(0).beginColumn);
+            }
+        }
+
+        List<String> actual = new ArrayList<String>();
+        BinaryEvidenceLineParser fallbackParser = new BinaryEvidenceLineParser(new StringReader(""));
+        fallbackParser.setParserListener(createRecordingListener(actual));
+        FastMitabLineParser<BinaryInteractionEvidence, ParticipantEvidence, FeatureEvidence> fastParser =
+                new FastMitabLineParser<BinaryInteractionEvidence, ParticipantEvidence, FeatureEvidence>(fallbackParser, new StringReader(content));
+        while (!fastParser.hasFinished()){
+            try {
+                BinaryInteractionEvidence interaction = fastParser.MitabLine();
+                if (interaction != null){
+                    actual.add(describe(interaction));
+                }
+            } catch (Exception e) {
+                actual.add("Exception " + e + " at " + fastParser.getTokenLine() + ":" + fastParser.getTokenColumn());
+            }
+        }
+
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(expectedFallbackLines, fastParser.getFallbackLineCount());
+    }
+
+    private String describe(BinaryInteractionEvidence interaction) {
+        StringWriter output = new StringWriter();
+        Mitab27BinaryEvidenceWriter writer = new Mitab27BinaryEvidenceWriter(output);
+        writer.setWriteHeader(false);
+        writer.write(interaction);
+        writer.flush();
+
+        StringBuilder description = new StringBuilder(output.toString());
+        description.append(" ").append(((FileSourceContext) interaction).getSourceLocator());
+        for (ParticipantEvidence participant : interaction.getParticipants()){
+            description.append(" ").append(((FileSourceContext) participant).getSourceLocator());
+            for (FeatureEvidence feature : participant.getFeatures()){
+                description.append(" ").append(((FileSourceContext) feature).getSourceLocator());
+            }
+        }
+        return description.toString();
+    }
+
+    private MitabParserListener createRecordingListener(final List<String> events) {
+        return (MitabParserListener) Proxy.newProxyInstance(FastMitabLineParserTest.class.getClassLoader(),
+                new Class[]{MitabParserListener.class}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                StringBuilder event = new StringBuilder(method.getName());
+                if (args != null){
+                    for (Object arg : args){
+                        event.append(" ").append(describeArgument(arg));
+                    }
+                }
+                events.add(event.toString());
+                return null;
+            }
+        });
+    }
+
+    private String describeArgument(Object arg) {
+        if (arg instanceof FileSourceContext){
+            return arg.getClass().getSimpleName() + "(" + ((FileSourceContext) arg).getSourceLocator() + ")";
+        }
+        else if (arg instanceof Exception){
+            return arg.getClass().getName() + "(" + ((Exception) arg).getMessage() + ")";
+        }
+        else if (arg instanceof Collection){
+            StringBuilder builder = new StringBuilder("[");
+            for (Object element : (Collection) arg){
+                builder.append(describeArgument(element)).append(",");
+            }
+            return builder.append("]").toString();
+        }
+        return String.valueOf(arg);
+    }
+
+    private String replaceColumn(String line, int column, String value) {
+        String[] columns = line.split("\t", -1);
+        columns[column - 1] = value;
+        StringBuilder builder = new StringBuilder(columns[0]);
+        for (int i = 1; i < columns.length; i++){
+            builder.append("\t").append(columns[i]);
+        }
+        return builder.toString();
+    }
+
+    private String readSample(String name) throws IOException {
+        Reader reader = new InputStreamReader(FastMitabLineParserTest.class.getResourceAsStream(name));
+        try {
+            StringBuilder builder = new StringBuilder();
+            char[] buffer = new char[4096];
+            int read;
+            while ((read = reader.read(buffer)) != -1){
+                builder.append(buffer, 0, read);
+            }
+            return builder.toString();
+        }
+        finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package psidev.psi.mi.jami.mitab.io.parser;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import psidev.psi.mi.jami.tab.io.parser.MitabChunk;
+import psidev.psi.mi.jami.tab.io.parser.MitabChunkSplitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Unit tester for MitabChunkSplitter
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class MitabChunkSplitterTest {
+
+    @Test
+    public void test_split_lines() throws IOException {
+        String content = "#header\nline2\r\nline3\n\nline5";
+        MitabChunkSplitter splitter = new MitabChunkSplitter(new ByteArrayInputStream(content.getBytes()), 1);
+
+        assertChunk(splitter.nextChunk(), "#header\n", 1, 0);
+        assertChunk(splitter.nextChunk(), "line2\r\n", 2, 8);
+        assertChunk(splitter.nextChunk(), "line3\n", 3, 15);
+        assertChunk(splitter.nextChunk(), "\n", 4, 21);
+        assertChunk(splitter.nextChunk(), "line5", 5, 22);
+        Assert.assertNull(splitter.nextChunk());
+        Assert.assertNull(splitter.nextChunk());
+    }
+
+    @Test
+    public void test_split_chunk_size() throws IOException {
+        String content = "line1\nline2\nline3\nline4\n";
+        MitabChunkSplitter splitter = new MitabChunkSplitter(new ByteArrayInputStream(content.getBytes()), 8);
+
+        assertChunk(splitter.nextChunk(), "line1\nline2\n", 1, 0);
+        assertChunk(splitter.nextChunk(), "line3\nline4\n", 3, 12);
+        Assert.assertNull(splitter.nextChunk());
+        Assert.assertEquals(5, splitter.getLineNumber());
+    }
+
+    @Test
+    public void test_line_break_within_quotes() throws IOException {
+        String content = "a\t\"quoted \\\" \nstring\"\nb\rc\nd";
+        MitabChunkSplitter splitter = new MitabChunkSplitter(new ByteArrayInputStream(content.getBytes()), 1);
+
+        assertChunk(splitter.nextChunk(), "a\t\"quoted \\\" \nstring\"\n", 1, 0);
+        // the carriage return alone is a line break for the MitabLineParser
+        assertChunk(splitter.nextChunk(), "b\rc\n", 3, 22);
+        assertChunk(splitter.nextChunk(), "d", 5, 26);
+        Assert.assertNull(splitter.nextChunk());
+    }
+
+    @Test
+    public void test_empty_stream() throws IOException {
+        MitabChunkSplitter splitter = new MitabChunkSplitter(new ByteArrayInputStream(new byte[0]), 10);
+        Assert.assertNull(splitter.nextChunk());
+    }
+
+    private void assertChunk(MitabChunk chunk, String expectedContent, int expectedFirstLine, long expectedOffset){
+        Assert.assertNotNull(chunk);
+        Assert.assertEquals(expectedContent, new String(chunk.getData(), 0, chunk.getLength()));
+        Assert.assertEquals(expectedFirstLine, chunk.getFirstLineNumber());
+        Assert.assertEquals(expectedOffset, chunk.getOffset());
+    }
+}
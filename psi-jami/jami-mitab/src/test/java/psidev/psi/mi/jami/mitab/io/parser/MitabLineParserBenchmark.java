@@ -0,0 +1,123 @@
+package psidev.psi.mi.jami.mitab.io.parser;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import psidev.psi.mi.jami.binary.BinaryInteractionEvidence;
+import psidev.psi.mi.jami.model.FeatureEvidence;
+import psidev.psi.mi.jami.model.ParticipantEvidence;
+import psidev.psi.mi.jami.tab.extension.datasource.MitabBinaryEvidenceStreamSource;
+import psidev.psi.mi.jami.tab.extension.datasource.ParallelMitabStreamSource;
+import psidev.psi.mi.jami.tab.io.parser.BinaryEvidenceLineParser;
+import psidev.psi.mi.jami.tab.io.parser.FastMitabLineParser;
+import psidev.psi.mi.jami.tab.io.parser.ParseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark measuring the throughput of the MitabLineParser generated by JavaCC compared to the FastMitabLineParser
+ * and to the ParallelMitabStreamSource.
+ *
+ * The parsers read the lines of the MITAB 2.7 sample repeated LINES times and create binary interaction evidences.
+ * It is not run with the unit tests, run the main method to execute it.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MitabLineParserBenchmark {
+
+    private static final int LINES = 1000;
+
+    private String content;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        Reader reader = new InputStreamReader(MitabLineParserBenchmark.class.getResourceAsStream("/samples/mitab27_line.txt"));
+        StringBuilder sample = new StringBuilder();
+        try {
+            char[] buffer = new char[4096];
+            int read;
+            while ((read = reader.read(buffer)) != -1){
+                sample.append(buffer, 0, read);
+            }
+        }
+        finally {
+            reader.close();
+        }
+        if (sample.charAt(sample.length() - 1) != '\n'){
+            sample.append('\n');
+        }
+
+        StringBuilder builder = new StringBuilder(sample.length() * LINES / 2);
+        for (int i = 0; i < LINES / 2; i++){
+            builder.append(sample);
+        }
+        this.content = builder.toString();
+        this.bytes = content.getBytes();
+    }
+
+    @Benchmark
+    public int javaccParser() throws ParseException {
+        BinaryEvidenceLineParser parser = new BinaryEvidenceLineParser(new StringReader(content));
+        int count = 0;
+        while (!parser.hasFinished()){
+            if (parser.MitabLine() != null){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int fastParser() throws ParseException {
+        FastMitabLineParser<BinaryInteractionEvidence, ParticipantEvidence, FeatureEvidence> parser =
+                new FastMitabLineParser<BinaryInteractionEvidence, ParticipantEvidence, FeatureEvidence>(
+                        new BinaryEvidenceLineParser(new StringReader("")), new StringReader(content));
+        int count = 0;
+        while (!parser.hasFinished()){
+            if (parser.MitabLine() != null){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int parallelSource() {
+        ParallelMitabStreamSource<BinaryInteractionEvidence> dataSource =
+                new ParallelMitabStreamSource<BinaryInteractionEvidence>(MitabBinaryEvidenceStreamSource.class, new ByteArrayInputStream(bytes));
+        dataSource.setChunkSize(64 * 1024);
+        dataSource.setUseFastLineParser(true);
+        int count = 0;
+        Iterator<BinaryInteractionEvidence> iterator = dataSource.getInteractionsIterator();
+        while (iterator.hasNext()){
+            iterator.next();
+            count++;
+        }
+        dataSource.close();
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MitabLineParserBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,68 @@
+package psidev.psi.mi.jami.mitab.io.writer;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import psidev.psi.mi.jami.tab.io.writer.MitabLineWriter;
+import psidev.psi.mi.jami.tab.utils.MitabUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Unit tester for MitabLineWriter
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class MitabLineWriterTest {
+
+    @Test
+    public void write_escaped_same_as_regexp() throws IOException {
+        String[] strings = new String[]{"P12345", "", "protein test", "a \" nice \" protein : \t easy to write (almost!) " + MitabUtils.LINE_BREAK,
+                "CHEBI:xxx", "a|b", "(", "\"quoted\"", "tab\tand" + MitabUtils.LINE_BREAK + "break"};
+
+        for (String str : strings){
+            StringWriter writer = new StringWriter();
+            MitabLineWriter lineWriter = new MitabLineWriter(writer, 2);
+            lineWriter.writeEscaped(str);
+            lineWriter.flushLine();
+
+            Assert.assertEquals(escapeWithRegexp(str), writer.toString());
+        }
+    }
+
+    @Test
+    public void write_line_at_once() throws IOException {
+        StringWriter writer = new StringWriter();
+        MitabLineWriter lineWriter = new MitabLineWriter(writer, 4);
+
+        lineWriter.write("uniprotkb");
+        lineWriter.write(':');
+        lineWriter.writeEscaped("P12345");
+        lineWriter.write(MitabUtils.COLUMN_SEPARATOR);
+        Assert.assertEquals("", writer.toString());
+        Assert.assertEquals(17, lineWriter.getLineLength());
+
+        lineWriter.flushLine();
+        Assert.assertEquals("uniprotkb:P12345\t", writer.toString());
+        Assert.assertEquals(0, lineWriter.getLineLength());
+
+        lineWriter.write("-");
+        lineWriter.close();
+        Assert.assertEquals("uniprotkb:P12345\t-", writer.toString());
+    }
+
+    private String escapeWithRegexp(String stringToEscape){
+        String replaced = stringToEscape.replaceAll(MitabUtils.LINE_BREAK+"|"+ MitabUtils.COLUMN_SEPARATOR, " ");
+        replaced = replaced.replaceAll("\"", "\\\\\"");
+
+        for (String special : MitabUtils.SPECIAL_CHARACTERS){
+            if (replaced.contains(special)){
+                return "\"" + replaced + "\"";
+            }
+        }
+        return replaced;
+    }
+}
@@ -0,0 +1,134 @@
+package psidev.psi.mi.jami.mitab.io.writer;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import psidev.psi.mi.jami.binary.BinaryInteractionEvidence;
+import psidev.psi.mi.jami.tab.io.parser.BinaryEvidenceLineParser;
+import psidev.psi.mi.jami.tab.io.parser.ParseException;
+import psidev.psi.mi.jami.tab.io.writer.*;
+import psidev.psi.mi.jami.tab.utils.MitabUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark measuring the throughput of the MITAB 2.5, 2.6 and 2.7 binary evidence writers, and of the escaping of a string
+ * with the previous regular expressions compared to the single pass escaping of MitabLineWriter.
+ *
+ * The interaction is parsed once from the MITAB 2.7 sample and written to a writer discarding the characters.
+ * It is not run with the unit tests, run the main method to execute it.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class MitabWriterBenchmark {
+
+    private static final String STRING_TO_ESCAPE = "SEC23-related protein A (gene name synonym)";
+
+    private BinaryInteractionEvidence interaction;
+    private Mitab25BinaryEvidenceWriter mitab25Writer;
+    private Mitab26BinaryEvidenceWriter mitab26Writer;
+    private Mitab27BinaryEvidenceWriter mitab27Writer;
+    private NullWriter output;
+    private MitabLineWriter lineWriter;
+
+    @Setup
+    public void setUp() throws ParseException {
+        InputStream stream = MitabWriterBenchmark.class.getResourceAsStream("/samples/mitab27_line.txt");
+        BinaryEvidenceLineParser parser = new BinaryEvidenceLineParser(stream);
+        this.interaction = (BinaryInteractionEvidence) parser.MitabLine();
+
+        this.output = new NullWriter();
+        this.mitab25Writer = new Mitab25BinaryEvidenceWriter(output);
+        this.mitab25Writer.setWriteHeader(false);
+        this.mitab26Writer = new Mitab26BinaryEvidenceWriter(output);
+        this.mitab26Writer.setWriteHeader(false);
+        this.mitab27Writer = new Mitab27BinaryEvidenceWriter(output);
+        this.mitab27Writer.setWriteHeader(false);
+        this.lineWriter = new MitabLineWriter(output);
+    }
+
+    @Benchmark
+    public long mitab25() {
+        mitab25Writer.write(interaction);
+        return output.getCount();
+    }
+
+    @Benchmark
+    public long mitab26() {
+        mitab26Writer.write(interaction);
+        return output.getCount();
+    }
+
+    @Benchmark
+    public long mitab27() {
+        mitab27Writer.write(interaction);
+        return output.getCount();
+    }
+
+    @Benchmark
+    public String escapeWithRegexp() {
+        String replaced = STRING_TO_ESCAPE.replaceAll(MitabUtils.LINE_BREAK+"|"+ MitabUtils.COLUMN_SEPARATOR, " ");
+        return replaced.replaceAll("\"", "\\\\\"");
+    }
+
+    @Benchmark
+    public long escapeSinglePass() throws IOException {
+        lineWriter.writeEscaped(STRING_TO_ESCAPE);
+        lineWriter.flushLine();
+        return output.getCount();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MitabWriterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Writer counting and discarding the characters
+     */
+    private static class NullWriter extends Writer {
+        private long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(int c) {
+            count++;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
@@ -35,6 +35,7 @@ public class XmlEntryContext {
     private Entry currentEntry;
     private PsiXmlParserListener listener;
     private XmlInteractorFactory interactorFactory;
+    private List<ExperimentLink> experimentLinks;
 
     private XmlEntryContext(){
     }
@@ -70,6 +71,7 @@ public class XmlEntryContext {
             this.bindingFeatures.clear();
         }
         this.interactorFactory = null;
+        this.experimentLinks = null;
     }
 
     public XmlInteractorFactory getInteractorFactory() {
@@ -198,21 +200,51 @@ public class XmlEntryContext {
         this.references = new ArrayList<XmlIdReference>();
     }
 
+    /**
+     * Collects the links between experiments and interaction evidences instead of adding the interaction evidences
+     * to the experiments, so experiments shared between threads can be updated later by the thread returning the interactions.
+     */
+    public void initialiseExperimentLinkList(){
+        this.experimentLinks = new ArrayList<ExperimentLink>();
+    }
+
+    /**
+     *
+     * @return the links collected since initialiseExperimentLinkList and stops collecting them, null if they were not collected
+     */
+    public List<ExperimentLink> releaseExperimentLinks(){
+        List<ExperimentLink> links = this.experimentLinks;
+        this.experimentLinks = null;
+        return links;
+    }
+
+    public void linkInteractionEvidence(Experiment experiment, InteractionEvidence evidence){
+        if (this.experimentLinks != null){
+            this.experimentLinks.add(new ExperimentLink(experiment, evidence));
+        }
+        else {
+            experiment.getInteractionEvidences().add(evidence);
+        }
+    }
+
     public void resolveInteractorAndExperimentRefs(){
         if (references != null){
-            Iterator<XmlIdReference> refIterator = references.iterator();
-            while(refIterator.hasNext()){
-                XmlIdReference ref = refIterator.next();
-                if (this.elementCache == null ||
-                        (this.elementCache != null && !ref.resolve(this.elementCache))){
-                    if (listener != null){
-                        listener.onUnresolvedReference(ref, "Cannot resolve a reference in the xml file");
+            List<XmlIdReference> unresolvedReferences = new ArrayList<XmlIdReference>();
+            // resolving a reference can reload an object from the file cache which registers its own references
+            while (!references.isEmpty()){
+                List<XmlIdReference> referencesToResolve = new ArrayList<XmlIdReference>(references);
+                references.clear();
+                for (XmlIdReference ref : referencesToResolve){
+                    if (this.elementCache == null ||
+                            (this.elementCache != null && !ref.resolve(this.elementCache))){
+                        if (listener != null){
+                            listener.onUnresolvedReference(ref, "Cannot resolve a reference in the xml file");
+                        }
+                        unresolvedReferences.add(ref);
                     }
                 }
-                else{
-                    refIterator.remove();
-                }
             }
+            references.addAll(unresolvedReferences);
         }
     }
 
@@ -306,4 +338,21 @@ public class XmlEntryContext {
             }
         }
     }
+
+    /**
+     * An interaction evidence to add to the interaction evidences of an experiment
+     */
+    public static class ExperimentLink {
+        private final Experiment experiment;
+        private final InteractionEvidence evidence;
+
+        private ExperimentLink(Experiment experiment, InteractionEvidence evidence) {
+            this.experiment = experiment;
+            this.evidence = evidence;
+        }
+
+        public void link(){
+            this.experiment.getInteractionEvidences().add(this.evidence);
+        }
+    }
 }
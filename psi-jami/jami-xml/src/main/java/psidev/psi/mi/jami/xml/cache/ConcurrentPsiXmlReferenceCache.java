@@ -0,0 +1,305 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import psidev.psi.mi.jami.model.Experiment;
+import psidev.psi.mi.jami.model.Interaction;
+import psidev.psi.mi.jami.model.InteractionCategory;
+import psidev.psi.mi.jami.model.Interactor;
+import psidev.psi.mi.jami.model.VariableParameterValue;
+import psidev.psi.mi.jami.xml.PsiXmlVersion;
+import psidev.psi.mi.jami.xml.io.parser.JaxbUnmarshallerFactory;
+import psidev.psi.mi.jami.xml.model.extension.AbstractAvailability;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamException;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread safe cache resolving the references of a PSI-XML file which is parsed by several threads.
+ *
+ * The file is indexed once by a CompactPsiXmlFileIndexCache. Each thread gets its own EntryCache sharing this position index,
+ * with its own unmarshaller and RandomAccessFile, which keeps the objects registered while parsing an interaction.
+ * The experiments (and their variable parameter values), interactors and availabilities of an entry are shared by all the threads : they are registered when the
+ * header of the entry is parsed or loaded once from the file the first time they are referenced.
+ *
+ * Resolving a reference to an experiment adds the interaction to the interaction evidences of the shared experiment,
+ * so the references must be resolved while holding the lock of this cache.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ConcurrentPsiXmlReferenceCache {
+
+    private PsiXmlFileIndexCache index;
+    private PsiXmlVersion version;
+    private InteractionCategory category;
+
+    private ConcurrentMap<Long, Experiment> experiments;
+    private ConcurrentMap<Long, Interactor> interactors;
+    private ConcurrentMap<Long, AbstractAvailability> availabilities;
+    private ConcurrentMap<Long, VariableParameterValue> variableParameterValues;
+
+    private ThreadLocal<EntryCache> threadCaches;
+    private List<EntryCache> createdCaches;
+
+    /**
+     *
+     * @param file : the PSI-XML file to index
+     * @param version : the version of the file
+     * @param category : the category of the interactions to unmarshal
+     * @param positionScanner : the scanner indexing the file. If null, a MappedPsiXmlPositionScanner is used
+     * @throws IOException
+     * @throws JAXBException
+     */
+    public ConcurrentPsiXmlReferenceCache(File file, PsiXmlVersion version, InteractionCategory category, PsiXmlPositionScanner positionScanner) throws IOException, JAXBException {
+        if (version == null){
+            throw new IllegalArgumentException("The concurrent reference cache needs the version of the PSI-XML file.");
+        }
+        if (category == null){
+            throw new IllegalArgumentException("The concurrent reference cache needs the category of the interactions.");
+        }
+        this.version = version;
+        this.category = category;
+        this.index = new CompactPsiXmlFileIndexCache(file, createUnmarshaller(), version, positionScanner);
+
+        this.experiments = new ConcurrentHashMap<Long, Experiment>();
+        this.interactors = new ConcurrentHashMap<Long, Interactor>();
+        this.availabilities = new ConcurrentHashMap<Long, AbstractAvailability>();
+        this.variableParameterValues = new ConcurrentHashMap<Long, VariableParameterValue>();
+
+        this.threadCaches = new ThreadLocal<EntryCache>();
+        this.createdCaches = new ArrayList<EntryCache>();
+    }
+
+    /**
+     *
+     * @param entry : the entry number, starting from 1
+     * @param id : the interaction id
+     * @return the position of the interaction in the file or PsiXmlPositionMap.NO_POSITION if it has not been indexed
+     */
+    public long getInteractionPosition(int entry, int id){
+        return this.index.getInteractionPosition(entry, id);
+    }
+
+    /**
+     * Gets the cache of the calling thread, cleared and ready to parse the elements of an entry
+     * @param entry : the entry number, starting from 1
+     * @param isParsingEntryHeader : true if the experiments, interactors and availabilities registered in the cache are shared with the other threads
+     * (header of an entry), false if they are only registered in the cache of this thread (elements of an interaction)
+     * @return the cache of the calling thread
+     * @throws IOException
+     * @throws JAXBException
+     */
+    public EntryCache getEntryCache(int entry, boolean isParsingEntryHeader) throws IOException, JAXBException {
+        EntryCache cache = this.threadCaches.get();
+        if (cache == null){
+            cache = new EntryCache(this.index, createUnmarshaller());
+            synchronized (this.createdCaches){
+                this.createdCaches.add(cache);
+            }
+            this.threadCaches.set(cache);
+        }
+        cache.clear();
+        cache.setCurrentEntry(entry);
+        cache.isParsingEntryHeader = isParsingEntryHeader;
+        return cache;
+    }
+
+    /**
+     * Closes the caches of all the threads and the position index
+     */
+    public void close(){
+        synchronized (this.createdCaches){
+            for (EntryCache cache : this.createdCaches){
+                cache.close();
+            }
+            this.createdCaches.clear();
+        }
+        this.experiments.clear();
+        this.interactors.clear();
+        this.availabilities.clear();
+        this.variableParameterValues.clear();
+        this.index.close();
+    }
+
+    private Unmarshaller createUnmarshaller() throws JAXBException {
+        return JaxbUnmarshallerFactory.getInstance().createUnmarshaller(this.version, this.category);
+    }
+
+    /**
+     * Cache used by one thread. It shares the position index and the experiments, interactors and availabilities of the entries
+     * with the other threads.
+     */
+    public class EntryCache extends PsiXmlFileIndexCache {
+
+        private Unmarshaller unmarshaller;
+        private boolean isParsingEntryHeader;
+
+        private Map<Integer, Experiment> localExperiments;
+        private Map<Integer, Interactor> localInteractors;
+        private Map<Integer, AbstractAvailability> localAvailabilities;
+
+        private EntryCache(PsiXmlFileIndexCache index, Unmarshaller unmarshaller) throws IOException {
+            super(index, unmarshaller);
+            this.unmarshaller = unmarshaller;
+            this.localExperiments = new HashMap<Integer, Experiment>();
+            this.localInteractors = new HashMap<Integer, Interactor>();
+            this.localAvailabilities = new HashMap<Integer, AbstractAvailability>();
+        }
+
+        /**
+         *
+         * @return the unmarshaller of this thread
+         */
+        public Unmarshaller getUnmarshaller() {
+            return unmarshaller;
+        }
+
+        /**
+         * Unmarshals the interaction starting at the given position
+         * @param position : the position of the interaction in the file
+         * @param lineNumber : the line number of the interaction in the file
+         * @param columnNumber : the column number of the interaction in the file
+         * @return the interaction
+         * @throws IOException
+         * @throws JAXBException
+         * @throws XMLStreamException
+         */
+        public Interaction loadInteraction(long position, int lineNumber, int columnNumber) throws IOException, JAXBException, XMLStreamException {
+            return loadFromFile(position, lineNumber, columnNumber);
+        }
+
+        @Override
+        public void registerExperiment(int id, Experiment object) {
+            if (this.isParsingEntryHeader){
+                experiments.put(toKey(id), object);
+            }
+            else {
+                this.localExperiments.put(id, object);
+            }
+        }
+
+        @Override
+        public Experiment getExperiment(int id) {
+            // the experiments of the entry header are shared. An experiment reloaded from the file while loading another object is only registered locally
+            Experiment experiment = experiments.get(toKey(id));
+            if (experiment == null){
+                experiment = this.localExperiments.get(id);
+            }
+            if (experiment == null){
+                experiment = super.getExperiment(id);
+                if (experiment != null){
+                    Experiment previous = experiments.putIfAbsent(toKey(id), experiment);
+                    // another thread has loaded the same experiment
+                    if (previous != null){
+                        experiment = previous;
+                    }
+                }
+            }
+            return experiment;
+        }
+
+        @Override
+        public boolean containsExperiment(int id) {
+            return this.localExperiments.containsKey(id) || experiments.containsKey(toKey(id)) || super.containsExperiment(id);
+        }
+
+        @Override
+        public void registerInteractor(int id, Interactor object) {
+            if (this.isParsingEntryHeader){
+                interactors.put(toKey(id), object);
+            }
+            else {
+                this.localInteractors.put(id, object);
+            }
+        }
+
+        @Override
+        public Interactor getInteractor(int id) {
+            // the interactors of the entry header are shared. An interactor reloaded from the file while loading another object is only registered locally
+            Interactor interactor = interactors.get(toKey(id));
+            if (interactor == null){
+                interactor = this.localInteractors.get(id);
+            }
+            if (interactor == null){
+                interactor = super.getInteractor(id);
+                if (interactor != null){
+                    Interactor previous = interactors.putIfAbsent(toKey(id), interactor);
+                    // another thread has loaded the same interactor
+                    if (previous != null){
+                        interactor = previous;
+                    }
+                }
+            }
+            return interactor;
+        }
+
+        @Override
+        public boolean containsInteractor(int id) {
+            return this.localInteractors.containsKey(id) || interactors.containsKey(toKey(id)) || super.containsInteractor(id);
+        }
+
+        @Override
+        public void registerAvailability(int id, AbstractAvailability object) {
+            if (this.isParsingEntryHeader){
+                availabilities.put(toKey(id), object);
+            }
+            else {
+                this.localAvailabilities.put(id, object);
+            }
+        }
+
+        @Override
+        public AbstractAvailability getAvailability(int id) {
+            AbstractAvailability availability = availabilities.get(toKey(id));
+            return availability != null ? availability : this.localAvailabilities.get(id);
+        }
+
+        @Override
+        public boolean containsAvailability(int id) {
+            return this.localAvailabilities.containsKey(id) || availabilities.containsKey(toKey(id));
+        }
+
+        @Override
+        public void registerVariableParameterValue(int id, VariableParameterValue object) {
+            if (this.isParsingEntryHeader){
+                variableParameterValues.put(toKey(id), object);
+            }
+            else {
+                super.registerVariableParameterValue(id, object);
+            }
+        }
+
+        @Override
+        public VariableParameterValue getVariableParameterValue(int id) {
+            VariableParameterValue value = variableParameterValues.get(toKey(id));
+            return value != null ? value : super.getVariableParameterValue(id);
+        }
+
+        @Override
+        public boolean containsVariableParameter(int id) {
+            return variableParameterValues.containsKey(toKey(id)) || super.containsVariableParameter(id);
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            this.localExperiments.clear();
+            this.localInteractors.clear();
+            this.localAvailabilities.clear();
+        }
+
+        private Long toKey(int id){
+            return LongPsiXmlPositionMap.toKey(getCurrentEntry(), id);
+        }
+    }
+}
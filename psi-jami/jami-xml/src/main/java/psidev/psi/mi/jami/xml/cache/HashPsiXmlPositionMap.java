@@ -0,0 +1,44 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Position map backed by a HashMap of EntryLocation.
+ *
+ * Each position costs a map entry, an EntryLocation and a Long (around 105 bytes per position on a 64 bits JVM).
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class HashPsiXmlPositionMap implements PsiXmlPositionMap {
+
+    private Map<EntryLocation, Long> positions;
+
+    public HashPsiXmlPositionMap(){
+        this.positions = new HashMap<EntryLocation, Long>();
+    }
+
+    public void putPosition(int entry, int id, long position) {
+        this.positions.put(new EntryLocation(entry, id), position);
+    }
+
+    public long getPosition(int entry, int id) {
+        Long position = this.positions.get(new EntryLocation(entry, id));
+        return position != null ? position : NO_POSITION;
+    }
+
+    public boolean containsPosition(int entry, int id) {
+        return this.positions.containsKey(new EntryLocation(entry, id));
+    }
+
+    public int size() {
+        return this.positions.size();
+    }
+
+    public void clear() {
+        this.positions.clear();
+    }
+}
@@ -0,0 +1,206 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import java.util.Arrays;
+
+/**
+ * Position map backed by an open addressing hash table of primitive longs.
+ *
+ * The entry number and the id are packed in a single long key and keys and positions are stored in two parallel
+ * long arrays with linear probing, so no object is allocated per position. With the default load factor,
+ * a position costs between 21 and 32 bytes (16 bytes per slot).
+ *
+ * This map is not thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class LongPsiXmlPositionMap implements PsiXmlPositionMap {
+
+    /**
+     * Key marking a free slot. It corresponds to the entry Integer.MIN_VALUE and id 0 which is stored apart.
+     */
+    private static final long FREE_KEY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private long[] positions;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+    private int maxCapacity;
+
+    private boolean hasFreeKey = false;
+    private long freeKeyPosition = NO_POSITION;
+
+    public LongPsiXmlPositionMap(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * @param expectedSize : the expected number of positions
+     */
+    public LongPsiXmlPositionMap(int expectedSize){
+        this(expectedSize, MAX_CAPACITY);
+    }
+
+    /**
+     *
+     * @param expectedSize : the expected number of positions
+     * @param maxCapacity : the maximum number of slots of the hash table, a power of two
+     */
+    LongPsiXmlPositionMap(int expectedSize, int maxCapacity){
+        if (expectedSize < 0){
+            throw new IllegalArgumentException("The expected size cannot be negative");
+        }
+        if (maxCapacity < DEFAULT_CAPACITY || maxCapacity > MAX_CAPACITY || Integer.bitCount(maxCapacity) != 1){
+            throw new IllegalArgumentException("The maximum capacity must be a power of two between "+DEFAULT_CAPACITY+" and "+MAX_CAPACITY+": "+maxCapacity);
+        }
+        this.maxCapacity = maxCapacity;
+        allocate(capacityFor(expectedSize, maxCapacity));
+    }
+
+    public void putPosition(int entry, int id, long position) {
+        if (position < 0){
+            throw new IllegalArgumentException("The position must be positive: "+position);
+        }
+        long key = toKey(entry, id);
+        if (key == FREE_KEY){
+            if (!this.hasFreeKey){
+                this.size++;
+            }
+            this.hasFreeKey = true;
+            this.freeKeyPosition = position;
+            return;
+        }
+
+        int index = indexOf(key);
+        if (this.keys[index] == FREE_KEY){
+            // grow before inserting so the map is unchanged if it is full
+            if (this.size >= this.resizeThreshold){
+                if (this.keys.length >= this.maxCapacity){
+                    throw new IllegalStateException("The position map is full, it cannot contain more than "+this.size+" positions");
+                }
+                rehash(this.keys.length << 1);
+                index = indexOf(key);
+            }
+            this.keys[index] = key;
+            this.size++;
+            this.positions[index] = position;
+        }
+        else{
+            this.positions[index] = position;
+        }
+    }
+
+    public long getPosition(int entry, int id) {
+        long key = toKey(entry, id);
+        if (key == FREE_KEY){
+            return this.hasFreeKey ? this.freeKeyPosition : NO_POSITION;
+        }
+        int index = indexOf(key);
+        return this.keys[index] == FREE_KEY ? NO_POSITION : this.positions[index];
+    }
+
+    public boolean containsPosition(int entry, int id) {
+        long key = toKey(entry, id);
+        if (key == FREE_KEY){
+            return this.hasFreeKey;
+        }
+        return this.keys[indexOf(key)] != FREE_KEY;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public void clear() {
+        Arrays.fill(this.keys, FREE_KEY);
+        this.size = 0;
+        this.hasFreeKey = false;
+        this.freeKeyPosition = NO_POSITION;
+    }
+
+    /**
+     *
+     * @return the number of slots of the hash table
+     */
+    public int getCapacity(){
+        return this.keys.length;
+    }
+
+    /**
+     *
+     * @param entry
+     * @param id
+     * @return the entry number and the id packed in a single long
+     */
+    public static long toKey(int entry, int id){
+        return ((long)entry << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    /**
+     *
+     * @param key
+     * @return the index of the slot containing the key or of the free slot where it should be inserted
+     */
+    private int indexOf(long key){
+        int index = hash(key) & this.mask;
+        long current = this.keys[index];
+        while (current != FREE_KEY && current != key){
+            index = (index + 1) & this.mask;
+            current = this.keys[index];
+        }
+        return index;
+    }
+
+    private void rehash(int newCapacity){
+        long[] oldKeys = this.keys;
+        long[] oldPositions = this.positions;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++){
+            long key = oldKeys[i];
+            if (key != FREE_KEY){
+                int index = indexOf(key);
+                this.keys[index] = key;
+                this.positions[index] = oldPositions[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity){
+        this.keys = new long[capacity];
+        Arrays.fill(this.keys, FREE_KEY);
+        this.positions = new long[capacity];
+        this.mask = capacity - 1;
+        this.resizeThreshold = (int)(capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize, int maxCapacity){
+        long minimum = (long)Math.ceil(expectedSize / LOAD_FACTOR) + 1;
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < minimum && capacity < maxCapacity){
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Finalisation step of MurmurHash3 to spread consecutive ids over the table
+     * @param key
+     * @return the hash
+     */
+    private static int hash(long key){
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int)h;
+    }
+}
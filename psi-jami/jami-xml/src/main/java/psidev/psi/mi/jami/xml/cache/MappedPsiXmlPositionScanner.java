@@ -0,0 +1,408 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+/**
+ * Position scanner which reads the file through a FileChannel, either by memory mapping regions of the file
+ * or by reading large blocks in a direct buffer.
+ *
+ * Tag names and id attributes are matched against byte patterns so no object is allocated per byte read.
+ * It reports exactly the same positions as the StreamPsiXmlPositionScanner.
+ *
+ * This scanner is not thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class MappedPsiXmlPositionScanner implements PsiXmlPositionScanner {
+
+    private static final Logger logger = Logger.getLogger("MappedPsiXmlPositionScanner");
+
+    /**
+     * Default size of a mapped region/read block : 64 Mb
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024 * 1024;
+
+    private static final int MAX_TAG_LENGTH = 32;
+
+    private static final byte[] ENTRY = lowerCaseBytes("entry");
+    private static final byte[] EXPERIMENT = lowerCaseBytes("experimentDescription");
+    private static final byte[] INTERACTOR = lowerCaseBytes("interactor");
+    private static final byte[] INTERACTION = lowerCaseBytes("interaction");
+    private static final byte[] ABSTRACT_INTERACTION = lowerCaseBytes("abstractInteraction");
+    private static final byte[] PARTICIPANT = lowerCaseBytes("participant");
+    private static final byte[] FEATURE = lowerCaseBytes("feature");
+    private static final byte[] VARIABLE_VALUE = lowerCaseBytes("variableValue");
+    private static final byte[] INTERACTOR_CANDIDATE = lowerCaseBytes("interactorCandidate");
+
+    private int blockSize;
+    private boolean useMemoryMapping;
+
+    private byte[] tagName = new byte[MAX_TAG_LENGTH];
+    private int tagLength;
+    private byte[] attributes = new byte[64];
+    private int attributesLength;
+
+    public MappedPsiXmlPositionScanner(){
+        this(DEFAULT_BLOCK_SIZE, true);
+    }
+
+    /**
+     *
+     * @param blockSize : the size of the regions mapped in memory or the size of the direct buffer
+     * @param useMemoryMapping : true if the regions of the file are memory mapped, false if they are read in a direct buffer
+     */
+    public MappedPsiXmlPositionScanner(int blockSize, boolean useMemoryMapping){
+        if (blockSize <= 0){
+            throw new IllegalArgumentException("The block size must be strictly positive");
+        }
+        this.blockSize = blockSize;
+        this.useMemoryMapping = useMemoryMapping;
+    }
+
+    public void scan(File f, PsiXmlPositionIndexListener listener) throws IOException {
+        if (f == null){
+            throw new IllegalArgumentException("The file to scan cannot be null");
+        }
+        if (listener == null){
+            throw new IllegalArgumentException("The position index listener cannot be null");
+        }
+
+        long start = System.currentTimeMillis();
+        long length = f.length();
+        logger.info( "length = " + length );
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(f, "r");
+        try{
+            BlockCursor cursor = new BlockCursor(randomAccessFile.getChannel(), this.blockSize, this.useMemoryMapping);
+
+            long startPos = 0;
+            int read = ' ';
+            int b;
+            boolean recording = false;
+
+            long currentExperimentPost = 0;
+            long currentInteractionPos = 0;
+            int currentEntry=0;
+            boolean hasReadEncoding = false;
+
+            while ( -1 != (b = cursor.next())) {
+                read = b;
+
+                if ( recording ) {
+                    if ( !isAlphabeticalChar( read ) ) {
+                        if ( read == '/' ) {
+                            // it was a closing tag, search for '>'
+                            while ( -1 != (b = cursor.next()) ) {
+                                read = b;
+                                if ( read == '>') {
+                                    break;
+                                }
+                            }
+                            recording = false;
+                        }
+                        else if ( read == '?' && !hasReadEncoding) {
+                            // xml prolog, read until '>' to extract the encoding
+                            this.attributesLength = 0;
+                            while ( -1 != (b = cursor.next()) ) {
+                                read = b;
+                                appendAttribute(b);
+                                if ( read == '>') {
+                                    break;
+                                }
+                            }
+                            recording = false;
+                            hasReadEncoding = true;
+
+                            String line = new String(this.attributes, 0, this.attributesLength, "ISO-8859-1");
+                            if (line.contains("encoding=")){
+                                int indexOfEncoding = line.indexOf("encoding=\"");
+                                String truncatedLine = line.substring(indexOfEncoding+10);
+                                int indexOfEndEncoding = truncatedLine.indexOf("\"");
+                                listener.onEncoding(truncatedLine.substring(0, indexOfEndEncoding));
+                            }
+                        }
+                        else if ( read == '!' ) {
+                            // beginning of a comment, fast forward until '-->'
+                            recording = false;
+
+                            int c1 = ' ',
+                                    c2 = ' ',
+                                    c3 = ' ';
+                            while ( -1 != (b = cursor.next()) ) {
+                                c1 = c2;
+                                c2 = c3;
+                                c3 = b;
+
+                                if ( c1 == '-' && c2 == '-' && c3 == '>' ) {
+                                    break;
+                                }
+                            }
+                        }
+                        else {
+                            // check what start tag it is
+                            if ( matchesTag(ENTRY) ) {
+                                currentEntry++;
+                            }
+                            else if ( matchesTag(EXPERIMENT) ) {
+                                int currentId = readId(cursor);
+                                currentExperimentPost = startPos;
+                                listener.onExperiment(currentEntry, currentId, startPos);
+                            }
+                            else if ( matchesTag(INTERACTOR) ) {
+                                int currentId = readId(cursor);
+                                listener.onInteractor(currentEntry, currentId, startPos);
+                            }
+                            else if ( matchesTag(INTERACTION) ) {
+                                int currentId = readId(cursor);
+                                currentInteractionPos = startPos;
+                                listener.onInteraction(currentEntry, currentId, startPos);
+                            }
+                            else if ( matchesTag(ABSTRACT_INTERACTION) ) {
+                                int currentId = readId(cursor);
+                                currentInteractionPos = startPos;
+                                listener.onAbstractInteraction(currentEntry, currentId, startPos);
+                            }
+                            else if ( matchesTag(PARTICIPANT) ) {
+                                int currentId = readId(cursor);
+                                listener.onParticipant(currentEntry, currentId, currentInteractionPos);
+                            }
+                            else if ( matchesTag(FEATURE) ) {
+                                int currentId = readId(cursor);
+                                currentInteractionPos = startPos;
+                                listener.onFeature(currentEntry, currentId, currentInteractionPos);
+                            }
+                            else if ( matchesTag(VARIABLE_VALUE) ) {
+                                int currentId = readId(cursor);
+                                currentInteractionPos = startPos;
+                                listener.onVariableParameterValue(currentEntry, currentId, currentExperimentPost);
+                            }
+                            else if ( matchesTag(INTERACTOR_CANDIDATE) ) {
+                                int currentId = readId(cursor);
+                                listener.onParticipant(currentEntry, currentId, currentInteractionPos);
+                            }
+
+                            recording = false;
+                        }
+                    }
+                    else {
+                        // add alphabetical char in lower case
+                        if (this.tagLength < MAX_TAG_LENGTH){
+                            this.tagName[this.tagLength] = (byte)(read | 0x20);
+                        }
+                        this.tagLength++;
+                    }
+                }
+
+                if ( read == '<' ) {
+                    // start recording, we want the '<' included
+                    startPos = cursor.position() - 1;
+                    recording = true;
+                    this.tagLength = 0;
+                }
+            }
+
+            long stop = System.currentTimeMillis();
+
+            logger.info( "Time elapsed: " + ( stop - start ) + "ms" );
+        }
+        finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Reads the attributes of the current tag until '>' and extracts the id if the attributes are exactly
+     * id="number"
+     * @param cursor
+     * @return the id or -1 if no id could be extracted
+     * @throws IOException
+     */
+    private int readId(BlockCursor cursor) throws IOException {
+        this.attributesLength = 0;
+        int b;
+        while ( -1 != (b = cursor.next()) ) {
+            if ( b == '>' ) {
+                return parseId();
+            }
+            appendAttribute(b);
+        }
+        return -1;
+    }
+
+    private int parseId() {
+        byte[] chars = this.attributes;
+        int length = this.attributesLength;
+        int i = 0;
+        if (length < 5 || chars[0] != 'i' || chars[1] != 'd'){
+            return -1;
+        }
+        i = skipWhiteSpaces(chars, 2, length);
+        if (i >= length || chars[i] != '='){
+            return -1;
+        }
+        i = skipWhiteSpaces(chars, i + 1, length);
+        if (i >= length || chars[i] != '"'){
+            return -1;
+        }
+        i++;
+        int startDigits = i;
+        while (i < length && chars[i] >= '0' && chars[i] <= '9'){
+            i++;
+        }
+        // the id must be followed by '"' which must be the last character
+        if (i != length - 1 || chars[i] != '"'){
+            return -1;
+        }
+        return parseDigits(chars, startDigits, i);
+    }
+
+    private int parseDigits(byte[] chars, int start, int end) {
+        if (start == end){
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        long value = 0;
+        for (int i = start; i < end; i++){
+            value = value * 10 + (chars[i] - '0');
+            if (value > Integer.MAX_VALUE){
+                throw new NumberFormatException("For input string: \""+new String(chars, start, end - start)+"\"");
+            }
+        }
+        return (int)value;
+    }
+
+    private int skipWhiteSpaces(byte[] chars, int start, int length){
+        int i = start;
+        while (i < length && isWhiteSpace(chars[i])){
+            i++;
+        }
+        return i;
+    }
+
+    private boolean isWhiteSpace(byte b){
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+
+    private void appendAttribute(int b){
+        if (this.attributesLength == this.attributes.length){
+            byte[] newAttributes = new byte[this.attributes.length * 2];
+            System.arraycopy(this.attributes, 0, newAttributes, 0, this.attributesLength);
+            this.attributes = newAttributes;
+        }
+        this.attributes[this.attributesLength++] = (byte)b;
+    }
+
+    private boolean matchesTag(byte[] pattern){
+        if (this.tagLength != pattern.length){
+            return false;
+        }
+        for (int i = 0; i < pattern.length; i++){
+            if (this.tagName[i] != pattern[i]){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAlphabeticalChar( int c ) {
+        return ( ( c >= 'a' && c <= 'z' ) || ( ( c >= 'A' && c <= 'Z' ) ) );
+    }
+
+    private static byte[] lowerCaseBytes(String tag){
+        byte[] bytes = new byte[tag.length()];
+        for (int i = 0; i < bytes.length; i++){
+            bytes[i] = (byte)Character.toLowerCase(tag.charAt(i));
+        }
+        return bytes;
+    }
+
+    /**
+     * Cursor reading a file channel block per block.
+     * Null bytes are skipped as in the original stream scanner.
+     */
+    private static final class BlockCursor {
+        private final FileChannel channel;
+        private final long length;
+        private final int blockSize;
+        private final boolean mapped;
+        private ByteBuffer buffer;
+        private long bufferStart;
+        private long nextStart;
+
+        private BlockCursor(FileChannel channel, int blockSize, boolean mapped) throws IOException {
+            this.channel = channel;
+            this.length = channel.size();
+            this.blockSize = blockSize;
+            this.mapped = mapped;
+            this.nextStart = 0;
+            if (!mapped){
+                this.buffer = ByteBuffer.allocateDirect((int)Math.min(blockSize, Math.max(this.length, 1)));
+                this.buffer.limit(0);
+            }
+        }
+
+        /**
+         *
+         * @return the next non null byte as an unsigned int, -1 if the end of the file is reached
+         * @throws IOException
+         */
+        private int next() throws IOException {
+            while (true){
+                if (this.buffer != null && this.buffer.hasRemaining()){
+                    byte b = this.buffer.get();
+                    if (b != 0){
+                        return b & 0xFF;
+                    }
+                }
+                else if (!fill()){
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         *
+         * @return the position in the file just after the last byte read
+         */
+        private long position(){
+            return this.bufferStart + (this.buffer != null ? this.buffer.position() : 0);
+        }
+
+        private boolean fill() throws IOException {
+            if (this.nextStart >= this.length){
+                return false;
+            }
+            int size = (int)Math.min(this.blockSize, this.length - this.nextStart);
+            if (this.mapped){
+                this.buffer = this.channel.map(FileChannel.MapMode.READ_ONLY, this.nextStart, size);
+            }
+            else{
+                this.buffer.clear();
+                this.buffer.limit(size);
+                long pos = this.nextStart;
+                while (this.buffer.hasRemaining()){
+                    int read = this.channel.read(this.buffer, pos);
+                    if (read == -1){
+                        break;
+                    }
+                    pos += read;
+                }
+                this.buffer.flip();
+                size = this.buffer.limit();
+                if (size == 0){
+                    return false;
+                }
+            }
+            this.bufferStart = this.nextStart;
+            this.nextStart += size;
+            return true;
+        }
+    }
+}
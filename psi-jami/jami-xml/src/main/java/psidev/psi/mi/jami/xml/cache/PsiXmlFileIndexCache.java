@@ -1,6 +1,5 @@
 package psidev.psi.mi.jami.xml.cache;
 
-import org.apache.commons.io.input.CountingInputStream;
 import org.codehaus.stax2.XMLInputFactory2;
 import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.model.*;
@@ -25,8 +24,6 @@ import java.util.Map;
 import java.util.WeakHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Cache using a file and a weak map to cache the objects
@@ -40,29 +37,25 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
 
     private static final Logger logger = Logger.getLogger("PsiXmlFileIndexCache");
 
-    /**
-     * Captures the identifier from a String looking like: id="1"
-     */
-    private static final Pattern ID_PATTERN = Pattern.compile( "id(?:\\s*)=(?:\\s*)\"(\\d*)\"", Pattern.CANON_EQ );
-
     private File file;
     private Unmarshaller unmarshaller;
     private RandomAccessFile randomAccessFile;
     private String namespaceUri;
     private XMLInputFactory xmlif;
     private String encoding;
+    private PsiXmlPositionScanner positionScanner;
 
     private Map<Integer, AbstractAvailability> mapOfReferencedAvailabilities;
 
-    private Map<EntryLocation, Long> experimentPositions;
-    private Map<EntryLocation, Long> interactorPositions;
-    private Map<EntryLocation, Long> interactionPositions;
-    private Map<EntryLocation, Long> participantPositions;
-    private Map<EntryLocation, Long> featurePositions;
-    private Map<EntryLocation, Long> variableParameterValuePositions;
-    private Map<EntryLocation, Long> complexPositions;
-    private Map<EntryLocation, Long> complexParticipantPositions;
-    private Map<EntryLocation, Long> complexFeaturePositions;
+    private PsiXmlPositionMap experimentPositions;
+    private PsiXmlPositionMap interactorPositions;
+    private PsiXmlPositionMap interactionPositions;
+    private PsiXmlPositionMap participantPositions;
+    private PsiXmlPositionMap featurePositions;
+    private PsiXmlPositionMap variableParameterValuePositions;
+    private PsiXmlPositionMap complexPositions;
+    private PsiXmlPositionMap complexParticipantPositions;
+    private PsiXmlPositionMap complexFeaturePositions;
 
     private Map<Integer, Experiment> experimentWeakMap;
     private Map<Integer, Interactor> interactorWeakMap;
@@ -75,8 +68,13 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
     private Map<Integer, ModelledFeature> complexFeatureWeakMap;
 
     private int numberOfEntries=1;
+    private boolean isSharingPositions = false;
 
     public PsiXmlFileIndexCache(File file, Unmarshaller unmarshaller, PsiXmlVersion version) throws IOException {
+        this(file, unmarshaller, version, new MappedPsiXmlPositionScanner());
+    }
+
+    public PsiXmlFileIndexCache(File file, Unmarshaller unmarshaller, PsiXmlVersion version, PsiXmlPositionScanner positionScanner) throws IOException {
         if (file == null){
             throw new IllegalArgumentException("The file index cache needs the original file containing data.");
         }
@@ -85,19 +83,20 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
             throw new IllegalArgumentException("The file index cache needs the unmarshaller to unmarshall partial object from file cache.");
         }
         this.unmarshaller = unmarshaller;
+        this.positionScanner = positionScanner != null ? positionScanner : new MappedPsiXmlPositionScanner();
         this.randomAccessFile = new RandomAccessFile(this.file, "r");
 
         this.mapOfReferencedAvailabilities = new HashMap<Integer, AbstractAvailability>();
 
-        this.experimentPositions = new HashMap<EntryLocation, Long>();
-        this.interactorPositions = new HashMap<EntryLocation, Long>();
-        this.interactionPositions = new HashMap<EntryLocation, Long>();
-        this.participantPositions = new HashMap<EntryLocation, Long>();
-        this.featurePositions = new HashMap<EntryLocation, Long>();
-        this.variableParameterValuePositions = new HashMap<EntryLocation, Long>();
-        this.complexPositions = new HashMap<EntryLocation, Long>();
-        this.complexParticipantPositions = new HashMap<EntryLocation, Long>();
-        this.complexFeaturePositions = new HashMap<EntryLocation, Long>();
+        this.experimentPositions = createPositionMap();
+        this.interactorPositions = createPositionMap();
+        this.interactionPositions = createPositionMap();
+        this.participantPositions = createPositionMap();
+        this.featurePositions = createPositionMap();
+        this.variableParameterValuePositions = createPositionMap();
+        this.complexPositions = createPositionMap();
+        this.complexParticipantPositions = createPositionMap();
+        this.complexFeaturePositions = createPositionMap();
 
         this.experimentWeakMap = new WeakHashMap<Integer, Experiment>();
         this.interactorWeakMap = new WeakHashMap<Integer, Interactor>();
@@ -135,6 +134,52 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
         );
     }
 
+    /**
+     * Creates a cache sharing the position index of a cache which has already indexed the file.
+     * The file is not scanned again. This cache opens its own RandomAccessFile and reloads the objects with its own unmarshaller
+     * so several caches sharing the same index can be used by different threads. Closing this cache does not clear the shared positions.
+     * @param indexedCache : the cache which has indexed the file
+     * @param unmarshaller : the unmarshaller used to reload the objects from the file
+     * @throws IOException
+     */
+    protected PsiXmlFileIndexCache(PsiXmlFileIndexCache indexedCache, Unmarshaller unmarshaller) throws IOException {
+        if (indexedCache == null){
+            throw new IllegalArgumentException("The file index cache needs the cache which has indexed the file.");
+        }
+        if (unmarshaller == null){
+            throw new IllegalArgumentException("The file index cache needs the unmarshaller to unmarshall partial object from file cache.");
+        }
+        this.file = indexedCache.file;
+        this.unmarshaller = unmarshaller;
+        this.positionScanner = indexedCache.positionScanner;
+        this.randomAccessFile = new RandomAccessFile(this.file, "r");
+        this.namespaceUri = indexedCache.namespaceUri;
+        this.encoding = indexedCache.encoding;
+        this.isSharingPositions = true;
+
+        this.mapOfReferencedAvailabilities = new HashMap<Integer, AbstractAvailability>();
+
+        this.experimentPositions = indexedCache.experimentPositions;
+        this.interactorPositions = indexedCache.interactorPositions;
+        this.interactionPositions = indexedCache.interactionPositions;
+        this.participantPositions = indexedCache.participantPositions;
+        this.featurePositions = indexedCache.featurePositions;
+        this.variableParameterValuePositions = indexedCache.variableParameterValuePositions;
+        this.complexPositions = indexedCache.complexPositions;
+        this.complexParticipantPositions = indexedCache.complexParticipantPositions;
+        this.complexFeaturePositions = indexedCache.complexFeaturePositions;
+
+        this.experimentWeakMap = new WeakHashMap<Integer, Experiment>();
+        this.interactorWeakMap = new WeakHashMap<Integer, Interactor>();
+        this.interactionWeakMap = new WeakHashMap<Integer, Interaction>();
+        this.participantWeakMap = new WeakHashMap<Integer, Entity>();
+        this.featureWeakMap = new WeakHashMap<Integer, Feature>();
+        this.variableParameterValueWeakMap = new WeakHashMap<Integer, VariableParameterValue>();
+        this.complexWeakMap = new WeakHashMap<Integer, Complex>();
+        this.complexParticipantWeakMap = new WeakHashMap<Integer, ModelledEntity>();
+        this.complexFeatureWeakMap = new WeakHashMap<Integer, ModelledFeature>();
+    }
+
     @Override
     public void registerAvailability(int id, AbstractAvailability object) {
         this.mapOfReferencedAvailabilities.put(id, object);
@@ -156,13 +201,12 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
             return this.experimentWeakMap.get(id);
         }
 
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        if (!this.experimentPositions.containsKey(location)){
+        if (!this.experimentPositions.containsPosition(this.numberOfEntries, id)){
             return null;
         }
         else {
             try {
-                return loadFromFile(this.experimentPositions.get(location));
+                return loadFromFile(this.experimentPositions.getPosition(this.numberOfEntries, id));
             } catch (IOException e) {
                 logger.log(Level.SEVERE, "cannot reload experiment "+id, e);
                 throw new MIIOException("cannot reload experiment "+id, e);
@@ -187,13 +231,12 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
             return this.interactionWeakMap.get(id);
         }
 
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        if (!this.interactionPositions.containsKey(location)){
+        if (!this.interactionPositions.containsPosition(this.numberOfEntries, id)){
             return null;
         }
         else {
             try {
-                return loadFromFile(this.interactionPositions.get(location));
+                return loadFromFile(this.interactionPositions.getPosition(this.numberOfEntries, id));
             } catch (IOException e) {
                 logger.log(Level.SEVERE, "cannot reload interaction "+id, e);
                 throw new MIIOException("cannot reload interaction "+id, e);
@@ -218,13 +261,12 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
             return this.interactorWeakMap.get(id);
         }
 
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        if (!this.interactorPositions.containsKey(location)){
+        if (!this.interactorPositions.containsPosition(this.numberOfEntries, id)){
             return null;
         }
         else {
             try {
-                AbstractXmlInteractor interactor = loadFromFile(this.interactorPositions.get(location));
+                AbstractXmlInteractor interactor = loadFromFile(this.interactorPositions.getPosition(this.numberOfEntries, id));
                 return XmlEntryContext.getInstance().getInteractorFactory().createInteractorFromXmlInteractorInstance(interactor);
             } catch (IOException e) {
                 logger.log(Level.SEVERE, "cannot reload interactor "+id, e);
@@ -250,13 +292,12 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
             return this.participantWeakMap.get(id);
         }
 
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        if (!this.participantPositions.containsKey(location)){
+        if (!this.participantPositions.containsPosition(this.numberOfEntries, id)){
             return null;
         }
         else {
             try {
-                Interaction originalInteraction = loadFromFile(this.participantPositions.get(location));
+                Interaction originalInteraction = loadFromFile(this.participantPositions.getPosition(this.numberOfEntries, id));
                 if (originalInteraction == null){
                     logger.log(Level.SEVERE, "cannot reload participant "+id);
                 }
@@ -305,13 +346,12 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
             return this.featureWeakMap.get(id);
         }
 
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        if (!this.featurePositions.containsKey(location)){
+        if (!this.featurePositions.containsPosition(this.numberOfEntries, id)){
             return null;
         }
         else {
             try {
-                Interaction originalInteraction = loadFromFile(this.featurePositions.get(location));
+                Interaction originalInteraction = loadFromFile(this.featurePositions.getPosition(this.numberOfEntries, id));
                 if (originalInteraction == null){
                     logger.log(Level.SEVERE, "cannot reload feature "+id);
                 }
@@ -366,13 +406,12 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
             return this.complexParticipantWeakMap.get(id);
         }
 
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        if (!this.complexParticipantPositions.containsKey(location)){
+        if (!this.complexParticipantPositions.containsPosition(this.numberOfEntries, id)){
             return null;
         }
         else {
             try {
-                Interaction originalInteraction = loadFromFile(this.complexParticipantPositions.get(location));
+                Interaction originalInteraction = loadFromFile(this.complexParticipantPositions.getPosition(this.numberOfEntries, id));
                 Complex originalComplex = reloadOriginalComplex(originalInteraction);
                 if (originalComplex == null){
                     logger.log(Level.SEVERE, "cannot reload complex participant "+id);
@@ -443,13 +482,12 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
             return this.complexFeatureWeakMap.get(id);
         }
 
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        if (!this.complexFeaturePositions.containsKey(location)){
+        if (!this.complexFeaturePositions.containsPosition(this.numberOfEntries, id)){
             return null;
         }
         else {
             try {
-                Interaction originalInteraction = loadFromFile(this.complexParticipantPositions.get(location));
+                Interaction originalInteraction = loadFromFile(this.complexParticipantPositions.getPosition(this.numberOfEntries, id));
                 Complex originalComplex = reloadOriginalComplex(originalInteraction);
                 if (originalComplex == null){
                     logger.log(Level.SEVERE, "cannot reload complex feature "+id);
@@ -505,13 +543,12 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
             return this.complexWeakMap.get(id);
         }
 
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        if (!this.complexPositions.containsKey(location)){
+        if (!this.complexPositions.containsPosition(this.numberOfEntries, id)){
             return null;
         }
         else {
             try {
-                Interaction originalInteraction = loadFromFile(this.complexPositions.get(location));
+                Interaction originalInteraction = loadFromFile(this.complexPositions.getPosition(this.numberOfEntries, id));
                 if (originalInteraction == null){
                     logger.log(Level.SEVERE, "cannot reload complex "+id);
                 }
@@ -560,13 +597,12 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
             return this.variableParameterValueWeakMap.get(id);
         }
 
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        if (!this.variableParameterValuePositions.containsKey(location)){
+        if (!this.variableParameterValuePositions.containsPosition(this.numberOfEntries, id)){
             return null;
         }
         else {
             try {
-                Experiment originalExperiment = loadFromFile(this.variableParameterValuePositions.get(location));
+                Experiment originalExperiment = loadFromFile(this.variableParameterValuePositions.getPosition(this.numberOfEntries, id));
                 if (originalExperiment == null){
                     logger.log(Level.SEVERE, "cannot reload variable parameter value "+id);
                 }
@@ -620,15 +656,18 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
         clear();
 
         this.numberOfEntries = 1;
-        this.experimentPositions.clear();
-        this.interactorPositions.clear();
-        this.interactionPositions.clear();
-        this.complexPositions.clear();
-        this.participantPositions.clear();
-        this.featurePositions.clear();
-        this.variableParameterValuePositions.clear();
-        this.complexParticipantPositions.clear();
-        this.complexFeaturePositions.clear();
+        // the positions are cleared by the cache which has indexed the file
+        if (!this.isSharingPositions){
+            this.experimentPositions.clear();
+            this.interactorPositions.clear();
+            this.interactionPositions.clear();
+            this.complexPositions.clear();
+            this.participantPositions.clear();
+            this.featurePositions.clear();
+            this.variableParameterValuePositions.clear();
+            this.complexParticipantPositions.clear();
+            this.complexFeaturePositions.clear();
+        }
         this.encoding = null;
 
         try {
@@ -640,8 +679,7 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
 
     @Override
     public boolean containsExperiment(int id) {
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        return this.experimentWeakMap.containsKey(id) || this.experimentPositions.containsKey(location);
+        return this.experimentWeakMap.containsKey(id) || this.experimentPositions.containsPosition(this.numberOfEntries, id);
     }
 
     @Override
@@ -651,46 +689,38 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
 
     @Override
     public boolean containsInteraction(int id) {
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        return this.interactionWeakMap.containsKey(id) || this.interactionPositions.containsKey(location);
+        return this.interactionWeakMap.containsKey(id) || this.interactionPositions.containsPosition(this.numberOfEntries, id);
     }
 
     @Override
     public boolean containsInteractor(int id) {
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        return this.interactorWeakMap.containsKey(id) || this.interactorPositions.containsKey(location);    }
+        return this.interactorWeakMap.containsKey(id) || this.interactorPositions.containsPosition(this.numberOfEntries, id);    }
 
     @Override
     public boolean containsParticipant(int id) {
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        return this.participantWeakMap.containsKey(id) || this.participantPositions.containsKey(location);    }
+        return this.participantWeakMap.containsKey(id) || this.participantPositions.containsPosition(this.numberOfEntries, id);    }
 
     @Override
     public boolean containsFeature(int id) {
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        return this.featureWeakMap.containsKey(id) || this.featurePositions.containsKey(location);    }
+        return this.featureWeakMap.containsKey(id) || this.featurePositions.containsPosition(this.numberOfEntries, id);    }
 
     @Override
     public boolean containsVariableParameter(int id) {
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        return this.variableParameterValueWeakMap.containsKey(id) || this.variableParameterValuePositions.containsKey(location);    }
+        return this.variableParameterValueWeakMap.containsKey(id) || this.variableParameterValuePositions.containsPosition(this.numberOfEntries, id);    }
 
     @Override
     public boolean containsComplex(int id) {
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        return this.complexWeakMap.containsKey(id) || this.complexPositions.containsKey(location);
+        return this.complexWeakMap.containsKey(id) || this.complexPositions.containsPosition(this.numberOfEntries, id);
     }
 
     @Override
     public boolean containsComplexParticipant(int id) {
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        return this.complexParticipantWeakMap.containsKey(id) || this.complexParticipantPositions.containsKey(location);
+        return this.complexParticipantWeakMap.containsKey(id) || this.complexParticipantPositions.containsPosition(this.numberOfEntries, id);
     }
 
     @Override
     public boolean containsComplexFeature(int id) {
-        EntryLocation location = new EntryLocation(this.numberOfEntries, id);
-        return this.complexFeatureWeakMap.containsKey(id) || this.complexFeaturePositions.containsKey(location);
+        return this.complexFeatureWeakMap.containsKey(id) || this.complexFeaturePositions.containsPosition(this.numberOfEntries, id);
     }
 
     @Override
@@ -717,9 +747,49 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
         return null;
     }
 
+    /**
+     *
+     * @param entry : the entry number, starting from 1
+     * @param id : the interaction id
+     * @return the position of the interaction in the file or PsiXmlPositionMap.NO_POSITION if it has not been indexed
+     */
+    public long getInteractionPosition(int entry, int id){
+        return this.interactionPositions.getPosition(entry, id);
+    }
+
+    /**
+     *
+     * @return the number of the entry used to look up the positions, starting from 1
+     */
+    protected int getCurrentEntry() {
+        return numberOfEntries;
+    }
+
+    /**
+     * Sets the number of the entry used to look up the positions
+     * @param entry : the entry number, starting from 1
+     */
+    protected void setCurrentEntry(int entry) {
+        this.numberOfEntries = entry;
+    }
+
     private <T extends Object> T loadFromFile(long id) throws IOException, JAXBException, XMLStreamException {
+        return loadFromFile(id, 1, 1);
+    }
 
-        InputStream in = new NonCloseableInputStreamWrapper(Channels.newInputStream(this.randomAccessFile.getChannel().position(id)));
+    /**
+     * Unmarshals the element starting at the given position of the file
+     * @param position : the position of the element
+     * @param lineNumber : the line number of the element in the file, used to locate the unmarshalled objects
+     * @param columnNumber : the column number of the element in the file
+     * @return the unmarshalled object
+     * @throws IOException
+     * @throws JAXBException
+     * @throws XMLStreamException
+     */
+    protected <T extends Object> T loadFromFile(long position, int lineNumber, int columnNumber) throws IOException, JAXBException, XMLStreamException {
+
+        InputStream in = new NonCloseableInputStreamWrapper(Channels.newInputStream(this.randomAccessFile.getChannel().position(position)));
         T obj = null;
         XMLStreamReader reader = null;
         try{
@@ -729,7 +799,7 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
             reader = xmlif.createXMLStreamReader(in, this.encoding);
 
             //Create the filter (to add namespace) and set the xmlReader as its parent.
-            XmlReaderWithDefaultNamespace filteredReader = new XmlReaderWithDefaultNamespace(reader, this.namespaceUri);
+            XmlReaderWithDefaultNamespace filteredReader = new XmlReaderWithDefaultNamespace(reader, this.namespaceUri, lineNumber, columnNumber);
 
             obj = (T)this.unmarshaller.unmarshal(filteredReader);
         }
@@ -741,239 +811,64 @@ public class PsiXmlFileIndexCache implements PsiXmlIdCache {
         return obj;
     }
 
+    /**
+     * Creates the map storing the positions of one type of element.
+     * It is called by the constructor before indexing the file and can be overridden to change the way positions are stored.
+     * @return a new position map
+     */
+    protected PsiXmlPositionMap createPositionMap(){
+        return new HashPsiXmlPositionMap();
+    }
+
     /**
      * Indexes references component of the given file. that is experiments, interaction, interactor, feature and
      * participant so that we know where they are in the file and we can jump in the right position should we want to
      * extract one of them.
      *
      * @param f the file to index.
-     * @return a PsimiXmlFileIndex that stores the mapping between object ids and their position.
      * @throws IOException
      */
     public void buildPositionIndex( File f ) throws IOException {
+        this.positionScanner.scan(f, new PositionIndexListener());
+    }
 
-        long start = System.currentTimeMillis();
-        long length = f.length();
-        logger.info( "length = " + length );
-
-        CountingInputStream fis = null;
-        StringBuilder sb = new StringBuilder( 100 );
-        try{
-            fis = new CountingInputStream(new BufferedInputStream(new FileInputStream( f )));
-
-            long startPos = 0;
-            char read = ' ';
-            boolean recording = false;
-            byte[] buf = new byte[1];
-
-            int currentId = -1;
-            long currentExperimentPost = 0;
-            long currentInteractionPos = 0;
-            int currentEntry=0;
-            boolean hasReadEncoding = false;
-
-            while ( -1 != nextByte(fis, buf)) {
-                read = (char)(buf[0] & 0xFF);
-
-                if ( recording ) {
-                    if ( !isAlphabeticalChar( read ) ) {
-                        if ( read == '/' ) {
-
-                            // search for '>' and that's our position
-                            while ( -1 != nextByte(fis, buf) ) {
-                                read = (char)(buf[0] & 0xFF);
-                                if ( read == '>') {
-                                    break;
-                                }
-                            }
-
-                            // it was a closing tag (<abc/> or </abc> ... problem will occur with <abc />)
-                            recording = false;
-
-                        }
-                        else if ( read == '?' && !hasReadEncoding) {
-
-                            // search for '>' and that's our position
-                            while ( -1 != nextByte(fis, buf) ) {
-                                read = (char)(buf[0] & 0xFF);
-                                // add alphabetical char
-                                sb.append( new String(buf) );
-                                if ( read == '>') {
-                                    break;
-                                }
-                            }
-
-                            // it was a closing tag (<abc/> or </abc> ... problem will occur with <abc />)
-                            recording = false;
-                            hasReadEncoding = true;
-                            // check what start tag it is
-                            String line = sb.toString();
-                            if (line.contains("encoding=")){
-                                int indexOfEncoding = line.indexOf("encoding=\"");
-                                String truncatedLine = line.substring(indexOfEncoding+10);
-                                int indexOfEndEncoding = truncatedLine.indexOf("\"");
-                                this.encoding = truncatedLine.substring(0, indexOfEndEncoding);
-                            }
-                        }
-                        else if ( read == '!' ) {
-
-                            // This is the beginning of a comments.
-                            // Now fast forward until the end of the comment: '-->'
-                            recording = false;
-
-                            byte c1 = ' ',
-                                    c2 = ' ',
-                                    c3 = ' ';
-                            logger.fine("Skiping comment");
-                            while ( -1 != nextByte(fis, buf) ) {
-                                c1 = c2;
-                                c2 = c3;
-                                c3 = buf[0];
-
-                                if ( c1 == '-' && c2 == '-' && c3 == '>' ) {
-                                    // found it
-                                    logger.fine("End of comment");
-                                    break;
-                                }
-                            }
-
-                        } else {
-                            // check what start tag it is
-                            String line = sb.toString();
-
-                            if ( "entry".equalsIgnoreCase( line ) ) {
-
-                                currentEntry++;
-
-                            } else if ( "experimentDescription".equalsIgnoreCase( line ) ) {
-
-                                int result = getId( fis, buf );
-                                currentId = result;
-                                currentExperimentPost = startPos;
-
-                                this.experimentPositions.put(new EntryLocation(currentEntry, currentId), startPos);
-
-                            } else if ( "interactor".equalsIgnoreCase( line ) ) {
-
-                                int result = getId( fis, buf );
-                                currentId = result;
-
-                                this.interactorPositions.put(new EntryLocation(currentEntry, currentId), startPos);
-
-                            } else if ( "interaction".equalsIgnoreCase( line ) ) {
-
-                                int result = getId( fis, buf );
-                                currentId = result;
-                                currentInteractionPos = startPos;
-
-                                this.interactionPositions.put(new EntryLocation(currentEntry, currentId), startPos);
-
-                            }
-                            else if ( "abstractInteraction".equalsIgnoreCase( line ) ) {
-
-                                int result = getId( fis,buf );
-                                currentId = result;
-                                currentInteractionPos = startPos;
-                                EntryLocation location = new EntryLocation(currentEntry, currentId);
-                                this.complexPositions.put(location, startPos);
-                                this.interactionPositions.put(location, startPos);
-
-                            }else if ( "participant".equalsIgnoreCase( line ) ) {
-
-                                int result = getId( fis, buf );
-                                currentId = result;
-
-                                this.participantPositions.put(new EntryLocation(currentEntry, currentId), currentInteractionPos);
-
-                            } else if ( "feature".equalsIgnoreCase( line ) ) {
-
-                                int result = getId( fis, buf );
-                                currentId = result;
-                                currentInteractionPos = startPos;
-
-                                this.featurePositions.put(new EntryLocation(currentEntry, currentId), currentInteractionPos);
-                            }
-                            else if ( "variableValue".equalsIgnoreCase( line ) ) {
-
-                                int result = getId( fis, buf );
-                                currentId = result;
-                                currentInteractionPos = startPos;
-
-                                this.variableParameterValuePositions.put(new EntryLocation(currentEntry, currentId), currentExperimentPost);
-                            }
-                            else if ( "interactorCandidate".equalsIgnoreCase( line ) ) {
-
-                                int result = getId( fis, buf );
-                                currentId = result;
-
-                                this.participantPositions.put(new EntryLocation(currentEntry, currentId), currentInteractionPos);
-
-                            }
-
-                            recording = false;
-                        }
-                    } else {
-                        // add alphabetical char
-                        sb.append( new String(buf) );
-                    }
-                }
-
-                if ( read == '<' ) {
-                    // start recording
-                    startPos = fis.getByteCount() -1; // we want the '<' included
-                    recording = true;
-                    sb.setLength(0);
-                }
-
-            } // while can read
-
-            long stop = System.currentTimeMillis();
+    /**
+     * Listener filling the position maps of this cache
+     */
+    private class PositionIndexListener implements PsiXmlPositionIndexListener {
 
-            logger.info( "Time elapsed: " + ( stop - start ) + "ms" );
+        public void onEncoding(String encoding) {
+            PsiXmlFileIndexCache.this.encoding = encoding;
         }
-        finally {
 
-            if (fis != null){
-                fis.close();
-            }
+        public void onExperiment(int entry, int id, long position) {
+            experimentPositions.putPosition(entry, id, position);
         }
-    }
-
-    private int getId( CountingInputStream r, byte[] buf) throws IOException {
 
-        int id = -1;
-
-        StringBuilder sb = new StringBuilder( 20 );
-        while ( -1 != nextByte(r, buf) ) {
+        public void onInteractor(int entry, int id, long position) {
+            interactorPositions.putPosition(entry, id, position);
+        }
 
-            char read = (char)(buf[0] & 0xFF);
-            if ( read == '>' ) {
-                // completed the tag, extract the id
-                Matcher matcher = ID_PATTERN.matcher( sb.toString() );
-                if ( matcher.matches() ) {
-                    String strId = matcher.group( 1 );
-                    id = Integer.parseInt( strId );
-                }
+        public void onInteraction(int entry, int id, long position) {
+            interactionPositions.putPosition(entry, id, position);
+        }
 
-                break; // stop here
-            } else {
-                sb.append( new String(buf) );
-            }
+        public void onAbstractInteraction(int entry, int id, long position) {
+            complexPositions.putPosition(entry, id, position);
+            interactionPositions.putPosition(entry, id, position);
         }
 
-        return id;
-    }
+        public void onParticipant(int entry, int id, long position) {
+            participantPositions.putPosition(entry, id, position);
+        }
 
-    private boolean isAlphabeticalChar( char c ) {
-        return ( ( c >= 'a' && c <= 'z' ) || ( ( c >= 'A' && c <= 'Z' ) ) );
-    }
+        public void onFeature(int entry, int id, long position) {
+            featurePositions.putPosition(entry, id, position);
+        }
 
-    private static int nextByte(CountingInputStream cis, byte[] buf) throws IOException {
-        int result = cis.read(buf);
-        while (result != -1 && buf[0] == 0 ){
-            result = cis.read(buf);
+        public void onVariableParameterValue(int entry, int id, long position) {
+            variableParameterValuePositions.putPosition(entry, id, position);
         }
-        return result;
     }
 
 }
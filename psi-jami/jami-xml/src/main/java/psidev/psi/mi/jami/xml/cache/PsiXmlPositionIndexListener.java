@@ -0,0 +1,77 @@
+package psidev.psi.mi.jami.xml.cache;
+
+/**
+ * Listener notified by a PsiXmlPositionScanner each time it finds an element which can be referenced in a PSI-XML file.
+ *
+ * The position given to each method is the position of the element which will have to be re-loaded from the file
+ * to get the object back (for a participant, it is the position of the parent interaction).
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public interface PsiXmlPositionIndexListener {
+
+    /**
+     * Called when the encoding is declared in the xml prolog
+     * @param encoding
+     */
+    public void onEncoding(String encoding);
+
+    /**
+     * Called when an experimentDescription is found
+     * @param entry : the entry number, starting from 1
+     * @param id : the experiment id
+     * @param position : the position of the experimentDescription
+     */
+    public void onExperiment(int entry, int id, long position);
+
+    /**
+     * Called when an interactor is found
+     * @param entry : the entry number, starting from 1
+     * @param id : the interactor id
+     * @param position : the position of the interactor
+     */
+    public void onInteractor(int entry, int id, long position);
+
+    /**
+     * Called when an interaction is found
+     * @param entry : the entry number, starting from 1
+     * @param id : the interaction id
+     * @param position : the position of the interaction
+     */
+    public void onInteraction(int entry, int id, long position);
+
+    /**
+     * Called when an abstractInteraction is found
+     * @param entry : the entry number, starting from 1
+     * @param id : the abstract interaction id
+     * @param position : the position of the abstractInteraction
+     */
+    public void onAbstractInteraction(int entry, int id, long position);
+
+    /**
+     * Called when a participant or an interactorCandidate is found
+     * @param entry : the entry number, starting from 1
+     * @param id : the participant id
+     * @param position : the position of the interaction to reload
+     */
+    public void onParticipant(int entry, int id, long position);
+
+    /**
+     * Called when a feature is found
+     * @param entry : the entry number, starting from 1
+     * @param id : the feature id
+     * @param position : the position to reload
+     */
+    public void onFeature(int entry, int id, long position);
+
+    /**
+     * Called when a variableValue is found
+     * @param entry : the entry number, starting from 1
+     * @param id : the variable parameter value id
+     * @param position : the position of the experiment to reload
+     */
+    public void onVariableParameterValue(int entry, int id, long position);
+}
@@ -0,0 +1,52 @@
+package psidev.psi.mi.jami.xml.cache;
+
+/**
+ * Map storing the position in a PSI-XML file of elements identified by an entry number and an id
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public interface PsiXmlPositionMap {
+
+    /**
+     * Value returned by getPosition when no position is registered
+     */
+    public static final long NO_POSITION = -1;
+
+    /**
+     * Registers the position of an element
+     * @param entry : the entry number
+     * @param id : the element id
+     * @param position : the position in the file, must be positive
+     */
+    public void putPosition(int entry, int id, long position);
+
+    /**
+     *
+     * @param entry : the entry number
+     * @param id : the element id
+     * @return the position of the element or NO_POSITION if it is not registered
+     */
+    public long getPosition(int entry, int id);
+
+    /**
+     *
+     * @param entry : the entry number
+     * @param id : the element id
+     * @return true if a position is registered for this element
+     */
+    public boolean containsPosition(int entry, int id);
+
+    /**
+     *
+     * @return the number of registered positions
+     */
+    public int size();
+
+    /**
+     * Removes all the registered positions
+     */
+    public void clear();
+}
@@ -0,0 +1,24 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Scanner which reads a PSI-XML file and reports the position of each element which can be referenced
+ * (experiments, interactors, interactions, participants, features, ...).
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public interface PsiXmlPositionScanner {
+
+    /**
+     * Scans the given file and notifies the listener of each element found
+     * @param file : the PSI-XML file to scan
+     * @param listener : the listener to notify
+     * @throws IOException
+     */
+    public void scan(File file, PsiXmlPositionIndexListener listener) throws IOException;
+}
@@ -0,0 +1,419 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Position scanner which persists the position index of a PSI-XML file in a binary sidecar file
+ * (same path as the PSI-XML file with the extension .jidx) so it can be reused by later parser runs.
+ *
+ * When a valid sidecar file exists, it is memory mapped and replayed instead of scanning the PSI-XML file.
+ * The sidecar file is valid if the size, the last modification time and the checksum of the PSI-XML file did not change
+ * and if the checksum of the recorded positions is correct.
+ * Otherwise, the PSI-XML file is scanned with the delegate scanner and a new sidecar file is written.
+ * If the sidecar file cannot be written (read-only directory, ...), the file is just scanned.
+ *
+ * Sidecar format (big endian) :
+ * - a header of 128 bytes : magic number (int), format version (int), PSI-XML file length (long), PSI-XML file last modification (long),
+ * PSI-XML file checksum (long), number of records (long), records checksum (long), encoding length (short, -1 if no encoding)
+ * and encoding (ASCII, max 64 bytes)
+ * - the records, 17 bytes each : element type (byte), entry (int), id (int), position (long)
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SidecarPsiXmlPositionScanner implements PsiXmlPositionScanner {
+
+    private static final Logger logger = Logger.getLogger("SidecarPsiXmlPositionScanner");
+
+    public static final String SIDECAR_EXTENSION = ".jidx";
+
+    private static final int MAGIC_NUMBER = 0x4A584958;
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 128;
+    private static final int MAX_ENCODING_LENGTH = 64;
+    private static final int RECORD_SIZE = 17;
+    /**
+     * Size of the chunks of the PSI-XML file read to compute its checksum
+     */
+    private static final int CHECKSUM_BUFFER_SIZE = 1024 * 1024;
+    /**
+     * Number of records mapped at once when loading the sidecar
+     */
+    private static final int RECORDS_PER_REGION = 4 * 1024 * 1024;
+
+    private static final byte EXPERIMENT = 1;
+    private static final byte INTERACTOR = 2;
+    private static final byte INTERACTION = 3;
+    private static final byte ABSTRACT_INTERACTION = 4;
+    private static final byte PARTICIPANT = 5;
+    private static final byte FEATURE = 6;
+    private static final byte VARIABLE_PARAMETER_VALUE = 7;
+
+    private PsiXmlPositionScanner delegate;
+
+    public SidecarPsiXmlPositionScanner(){
+        this(new MappedPsiXmlPositionScanner());
+    }
+
+    /**
+     *
+     * @param delegate : the scanner used when there is no valid sidecar file
+     */
+    public SidecarPsiXmlPositionScanner(PsiXmlPositionScanner delegate){
+        if (delegate == null){
+            throw new IllegalArgumentException("The delegate position scanner cannot be null");
+        }
+        this.delegate = delegate;
+    }
+
+    public void scan(File file, PsiXmlPositionIndexListener listener) throws IOException {
+        if (file == null){
+            throw new IllegalArgumentException("The file to scan cannot be null");
+        }
+        if (listener == null){
+            throw new IllegalArgumentException("The position index listener cannot be null");
+        }
+
+        File sidecar = getSidecarFile(file);
+        long sourceChecksum = computeSourceChecksum(file);
+        if (sidecar.exists()){
+            try {
+                if (load(file, sourceChecksum, sidecar, listener)){
+                    return;
+                }
+                logger.info("The sidecar index "+sidecar.getAbsolutePath()+" is outdated and will be rebuilt.");
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Cannot read the sidecar index "+sidecar.getAbsolutePath()+", it will be rebuilt.", e);
+            }
+        }
+
+        RecordingListener recorder = null;
+        File tempSidecar = null;
+        try {
+            tempSidecar = File.createTempFile(sidecar.getName(), ".tmp", sidecar.getAbsoluteFile().getParentFile());
+            recorder = new RecordingListener(tempSidecar, listener);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Cannot write the sidecar index "+sidecar.getAbsolutePath()+", the file will be scanned without saving the index.", e);
+            if (tempSidecar != null){
+                tempSidecar.delete();
+            }
+        }
+
+        if (recorder == null){
+            this.delegate.scan(file, listener);
+        }
+        else{
+            boolean saved = false;
+            try{
+                this.delegate.scan(file, recorder);
+                recorder.close(file.length(), file.lastModified(), sourceChecksum);
+                saved = tempSidecar.renameTo(sidecar) || (sidecar.delete() && tempSidecar.renameTo(sidecar));
+                if (!saved){
+                    logger.warning("Cannot rename the sidecar index "+tempSidecar.getAbsolutePath()+" to "+sidecar.getAbsolutePath());
+                }
+            }
+            catch (IOException e){
+                if (recorder.hasFailed()){
+                    logger.log(Level.WARNING, "Cannot write the sidecar index "+sidecar.getAbsolutePath(), e);
+                }
+                else{
+                    throw e;
+                }
+            }
+            finally {
+                recorder.closeQuietly();
+                if (!saved){
+                    tempSidecar.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     *
+     * @param file : the PSI-XML file
+     * @return the sidecar file for this PSI-XML file
+     */
+    public static File getSidecarFile(File file){
+        return new File(file.getAbsolutePath() + SIDECAR_EXTENSION);
+    }
+
+    private boolean load(File file, long sourceChecksum, File sidecar, PsiXmlPositionIndexListener listener) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(sidecar, "r");
+        try{
+            FileChannel channel = randomAccessFile.getChannel();
+            long sidecarLength = channel.size();
+            if (sidecarLength < HEADER_SIZE){
+                return false;
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC_NUMBER || header.getInt() != FORMAT_VERSION
+                    || header.getLong() != file.length()
+                    || header.getLong() != file.lastModified()
+                    || header.getLong() != sourceChecksum){
+                return false;
+            }
+            long numberOfRecords = header.getLong();
+            long recordsChecksum = header.getLong();
+            if (numberOfRecords < 0 || sidecarLength != HEADER_SIZE + numberOfRecords * RECORD_SIZE){
+                return false;
+            }
+            short encodingLength = header.getShort();
+            String encoding = null;
+            if (encodingLength > MAX_ENCODING_LENGTH){
+                return false;
+            }
+            else if (encodingLength >= 0){
+                byte[] encodingBytes = new byte[encodingLength];
+                header.get(encodingBytes);
+                encoding = new String(encodingBytes, "US-ASCII");
+            }
+
+            // first check the records before notifying the listener so a corrupted sidecar never notifies
+            // positions which would be notified again when the file is scanned
+            CRC32 crc = new CRC32();
+            byte[] chunk = new byte[64 * 1024];
+            long position = HEADER_SIZE;
+            while (position < sidecarLength){
+                long regionSize = Math.min((long)RECORDS_PER_REGION * RECORD_SIZE, sidecarLength - position);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+                for (int recordStart = 0; recordStart < regionSize; recordStart += RECORD_SIZE){
+                    if (!isValidRecordType(region.get(recordStart))){
+                        return false;
+                    }
+                }
+                while (region.hasRemaining()){
+                    int length = Math.min(chunk.length, region.remaining());
+                    region.get(chunk, 0, length);
+                    crc.update(chunk, 0, length);
+                }
+                position += regionSize;
+            }
+            if (crc.getValue() != recordsChecksum){
+                return false;
+            }
+
+            if (encoding != null){
+                listener.onEncoding(encoding);
+            }
+            position = HEADER_SIZE;
+            while (position < sidecarLength){
+                long regionSize = Math.min((long)RECORDS_PER_REGION * RECORD_SIZE, sidecarLength - position);
+                replay(channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize), listener);
+                position += regionSize;
+            }
+            return true;
+        }
+        finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private void replay(ByteBuffer records, PsiXmlPositionIndexListener listener) throws IOException {
+        while (records.hasRemaining()){
+            byte type = records.get();
+            int entry = records.getInt();
+            int id = records.getInt();
+            long position = records.getLong();
+            switch (type){
+                case EXPERIMENT:
+                    listener.onExperiment(entry, id, position);
+                    break;
+                case INTERACTOR:
+                    listener.onInteractor(entry, id, position);
+                    break;
+                case INTERACTION:
+                    listener.onInteraction(entry, id, position);
+                    break;
+                case ABSTRACT_INTERACTION:
+                    listener.onAbstractInteraction(entry, id, position);
+                    break;
+                case PARTICIPANT:
+                    listener.onParticipant(entry, id, position);
+                    break;
+                case FEATURE:
+                    listener.onFeature(entry, id, position);
+                    break;
+                case VARIABLE_PARAMETER_VALUE:
+                    listener.onVariableParameterValue(entry, id, position);
+                    break;
+                default:
+                    throw new IOException("Unknown record type "+type+" in sidecar index");
+            }
+        }
+    }
+
+    private static boolean isValidRecordType(byte type){
+        return type >= EXPERIMENT && type <= VARIABLE_PARAMETER_VALUE;
+    }
+
+    /**
+     * Computes the checksum of the all file so any modification which keeps the size and the last modification time
+     * is detected. Reading the file is still much faster than scanning it again.
+     * @param file
+     * @return the checksum
+     * @throws IOException
+     */
+    private long computeSourceChecksum(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        InputStream stream = new FileInputStream(file);
+        try{
+            byte[] chunk = new byte[CHECKSUM_BUFFER_SIZE];
+            int length;
+            while ((length = stream.read(chunk)) != -1){
+                crc.update(chunk, 0, length);
+            }
+        }
+        finally {
+            stream.close();
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Listener which writes all the positions in the sidecar file and notifies the original listener
+     */
+    private static class RecordingListener implements PsiXmlPositionIndexListener {
+
+        private File sidecar;
+        private PsiXmlPositionIndexListener listener;
+        private CRC32 crc;
+        private DataOutputStream output;
+        private long numberOfRecords;
+        private String encoding;
+        private boolean failed = false;
+
+        private RecordingListener(File sidecar, PsiXmlPositionIndexListener listener) throws IOException {
+            this.sidecar = sidecar;
+            this.listener = listener;
+            this.crc = new CRC32();
+            OutputStream stream = new BufferedOutputStream(new FileOutputStream(sidecar), 1024 * 1024);
+            // placeholder for the header, written when closing
+            stream.write(new byte[HEADER_SIZE]);
+            this.output = new DataOutputStream(new CheckedOutputStream(stream, this.crc));
+        }
+
+        public void onEncoding(String encoding) {
+            this.encoding = encoding;
+            this.listener.onEncoding(encoding);
+        }
+
+        public void onExperiment(int entry, int id, long position) {
+            record(EXPERIMENT, entry, id, position);
+            this.listener.onExperiment(entry, id, position);
+        }
+
+        public void onInteractor(int entry, int id, long position) {
+            record(INTERACTOR, entry, id, position);
+            this.listener.onInteractor(entry, id, position);
+        }
+
+        public void onInteraction(int entry, int id, long position) {
+            record(INTERACTION, entry, id, position);
+            this.listener.onInteraction(entry, id, position);
+        }
+
+        public void onAbstractInteraction(int entry, int id, long position) {
+            record(ABSTRACT_INTERACTION, entry, id, position);
+            this.listener.onAbstractInteraction(entry, id, position);
+        }
+
+        public void onParticipant(int entry, int id, long position) {
+            record(PARTICIPANT, entry, id, position);
+            this.listener.onParticipant(entry, id, position);
+        }
+
+        public void onFeature(int entry, int id, long position) {
+            record(FEATURE, entry, id, position);
+            this.listener.onFeature(entry, id, position);
+        }
+
+        public void onVariableParameterValue(int entry, int id, long position) {
+            record(VARIABLE_PARAMETER_VALUE, entry, id, position);
+            this.listener.onVariableParameterValue(entry, id, position);
+        }
+
+        private void record(byte type, int entry, int id, long position){
+            if (this.failed){
+                return;
+            }
+            try {
+                this.output.writeByte(type);
+                this.output.writeInt(entry);
+                this.output.writeInt(id);
+                this.output.writeLong(position);
+                this.numberOfRecords++;
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Cannot write the sidecar index "+this.sidecar.getAbsolutePath(), e);
+                this.failed = true;
+            }
+        }
+
+        private boolean hasFailed(){
+            return this.failed;
+        }
+
+        /**
+         * Closes the records and writes the header
+         * @throws IOException if the sidecar could not be written
+         */
+        private void close(long sourceLength, long sourceLastModified, long sourceChecksum) throws IOException {
+            try{
+                if (this.failed){
+                    throw new IOException("Cannot write the sidecar index "+this.sidecar.getAbsolutePath());
+                }
+                byte[] encodingBytes = this.encoding != null ? this.encoding.getBytes("US-ASCII") : null;
+                if (encodingBytes != null && encodingBytes.length > MAX_ENCODING_LENGTH){
+                    throw new IOException("The encoding "+this.encoding+" is too long to be saved in the sidecar index");
+                }
+                this.output.close();
+                this.output = null;
+
+                RandomAccessFile headerFile = new RandomAccessFile(this.sidecar, "rw");
+                try{
+                    headerFile.writeInt(MAGIC_NUMBER);
+                    headerFile.writeInt(FORMAT_VERSION);
+                    headerFile.writeLong(sourceLength);
+                    headerFile.writeLong(sourceLastModified);
+                    headerFile.writeLong(sourceChecksum);
+                    headerFile.writeLong(this.numberOfRecords);
+                    headerFile.writeLong(this.crc.getValue());
+                    if (encodingBytes != null){
+                        headerFile.writeShort(encodingBytes.length);
+                        headerFile.write(encodingBytes);
+                    }
+                    else{
+                        headerFile.writeShort(-1);
+                    }
+                }
+                finally {
+                    headerFile.close();
+                }
+            }
+            catch (IOException e){
+                this.failed = true;
+                throw e;
+            }
+        }
+
+        private void closeQuietly(){
+            if (this.output != null){
+                try {
+                    this.output.close();
+                } catch (IOException e) {
+                    logger.log(Level.FINE, "Cannot close the sidecar index "+this.sidecar.getAbsolutePath(), e);
+                }
+                this.output = null;
+            }
+        }
+    }
+}
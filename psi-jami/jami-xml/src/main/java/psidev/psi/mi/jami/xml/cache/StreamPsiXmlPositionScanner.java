@@ -0,0 +1,262 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import org.apache.commons.io.input.CountingInputStream;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Position scanner which reads the file byte per byte through a CountingInputStream.
+ *
+ * It is the original scanner of the PsiXmlFileIndexCache and is kept as a reference implementation.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class StreamPsiXmlPositionScanner implements PsiXmlPositionScanner {
+
+    private static final Logger logger = Logger.getLogger("StreamPsiXmlPositionScanner");
+
+    /**
+     * Captures the identifier from a String looking like: id="1"
+     */
+    private static final Pattern ID_PATTERN = Pattern.compile( "id(?:\\s*)=(?:\\s*)\"(\\d*)\"", Pattern.CANON_EQ );
+
+    public void scan(File f, PsiXmlPositionIndexListener listener) throws IOException {
+        if (f == null){
+            throw new IllegalArgumentException("The file to scan cannot be null");
+        }
+        if (listener == null){
+            throw new IllegalArgumentException("The position index listener cannot be null");
+        }
+
+        long start = System.currentTimeMillis();
+        long length = f.length();
+        logger.info( "length = " + length );
+
+        CountingInputStream fis = null;
+        StringBuilder sb = new StringBuilder( 100 );
+        try{
+            fis = new CountingInputStream(new BufferedInputStream(new FileInputStream( f )));
+
+            long startPos = 0;
+            char read = ' ';
+            boolean recording = false;
+            byte[] buf = new byte[1];
+
+            int currentId = -1;
+            long currentExperimentPost = 0;
+            long currentInteractionPos = 0;
+            int currentEntry=0;
+            boolean hasReadEncoding = false;
+
+            while ( -1 != nextByte(fis, buf)) {
+                read = (char)(buf[0] & 0xFF);
+
+                if ( recording ) {
+                    if ( !isAlphabeticalChar( read ) ) {
+                        if ( read == '/' ) {
+
+                            // search for '>' and that's our position
+                            while ( -1 != nextByte(fis, buf) ) {
+                                read = (char)(buf[0] & 0xFF);
+                                if ( read == '>') {
+                                    break;
+                                }
+                            }
+
+                            // it was a closing tag (<abc/> or </abc> ... problem will occur with <abc />)
+                            recording = false;
+
+                        }
+                        else if ( read == '?' && !hasReadEncoding) {
+
+                            // search for '>' and that's our position
+                            while ( -1 != nextByte(fis, buf) ) {
+                                read = (char)(buf[0] & 0xFF);
+                                // add alphabetical char
+                                sb.append( new String(buf) );
+                                if ( read == '>') {
+                                    break;
+                                }
+                            }
+
+                            // it was a closing tag (<abc/> or </abc> ... problem will occur with <abc />)
+                            recording = false;
+                            hasReadEncoding = true;
+                            // check what start tag it is
+                            String line = sb.toString();
+                            if (line.contains("encoding=")){
+                                int indexOfEncoding = line.indexOf("encoding=\"");
+                                String truncatedLine = line.substring(indexOfEncoding+10);
+                                int indexOfEndEncoding = truncatedLine.indexOf("\"");
+                                listener.onEncoding(truncatedLine.substring(0, indexOfEndEncoding));
+                            }
+                        }
+                        else if ( read == '!' ) {
+
+                            // This is the beginning of a comments.
+                            // Now fast forward until the end of the comment: '-->'
+                            recording = false;
+
+                            byte c1 = ' ',
+                                    c2 = ' ',
+                                    c3 = ' ';
+                            logger.fine("Skiping comment");
+                            while ( -1 != nextByte(fis, buf) ) {
+                                c1 = c2;
+                                c2 = c3;
+                                c3 = buf[0];
+
+                                if ( c1 == '-' && c2 == '-' && c3 == '>' ) {
+                                    // found it
+                                    logger.fine("End of comment");
+                                    break;
+                                }
+                            }
+
+                        } else {
+                            // check what start tag it is
+                            String line = sb.toString();
+
+                            if ( "entry".equalsIgnoreCase( line ) ) {
+
+                                currentEntry++;
+
+                            } else if ( "experimentDescription".equalsIgnoreCase( line ) ) {
+
+                                int result = getId( fis, buf );
+                                currentId = result;
+                                currentExperimentPost = startPos;
+
+                                listener.onExperiment(currentEntry, currentId, startPos);
+
+                            } else if ( "interactor".equalsIgnoreCase( line ) ) {
+
+                                int result = getId( fis, buf );
+                                currentId = result;
+
+                                listener.onInteractor(currentEntry, currentId, startPos);
+
+                            } else if ( "interaction".equalsIgnoreCase( line ) ) {
+
+                                int result = getId( fis, buf );
+                                currentId = result;
+                                currentInteractionPos = startPos;
+
+                                listener.onInteraction(currentEntry, currentId, startPos);
+
+                            }
+                            else if ( "abstractInteraction".equalsIgnoreCase( line ) ) {
+
+                                int result = getId( fis,buf );
+                                currentId = result;
+                                currentInteractionPos = startPos;
+
+                                listener.onAbstractInteraction(currentEntry, currentId, startPos);
+
+                            }else if ( "participant".equalsIgnoreCase( line ) ) {
+
+                                int result = getId( fis, buf );
+                                currentId = result;
+
+                                listener.onParticipant(currentEntry, currentId, currentInteractionPos);
+
+                            } else if ( "feature".equalsIgnoreCase( line ) ) {
+
+                                int result = getId( fis, buf );
+                                currentId = result;
+                                currentInteractionPos = startPos;
+
+                                listener.onFeature(currentEntry, currentId, currentInteractionPos);
+                            }
+                            else if ( "variableValue".equalsIgnoreCase( line ) ) {
+
+                                int result = getId( fis, buf );
+                                currentId = result;
+                                currentInteractionPos = startPos;
+
+                                listener.onVariableParameterValue(currentEntry, currentId, currentExperimentPost);
+                            }
+                            else if ( "interactorCandidate".equalsIgnoreCase( line ) ) {
+
+                                int result = getId( fis, buf );
+                                currentId = result;
+
+                                listener.onParticipant(currentEntry, currentId, currentInteractionPos);
+
+                            }
+
+                            recording = false;
+                        }
+                    } else {
+                        // add alphabetical char
+                        sb.append( new String(buf) );
+                    }
+                }
+
+                if ( read == '<' ) {
+                    // start recording
+                    startPos = fis.getByteCount() -1; // we want the '<' included
+                    recording = true;
+                    sb.setLength(0);
+                }
+
+            } // while can read
+
+            long stop = System.currentTimeMillis();
+
+            logger.info( "Time elapsed: " + ( stop - start ) + "ms" );
+        }
+        finally {
+
+            if (fis != null){
+                fis.close();
+            }
+        }
+    }
+
+    private int getId( CountingInputStream r, byte[] buf) throws IOException {
+
+        int id = -1;
+
+        StringBuilder sb = new StringBuilder( 20 );
+        while ( -1 != nextByte(r, buf) ) {
+
+            char read = (char)(buf[0] & 0xFF);
+            if ( read == '>' ) {
+                // completed the tag, extract the id
+                Matcher matcher = ID_PATTERN.matcher( sb.toString() );
+                if ( matcher.matches() ) {
+                    String strId = matcher.group( 1 );
+                    id = Integer.parseInt( strId );
+                }
+
+                break; // stop here
+            } else {
+                sb.append( new String(buf) );
+            }
+        }
+
+        return id;
+    }
+
+    private boolean isAlphabeticalChar( char c ) {
+        return ( ( c >= 'a' && c <= 'z' ) || ( ( c >= 'A' && c <= 'Z' ) ) );
+    }
+
+    private static int nextByte(CountingInputStream cis, byte[] buf) throws IOException {
+        int result = cis.read(buf);
+        while (result != -1 && buf[0] == 0 ){
+            result = cis.read(buf);
+        }
+        return result;
+    }
+}
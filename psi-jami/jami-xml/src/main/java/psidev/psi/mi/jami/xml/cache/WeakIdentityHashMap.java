@@ -0,0 +1,126 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * Map comparing keys by identity and only keeping weak references to the keys.
+ *
+ * When a key is not referenced anymore outside this map, its mapping is removed the next time the map is accessed.
+ * Because keys are compared by identity, a key which has been garbage collected can never be looked up again
+ * so removing its mapping does not change the content of the map seen by the caller.
+ *
+ * The entrySet (and so keySet and values) is an unmodifiable snapshot of the live mappings.
+ * Null keys are not supported.
+ *
+ * This map is not thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class WeakIdentityHashMap<K, V> extends AbstractMap<K, V> {
+
+    private Map<IdentityWeakReference<K>, V> map;
+    private ReferenceQueue<K> queue;
+
+    public WeakIdentityHashMap(){
+        this.map = new HashMap<IdentityWeakReference<K>, V>();
+        this.queue = new ReferenceQueue<K>();
+    }
+
+    @Override
+    public V get(Object key) {
+        expungeStaleEntries();
+        return key != null ? this.map.get(new IdentityWeakReference<Object>(key, null)) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        expungeStaleEntries();
+        return key != null && this.map.containsKey(new IdentityWeakReference<Object>(key, null));
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (key == null){
+            throw new IllegalArgumentException("The key cannot be null");
+        }
+        expungeStaleEntries();
+        return this.map.put(new IdentityWeakReference<K>(key, this.queue), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        expungeStaleEntries();
+        return key != null ? this.map.remove(new IdentityWeakReference<Object>(key, null)) : null;
+    }
+
+    @Override
+    public int size() {
+        expungeStaleEntries();
+        return this.map.size();
+    }
+
+    @Override
+    public void clear() {
+        this.map.clear();
+        // the cleared references are not in the map anymore
+        while (this.queue.poll() != null){
+            // nothing to do
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        expungeStaleEntries();
+        Set<Entry<K, V>> entries = new LinkedHashSet<Entry<K, V>>(this.map.size());
+        for (Map.Entry<IdentityWeakReference<K>, V> entry : this.map.entrySet()){
+            K key = entry.getKey().get();
+            if (key != null){
+                entries.add(new AbstractMap.SimpleImmutableEntry<K, V>(key, entry.getValue()));
+            }
+        }
+        return Collections.unmodifiableSet(entries);
+    }
+
+    private void expungeStaleEntries(){
+        Object reference = this.queue.poll();
+        while (reference != null){
+            this.map.remove(reference);
+            reference = this.queue.poll();
+        }
+    }
+
+    /**
+     * Weak reference using the identity hashcode of its referent.
+     * Two references are equal if they are the same reference or if they refer to the same object.
+     */
+    private static class IdentityWeakReference<T> extends WeakReference<T> {
+        private final int hash;
+
+        private IdentityWeakReference(T referent, ReferenceQueue<? super T> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o){
+                return true;
+            }
+            if (!(o instanceof IdentityWeakReference)){
+                return false;
+            }
+            Object referent = get();
+            return referent != null && referent == ((IdentityWeakReference)o).get();
+        }
+    }
+}
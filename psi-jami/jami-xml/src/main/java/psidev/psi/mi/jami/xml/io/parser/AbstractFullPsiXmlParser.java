@@ -6,8 +6,9 @@ import psidev.psi.mi.jami.model.Interaction;
 import psidev.psi.mi.jami.xml.PsiXmlVersion;
 import psidev.psi.mi.jami.xml.XmlEntryContext;
 import psidev.psi.mi.jami.xml.cache.InMemoryPsiXmlCache;
-import psidev.psi.mi.jami.xml.cache.PsiXmlFileIndexCache;
+import psidev.psi.mi.jami.xml.cache.CompactPsiXmlFileIndexCache;
 import psidev.psi.mi.jami.xml.cache.PsiXmlIdCache;
+import psidev.psi.mi.jami.xml.cache.PsiXmlPositionScanner;
 import psidev.psi.mi.jami.xml.exception.PsiXmlParserException;
 import psidev.psi.mi.jami.xml.listener.PsiXmlParserListener;
 import psidev.psi.mi.jami.xml.model.AbstractEntry;
@@ -47,6 +48,7 @@ public abstract class AbstractFullPsiXmlParser<T extends Interaction> implements
     private XmlInteractorFactory interactorFactory;
 
     private PsiXmlIdCache indexOfObjects=null;
+    private PsiXmlPositionScanner positionScanner=null;
 
     private PsiXmlVersion version;
 
@@ -265,6 +267,14 @@ public abstract class AbstractFullPsiXmlParser<T extends Interaction> implements
         this.indexOfObjects = indexOfObjects;
     }
 
+    /**
+     * Sets the scanner used to index the file when no cache of objects is provided and the parser reads a file
+     * @param positionScanner
+     */
+    public void setPositionScanner(PsiXmlPositionScanner positionScanner) {
+        this.positionScanner = positionScanner;
+    }
+
     public AbstractEntrySet<AbstractEntry<T>> getEntrySet() throws PsiXmlParserException {
         if (this.entrySet == null){
             this.entrySet = parseEntrySet();
@@ -319,7 +329,7 @@ public abstract class AbstractFullPsiXmlParser<T extends Interaction> implements
         if (this.indexOfObjects == null){
             if (this.originalFile != null){
                 try {
-                    this.indexOfObjects = new PsiXmlFileIndexCache(this.originalFile, this.unmarshaller, this.version);
+                    this.indexOfObjects = new CompactPsiXmlFileIndexCache(this.originalFile, this.unmarshaller, this.version, this.positionScanner);
                 } catch (IOException e) {
                     logger.log(Level.SEVERE, "cannot instantiate file index cache so will instantiate memory cache", e);
                     this.indexOfObjects = new InMemoryPsiXmlCache();
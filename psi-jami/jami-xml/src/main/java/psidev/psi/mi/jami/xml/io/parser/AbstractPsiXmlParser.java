@@ -11,8 +11,9 @@ import psidev.psi.mi.jami.model.Interaction;
 import psidev.psi.mi.jami.xml.PsiXmlVersion;
 import psidev.psi.mi.jami.xml.XmlEntryContext;
 import psidev.psi.mi.jami.xml.cache.InMemoryPsiXmlCache;
-import psidev.psi.mi.jami.xml.cache.PsiXmlFileIndexCache;
+import psidev.psi.mi.jami.xml.cache.CompactPsiXmlFileIndexCache;
 import psidev.psi.mi.jami.xml.cache.PsiXmlIdCache;
+import psidev.psi.mi.jami.xml.cache.PsiXmlPositionScanner;
 import psidev.psi.mi.jami.xml.exception.PsiXmlParserException;
 import psidev.psi.mi.jami.xml.listener.PsiXmlParserListener;
 import psidev.psi.mi.jami.xml.model.Entry;
@@ -65,6 +66,7 @@ public abstract class AbstractPsiXmlParser<T extends Interaction> implements Psi
     private boolean hasReadEntrySet = false;
     private boolean hasReadEntry = false;
     private PsiXmlIdCache indexOfObjects=null;
+    private PsiXmlPositionScanner positionScanner=null;
     private String currentElement;
 
     private PsiXmlVersion version = null;
@@ -310,6 +312,14 @@ public abstract class AbstractPsiXmlParser<T extends Interaction> implements Psi
         this.indexOfObjects = indexOfObjects;
     }
 
+    /**
+     * Sets the scanner used to index the file when no cache of objects is provided and the parser reads a file
+     * @param positionScanner
+     */
+    public void setPositionScanner(PsiXmlPositionScanner positionScanner) {
+        this.positionScanner = positionScanner;
+    }
+
     public XmlInteractorFactory getInteractorFactory() {
         if (this.interactorFactory == null){
             this.interactorFactory = new XmlInteractorFactory();
@@ -1007,7 +1017,7 @@ public abstract class AbstractPsiXmlParser<T extends Interaction> implements Psi
         if (this.indexOfObjects == null){
             if (this.originalFile != null){
                 try {
-                    this.indexOfObjects = new PsiXmlFileIndexCache(this.originalFile, this.unmarshaller, this.version);
+                    this.indexOfObjects = new CompactPsiXmlFileIndexCache(this.originalFile, this.unmarshaller, this.version, this.positionScanner);
                 } catch (IOException e) {
                     logger.log(Level.SEVERE, "cannot instantiate file index cache so will instantiate memory cache", e);
                     this.indexOfObjects = new InMemoryPsiXmlCache();
@@ -8,6 +8,7 @@ import psidev.psi.mi.jami.factory.BinaryInteractionFactory;
 import psidev.psi.mi.jami.model.Interaction;
 import psidev.psi.mi.jami.xml.PsiXmlVersion;
 import psidev.psi.mi.jami.xml.cache.PsiXmlIdCache;
+import psidev.psi.mi.jami.xml.cache.PsiXmlPositionScanner;
 import psidev.psi.mi.jami.xml.exception.PsiXmlParserException;
 import psidev.psi.mi.jami.xml.listener.PsiXmlParserListener;
 import psidev.psi.mi.jami.xml.model.extension.factory.XmlInteractorFactory;
@@ -125,6 +126,19 @@ public abstract class AbstractPsixmlBinaryParser<T extends Interaction, B extend
         this.delegateParser.setCacheOfObjects(indexOfObjects);
     }
 
+    /**
+     * Sets the scanner used to index the file when no cache of objects is provided and the parser reads a file
+     * @param positionScanner
+     */
+    public void setPositionScanner(PsiXmlPositionScanner positionScanner) {
+        if (this.delegateParser instanceof AbstractPsiXmlParser){
+            ((AbstractPsiXmlParser<T>) this.delegateParser).setPositionScanner(positionScanner);
+        }
+        else if (this.delegateParser instanceof AbstractFullPsiXmlParser){
+            ((AbstractFullPsiXmlParser<T>) this.delegateParser).setPositionScanner(positionScanner);
+        }
+    }
+
     @Override
     public XmlInteractorFactory getInteractorFactory() {
         return this.delegateParser.getInteractorFactory();
@@ -8,9 +8,17 @@ import psidev.psi.mi.jami.xml.model.xml30.Xml300EntrySet;
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * Factory to initialise JAXB context depending on the version and the interaction object category
+ * Factory to initialise JAXB context depending on the version and the interaction object category.
+ *
+ * JAXB contexts are expensive to build and thread safe so they are built once per version, interaction category
+ * and streaming/full mode and shared by all the threads. Unmarshallers are not thread safe so a new unmarshaller
+ * is created from the cached context at each call and should not be shared between threads.
  *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  * @version $Id$
@@ -21,8 +29,10 @@ public class JaxbUnmarshallerFactory {
 
     private static final JaxbUnmarshallerFactory instance = new JaxbUnmarshallerFactory();
 
+    private ConcurrentMap<String, JAXBContext> contexts;
+
     private JaxbUnmarshallerFactory(){
-        // nothing to do here
+        this.contexts = new ConcurrentHashMap<String, JAXBContext>();
     }
 
     public static JaxbUnmarshallerFactory getInstance() {
@@ -81,6 +91,44 @@ public class JaxbUnmarshallerFactory {
         }
     }
 
+    /**
+     * Builds the JAXB contexts of the given version for all interaction categories so the first parsed file
+     * does not pay the cost of building them.
+     * @param version : version of PSI XML format
+     * @param streaming : true to load the contexts used to parse files in a streaming way,
+     * false to load the contexts used to parse the all entrySet
+     * @throws JAXBException
+     */
+    public void preloadContexts(PsiXmlVersion version, boolean streaming) throws JAXBException {
+        for (InteractionCategory category : InteractionCategory.values()){
+            if (streaming){
+                createUnmarshaller(version, category);
+            }
+            else{
+                createFullUnmarshaller(version, category);
+            }
+        }
+    }
+
+    /**
+     * Builds all the JAXB contexts (all versions, interaction categories and streaming/full modes).
+     * It can be called at startup by applications parsing many files.
+     * @throws JAXBException
+     */
+    public void preloadAllContexts() throws JAXBException {
+        for (PsiXmlVersion version : PsiXmlVersion.values()){
+            preloadContexts(version, true);
+            preloadContexts(version, false);
+        }
+    }
+
+    /**
+     * Removes all the cached JAXB contexts
+     */
+    public void clearContexts(){
+        this.contexts.clear();
+    }
+
     public Unmarshaller createXml300JAXBUnmarshaller(InteractionCategory category) throws JAXBException {
         // create unmarshaller knowing the interaction category we want to parse
         return createXml300JAXBUnmarshaller();
@@ -168,150 +216,141 @@ public class JaxbUnmarshallerFactory {
     }
 
     private Unmarshaller createXml300JAXBUnmarshaller() throws JAXBException {
-        JAXBContext ctx = JAXBContext.newInstance(
+        return getContext("Xml300",
                 psidev.psi.mi.jami.xml.model.extension.xml300.XmlInteractionEvidence.class,
                 psidev.psi.mi.jami.xml.model.extension.xml300.XmlModelledInteraction.class,
                 psidev.psi.mi.jami.xml.model.extension.xml300.Availability.class,
                 psidev.psi.mi.jami.xml.model.extension.xml300.XmlExperiment.class,
                 psidev.psi.mi.jami.xml.model.extension.xml300.XmlInteractor.class,
                 psidev.psi.mi.jami.xml.model.extension.xml300.XmlSource.class,
-                psidev.psi.mi.jami.xml.model.extension.xml300.XmlAnnotation.class);
-        return ctx.createUnmarshaller();
+                psidev.psi.mi.jami.xml.model.extension.xml300.XmlAnnotation.class).createUnmarshaller();
     }
 
     private Unmarshaller createModelledXml253JAXBUnmarshaller() throws JAXBException {
-        JAXBContext ctx = JAXBContext.newInstance(
+        return getContext("ModelledXml253",
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlModelledInteraction.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlExperiment.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlInteractor.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlSource.class,
-                psidev.psi.mi.jami.xml.model.extension.xml253.XmlAnnotation.class);
-        return ctx.createUnmarshaller();
+                psidev.psi.mi.jami.xml.model.extension.xml253.XmlAnnotation.class).createUnmarshaller();
     }
 
     private Unmarshaller createComplexXml253JAXBUnmarshaller() throws JAXBException {
-        JAXBContext ctx = JAXBContext.newInstance(
+        return getContext("ComplexXml253",
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlComplex.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlExperiment.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlInteractor.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlSource.class,
-                psidev.psi.mi.jami.xml.model.extension.xml253.XmlAnnotation.class);
-        return ctx.createUnmarshaller();
+                psidev.psi.mi.jami.xml.model.extension.xml253.XmlAnnotation.class).createUnmarshaller();
     }
 
     private Unmarshaller createEvidenceXml253JAXBUnmarshaller() throws JAXBException {
-        JAXBContext ctx = JAXBContext.newInstance(
+        return getContext("EvidenceXml253",
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlInteractionEvidence.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.Availability.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlExperiment.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlInteractor.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlSource.class,
-                psidev.psi.mi.jami.xml.model.extension.xml253.XmlAnnotation.class);
-        return ctx.createUnmarshaller();
+                psidev.psi.mi.jami.xml.model.extension.xml253.XmlAnnotation.class).createUnmarshaller();
     }
 
     private Unmarshaller createBasicXml253JAXBUnmarshaller() throws JAXBException {
-        JAXBContext ctx = JAXBContext.newInstance(
+        return getContext("BasicXml253",
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlBasicInteraction.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlInteractor.class,
                 psidev.psi.mi.jami.xml.model.extension.xml253.XmlSource.class,
-                psidev.psi.mi.jami.xml.model.extension.xml253.XmlAnnotation.class);
-        return ctx.createUnmarshaller();
+                psidev.psi.mi.jami.xml.model.extension.xml253.XmlAnnotation.class).createUnmarshaller();
     }
 
     private Unmarshaller createModelledXml254JAXBUnmarshaller() throws JAXBException {
-        JAXBContext ctx = JAXBContext.newInstance(
+        return getContext("ModelledXml254",
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlModelledInteraction.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlExperiment.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlInteractor.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlSource.class,
-                psidev.psi.mi.jami.xml.model.extension.xml254.XmlAnnotation.class);
-        return ctx.createUnmarshaller();
+                psidev.psi.mi.jami.xml.model.extension.xml254.XmlAnnotation.class).createUnmarshaller();
     }
 
     private Unmarshaller createComplexXml254JAXBUnmarshaller() throws JAXBException {
-        JAXBContext ctx = JAXBContext.newInstance(
+        return getContext("ComplexXml254",
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlComplex.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlExperiment.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlInteractor.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlSource.class,
-                psidev.psi.mi.jami.xml.model.extension.xml254.XmlAnnotation.class);
-        return ctx.createUnmarshaller();
+                psidev.psi.mi.jami.xml.model.extension.xml254.XmlAnnotation.class).createUnmarshaller();
     }
 
     private Unmarshaller createEvidenceXml254JAXBUnmarshaller() throws JAXBException {
-        JAXBContext ctx = JAXBContext.newInstance(
+        return getContext("EvidenceXml254",
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlInteractionEvidence.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.Availability.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlExperiment.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlInteractor.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlSource.class,
-                psidev.psi.mi.jami.xml.model.extension.xml254.XmlAnnotation.class);
-        return ctx.createUnmarshaller();
+                psidev.psi.mi.jami.xml.model.extension.xml254.XmlAnnotation.class).createUnmarshaller();
     }
 
     private Unmarshaller createBasicXml254JAXBUnmarshaller() throws JAXBException {
-        JAXBContext ctx = JAXBContext.newInstance(
+        return getContext("BasicXml254",
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlBasicInteraction.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlInteractor.class,
                 psidev.psi.mi.jami.xml.model.extension.xml254.XmlSource.class,
-                psidev.psi.mi.jami.xml.model.extension.xml254.XmlAnnotation.class);
-        return ctx.createUnmarshaller();
+                psidev.psi.mi.jami.xml.model.extension.xml254.XmlAnnotation.class).createUnmarshaller();
     }
 
     private Unmarshaller createFullXml300JAXBUnmarshaller() throws JAXBException {
-
-        JAXBContext ctx = JAXBContext.newInstance(Xml300EntrySet.class);
-        return ctx.createUnmarshaller();
+        return getContext("FullXml300", Xml300EntrySet.class).createUnmarshaller();
     }
 
     private Unmarshaller createModelledFullXml253JAXBUnmarshaller() throws JAXBException {
-
-        JAXBContext ctx = JAXBContext.newInstance(Xml253ModelledEntrySet.class);
-        return ctx.createUnmarshaller();
+        return getContext("ModelledFullXml253", Xml253ModelledEntrySet.class).createUnmarshaller();
     }
 
     private Unmarshaller createComplexFullXml253JAXBUnmarshaller() throws JAXBException {
-
-        JAXBContext ctx = JAXBContext.newInstance(Xml253ComplexEntrySet.class);
-        return ctx.createUnmarshaller();
+        return getContext("ComplexFullXml253", Xml253ComplexEntrySet.class).createUnmarshaller();
     }
 
     private Unmarshaller createEvidenceFullXml253JAXBUnmarshaller() throws JAXBException {
-
-        JAXBContext ctx = JAXBContext.newInstance(Xml253ExperimentalEntrySet.class);
-        return ctx.createUnmarshaller();
+        return getContext("EvidenceFullXml253", Xml253ExperimentalEntrySet.class).createUnmarshaller();
     }
 
     private Unmarshaller createBasicFullXml253JAXBUnmarshaller() throws JAXBException {
-
-        JAXBContext ctx = JAXBContext.newInstance(Xml253BasicEntrySet.class);
-        return ctx.createUnmarshaller();
+        return getContext("BasicFullXml253", Xml253BasicEntrySet.class).createUnmarshaller();
     }
 
     private Unmarshaller createBasicFullXml254JAXBUnmarshaller() throws JAXBException {
-
-        JAXBContext ctx = JAXBContext.newInstance(Xml254BasicEntrySet.class);
-        return ctx.createUnmarshaller();
+        return getContext("BasicFullXml254", Xml254BasicEntrySet.class).createUnmarshaller();
     }
 
     private Unmarshaller createModelledFullXml254JAXBUnmarshaller() throws JAXBException {
-
-        JAXBContext ctx = JAXBContext.newInstance(Xml254ModelledEntrySet.class);
-        return ctx.createUnmarshaller();
+        return getContext("ModelledFullXml254", Xml254ModelledEntrySet.class).createUnmarshaller();
     }
 
     private Unmarshaller createComplexFullXml254JAXBUnmarshaller() throws JAXBException {
-
-        JAXBContext ctx = JAXBContext.newInstance(Xml254ComplexEntrySet.class);
-        return ctx.createUnmarshaller();
+        return getContext("ComplexFullXml254", Xml254ComplexEntrySet.class).createUnmarshaller();
     }
 
     private Unmarshaller createEvidenceFullXml254JAXBUnmarshaller() throws JAXBException {
-
-        JAXBContext ctx = JAXBContext.newInstance(Xml254ExperimentalEntrySet.class);
-        return ctx.createUnmarshaller();
+        return getContext("EvidenceFullXml254", Xml254ExperimentalEntrySet.class).createUnmarshaller();
     }
 
+    /**
+     *
+     * @return a read only view of the cached JAXB contexts
+     */
+    Map<String, JAXBContext> getCachedContexts(){
+        return Collections.unmodifiableMap(this.contexts);
+    }
 
+    private JAXBContext getContext(String key, Class... classes) throws JAXBException {
+        JAXBContext context = this.contexts.get(key);
+        if (context == null){
+            context = JAXBContext.newInstance(classes);
+            JAXBContext existingContext = this.contexts.putIfAbsent(key, context);
+            if (existingContext != null){
+                context = existingContext;
+            }
+        }
+        return context;
+    }
 }
@@ -1,5 +1,6 @@
 package psidev.psi.mi.jami.xml.io.parser;
 
+import javax.xml.stream.Location;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
@@ -17,6 +18,22 @@ public class XmlReaderWithDefaultNamespace extends StreamReaderDelegate{
 
     private String usedNamespaceUri;
     private String rootName;
+    private int rootLineNumber = 1;
+    private int rootColumnNumber = 1;
+
+    /**
+     *
+     * @param reader : the reader positioned before the root element
+     * @param namespaceUri : the namespace of the elements without namespace
+     * @param rootLineNumber : the line number of the root element in the original file. The locations of the reader are shifted
+     * so they are the locations in the original file
+     * @param rootColumnNumber : the column number of the root element in the original file
+     */
+    public XmlReaderWithDefaultNamespace(XMLStreamReader reader, String namespaceUri, int rootLineNumber, int rootColumnNumber) {
+        this(reader, namespaceUri);
+        this.rootLineNumber = rootLineNumber;
+        this.rootColumnNumber = rootColumnNumber;
+    }
 
     public XmlReaderWithDefaultNamespace(XMLStreamReader reader, String namespaceUri) {
         super(reader);
@@ -63,4 +80,45 @@ public class XmlReaderWithDefaultNamespace extends StreamReaderDelegate{
             return XMLStreamConstants.END_DOCUMENT;
         }
     }
+
+    @Override
+    public Location getLocation() {
+        Location location = super.getLocation();
+        if (location == null || (rootLineNumber == 1 && rootColumnNumber == 1)){
+            return location;
+        }
+        return new ShiftedLocation(location);
+    }
+
+    /**
+     * Location in the original file
+     */
+    private class ShiftedLocation implements Location {
+        private Location location;
+
+        private ShiftedLocation(Location location) {
+            this.location = location;
+        }
+
+        public int getLineNumber() {
+            return location.getLineNumber() + rootLineNumber - 1;
+        }
+
+        public int getColumnNumber() {
+            // the root element is on the first line of the reader
+            return location.getLineNumber() == 1 ? location.getColumnNumber() + rootColumnNumber - 1 : location.getColumnNumber();
+        }
+
+        public int getCharacterOffset() {
+            return location.getCharacterOffset();
+        }
+
+        public String getPublicId() {
+            return location.getPublicId();
+        }
+
+        public String getSystemId() {
+            return location.getSystemId();
+        }
+    }
 }
@@ -525,45 +525,46 @@ public abstract class AbstractXmlWriter<T extends Interaction> implements Intera
 
     protected void initialiseSubWriters(boolean extended, boolean named, PsiXmlType xmlType, InteractionCategory interactionCategory,
                                         ComplexType complexType) {
+        XMLStreamWriter elementsWriter = getElementsStreamWriter();
         // basic sub writers
         // aliases
-        PsiXmlElementWriter<Alias> aliasWriter = this.subWritersFactory.createAliasWriter(this.streamWriter);
+        PsiXmlElementWriter<Alias> aliasWriter = this.subWritersFactory.createAliasWriter(elementsWriter);
         // attributes
-        PsiXmlElementWriter<Annotation> attributeWriter = this.subWritersFactory.createAnnotationWriter(this.streamWriter);
+        PsiXmlElementWriter<Annotation> attributeWriter = this.subWritersFactory.createAnnotationWriter(elementsWriter);
         // xref
-        PsiXmlXrefWriter xrefWriter = this.subWritersFactory.createXrefWriter(this.streamWriter, extended, attributeWriter);
+        PsiXmlXrefWriter xrefWriter = this.subWritersFactory.createXrefWriter(elementsWriter, extended, attributeWriter);
         // publication
-        PsiXmlPublicationWriter publicationWriter = this.subWritersFactory.createPublicationWriter(this.streamWriter, extended,
+        PsiXmlPublicationWriter publicationWriter = this.subWritersFactory.createPublicationWriter(elementsWriter, extended,
                 attributeWriter, xrefWriter, this.version);
         // open cv
-        PsiXmlVariableNameWriter<CvTerm> openCvWriter = this.subWritersFactory.createOpenCvWriter(this.streamWriter, extended, aliasWriter,
+        PsiXmlVariableNameWriter<CvTerm> openCvWriter = this.subWritersFactory.createOpenCvWriter(elementsWriter, extended, aliasWriter,
                 attributeWriter, xrefWriter);
         // cv
-        PsiXmlVariableNameWriter<CvTerm> cvWriter = this.subWritersFactory.createCvWriter(this.streamWriter, extended, aliasWriter, xrefWriter);
+        PsiXmlVariableNameWriter<CvTerm> cvWriter = this.subWritersFactory.createCvWriter(elementsWriter, extended, aliasWriter, xrefWriter);
         // confidences
-        PsiXmlElementWriter<Confidence>[] confidenceWriters = this.subWritersFactory.createConfidenceWriters(this.streamWriter, extended,
+        PsiXmlElementWriter<Confidence>[] confidenceWriters = this.subWritersFactory.createConfidenceWriters(elementsWriter, extended,
                 getElementCache(), this.version, openCvWriter, publicationWriter);
         // organism writer
-        PsiXmlElementWriter<Organism> organismWriter = this.subWritersFactory.createOrganismWriter(this.streamWriter, extended, aliasWriter,
+        PsiXmlElementWriter<Organism> organismWriter = this.subWritersFactory.createOrganismWriter(elementsWriter, extended, aliasWriter,
                 attributeWriter, xrefWriter, openCvWriter);
         // checksum writer
-        PsiXmlElementWriter<Checksum> checksumWriter = this.subWritersFactory.createChecksumWriter(this.streamWriter);
+        PsiXmlElementWriter<Checksum> checksumWriter = this.subWritersFactory.createChecksumWriter(elementsWriter);
         // interactor writer
-        PsiXmlElementWriter<Interactor> interactorWriter = this.subWritersFactory.createInteractorWriter(this.streamWriter, extended, getElementCache(),
+        PsiXmlElementWriter<Interactor> interactorWriter = this.subWritersFactory.createInteractorWriter(elementsWriter, extended, getElementCache(),
                 aliasWriter, attributeWriter, xrefWriter, cvWriter, organismWriter, checksumWriter);
         // experiment Writer
-        PsiXmlExperimentWriter experimentWriter = this.subWritersFactory.createExperimentWriter(this.streamWriter, extended, getElementCache(),
+        PsiXmlExperimentWriter experimentWriter = this.subWritersFactory.createExperimentWriter(elementsWriter, extended, getElementCache(),
                 this.version, named, aliasWriter, attributeWriter, xrefWriter, publicationWriter, organismWriter, cvWriter,
                 confidenceWriters[0]);
         // availability writer
-        PsiXmlElementWriter<String> availabilityWriter = this.subWritersFactory.createAvailabilityWriter(this.streamWriter, getElementCache());
+        PsiXmlElementWriter<String> availabilityWriter = this.subWritersFactory.createAvailabilityWriter(elementsWriter, getElementCache());
         // initialise source
-        setSourceWriter(this.subWritersFactory.createSourceWriter(this.streamWriter, extended, this.version, aliasWriter, attributeWriter,
+        setSourceWriter(this.subWritersFactory.createSourceWriter(elementsWriter, extended, this.version, aliasWriter, attributeWriter,
                 xrefWriter, publicationWriter));
         // initialise optional writers
         initialiseOptionalWriters(experimentWriter, availabilityWriter, interactorWriter);
         // initialise interaction
-        PsiXmlInteractionWriter[] interactionWriters = this.subWritersFactory.createInteractionWritersFor(this.streamWriter, getElementCache(),
+        PsiXmlInteractionWriter[] interactionWriters = this.subWritersFactory.createInteractionWritersFor(elementsWriter, getElementCache(),
                 this.version, xmlType, interactionCategory, complexType, extended, named, aliasWriter, attributeWriter, xrefWriter,
                 confidenceWriters, checksumWriter, cvWriter, openCvWriter, experimentWriter, availabilityWriter,
                 interactorWriter, publicationWriter);
@@ -621,6 +622,14 @@ public abstract class AbstractXmlWriter<T extends Interaction> implements Intera
         return streamWriter;
     }
 
+    /**
+     *
+     * @return the stream writer given to the element writers. By default, it is the stream writer of the output
+     */
+    protected XMLStreamWriter getElementsStreamWriter() {
+        return streamWriter;
+    }
+
     protected T getCurrentInteraction() {
         return currentInteraction;
     }
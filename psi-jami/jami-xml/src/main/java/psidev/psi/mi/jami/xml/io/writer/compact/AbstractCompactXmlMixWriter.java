@@ -155,6 +155,34 @@ public abstract class AbstractCompactXmlMixWriter<I extends Interaction, M exten
         }
     }
 
+    @Override
+    public void setSpoolInteractions(boolean spoolInteractions) {
+        super.setSpoolInteractions(spoolInteractions);
+        if (this.modelledWriter != null){
+            this.modelledWriter.setSpoolInteractions(spoolInteractions);
+        }
+        if (this.evidenceWriter != null){
+            this.evidenceWriter.setSpoolInteractions(spoolInteractions);
+        }
+        if (this.lightWriter != null){
+            this.lightWriter.setSpoolInteractions(spoolInteractions);
+        }
+    }
+
+    @Override
+    public void setSpoolDirectory(File spoolDirectory) {
+        super.setSpoolDirectory(spoolDirectory);
+        if (this.modelledWriter != null){
+            this.modelledWriter.setSpoolDirectory(spoolDirectory);
+        }
+        if (this.evidenceWriter != null){
+            this.evidenceWriter.setSpoolDirectory(spoolDirectory);
+        }
+        if (this.lightWriter != null){
+            this.lightWriter.setSpoolDirectory(spoolDirectory);
+        }
+    }
+
     @Override
     public void setInteractionSet(Set<Interaction> processedInteractions) {
         super.setInteractionSet(processedInteractions);
@@ -362,16 +390,22 @@ public abstract class AbstractCompactXmlMixWriter<I extends Interaction, M exten
     protected void setEvidenceWriter(AbstractCompactXmlWriter<E> evidenceWriter) {
         this.evidenceWriter = evidenceWriter;
         this.evidenceWriter.setElementCache(getElementCache());
+        this.evidenceWriter.setSpoolInteractions(isSpoolInteractions());
+        this.evidenceWriter.setSpoolDirectory(getSpoolDirectory());
     }
 
     protected void setModelledWriter(AbstractCompactXmlWriter<M> modelledWriter) {
         this.modelledWriter = modelledWriter;
         this.modelledWriter.setElementCache(getElementCache());
+        this.modelledWriter.setSpoolInteractions(isSpoolInteractions());
+        this.modelledWriter.setSpoolDirectory(getSpoolDirectory());
     }
 
     protected void setLightWriter(AbstractCompactXmlWriter<I> lightWriter) {
         this.lightWriter = lightWriter;
         this.lightWriter.setElementCache(getElementCache());
+        this.lightWriter.setSpoolInteractions(isSpoolInteractions());
+        this.lightWriter.setSpoolDirectory(getSpoolDirectory());
     }
 
     protected abstract void initialiseDelegateWriters();
@@ -2,8 +2,10 @@ package psidev.psi.mi.jami.xml.io.writer.compact;
 
 import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.model.*;
+import psidev.psi.mi.jami.xml.cache.InMemoryWeakIdentityObjectCache;
 import psidev.psi.mi.jami.xml.cache.PsiXmlObjectCache;
 import psidev.psi.mi.jami.xml.cache.InMemoryIdentityObjectCache;
+import psidev.psi.mi.jami.xml.cache.WeakIdentityHashMap;
 import psidev.psi.mi.jami.xml.io.writer.AbstractXmlWriter;
 import psidev.psi.mi.jami.xml.io.writer.elements.PsiXmlElementWriter;
 import psidev.psi.mi.jami.xml.io.writer.elements.PsiXmlExperimentWriter;
@@ -21,6 +23,12 @@ import java.util.*;
 /**
  * Abstract class for Compact XML writers.
  *
+ * By default, all the interactions of an entry are kept in memory so the experimentList and interactorList
+ * can be written before the interactionList.
+ * When spooling interactions is enabled, the experiments, interactors and interactions of an entry are written
+ * in temporary files as soon as they are met and copied to the output when the entry is complete. Experiments, interactors
+ * and availabilities are then only tracked by their ids and the heap used does not depend on the size of the entry.
+ *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  * @version $Id$
  * @since <pre>18/11/13</pre>
@@ -39,6 +47,14 @@ public abstract class AbstractCompactXmlWriter<T extends Interaction> extends Ab
     private Set<String> availabilities;
     private Set<Interactor> interactors;
 
+    private boolean spoolInteractions;
+    private File spoolDirectory;
+    private RedirectingXMLStreamWriter redirectingWriter;
+    private CompactXmlEntrySpool entrySpool;
+    private BitSet spooledAvailabilities;
+    private BitSet spooledExperiments;
+    private BitSet spooledInteractors;
+
     public AbstractCompactXmlWriter(Class<T> type) {
         super();
         this.type = type;
@@ -71,6 +87,14 @@ public abstract class AbstractCompactXmlWriter<T extends Interaction> extends Ab
 
     @Override
     public void initialiseContext(Map<String, Object> options) {
+        // spooling options first as they change the default caches
+        if (options != null && options.containsKey(PsiXmlWriterOptions.COMPACT_XML_SPOOL_INTERACTIONS_OPTION)){
+            setSpoolInteractions((Boolean) options.get(PsiXmlWriterOptions.COMPACT_XML_SPOOL_INTERACTIONS_OPTION));
+        }
+        if (options != null && options.containsKey(PsiXmlWriterOptions.COMPACT_XML_SPOOL_DIRECTORY_OPTION)){
+            setSpoolDirectory((File) options.get(PsiXmlWriterOptions.COMPACT_XML_SPOOL_DIRECTORY_OPTION));
+        }
+
         super.initialiseContext(options);
 
         if (options.containsKey(PsiXmlWriterOptions.COMPACT_XML_EXPERIMENT_SET_OPTION)){
@@ -102,7 +126,9 @@ public abstract class AbstractCompactXmlWriter<T extends Interaction> extends Ab
         this.availabilities = null;
         this.experiments = null;
         this.subInteractionsToWrite.clear();
+        closeEntrySpool();
         super.close();
+        this.redirectingWriter = null;
     }
 
     @Override
@@ -111,7 +137,9 @@ public abstract class AbstractCompactXmlWriter<T extends Interaction> extends Ab
         this.availabilities = null;
         this.experiments = null;
         this.subInteractionsToWrite.clear();
+        closeEntrySpool();
         super.reset();
+        this.redirectingWriter = null;
     }
 
     public void setExperimentSet(Set<Experiment> experiments) {
@@ -126,6 +154,34 @@ public abstract class AbstractCompactXmlWriter<T extends Interaction> extends Ab
         this.interactors = interactors;
     }
 
+    /**
+     * When true, the experiments, interactors and interactions of each entry are written in temporary files
+     * instead of keeping all the interactions of the entry in memory.
+     * It should be combined with an element cache which does not keep all the written objects such as InMemoryWeakIdentityObjectCache
+     * (default cache when the spooling option is given to initialiseContext).
+     * It cannot be changed while an entry is being written.
+     * @param spoolInteractions
+     */
+    public void setSpoolInteractions(boolean spoolInteractions) {
+        this.spoolInteractions = spoolInteractions;
+    }
+
+    /**
+     *
+     * @param spoolDirectory : the directory where to create the temporary files. If null, the default temporary directory is used
+     */
+    public void setSpoolDirectory(File spoolDirectory) {
+        this.spoolDirectory = spoolDirectory;
+    }
+
+    public boolean isSpoolInteractions() {
+        return spoolInteractions;
+    }
+
+    public File getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
     @Override
     protected void initialiseOptionalWriters(PsiXmlExperimentWriter experimentWriter, PsiXmlElementWriter<String> availabilityWriter, PsiXmlElementWriter<Interactor> interactorWriter) {
         setExperimentWriter(experimentWriter);
@@ -262,6 +318,10 @@ public abstract class AbstractCompactXmlWriter<T extends Interaction> extends Ab
 
     @Override
     protected void writeStartEntryContent() throws XMLStreamException {
+        if (this.spoolInteractions){
+            startEntrySpool();
+            return;
+        }
         registerAllInteractionsProperties();
         // write start entry
         writeStartEntry();
@@ -302,6 +362,128 @@ public abstract class AbstractCompactXmlWriter<T extends Interaction> extends Ab
         writeStartInteractionList();
     }
 
+    @Override
+    protected void writeInteraction() throws XMLStreamException {
+        if (this.entrySpool != null){
+            spoolInteractionProperties();
+        }
+        super.writeInteraction();
+    }
+
+    @Override
+    protected void writeEndEntryContent() throws XMLStreamException {
+        if (this.entrySpool == null){
+            super.writeEndEntryContent();
+            return;
+        }
+        try{
+            // write subComplexes in the spooled interaction list
+            writeSubComplexInEntry();
+            this.entrySpool.finish();
+            this.redirectingWriter.restoreOutput();
+            // write start entry. The element cache has been cleared when starting the spool
+            getStreamWriter().writeStartElement(PsiXmlUtils.ENTRY_TAG);
+            // write source
+            writeSource();
+            // write availability, experiment, interactor and interaction lists
+            this.entrySpool.copyTo(getStreamWriter());
+            // write annotations if any
+            writeEntryAttributes();
+            // write end entry
+            writeEndEntry();
+        }
+        finally {
+            closeEntrySpool();
+        }
+    }
+
+    @Override
+    protected XMLStreamWriter getElementsStreamWriter() {
+        XMLStreamWriter output = super.getElementsStreamWriter();
+        if (output == null){
+            return null;
+        }
+        // the element writers always write through the redirecting writer so the spooling can be enabled at any time
+        if (this.redirectingWriter == null || this.redirectingWriter.getOutput() != output){
+            this.redirectingWriter = new RedirectingXMLStreamWriter(output);
+        }
+        return this.redirectingWriter;
+    }
+
+    protected void startEntrySpool() {
+        if (this.redirectingWriter == null){
+            throw new IllegalStateException("The element writers of the compact writer have not been initialised.");
+        }
+        getElementCache().clear();
+        getAvailabilities().clear();
+        getExperiments().clear();
+        getInteractors().clear();
+        if (this.spooledAvailabilities == null){
+            this.spooledAvailabilities = new BitSet();
+            this.spooledExperiments = new BitSet();
+            this.spooledInteractors = new BitSet();
+        }
+        else{
+            this.spooledAvailabilities.clear();
+            this.spooledExperiments.clear();
+            this.spooledInteractors.clear();
+        }
+        try {
+            this.entrySpool = new CompactXmlEntrySpool(this.spoolDirectory);
+        } catch (IOException e) {
+            throw new MIIOException("Impossible to create the temporary files of the entry", e);
+        } catch (XMLStreamException e) {
+            throw new MIIOException("Impossible to create the temporary files of the entry", e);
+        }
+        this.redirectingWriter.redirectTo(this.entrySpool.getInteractionWriter());
+    }
+
+    /**
+     * Registers the availabilities, experiments and interactors of the current interaction and writes in the spool
+     * the ones which have not been written yet in this entry
+     * @throws XMLStreamException
+     */
+    protected void spoolInteractionProperties() throws XMLStreamException {
+        registerInteractionProperties();
+        try{
+            for (String availability : getAvailabilities()){
+                if (markAsSpooled(this.spooledAvailabilities, getElementCache().extractIdForAvailability(availability))){
+                    this.redirectingWriter.redirectTo(this.entrySpool.nextAvailability());
+                    this.availabilityWriter.write(availability);
+                }
+            }
+            for (Experiment experiment : getExperiments()){
+                if (experiment != null && markAsSpooled(this.spooledExperiments, getElementCache().extractIdForExperiment(experiment))){
+                    this.redirectingWriter.redirectTo(this.entrySpool.nextExperiment());
+                    this.experimentWriter.write(experiment);
+                }
+            }
+            for (Interactor interactor : getInteractors()){
+                if (markAsSpooled(this.spooledInteractors, getElementCache().extractIdForInteractor(interactor))){
+                    this.redirectingWriter.redirectTo(this.entrySpool.nextInteractor());
+                    this.interactorWriter.write(interactor);
+                }
+            }
+        }
+        finally {
+            // only the ids are kept
+            getAvailabilities().clear();
+            getExperiments().clear();
+            getInteractors().clear();
+            this.redirectingWriter.redirectTo(this.entrySpool.getInteractionWriter());
+        }
+    }
+
+    protected void closeEntrySpool() {
+        if (this.redirectingWriter != null){
+            this.redirectingWriter.restoreOutput();
+        }
+        if (this.entrySpool != null){
+            this.entrySpool.delete();
+            this.entrySpool = null;
+        }
+    }
+
     protected PsiXmlElementWriter<String> getAvailabilityWriter() {
         return availabilityWriter;
     }
@@ -361,7 +543,22 @@ public abstract class AbstractCompactXmlWriter<T extends Interaction> extends Ab
 
     @Override
     protected void initialiseDefaultElementCache() {
-        setElementCache(new InMemoryIdentityObjectCache());
+        if (this.spoolInteractions){
+            setElementCache(new InMemoryWeakIdentityObjectCache());
+        }
+        else{
+            setElementCache(new InMemoryIdentityObjectCache());
+        }
+    }
+
+    @Override
+    protected void initialiseDefaultInteractionSet() {
+        if (this.spoolInteractions){
+            setInteractionSet(Collections.newSetFromMap(new WeakIdentityHashMap<Interaction, Boolean>()));
+        }
+        else{
+            super.initialiseDefaultInteractionSet();
+        }
     }
 
     protected Class<T> getInteractionType() {
@@ -377,4 +574,12 @@ public abstract class AbstractCompactXmlWriter<T extends Interaction> extends Ab
         // register all interactors
         registerAllInteractors(interaction);
     }
+
+    private boolean markAsSpooled(BitSet spooledIds, int id){
+        if (spooledIds.get(id)){
+            return false;
+        }
+        spooledIds.set(id);
+        return true;
+    }
 }
@@ -0,0 +1,331 @@
+package psidev.psi.mi.jami.xml.io.writer.compact;
+
+import org.codehaus.stax2.XMLOutputFactory2;
+import psidev.psi.mi.jami.xml.utils.PsiXmlUtils;
+
+import javax.xml.stream.*;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Temporary files keeping the availabilityList, experimentList, interactorList and interactionList of a compact entry
+ * while the interactions of this entry are written.
+ *
+ * Each list is written in its own temporary file. When the entry is complete, the lists are copied in the
+ * order required by the PSI-XML schema to the output stream writer.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class CompactXmlEntrySpool {
+
+    private static final Logger logger = Logger.getLogger("CompactXmlEntrySpool");
+
+    private SpoolFile availabilities;
+    private SpoolFile experiments;
+    private SpoolFile interactors;
+    private SpoolFile interactions;
+
+    /**
+     *
+     * @param directory : the directory where to create the temporary files. If null, the default temporary directory is used
+     * @throws IOException
+     * @throws XMLStreamException
+     */
+    public CompactXmlEntrySpool(File directory) throws IOException, XMLStreamException {
+        XMLOutputFactory outputFactory = XMLOutputFactory2.newInstance();
+        List<SpoolFile> created = new ArrayList<SpoolFile>(4);
+        try{
+            this.availabilities = new SpoolFile(PsiXmlUtils.AVAILABILITYLIST_TAG, directory, outputFactory);
+            created.add(this.availabilities);
+            this.experiments = new SpoolFile(PsiXmlUtils.EXPERIMENTLIST_TAG, directory, outputFactory);
+            created.add(this.experiments);
+            this.interactors = new SpoolFile(PsiXmlUtils.INTERACTORLIST_TAG, directory, outputFactory);
+            created.add(this.interactors);
+            this.interactions = new SpoolFile(PsiXmlUtils.INTERACTIONLIST_TAG, directory, outputFactory);
+            created.add(this.interactions);
+        }
+        catch (IOException e){
+            for (SpoolFile spool : created){
+                spool.delete();
+            }
+            throw e;
+        }
+        catch (XMLStreamException e){
+            for (SpoolFile spool : created){
+                spool.delete();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     *
+     * @return the stream writer where to write the next availability
+     */
+    public XMLStreamWriter nextAvailability(){
+        return this.availabilities.next();
+    }
+
+    /**
+     *
+     * @return the stream writer where to write the next experiment
+     */
+    public XMLStreamWriter nextExperiment(){
+        return this.experiments.next();
+    }
+
+    /**
+     *
+     * @return the stream writer where to write the next interactor
+     */
+    public XMLStreamWriter nextInteractor(){
+        return this.interactors.next();
+    }
+
+    /**
+     *
+     * @return the stream writer where to write the interactions
+     */
+    public XMLStreamWriter getInteractionWriter(){
+        return this.interactions.getWriter();
+    }
+
+    /**
+     * Closes the lists and the temporary files. Nothing can be written in the spool after this call
+     * @throws XMLStreamException
+     */
+    public void finish() throws XMLStreamException {
+        this.availabilities.finish();
+        this.experiments.finish();
+        this.interactors.finish();
+        this.interactions.finish();
+    }
+
+    /**
+     * Copies the non empty availabilityList, experimentList, interactorList and the interactionList in the output.
+     * The spool must be finished before.
+     * @param output
+     * @throws XMLStreamException
+     */
+    public void copyTo(XMLStreamWriter output) throws XMLStreamException {
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+        if (this.availabilities.getCount() > 0){
+            this.availabilities.copyTo(output, inputFactory);
+        }
+        if (this.experiments.getCount() > 0){
+            this.experiments.copyTo(output, inputFactory);
+        }
+        if (this.interactors.getCount() > 0){
+            this.interactors.copyTo(output, inputFactory);
+        }
+        // the interaction list is always written
+        this.interactions.copyTo(output, inputFactory);
+    }
+
+    /**
+     * Closes and deletes the temporary files
+     */
+    public void delete(){
+        this.availabilities.delete();
+        this.experiments.delete();
+        this.interactors.delete();
+        this.interactions.delete();
+    }
+
+    /**
+     * Temporary file containing a single list
+     */
+    private static class SpoolFile {
+        private File file;
+        private OutputStream stream;
+        private XMLStreamWriter writer;
+        private int count;
+
+        private SpoolFile(String listTag, File directory, XMLOutputFactory outputFactory) throws IOException, XMLStreamException {
+            this.file = File.createTempFile("psi-xml-" + listTag, ".spool", directory);
+            try{
+                this.stream = new BufferedOutputStream(new FileOutputStream(this.file));
+                this.writer = outputFactory.createXMLStreamWriter(this.stream, "UTF-8");
+                this.writer.writeStartElement(listTag);
+            }
+            catch (IOException e){
+                delete();
+                throw e;
+            }
+            catch (XMLStreamException e){
+                delete();
+                throw e;
+            }
+            this.count = 0;
+        }
+
+        private XMLStreamWriter next(){
+            this.count++;
+            return this.writer;
+        }
+
+        private XMLStreamWriter getWriter(){
+            return this.writer;
+        }
+
+        private int getCount(){
+            return this.count;
+        }
+
+        private void finish() throws XMLStreamException {
+            // write end list
+            this.writer.writeEndElement();
+            this.writer.writeEndDocument();
+            this.writer.close();
+            this.writer = null;
+            try {
+                this.stream.close();
+            } catch (IOException e) {
+                throw new XMLStreamException("Impossible to close the temporary file " + this.file.getName(), e);
+            }
+            finally {
+                this.stream = null;
+            }
+        }
+
+        private void copyTo(XMLStreamWriter output, XMLInputFactory inputFactory) throws XMLStreamException {
+            InputStream input;
+            try {
+                input = new BufferedInputStream(new FileInputStream(this.file));
+            } catch (FileNotFoundException e) {
+                throw new XMLStreamException("Impossible to read the temporary file " + this.file.getName(), e);
+            }
+            XMLStreamReader reader = null;
+            try{
+                reader = inputFactory.createXMLStreamReader(input, "UTF-8");
+                int event = reader.next();
+                while (event != XMLStreamConstants.END_DOCUMENT){
+                    switch (event){
+                        case XMLStreamConstants.START_ELEMENT:
+                            event = copyElementStart(reader, output);
+                            continue;
+                        case XMLStreamConstants.END_ELEMENT:
+                            output.writeEndElement();
+                            break;
+                        case XMLStreamConstants.CHARACTERS:
+                            output.writeCharacters(reader.getText());
+                            break;
+                        case XMLStreamConstants.CDATA:
+                            output.writeCData(reader.getText());
+                            break;
+                        case XMLStreamConstants.COMMENT:
+                            output.writeComment(reader.getText());
+                            break;
+                        default:
+                            break;
+                    }
+                    event = reader.next();
+                }
+            }
+            finally {
+                if (reader != null){
+                    reader.close();
+                }
+                try {
+                    input.close();
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Impossible to close the temporary file " + this.file.getName(), e);
+                }
+            }
+        }
+
+        /**
+         * Writes the start of the current element with its namespace declarations and its attributes.
+         * An element without content is written as an empty element.
+         * @param reader
+         * @param output
+         * @return the event following the start of the element which has not been copied yet
+         * @throws XMLStreamException
+         */
+        private int copyElementStart(XMLStreamReader reader, XMLStreamWriter output) throws XMLStreamException {
+            String prefix = reader.getPrefix();
+            String namespace = reader.getNamespaceURI();
+            String name = reader.getLocalName();
+            int namespaceCount = reader.getNamespaceCount();
+            String[][] namespaces = new String[namespaceCount][];
+            for (int i = 0; i < namespaceCount; i++){
+                namespaces[i] = new String[]{reader.getNamespacePrefix(i), reader.getNamespaceURI(i)};
+            }
+            int attributeCount = reader.getAttributeCount();
+            String[][] attributes = new String[attributeCount][];
+            for (int i = 0; i < attributeCount; i++){
+                attributes[i] = new String[]{reader.getAttributePrefix(i), reader.getAttributeNamespace(i),
+                        reader.getAttributeLocalName(i), reader.getAttributeValue(i)};
+            }
+
+            int next = reader.next();
+            boolean isEmpty = next == XMLStreamConstants.END_ELEMENT;
+            // elements without prefix are written with the name only so they stay in the default namespace of the output
+            if (prefix == null || prefix.length() == 0){
+                if (isEmpty){
+                    output.writeEmptyElement(name);
+                }
+                else{
+                    output.writeStartElement(name);
+                }
+            }
+            else if (isEmpty){
+                output.writeEmptyElement(prefix, name, namespace);
+            }
+            else{
+                output.writeStartElement(prefix, name, namespace);
+            }
+            for (String[] declaration : namespaces){
+                if (declaration[0] == null || declaration[0].length() == 0){
+                    output.writeDefaultNamespace(declaration[1]);
+                    output.setDefaultNamespace(declaration[1]);
+                }
+                else{
+                    output.writeNamespace(declaration[0], declaration[1]);
+                    output.setPrefix(declaration[0], declaration[1]);
+                }
+            }
+            for (String[] attribute : attributes){
+                if (attribute[0] == null || attribute[0].length() == 0){
+                    output.writeAttribute(attribute[2], attribute[3]);
+                }
+                else{
+                    output.writeAttribute(attribute[0], attribute[1], attribute[2], attribute[3]);
+                }
+            }
+            // the end of the empty element is already written
+            return isEmpty ? reader.next() : next;
+        }
+
+        private void delete(){
+            if (this.writer != null){
+                try {
+                    this.writer.close();
+                } catch (XMLStreamException e) {
+                    logger.log(Level.WARNING, "Impossible to close the temporary file " + this.file.getName(), e);
+                }
+                this.writer = null;
+            }
+            if (this.stream != null){
+                try {
+                    this.stream.close();
+                } catch (IOException e) {
+                    logger.log(Level.WARNING, "Impossible to close the temporary file " + this.file.getName(), e);
+                }
+                this.stream = null;
+            }
+            if (this.file.exists() && !this.file.delete()){
+                logger.warning("Impossible to delete the temporary file " + this.file.getAbsolutePath());
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package psidev.psi.mi.jami.xml.io.writer.compact;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * XMLStreamWriter delegating to the output stream writer or, temporarily, to another stream writer.
+ *
+ * The compact writers spooling interactions give this stream writer to all their element writers so the
+ * experiments, interactors and interactions of an entry can be written in temporary spool files
+ * while the interactions are read and then copied to the output once the entry is complete.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class RedirectingXMLStreamWriter implements XMLStreamWriter {
+
+    private XMLStreamWriter output;
+    private XMLStreamWriter current;
+
+    public RedirectingXMLStreamWriter(XMLStreamWriter output){
+        if (output == null){
+            throw new IllegalArgumentException("The output stream writer cannot be null.");
+        }
+        this.output = output;
+        this.current = output;
+    }
+
+    /**
+     * All the next events will be written in the given stream writer until restoreOutput is called
+     * @param writer
+     */
+    public void redirectTo(XMLStreamWriter writer){
+        if (writer == null){
+            throw new IllegalArgumentException("The stream writer cannot be null.");
+        }
+        this.current = writer;
+    }
+
+    /**
+     * All the next events will be written in the output stream writer
+     */
+    public void restoreOutput(){
+        this.current = this.output;
+    }
+
+    public XMLStreamWriter getOutput() {
+        return output;
+    }
+
+    public boolean isRedirected(){
+        return this.current != this.output;
+    }
+
+    public void writeStartElement(String localName) throws XMLStreamException {
+        this.current.writeStartElement(localName);
+    }
+
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        this.current.writeStartElement(namespaceURI, localName);
+    }
+
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        this.current.writeStartElement(prefix, localName, namespaceURI);
+    }
+
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        this.current.writeEmptyElement(namespaceURI, localName);
+    }
+
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        this.current.writeEmptyElement(prefix, localName, namespaceURI);
+    }
+
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        this.current.writeEmptyElement(localName);
+    }
+
+    public void writeEndElement() throws XMLStreamException {
+        this.current.writeEndElement();
+    }
+
+    public void writeEndDocument() throws XMLStreamException {
+        this.current.writeEndDocument();
+    }
+
+    public void close() throws XMLStreamException {
+        this.current.close();
+    }
+
+    public void flush() throws XMLStreamException {
+        this.current.flush();
+    }
+
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        this.current.writeAttribute(localName, value);
+    }
+
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+        this.current.writeAttribute(prefix, namespaceURI, localName, value);
+    }
+
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        this.current.writeAttribute(namespaceURI, localName, value);
+    }
+
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        this.current.writeNamespace(prefix, namespaceURI);
+    }
+
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        this.current.writeDefaultNamespace(namespaceURI);
+    }
+
+    public void writeComment(String data) throws XMLStreamException {
+        this.current.writeComment(data);
+    }
+
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        this.current.writeProcessingInstruction(target);
+    }
+
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        this.current.writeProcessingInstruction(target, data);
+    }
+
+    public void writeCData(String data) throws XMLStreamException {
+        this.current.writeCData(data);
+    }
+
+    public void writeDTD(String dtd) throws XMLStreamException {
+        this.current.writeDTD(dtd);
+    }
+
+    public void writeEntityRef(String name) throws XMLStreamException {
+        this.current.writeEntityRef(name);
+    }
+
+    public void writeStartDocument() throws XMLStreamException {
+        this.current.writeStartDocument();
+    }
+
+    public void writeStartDocument(String version) throws XMLStreamException {
+        this.current.writeStartDocument(version);
+    }
+
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        this.current.writeStartDocument(encoding, version);
+    }
+
+    public void writeCharacters(String text) throws XMLStreamException {
+        this.current.writeCharacters(text);
+    }
+
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        this.current.writeCharacters(text, start, len);
+    }
+
+    public String getPrefix(String uri) throws XMLStreamException {
+        return this.current.getPrefix(uri);
+    }
+
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        this.current.setPrefix(prefix, uri);
+    }
+
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        this.current.setDefaultNamespace(uri);
+    }
+
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+        this.current.setNamespaceContext(context);
+    }
+
+    public NamespaceContext getNamespaceContext() {
+        return this.current.getNamespaceContext();
+    }
+
+    public Object getProperty(String name) throws IllegalArgumentException {
+        return this.current.getProperty(name);
+    }
+}
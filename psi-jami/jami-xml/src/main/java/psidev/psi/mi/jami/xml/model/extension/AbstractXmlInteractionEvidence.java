@@ -279,7 +279,7 @@ public abstract class AbstractXmlInteractionEvidence extends AbstractPsiXmlInter
                     !this.jaxbExperimentWrapper.jaxbExperiments.isEmpty()){
                 for (Experiment exp : this.jaxbExperimentWrapper.jaxbExperiments){
                     jaxbExperimentWrapper.experiments.add(exp);
-                    exp.getInteractionEvidences().add(this);
+                    XmlEntryContext.getInstance().linkInteractionEvidence(exp, this);
                 }
             }
 
@@ -711,14 +711,14 @@ public abstract class AbstractXmlInteractionEvidence extends AbstractPsiXmlInter
                             experiments.add(exp);
                             jaxbExperiments.add(exp);
 
-                            exp.getInteractionEvidences().add(parent);
+                            XmlEntryContext.getInstance().linkInteractionEvidence(exp, parent);
                             return true;
                         }
                         else {
                             experiments.remove(this);
                             experiments.add(obj);
 
-                            obj.getInteractionEvidences().add(parent);
+                            XmlEntryContext.getInstance().linkInteractionEvidence(obj, parent);
                             return true;
                         }
                     }
@@ -14,7 +14,11 @@ import psidev.psi.mi.jami.model.*;
 import psidev.psi.mi.jami.utils.MIFileDatasourceUtils;
 import psidev.psi.mi.jami.xml.XmlEntryContext;
 import psidev.psi.mi.jami.xml.cache.PsiXmlIdCache;
+import psidev.psi.mi.jami.xml.cache.PsiXmlPositionScanner;
 import psidev.psi.mi.jami.xml.exception.PsiXmlParserException;
+import psidev.psi.mi.jami.xml.io.parser.AbstractFullPsiXmlParser;
+import psidev.psi.mi.jami.xml.io.parser.AbstractPsiXmlParser;
+import psidev.psi.mi.jami.xml.io.parser.AbstractPsixmlBinaryParser;
 import psidev.psi.mi.jami.xml.io.parser.PsiXmlParser;
 import psidev.psi.mi.jami.xml.listener.PsiXmlParserListener;
 import psidev.psi.mi.jami.xml.model.extension.factory.XmlInteractorFactory;
@@ -56,6 +60,7 @@ public abstract class AbstractPsiXmlStream<T extends Interaction> implements Psi
 
     private Boolean isValid = null;
     private PsiXmlIdCache elementCache;
+    private PsiXmlPositionScanner positionScanner;
 
     public static final String VALIDATION_FEATURE = "http://xml.org/sax/features/validation";
     public static final String SCHEMA_FEATURE = "http://apache.org/xml/features/validation/schema";
@@ -271,6 +276,10 @@ public abstract class AbstractPsiXmlStream<T extends Interaction> implements Psi
             this.elementCache = (PsiXmlIdCache)options.get(PsiXmlDataSourceOptions.ELEMENT_WITH_ID_CACHE_OPTION);
         }
 
+        if (options.containsKey(PsiXmlDataSourceOptions.POSITION_SCANNER_OPTION)){
+            this.positionScanner = (PsiXmlPositionScanner)options.get(PsiXmlDataSourceOptions.POSITION_SCANNER_OPTION);
+        }
+
         if (options.containsKey(PsiXmlDataSourceOptions.INTERACTOR_FACTORY_OPTION_KEY)){
            setInteractorFactory(new XmlInteractorFactory((XmlInteractorFactory)options.get(PsiXmlDataSourceOptions.ELEMENT_WITH_ID_CACHE_OPTION)));
         }
@@ -295,6 +304,7 @@ public abstract class AbstractPsiXmlStream<T extends Interaction> implements Psi
     public void close() throws MIIOException{
         if (isInitialised){
             this.elementCache = null;
+            this.positionScanner = null;
             this.parserListener = null;
             this.defaultParserListener = null;
             this.isValid = null;
@@ -310,6 +320,7 @@ public abstract class AbstractPsiXmlStream<T extends Interaction> implements Psi
     public void reset() throws MIIOException{
         if (isInitialised){
             this.elementCache = null;
+            this.positionScanner = null;
             this.parser = null;
             this.parserListener = null;
             this.defaultParserListener = null;
@@ -643,6 +654,17 @@ public abstract class AbstractPsiXmlStream<T extends Interaction> implements Psi
     protected void setParser(PsiXmlParser<T> parser) {
         this.parser = parser;
         this.parser.setInteractorFactory(getInteractorFactory());
+        if (this.positionScanner != null){
+            if (this.parser instanceof AbstractPsiXmlParser){
+                ((AbstractPsiXmlParser<T>) this.parser).setPositionScanner(this.positionScanner);
+            }
+            else if (this.parser instanceof AbstractFullPsiXmlParser){
+                ((AbstractFullPsiXmlParser<T>) this.parser).setPositionScanner(this.positionScanner);
+            }
+            else if (this.parser instanceof AbstractPsixmlBinaryParser){
+                ((AbstractPsixmlBinaryParser) this.parser).setPositionScanner(this.positionScanner);
+            }
+        }
     }
 
     protected boolean isInitialised() {
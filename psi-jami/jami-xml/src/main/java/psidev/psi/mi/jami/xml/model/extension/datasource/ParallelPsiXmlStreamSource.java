@@ -0,0 +1,940 @@
+package psidev.psi.mi.jami.xml.model.extension.datasource;
+
+import org.codehaus.stax2.XMLInputFactory2;
+import psidev.psi.mi.jami.datasource.*;
+import psidev.psi.mi.jami.exception.MIIOException;
+import psidev.psi.mi.jami.factory.options.MIDataSourceOptions;
+import psidev.psi.mi.jami.factory.options.MIFileDataSourceOptions;
+import psidev.psi.mi.jami.listener.MIFileParserListener;
+import psidev.psi.mi.jami.model.*;
+import psidev.psi.mi.jami.utils.MIFileDatasourceUtils;
+import psidev.psi.mi.jami.xml.PsiXmlVersion;
+import psidev.psi.mi.jami.xml.XmlEntryContext;
+import psidev.psi.mi.jami.xml.cache.ConcurrentPsiXmlReferenceCache;
+import psidev.psi.mi.jami.xml.cache.PsiXmlIdCache;
+import psidev.psi.mi.jami.xml.cache.PsiXmlPositionMap;
+import psidev.psi.mi.jami.xml.cache.PsiXmlPositionScanner;
+import psidev.psi.mi.jami.xml.exception.PsiXmlParserException;
+import psidev.psi.mi.jami.xml.listener.PsiXmlParserListener;
+import psidev.psi.mi.jami.xml.model.Entry;
+import psidev.psi.mi.jami.xml.model.extension.AbstractAvailability;
+import psidev.psi.mi.jami.xml.model.extension.AbstractXmlInteractor;
+import psidev.psi.mi.jami.xml.model.extension.ExtendedPsiXmlSource;
+import psidev.psi.mi.jami.xml.model.extension.PsiXmlLocator;
+import psidev.psi.mi.jami.xml.model.extension.factory.XmlInteractorFactory;
+import psidev.psi.mi.jami.xml.model.extension.factory.options.PsiXmlDataSourceOptions;
+import psidev.psi.mi.jami.xml.model.reference.XmlIdReference;
+import psidev.psi.mi.jami.xml.utils.PsiXmlUtils;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A PSI-XML datasource which unmarshals the interactions of a PSI-XML file with several threads.
+ *
+ * The file is indexed once by a ConcurrentPsiXmlReferenceCache. The thread of the iterator reads the file with a XMLStreamReader,
+ * unmarshals the header of each entry (source, availabilities, experiments and interactors) and skips the interactions. Each interaction
+ * is then unmarshalled from its indexed position by a worker thread, with its own unmarshaller, and its references are resolved against
+ * the experiments, interactors and availabilities of the entry which are shared by the threads. The source locators of the objects have
+ * the line numbers of the file.
+ *
+ * The iterator can return the interactions in the order of the file or in the order they have been unmarshalled.
+ * The events of the parser listener are recorded by the worker threads and are fired in the thread of the iterator, before the interaction
+ * is returned, so the parser listener does not need to be thread safe. The XmlInteractorFactory is shared by the worker threads.
+ * An interaction which cannot be unmarshalled is reported to the parser listener and the next interactions are still returned.
+ *
+ * Some limitations of this datasource :
+ * - the interactions are read from a file because the worker threads need to jump to their position. URLs, streams and readers are not supported.
+ * - the experiments are shared by the interactions of an entry and their interaction evidences are added by the worker threads. They
+ * should not be read before the iterator has returned all the interactions of the entry.
+ * - an object declared inside an interaction and referenced from another interaction is loaded again from the file
+ * so the two interactions do not share the same instance.
+ * - the XML file is still read by a single thread. Only the unmarshalling of the interactions and the resolution of their references are done in parallel.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ParallelPsiXmlStreamSource<T extends Interaction> implements MIFileDataSource, InteractionStream<T> {
+
+    private static final Logger logger = Logger.getLogger("ParallelPsiXmlStreamSource");
+
+    private InteractionCategory category;
+    private boolean isInitialised = false;
+
+    private File originalFile;
+
+    private Boolean isValid = null;
+    private MIFileParserListener parserListener;
+    private XmlInteractorFactory interactorFactory;
+    private PsiXmlPositionScanner positionScanner;
+
+    private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+    private int maxPendingInteractions = -1;
+    private boolean isOrdered = true;
+
+    private ParallelPsiXmlIterator currentIterator;
+
+    /**
+     * Constructor for the factory
+     * @param category : the category of the interactions to unmarshal (evidence, modelled, complex, mixed or basic)
+     */
+    public ParallelPsiXmlStreamSource(InteractionCategory category){
+        if (category == null){
+            throw new IllegalArgumentException("The parallel PSI-XML datasource needs the category of the interactions to unmarshal.");
+        }
+        this.category = category;
+    }
+
+    public ParallelPsiXmlStreamSource(InteractionCategory category, File file){
+        this(category);
+        initialiseFile(file);
+        isInitialised = true;
+    }
+
+    public void initialiseContext(Map<String, Object> options) {
+        if (options == null && !isInitialised){
+            throw new IllegalArgumentException("The options for the parallel PSI-XML interaction datasource should contain at least "+ MIFileDataSourceOptions.INPUT_OPTION_KEY + " to know where to read the interactions from.");
+        }
+        else if (options == null){
+            return;
+        }
+        else if (options.containsKey(MIFileDataSourceOptions.INPUT_OPTION_KEY)){
+            Object input = options.get(MIFileDataSourceOptions.INPUT_OPTION_KEY);
+            if (input instanceof File){
+                initialiseFile((File) input);
+            }
+            // suspect a file path
+            else if (input instanceof String){
+                String inputString = (String)input;
+                SourceCategory category = MIFileDatasourceUtils.findSourceCategoryFromString(inputString);
+                switch (category){
+                    // file uri
+                    case file_URI:
+                        try {
+                            initialiseFile(new File(new URI(inputString)));
+                        } catch (URISyntaxException e) {
+                            throw new IllegalArgumentException("Impossible to open and read the file " + inputString, e);
+                        }
+                        break;
+                    // we cannot jump to the positions of the interactions in a URL
+                    case URL:
+                        throw new IllegalArgumentException("Impossible to read the URL " + inputString + ", the parallel PSI-XML datasource can only read files.");
+                    // we have a file
+                    default:
+                        initialiseFile(new File(inputString));
+                        break;
+                }
+            }
+            else {
+                throw new IllegalArgumentException("Impossible to read the provided input "+input.getClass().getName() + ", a File or file path was expected.");
+            }
+        }
+        else if (!isInitialised){
+            throw new IllegalArgumentException("The options for the parallel PSI-XML interaction datasource should contain at least "+ MIFileDataSourceOptions.INPUT_OPTION_KEY + " to know where to read the interactions from.");
+        }
+
+        if (options.containsKey(MIFileDataSourceOptions.PARSER_LISTENER_OPTION_KEY)){
+            setFileParserListener((MIFileParserListener) options.get(MIFileDataSourceOptions.PARSER_LISTENER_OPTION_KEY));
+        }
+
+        if (options.containsKey(MIDataSourceOptions.INTERACTOR_FACTORY_OPTION_KEY)){
+            setInteractorFactory((XmlInteractorFactory) options.get(MIDataSourceOptions.INTERACTOR_FACTORY_OPTION_KEY));
+        }
+
+        if (options.containsKey(PsiXmlDataSourceOptions.POSITION_SCANNER_OPTION)){
+            setPositionScanner((PsiXmlPositionScanner) options.get(PsiXmlDataSourceOptions.POSITION_SCANNER_OPTION));
+        }
+
+        if (options.containsKey(PsiXmlDataSourceOptions.PARALLEL_THREADS_OPTION_KEY)){
+            setNumberOfThreads((Integer) options.get(PsiXmlDataSourceOptions.PARALLEL_THREADS_OPTION_KEY));
+        }
+
+        if (options.containsKey(PsiXmlDataSourceOptions.MAX_PENDING_INTERACTIONS_OPTION_KEY)){
+            setMaxPendingInteractions((Integer) options.get(PsiXmlDataSourceOptions.MAX_PENDING_INTERACTIONS_OPTION_KEY));
+        }
+
+        if (options.containsKey(PsiXmlDataSourceOptions.ORDERED_ITERATOR_OPTION_KEY)){
+            setOrdered((Boolean) options.get(PsiXmlDataSourceOptions.ORDERED_ITERATOR_OPTION_KEY));
+        }
+
+        isInitialised = true;
+    }
+
+    public Iterator<T> getInteractionsIterator() throws MIIOException {
+        if (!isInitialised){
+            throw new IllegalStateException("The parallel PSI-XML interaction datasource has not been initialised. The options for the parallel PSI-XML interaction datasource should contain at least "+ MIFileDataSourceOptions.INPUT_OPTION_KEY + " to know where to read the interactions from.");
+        }
+        if (this.currentIterator != null){
+            this.currentIterator.close();
+        }
+        this.currentIterator = new ParallelPsiXmlIterator();
+        return this.currentIterator;
+    }
+
+    public MIFileParserListener getFileParserListener() {
+        return this.parserListener;
+    }
+
+    public void setFileParserListener(MIFileParserListener listener) {
+        this.parserListener = listener;
+    }
+
+    /**
+     * Validates the file against the PSI-XML schema
+     * @return true if the file is valid and no interactions could not be unmarshalled by a previous iterator
+     * @throws MIIOException
+     */
+    public boolean validateSyntax() throws MIIOException {
+        if (!isInitialised){
+            throw new IllegalStateException("The parallel PSI-XML interaction datasource has not been initialised. The options for the parallel PSI-XML interaction datasource should contain at least "+ MIFileDataSourceOptions.INPUT_OPTION_KEY + " to know where to read the interactions from.");
+        }
+
+        if (isValid != null){
+            return isValid;
+        }
+
+        // the schema validation does not depend on the category of the interactions
+        XmlEvidenceStreamSource schemaValidator = new XmlEvidenceStreamSource(this.originalFile);
+        try {
+            isValid = schemaValidator.validateSyntax(this.parserListener);
+        }
+        finally {
+            schemaValidator.close();
+        }
+        return isValid;
+    }
+
+    public boolean validateSyntax(MIFileParserListener listener) throws MIIOException {
+        setFileParserListener(listener);
+        return validateSyntax();
+    }
+
+    public void close() throws MIIOException {
+        if (isInitialised){
+            if (this.currentIterator != null){
+                this.currentIterator.close();
+            }
+            reset();
+        }
+    }
+
+    public void reset() throws MIIOException {
+        if (isInitialised){
+            if (this.currentIterator != null){
+                this.currentIterator.close();
+            }
+            this.currentIterator = null;
+            this.originalFile = null;
+            this.parserListener = null;
+            this.interactorFactory = null;
+            this.positionScanner = null;
+            isValid = null;
+            isInitialised = false;
+        }
+    }
+
+    public InteractionCategory getCategory() {
+        return category;
+    }
+
+    public XmlInteractorFactory getInteractorFactory() {
+        return interactorFactory;
+    }
+
+    /**
+     *
+     * @param interactorFactory : the interactor factory shared by the threads. It must be thread safe.
+     */
+    public void setInteractorFactory(XmlInteractorFactory interactorFactory) {
+        this.interactorFactory = interactorFactory;
+    }
+
+    public PsiXmlPositionScanner getPositionScanner() {
+        return positionScanner;
+    }
+
+    /**
+     *
+     * @param positionScanner : the scanner indexing the positions of the file. If null, a MappedPsiXmlPositionScanner is used
+     */
+    public void setPositionScanner(PsiXmlPositionScanner positionScanner) {
+        this.positionScanner = positionScanner;
+    }
+
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    /**
+     * Sets the number of threads unmarshalling the interactions of the next iterators
+     * @param numberOfThreads
+     */
+    public void setNumberOfThreads(int numberOfThreads) {
+        if (numberOfThreads < 1){
+            throw new IllegalArgumentException("The number of threads must be at least 1: "+numberOfThreads);
+        }
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     *
+     * @return the maximum number of interactions read in advance by the iterators
+     */
+    public int getMaxPendingInteractions() {
+        return maxPendingInteractions > 0 ? maxPendingInteractions : 64 * numberOfThreads;
+    }
+
+    /**
+     * Sets the maximum number of interactions read in advance by the next iterators. In an ordered iterator, it is the maximum number of
+     * interactions which have been unmarshalled and wait for the previous interactions.
+     * @param maxPendingInteractions
+     */
+    public void setMaxPendingInteractions(int maxPendingInteractions) {
+        if (maxPendingInteractions < 1){
+            throw new IllegalArgumentException("The maximum number of pending interactions must be at least 1: "+maxPendingInteractions);
+        }
+        this.maxPendingInteractions = maxPendingInteractions;
+    }
+
+    public boolean isOrdered() {
+        return isOrdered;
+    }
+
+    /**
+     * Sets the order of the interactions returned by the next iterators
+     * @param ordered : true if the interactions are returned in the order of the file, false if the interactions are returned
+     * as soon as they have been unmarshalled
+     */
+    public void setOrdered(boolean ordered) {
+        isOrdered = ordered;
+    }
+
+    private void initialiseFile(File file)  {
+        if (file == null){
+            throw new IllegalArgumentException("The file cannot be null.");
+        }
+        else if (!file.canRead()){
+            throw new IllegalArgumentException("Does not have the permissions to read the file "+file.getAbsolutePath());
+        }
+        this.originalFile = file;
+    }
+
+    private static void initialiseEntryContext(XmlEntryContext context, PsiXmlIdCache cache, PsiXmlParserListener listener,
+                                               XmlInteractorFactory interactorFactory, Entry entry){
+        context.clear();
+        context.setListener(listener);
+        context.setInteractorFactory(interactorFactory);
+        context.setElementCache(cache);
+        context.setCurrentSource(entry);
+        context.initialiseInferredInteractionList();
+        context.initialiseReferencesList();
+    }
+
+    /**
+     * Iterator reading the entries of the file and submitting the interactions to its own pool of threads
+     */
+    private class ParallelPsiXmlIterator implements Iterator<T> {
+
+        private XMLStreamReader streamReader;
+        private ConcurrentPsiXmlReferenceCache referenceCache;
+        private ExecutorService executorService;
+        // only used by an unordered iterator, the futures of an ordered iterator are taken from the pending interactions
+        private CompletionService<ParsedInteraction<T>> completionService;
+        private LinkedList<Future<ParsedInteraction<T>>> pendingInteractions = new LinkedList<Future<ParsedInteraction<T>>>();
+        private int maxPendingInteractions;
+        private boolean isOrdered;
+        private boolean hasReadAllInteractions = false;
+        private boolean hasProcessedCurrentEvent = false;
+
+        private String namespaceUri;
+        private int entryNumber = 0;
+        private Entry currentEntry;
+        private ConcurrentPsiXmlReferenceCache.EntryCache headerCache;
+        private RecordedEvents headerEvents;
+        private PsiXmlParserListener headerListener;
+        private int firedHeaderEvents;
+        private PsiXmlParserException readingError;
+
+        private T nextInteraction;
+
+        private ParallelPsiXmlIterator() throws MIIOException {
+            this.maxPendingInteractions = getMaxPendingInteractions();
+            this.isOrdered = ParallelPsiXmlStreamSource.this.isOrdered;
+            if (parserListener != null){
+                this.headerEvents = new RecordedEvents();
+                this.headerListener = this.headerEvents.createListener();
+            }
+            try {
+                XMLInputFactory xmlif = XMLInputFactory2.newInstance();
+                this.streamReader = xmlif.createXMLStreamReader(new StreamSource(originalFile));
+            } catch (XMLStreamException e) {
+                throw new MIIOException("Cannot create a XMLStreamReader to parse the file " + originalFile.getName(), e);
+            }
+            this.executorService = Executors.newFixedThreadPool(numberOfThreads);
+            if (!this.isOrdered){
+                this.completionService = new ExecutorCompletionService<ParsedInteraction<T>>(executorService);
+            }
+
+            PsiXmlVersion version = readVersion();
+            if (version != null){
+                try {
+                    this.referenceCache = new ConcurrentPsiXmlReferenceCache(originalFile, version, category, positionScanner);
+                } catch (IOException e) {
+                    close();
+                    throw new MIIOException("Impossible to index the file " + originalFile.getName(), e);
+                } catch (JAXBException e) {
+                    close();
+                    throw new MIIOException("Impossible to create the JAXB unmarshallers", e);
+                }
+                submitInteractions();
+            }
+            else {
+                this.hasReadAllInteractions = true;
+                if (this.headerListener != null){
+                    this.headerListener.onInvalidSyntax(new DefaultFileSourceContext(new PsiXmlLocator(1,1,null)), new PsiXmlParserException("Xml254ExperimentalEntrySet root term not found. PSI-XML is not valid."));
+                }
+            }
+            processNextInteraction();
+        }
+
+        public boolean hasNext() {
+            return this.nextInteraction != null;
+        }
+
+        public T next() throws MIIOException {
+            T current = this.nextInteraction;
+            processNextInteraction();
+            return current;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("A PSI-XML iterator does not support the remove method");
+        }
+
+        private void processNextInteraction() throws MIIOException {
+            this.nextInteraction = null;
+            while (this.nextInteraction == null){
+                ParsedInteraction<T> parsedInteraction = takeParsedInteraction();
+                if (parsedInteraction == null){
+                    fireHeaderEvents(this.headerEvents != null ? this.headerEvents.size() : 0);
+                    PsiXmlParserException error = this.readingError;
+                    close();
+                    if (error != null){
+                        processError(error);
+                    }
+                    break;
+                }
+                fireHeaderEvents(parsedInteraction.headerEventsBefore);
+                if (parsedInteraction.events != null && parserListener != null){
+                    parsedInteraction.events.fire(parserListener, 0, parsedInteraction.events.size());
+                }
+                if (parsedInteraction.error != null){
+                    processError(parsedInteraction.error);
+                }
+                else {
+                    // the shared experiments are only updated by this thread, in the order the interactions are returned
+                    if (parsedInteraction.experimentLinks != null){
+                        for (XmlEntryContext.ExperimentLink link : parsedInteraction.experimentLinks){
+                            link.link();
+                        }
+                    }
+                    this.nextInteraction = parsedInteraction.interaction;
+                }
+                submitInteractions();
+            }
+        }
+
+        private void processError(PsiXmlParserException error) throws MIIOException {
+            isValid = false;
+            if (parserListener != null){
+                parserListener.onInvalidSyntax(new DefaultFileSourceContext(error.getLocator()), error);
+            }
+            else {
+                close();
+                throw new MIIOException("Impossible to read next interaction.", error);
+            }
+        }
+
+        private void fireHeaderEvents(int end) throws MIIOException {
+            // in an unordered iterator, the interactions of a previous entry can be returned after the events of the next entry
+            if (this.headerEvents != null && parserListener != null && end > this.firedHeaderEvents){
+                this.headerEvents.fire(parserListener, this.firedHeaderEvents, end);
+                this.firedHeaderEvents = end;
+            }
+        }
+
+        private ParsedInteraction<T> takeParsedInteraction() throws MIIOException {
+            Future<ParsedInteraction<T>> result;
+            if (this.pendingInteractions.isEmpty()){
+                return null;
+            }
+            try {
+                if (this.isOrdered){
+                    result = this.pendingInteractions.removeFirst();
+                }
+                else {
+                    result = this.completionService.take();
+                    this.pendingInteractions.remove(result);
+                }
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new MIIOException("Interrupted while unmarshalling the PSI-XML interactions", e);
+            } catch (ExecutionException e) {
+                close();
+                if (e.getCause() instanceof MIIOException){
+                    throw (MIIOException) e.getCause();
+                }
+                throw new MIIOException("Impossible to unmarshal the PSI-XML interaction", e.getCause());
+            }
+        }
+
+        private void submitInteractions() {
+            while (!this.hasReadAllInteractions && this.pendingInteractions.size() < this.maxPendingInteractions){
+                try {
+                    readNextEvent();
+                } catch (XMLStreamException e) {
+                    stopReading(createPsiXmlExceptionFrom("Impossible to read the PSI-XML file", e));
+                } catch (JAXBException e) {
+                    stopReading(createPsiXmlExceptionFrom("Impossible to parse the entry", e));
+                } catch (IOException e) {
+                    stopReading(createPsiXmlExceptionFrom("Impossible to parse the entry", e));
+                } catch (MIIOException e) {
+                    stopReading(createPsiXmlExceptionFrom("Impossible to parse the entry", e));
+                }
+            }
+        }
+
+        private PsiXmlVersion readVersion() throws MIIOException {
+            try {
+                // skip all elements that are not from a PSI-XML schema
+                while (this.streamReader.hasNext()){
+                    if (this.streamReader.isStartElement() && this.streamReader.getNamespaceURI() != null){
+                        String namespace = this.streamReader.getNamespaceURI().trim();
+                        if (PsiXmlUtils.Xml254_NAMESPACE_URI.equals(namespace)){
+                            this.namespaceUri = namespace;
+                            return PsiXmlVersion.v2_5_4;
+                        }
+                        else if (PsiXmlUtils.Xml253_NAMESPACE_URI.equals(namespace)){
+                            this.namespaceUri = namespace;
+                            return PsiXmlVersion.v2_5_3;
+                        }
+                        else if (PsiXmlUtils.Xml300_NAMESPACE_URI.equals(namespace.toLowerCase())){
+                            this.namespaceUri = namespace;
+                            return PsiXmlVersion.v3_0_0;
+                        }
+                    }
+                    this.streamReader.next();
+                }
+                return null;
+            } catch (XMLStreamException e) {
+                close();
+                throw new MIIOException("Impossible to find the PSI-XML root element", e);
+            }
+        }
+
+        /**
+         * Processes the next event of the stream reader. JAXB leaves the stream reader on the event following the end of the
+         * unmarshalled element so this event has not been processed yet.
+         */
+        private void readNextEvent() throws XMLStreamException, JAXBException, IOException {
+            if (this.hasProcessedCurrentEvent){
+                if (!this.streamReader.hasNext()){
+                    stopReading(null);
+                    return;
+                }
+                this.streamReader.next();
+            }
+            this.hasProcessedCurrentEvent = true;
+
+            if (this.streamReader.isStartElement() && isFromPsiNamespace()){
+                String name = this.streamReader.getLocalName();
+                if (PsiXmlUtils.ENTRY_TAG.equals(name)){
+                    startEntry();
+                }
+                else if (this.currentEntry == null){
+                    if (!PsiXmlUtils.ENTRYSET_TAG.equals(name)){
+                        processUnexpectedNode("We found a tag " + name + ". We only expected interaction, entry or entrySet tag");
+                    }
+                }
+                else if (PsiXmlUtils.SOURCE_TAG.equals(name)){
+                    ExtendedPsiXmlSource source = unmarshalHeaderElement();
+                    this.currentEntry.setSource(source);
+                }
+                else if (PsiXmlUtils.AVAILABILITY_TAG.equals(name)){
+                    // the modelled, complex and basic parsers ignore the availabilities
+                    if (InteractionCategory.evidence.equals(category) || InteractionCategory.mixed.equals(category)){
+                        AbstractAvailability availability = unmarshalHeaderElement();
+                        this.currentEntry.getAvailabilities().add(availability);
+                    }
+                    else {
+                        skipElement();
+                    }
+                }
+                else if (PsiXmlUtils.EXPERIMENT_TAG.equals(name)){
+                    // the basic parser ignores the experiments
+                    if (!InteractionCategory.basic.equals(category)){
+                        unmarshalHeaderElement();
+                    }
+                    else {
+                        skipElement();
+                    }
+                }
+                else if (PsiXmlUtils.INTERACTOR_TAG.equals(name)){
+                    AbstractXmlInteractor interactor = unmarshalHeaderElement();
+                    XmlEntryContext.getInstance().getInteractorFactory().createInteractorFromXmlInteractorInstance(interactor);
+                }
+                else if (PsiXmlUtils.ATTRIBUTE_TAG.equals(name)){
+                    Annotation attribute = unmarshalHeaderElement();
+                    this.currentEntry.getAnnotations().add(attribute);
+                }
+                else if (PsiXmlUtils.INTERACTION_TAG.equals(name) || PsiXmlUtils.ABSTRACT_INTERACTION_TAG.equals(name)){
+                    submitInteraction();
+                }
+                else if (!PsiXmlUtils.AVAILABILITYLIST_TAG.equals(name) && !PsiXmlUtils.EXPERIMENTLIST_TAG.equals(name)
+                        && !PsiXmlUtils.INTERACTORLIST_TAG.equals(name) && !PsiXmlUtils.INTERACTIONLIST_TAG.equals(name)
+                        && !PsiXmlUtils.ATTRIBUTELIST_TAG.equals(name)){
+                    processUnexpectedNode("ExperimentalEntry contains a node "+name+". In an entry, only a source, experimentList, interactorList, interactionList, attributeList and availabilityList are allowed. PSI-XML is not valid.");
+                }
+            }
+            else if (this.streamReader.isEndElement() && isFromPsiNamespace()
+                    && PsiXmlUtils.ENTRY_TAG.equals(this.streamReader.getLocalName()) && this.currentEntry != null){
+                this.currentEntry.setHasLoadedFullEntry(true);
+                this.currentEntry = null;
+            }
+        }
+
+        private void startEntry() throws IOException, JAXBException {
+            this.entryNumber++;
+            this.currentEntry = new Entry();
+            this.headerCache = this.referenceCache.getEntryCache(this.entryNumber, true);
+            initialiseEntryContext(XmlEntryContext.getInstance(), this.headerCache, this.headerListener, interactorFactory, this.currentEntry);
+        }
+
+        private <E> E unmarshalHeaderElement() throws JAXBException {
+            E element = (E) this.headerCache.getUnmarshaller().unmarshal(this.streamReader);
+            this.hasProcessedCurrentEvent = false;
+            resolveHeaderReferences();
+            return element;
+        }
+
+        private void resolveHeaderReferences() {
+            XmlEntryContext context = XmlEntryContext.getInstance();
+            synchronized (this.referenceCache){
+                context.resolveInteractorAndExperimentRefs();
+            }
+            context.resolveInferredInteractionRefs();
+            // the unresolved references have been reported
+            context.initialiseReferencesList();
+        }
+
+        private void submitInteraction() throws XMLStreamException, JAXBException {
+            Location location = this.streamReader.getLocation();
+            int lineNumber = location != null ? location.getLineNumber() : 1;
+            int columnNumber = location != null ? location.getColumnNumber() : 1;
+
+            long position = PsiXmlPositionMap.NO_POSITION;
+            String id = this.streamReader.getAttributeValue(null, "id");
+            if (id != null){
+                try {
+                    position = this.referenceCache.getInteractionPosition(this.entryNumber, Integer.parseInt(id.trim()));
+                } catch (NumberFormatException e) {
+                    position = PsiXmlPositionMap.NO_POSITION;
+                }
+            }
+
+            if (position != PsiXmlPositionMap.NO_POSITION){
+                skipElement();
+                submit(new InteractionParsingTask<T>(this.referenceCache, this.entryNumber,
+                        this.currentEntry, position, lineNumber, columnNumber, interactorFactory, parserListener != null,
+                        this.headerEvents != null ? this.headerEvents.size() : 0));
+            }
+            // the interaction has not been indexed, it is unmarshalled by the thread of the iterator
+            else {
+                XmlEntryContext.getInstance().initialiseExperimentLinkList();
+                final T interaction = unmarshalHeaderElement();
+                final List<XmlEntryContext.ExperimentLink> experimentLinks = XmlEntryContext.getInstance().releaseExperimentLinks();
+                final int eventsBefore = this.headerEvents != null ? this.headerEvents.size() : 0;
+                submit(new Callable<ParsedInteraction<T>>() {
+                    public ParsedInteraction<T> call() throws Exception {
+                        return new ParsedInteraction<T>(interaction, eventsBefore, null, experimentLinks, null);
+                    }
+                });
+            }
+        }
+
+        private void submit(Callable<ParsedInteraction<T>> task){
+            // the completion service keeps each completed future until it is taken, so an ordered iterator which
+            // takes its futures from the pending interactions submits directly to the executor
+            if (this.isOrdered){
+                this.pendingInteractions.add(this.executorService.submit(task));
+            }
+            else {
+                this.pendingInteractions.add(this.completionService.submit(task));
+            }
+        }
+
+        private void skipElement() throws XMLStreamException {
+            int depth = 1;
+            while (depth > 0 && this.streamReader.hasNext()){
+                int event = this.streamReader.next();
+                if (event == XMLStreamReader.START_ELEMENT){
+                    depth++;
+                }
+                else if (event == XMLStreamReader.END_ELEMENT){
+                    depth--;
+                }
+            }
+        }
+
+        private void processUnexpectedNode(String message) throws XMLStreamException {
+            if (this.headerListener != null){
+                this.headerListener.onInvalidSyntax(createContext(), new PsiXmlParserException(message));
+            }
+            skipElement();
+        }
+
+        private boolean isFromPsiNamespace(){
+            return this.streamReader.getNamespaceURI() != null && this.namespaceUri.equals(this.streamReader.getNamespaceURI().trim());
+        }
+
+        private FileSourceContext createContext(){
+            Location location = this.streamReader.getLocation();
+            if (location != null){
+                return new DefaultFileSourceContext(new PsiXmlLocator(location.getLineNumber(), location.getColumnNumber(), null));
+            }
+            return null;
+        }
+
+        private PsiXmlParserException createPsiXmlExceptionFrom(String message, Exception e) {
+            Location location = this.streamReader.getLocation();
+            FileSourceLocator locator = null;
+            if (location != null){
+                locator = new FileSourceLocator(location.getLineNumber(), location.getColumnNumber());
+            }
+            return new PsiXmlParserException(locator, message, e);
+        }
+
+        private void stopReading(PsiXmlParserException error){
+            this.hasReadAllInteractions = true;
+            this.readingError = error;
+            // the threads stop once the submitted interactions have been unmarshalled
+            this.executorService.shutdown();
+            closeStreamReader();
+        }
+
+        private void close() {
+            this.hasReadAllInteractions = true;
+            this.nextInteraction = null;
+            for (Future<ParsedInteraction<T>> pendingInteraction : this.pendingInteractions){
+                pendingInteraction.cancel(false);
+            }
+            this.pendingInteractions.clear();
+            // the completed futures which have not been taken are released with the completion service
+            this.completionService = null;
+            this.executorService.shutdown();
+            try {
+                // the caches of the threads cannot be closed while they are unmarshalling interactions
+                while (!this.executorService.awaitTermination(1, TimeUnit.SECONDS)){
+                    logger.log(Level.FINE, "Waiting for the threads unmarshalling the PSI-XML interactions.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closeStreamReader();
+            if (this.referenceCache != null){
+                this.referenceCache.close();
+                this.referenceCache = null;
+            }
+            this.currentEntry = null;
+            this.headerCache = null;
+            // release the thread local
+            XmlEntryContext.getInstance().clear();
+            XmlEntryContext.remove();
+        }
+
+        private void closeStreamReader() {
+            if (this.streamReader != null){
+                try {
+                    this.streamReader.close();
+                } catch (XMLStreamException e) {
+                    logger.log(Level.SEVERE, "Could not close the XMLStreamReader.", e);
+                }
+                this.streamReader = null;
+            }
+        }
+    }
+
+    /**
+     * Unmarshals an interaction from its position in the file and resolves its references.
+     */
+    private static class InteractionParsingTask<T extends Interaction> implements Callable<ParsedInteraction<T>> {
+        private final ConcurrentPsiXmlReferenceCache referenceCache;
+        private final int entryNumber;
+        private final Entry entry;
+        private final long position;
+        private final int lineNumber;
+        private final int columnNumber;
+        private final XmlInteractorFactory interactorFactory;
+        private final boolean isRecordingEvents;
+        private final int headerEventsBefore;
+
+        private InteractionParsingTask(ConcurrentPsiXmlReferenceCache referenceCache, int entryNumber, Entry entry, long position,
+                                       int lineNumber, int columnNumber, XmlInteractorFactory interactorFactory,
+                                       boolean isRecordingEvents, int headerEventsBefore) {
+            this.referenceCache = referenceCache;
+            this.entryNumber = entryNumber;
+            this.entry = entry;
+            this.position = position;
+            this.lineNumber = lineNumber;
+            this.columnNumber = columnNumber;
+            this.interactorFactory = interactorFactory;
+            this.isRecordingEvents = isRecordingEvents;
+            this.headerEventsBefore = headerEventsBefore;
+        }
+
+        public ParsedInteraction<T> call() throws Exception {
+            RecordedEvents events = isRecordingEvents ? new RecordedEvents() : null;
+            XmlEntryContext context = XmlEntryContext.getInstance();
+            try {
+                ConcurrentPsiXmlReferenceCache.EntryCache cache = referenceCache.getEntryCache(entryNumber, false);
+                initialiseEntryContext(context, cache, events != null ? events.createListener() : null, interactorFactory, entry);
+                context.initialiseExperimentLinkList();
+
+                T interaction = (T) cache.loadInteraction(position, lineNumber, columnNumber);
+                // the references are resolved against the shared header objects, the links to the experiments are added
+                // by the thread of the iterator
+                synchronized (referenceCache){
+                    context.resolveInteractorAndExperimentRefs();
+                }
+                context.resolveInferredInteractionRefs();
+                return new ParsedInteraction<T>(interaction, headerEventsBefore, events, context.releaseExperimentLinks(), null);
+            } catch (JAXBException e) {
+                return new ParsedInteraction<T>(null, headerEventsBefore, events, null, createPsiXmlExceptionFrom(e));
+            } catch (XMLStreamException e) {
+                return new ParsedInteraction<T>(null, headerEventsBefore, events, null, createPsiXmlExceptionFrom(e));
+            } catch (IOException e) {
+                return new ParsedInteraction<T>(null, headerEventsBefore, events, null, createPsiXmlExceptionFrom(e));
+            } catch (MIIOException e) {
+                return new ParsedInteraction<T>(null, headerEventsBefore, events, null, createPsiXmlExceptionFrom(e));
+            }
+            finally {
+                // release the thread local
+                context.clear();
+                XmlEntryContext.remove();
+            }
+        }
+
+        private PsiXmlParserException createPsiXmlExceptionFrom(Exception e) {
+            return new PsiXmlParserException(new FileSourceLocator(lineNumber, columnNumber), "Impossible to parse the interaction", e);
+        }
+    }
+
+    /**
+     * An unmarshalled interaction and its events
+     */
+    private static class ParsedInteraction<T extends Interaction> {
+        private final T interaction;
+        private final int headerEventsBefore;
+        private final RecordedEvents events;
+        private final List<XmlEntryContext.ExperimentLink> experimentLinks;
+        private final PsiXmlParserException error;
+
+        private ParsedInteraction(T interaction, int headerEventsBefore, RecordedEvents events,
+                                  List<XmlEntryContext.ExperimentLink> experimentLinks, PsiXmlParserException error) {
+            this.interaction = interaction;
+            this.headerEventsBefore = headerEventsBefore;
+            this.events = events;
+            this.experimentLinks = experimentLinks;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Records the calls to a PSI-XML parser listener so they can be fired later to the parser listener of the datasource.
+     * The events specific to PSI-XML are fired as syntax warnings when the parser listener is not a PsiXmlParserListener.
+     */
+    private static class RecordedEvents implements InvocationHandler {
+        private final List<Method> methods = new ArrayList<Method>();
+        private final List<Object[]> arguments = new ArrayList<Object[]>();
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class){
+                return method.invoke(this, args);
+            }
+            methods.add(method);
+            arguments.add(args);
+            return null;
+        }
+
+        private PsiXmlParserListener createListener(){
+            return (PsiXmlParserListener) Proxy.newProxyInstance(PsiXmlParserListener.class.getClassLoader(),
+                    new Class[]{PsiXmlParserListener.class}, this);
+        }
+
+        private int size(){
+            return methods.size();
+        }
+
+        private void fire(MIFileParserListener listener, int start, int end) throws MIIOException {
+            for (int i = start; i < end; i++){
+                Method method = methods.get(i);
+                Object[] args = arguments.get(i);
+                if (!method.getDeclaringClass().isInstance(listener)){
+                    fireSyntaxWarning(listener, method.getName(), args);
+                    continue;
+                }
+                try {
+                    method.invoke(listener, args);
+                } catch (IllegalAccessException e) {
+                    throw new MIIOException("Impossible to fire the parser event " + method.getName(), e);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof RuntimeException){
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new MIIOException("Impossible to fire the parser event " + method.getName(), e.getCause());
+                }
+            }
+        }
+
+        private void fireSyntaxWarning(MIFileParserListener listener, String methodName, Object[] args){
+            if ("onUnresolvedReference".equals(methodName)){
+                listener.onSyntaxWarning((XmlIdReference) args[0], (String) args[1]);
+                return;
+            }
+            Collection<?> objects = (Collection<?>) args[0];
+            FileSourceContext context = (FileSourceContext) objects.iterator().next();
+            if ("onSeveralHostOrganismFound".equals(methodName)){
+                listener.onSyntaxWarning(context, objects.size()+" host organism attached to the same experiment");
+            }
+            else if ("onSeveralExpressedInOrganismFound".equals(methodName)){
+                listener.onSyntaxWarning(context, objects.size()+" host organism attached to the same participant");
+            }
+            else if ("onSeveralExperimentalRolesFound".equals(methodName)){
+                listener.onSyntaxWarning(context, objects.size()+" experimental roles attached to the same participant");
+            }
+            else if ("onSeveralExperimentsFound".equals(methodName)){
+                listener.onSyntaxWarning(context, objects.size()+" experiments attached to the same interaction");
+            }
+        }
+    }
+}
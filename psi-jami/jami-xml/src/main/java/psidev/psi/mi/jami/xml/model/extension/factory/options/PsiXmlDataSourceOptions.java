@@ -21,6 +21,36 @@ public class PsiXmlDataSourceOptions extends MIFileDataSourceOptions{
      */
     public static final String ELEMENT_WITH_ID_CACHE_OPTION = "element_id_cache_key";
 
+    /**
+     * The object instance implementing the PsiXmlPositionScanner interface.
+     * This object will be used to index the positions of XML elements having ids when the datasource reads a file and
+     * no ELEMENT_WITH_ID_CACHE_OPTION is provided. If this option is not provided, it will use a MappedPsiXmlPositionScanner by default.
+     * A SidecarPsiXmlPositionScanner can be provided to save the index next to the file and reuse it when the same file is parsed again.
+     */
+    public static final String POSITION_SCANNER_OPTION = "position_scanner_key";
+
+    /**
+     * The option to set the number of threads unmarshalling the interactions of a ParallelPsiXmlStreamSource.
+     * It has to be a positive integer.
+     * If this option is not provided, it will be the number of available processors
+     */
+    public static final String PARALLEL_THREADS_OPTION_KEY = "psi_xml_parallel_threads_key";
+
+    /**
+     * The option to set the maximum number of interactions a ParallelPsiXmlStreamSource reads in advance. These interactions
+     * are kept in memory until they are returned by the iterator.
+     * It has to be a positive integer.
+     * If this option is not provided, it will be 64 times the number of threads
+     */
+    public static final String MAX_PENDING_INTERACTIONS_OPTION_KEY = "psi_xml_max_pending_interactions_key";
+
+    /**
+     * The option to return the interactions of a ParallelPsiXmlStreamSource in the order of the file.
+     * It has to be a boolean value. If false, the interactions are returned as soon as they have been unmarshalled.
+     * If this option is not provided, it will be true by default
+     */
+    public static final String ORDERED_ITERATOR_OPTION_KEY = "psi_xml_ordered_iterator_key";
+
     /**
      * The option to describe the type of interaction object we want to return.
      * It has to be an enum of type InteractionCategory (evidence, modelled, basic, mixed). If this option is not provided,
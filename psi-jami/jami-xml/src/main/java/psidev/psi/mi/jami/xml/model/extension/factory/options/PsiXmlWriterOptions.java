@@ -85,6 +85,22 @@ public class PsiXmlWriterOptions extends InteractionWriterOptions{
      */
     public static final String COMPACT_XML_AVAILABILITY_SET_OPTION = "compact_xml_availability_set_key";
 
+    /**
+     * The option to spool the interactions of each entry in temporary files when writing compact xml instead of keeping them in memory.
+     * The experiments, interactors and availabilities are written in temporary files as soon as they are met and are only tracked by their ids,
+     * so the memory used does not depend on the number of interactions in an entry.
+     * It is a boolean value.
+     * If this option is not provided, it will be set to false by default (interactions of an entry kept in memory).
+     * When this option is true and no ELEMENT_WITH_ID_CACHE_OPTION is provided, it will use a InMemoryWeakIdentityObjectCache by default.
+     */
+    public static final String COMPACT_XML_SPOOL_INTERACTIONS_OPTION = "compact_xml_spool_interactions_key";
+
+    /**
+     * The option to provide the directory (File) where the temporary files are created when COMPACT_XML_SPOOL_INTERACTIONS_OPTION is true.
+     * If this option is not provided, it will use the default temporary directory.
+     */
+    public static final String COMPACT_XML_SPOOL_DIRECTORY_OPTION = "compact_xml_spool_directory_key";
+
     /**
      * The option to provide a set of interactions that will be used to list all unique interactions in a compact xml file..
      * If this option is not provided, it will use a default identity set that will be based on object equality.
@@ -0,0 +1,112 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Unit tester for LongPsiXmlPositionMap
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class LongPsiXmlPositionMapTest {
+
+    @Test
+    public void test_put_get_contains() {
+        LongPsiXmlPositionMap map = new LongPsiXmlPositionMap();
+        Assert.assertEquals(0, map.size());
+        Assert.assertFalse(map.containsPosition(1, 1));
+        Assert.assertEquals(PsiXmlPositionMap.NO_POSITION, map.getPosition(1, 1));
+
+        map.putPosition(1, 1, 0);
+        map.putPosition(1, -1, 25);
+        map.putPosition(2, 1, 3000000000L);
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(0, map.getPosition(1, 1));
+        Assert.assertEquals(25, map.getPosition(1, -1));
+        Assert.assertEquals(3000000000L, map.getPosition(2, 1));
+        Assert.assertFalse(map.containsPosition(1, 2));
+
+        // override
+        map.putPosition(1, 1, 10);
+        Assert.assertEquals(3, map.size());
+        Assert.assertEquals(10, map.getPosition(1, 1));
+
+        map.clear();
+        Assert.assertEquals(0, map.size());
+        Assert.assertFalse(map.containsPosition(1, 1));
+    }
+
+    @Test
+    public void test_free_key() {
+        LongPsiXmlPositionMap map = new LongPsiXmlPositionMap();
+        Assert.assertFalse(map.containsPosition(Integer.MIN_VALUE, 0));
+        map.putPosition(Integer.MIN_VALUE, 0, 5);
+        Assert.assertTrue(map.containsPosition(Integer.MIN_VALUE, 0));
+        Assert.assertEquals(5, map.getPosition(Integer.MIN_VALUE, 0));
+        Assert.assertEquals(1, map.size());
+        Assert.assertFalse(map.containsPosition(0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_negative_position() {
+        new LongPsiXmlPositionMap().putPosition(1, 1, -1);
+    }
+
+    @Test
+    public void test_full_map() {
+        LongPsiXmlPositionMap map = new LongPsiXmlPositionMap(0, 128);
+        // 128 slots with a load factor of 0.75
+        for (int id = 0; id < 96; id++){
+            map.putPosition(1, id, id);
+        }
+        Assert.assertEquals(128, map.getCapacity());
+
+        try {
+            map.putPosition(1, 96, 96);
+            Assert.fail("The map should be full");
+        }
+        catch (IllegalStateException e){
+            // expected
+        }
+
+        // the map is unchanged and existing positions can still be updated
+        Assert.assertEquals(96, map.size());
+        Assert.assertFalse(map.containsPosition(1, 96));
+        map.putPosition(1, 5, 500);
+        Assert.assertEquals(500, map.getPosition(1, 5));
+        for (int id = 0; id < 96; id++){
+            Assert.assertTrue(map.containsPosition(1, id));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_max_capacity_not_power_of_two() {
+        new LongPsiXmlPositionMap(0, 100);
+    }
+
+    @Test
+    public void test_same_content_as_hash_map() {
+        LongPsiXmlPositionMap map = new LongPsiXmlPositionMap(10);
+        HashPsiXmlPositionMap reference = new HashPsiXmlPositionMap();
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++){
+            int entry = random.nextInt(5);
+            int id = random.nextInt(150000) - 10;
+            long position = (long)(random.nextDouble() * Long.MAX_VALUE);
+            map.putPosition(entry, id, position);
+            reference.putPosition(entry, id, position);
+        }
+        Assert.assertEquals(reference.size(), map.size());
+        for (int entry = 0; entry < 6; entry++){
+            for (int id = -10; id < 150000; id++){
+                Assert.assertEquals(reference.getPosition(entry, id), map.getPosition(entry, id));
+                Assert.assertEquals(reference.containsPosition(entry, id), map.containsPosition(entry, id));
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+
+/**
+ * Unit tester for MappedPsiXmlPositionScanner
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class MappedPsiXmlPositionScannerTest {
+
+    @Test
+    public void test_same_positions_as_stream_scanner_xml25() throws IOException, URISyntaxException {
+        File directory = new File(MappedPsiXmlPositionScannerTest.class.getResource("/samples/10049915.xml").toURI()).getParentFile();
+        assertSamePositionsInDirectory(directory);
+    }
+
+    @Test
+    public void test_same_positions_as_stream_scanner_xml30() throws IOException, URISyntaxException {
+        File directory = new File(MappedPsiXmlPositionScannerTest.class.getResource("/samples/xml30/gaba_receptor_abstract.xml").toURI()).getParentFile();
+        assertSamePositionsInDirectory(directory);
+    }
+
+    @Test
+    public void test_same_positions_as_stream_scanner_synthetic_file() throws IOException {
+        File file = File.createTempFile("synthetic", ".xml");
+        file.deleteOnExit();
+        SyntheticPsiXmlFileGenerator.generate(file, 2 * 1024 * 1024);
+
+        List<String> expected = scan(new StreamPsiXmlPositionScanner(), file);
+        Assert.assertTrue(expected.size() > 1000);
+        Assert.assertEquals(expected, scan(new MappedPsiXmlPositionScanner(), file));
+        Assert.assertEquals(expected, scan(new MappedPsiXmlPositionScanner(4096, true), file));
+        Assert.assertEquals(expected, scan(new MappedPsiXmlPositionScanner(4093, false), file));
+    }
+
+    @Test
+    public void test_tags_across_blocks_and_null_bytes() throws IOException {
+        File file = File.createTempFile("nullbytes", ".xml");
+        file.deleteOnExit();
+        String content = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<!-- <interaction id=\"9\"> -->" +
+                "<entrySet><entry><experimentList><experimentDescription id=\"1\"></experimentDescription></experimentList>" +
+                "<interactionList><interaction id=\"2\"><participantList><participant id=\"3\"><featureList>" +
+                "<feature id=\"4\"/></featureList></participant></participantList></interaction>" +
+                "<interaction  id=\"5\"></interaction><Interaction id=\"6\"></Interaction></interactionList></entry></entrySet>";
+        FileOutputStream out = new FileOutputStream(file);
+        try{
+            byte[] bytes = content.getBytes("ISO-8859-1");
+            for (byte b : bytes){
+                out.write(b);
+                if (b == 'n'){
+                    out.write(0);
+                }
+            }
+        }
+        finally {
+            out.close();
+        }
+
+        List<String> expected = scan(new StreamPsiXmlPositionScanner(), file);
+        Assert.assertTrue(expected.contains("encoding:ISO-8859-1"));
+        Assert.assertEquals(7, expected.size());
+        for (int blockSize = 1; blockSize < 20; blockSize++){
+            Assert.assertEquals(expected, scan(new MappedPsiXmlPositionScanner(blockSize, true), file));
+            Assert.assertEquals(expected, scan(new MappedPsiXmlPositionScanner(blockSize, false), file));
+        }
+    }
+
+    private void assertSamePositionsInDirectory(File directory) throws IOException {
+        File[] files = directory.listFiles();
+        Assert.assertNotNull(files);
+        for (File file : files){
+            if (file.isFile() && file.getName().endsWith(".xml")){
+                List<String> expected = scan(new StreamPsiXmlPositionScanner(), file);
+                Assert.assertEquals(file.getName(), expected, scan(new MappedPsiXmlPositionScanner(), file));
+                Assert.assertEquals(file.getName(), expected, scan(new MappedPsiXmlPositionScanner(1024, false), file));
+            }
+        }
+    }
+
+    private List<String> scan(PsiXmlPositionScanner scanner, File file) throws IOException {
+        RecordingPositionIndexListener listener = new RecordingPositionIndexListener();
+        scanner.scan(file, listener);
+        return listener.getEvents();
+    }
+}
@@ -0,0 +1,70 @@
+package psidev.psi.mi.jami.xml.cache;
+
+/**
+ * Measures the heap used per million indexed positions by the different PsiXmlPositionMap implementations.
+ *
+ * It is not run with the unit tests, run the main method with a large heap (-Xmx4g) to execute it.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class PsiXmlPositionMapFootprint {
+
+    private static final int MILLION = 1000000;
+
+    public static void main(String[] args) {
+        final int millions = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+        System.out.println("Positions indexed: " + millions + " millions");
+        System.out.println("HashPsiXmlPositionMap: " + measure(new MapFactory() {
+            public PsiXmlPositionMap create() {
+                return new HashPsiXmlPositionMap();
+            }
+        }, millions) + " Mb per million positions");
+        System.out.println("LongPsiXmlPositionMap: " + measure(new MapFactory() {
+            public PsiXmlPositionMap create() {
+                return new LongPsiXmlPositionMap();
+            }
+        }, millions) + " Mb per million positions");
+        System.out.println("LongPsiXmlPositionMap (presized): " + measure(new MapFactory() {
+            public PsiXmlPositionMap create() {
+                return new LongPsiXmlPositionMap(millions * MILLION);
+            }
+        }, millions) + " Mb per million positions");
+    }
+
+    private static double measure(MapFactory factory, int millions){
+        long before = usedMemory();
+        PsiXmlPositionMap map = factory.create();
+        long position = 0;
+        for (int i = 0; i < millions * MILLION; i++){
+            // several entries, ids restarting at each entry as in real files
+            map.putPosition(1 + i / MILLION, i % MILLION, position);
+            position += 100;
+        }
+        long after = usedMemory();
+        if (map.size() != millions * MILLION){
+            throw new IllegalStateException("Wrong number of positions");
+        }
+        return Math.round((after - before) * 100.0 / (1024 * 1024) / millions) / 100.0;
+    }
+
+    private static long usedMemory(){
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++){
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private interface MapFactory {
+        public PsiXmlPositionMap create();
+    }
+}
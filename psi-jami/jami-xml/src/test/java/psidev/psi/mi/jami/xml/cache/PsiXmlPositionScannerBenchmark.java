@@ -0,0 +1,110 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the stream position scanner with the mapped position scanner on synthetic PSI-XML files.
+ *
+ * It is not run with the unit tests, run the main method to execute it (file size in Mb can be overridden
+ * with -p fileSizeInMb=...).
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class PsiXmlPositionScannerBenchmark {
+
+    @Param({"1024", "4096"})
+    public long fileSizeInMb;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void generateFile() throws IOException {
+        this.file = File.createTempFile("synthetic-psixml-" + fileSizeInMb, ".xml");
+        this.file.deleteOnExit();
+        SyntheticPsiXmlFileGenerator.generate(this.file, fileSizeInMb * 1024 * 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() {
+        this.file.delete();
+    }
+
+    @Benchmark
+    public void streamScanner(Blackhole blackhole) throws IOException {
+        new StreamPsiXmlPositionScanner().scan(this.file, new BlackholeListener(blackhole));
+    }
+
+    @Benchmark
+    public void mappedScanner(Blackhole blackhole) throws IOException {
+        new MappedPsiXmlPositionScanner().scan(this.file, new BlackholeListener(blackhole));
+    }
+
+    @Benchmark
+    public void directBufferScanner(Blackhole blackhole) throws IOException {
+        new MappedPsiXmlPositionScanner(MappedPsiXmlPositionScanner.DEFAULT_BLOCK_SIZE, false).scan(this.file, new BlackholeListener(blackhole));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PsiXmlPositionScannerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    private static class BlackholeListener implements PsiXmlPositionIndexListener {
+        private Blackhole blackhole;
+
+        private BlackholeListener(Blackhole blackhole){
+            this.blackhole = blackhole;
+        }
+
+        public void onEncoding(String encoding) {
+            blackhole.consume(encoding);
+        }
+
+        public void onExperiment(int entry, int id, long position) {
+            blackhole.consume(position);
+        }
+
+        public void onInteractor(int entry, int id, long position) {
+            blackhole.consume(position);
+        }
+
+        public void onInteraction(int entry, int id, long position) {
+            blackhole.consume(position);
+        }
+
+        public void onAbstractInteraction(int entry, int id, long position) {
+            blackhole.consume(position);
+        }
+
+        public void onParticipant(int entry, int id, long position) {
+            blackhole.consume(position);
+        }
+
+        public void onFeature(int entry, int id, long position) {
+            blackhole.consume(position);
+        }
+
+        public void onVariableParameterValue(int entry, int id, long position) {
+            blackhole.consume(position);
+        }
+    }
+}
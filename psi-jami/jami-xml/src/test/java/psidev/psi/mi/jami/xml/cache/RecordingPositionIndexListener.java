@@ -0,0 +1,52 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Position index listener recording all the events as Strings so they can be compared in tests
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class RecordingPositionIndexListener implements PsiXmlPositionIndexListener {
+    private List<String> events = new ArrayList<String>();
+
+    public List<String> getEvents() {
+        return events;
+    }
+
+    public void onEncoding(String encoding) {
+        events.add("encoding:" + encoding);
+    }
+
+    public void onExperiment(int entry, int id, long position) {
+        events.add("experiment:" + entry + ":" + id + ":" + position);
+    }
+
+    public void onInteractor(int entry, int id, long position) {
+        events.add("interactor:" + entry + ":" + id + ":" + position);
+    }
+
+    public void onInteraction(int entry, int id, long position) {
+        events.add("interaction:" + entry + ":" + id + ":" + position);
+    }
+
+    public void onAbstractInteraction(int entry, int id, long position) {
+        events.add("abstractInteraction:" + entry + ":" + id + ":" + position);
+    }
+
+    public void onParticipant(int entry, int id, long position) {
+        events.add("participant:" + entry + ":" + id + ":" + position);
+    }
+
+    public void onFeature(int entry, int id, long position) {
+        events.add("feature:" + entry + ":" + id + ":" + position);
+    }
+
+    public void onVariableParameterValue(int entry, int id, long position) {
+        events.add("variableValue:" + entry + ":" + id + ":" + position);
+    }
+}
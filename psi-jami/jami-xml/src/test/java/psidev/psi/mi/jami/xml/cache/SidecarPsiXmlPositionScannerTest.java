@@ -0,0 +1,176 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import junit.framework.Assert;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Unit tester for SidecarPsiXmlPositionScanner
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SidecarPsiXmlPositionScannerTest {
+
+    private File directory;
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        this.directory = File.createTempFile("sidecar", "");
+        this.directory.delete();
+        this.directory.mkdir();
+        this.file = new File(this.directory, "10049915-several-entries.xml");
+        FileUtils.copyURLToFile(SidecarPsiXmlPositionScannerTest.class.getResource("/samples/10049915-several-entries.xml"), this.file);
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        FileUtils.deleteDirectory(this.directory);
+    }
+
+    @Test
+    public void test_write_and_reload_sidecar() throws IOException {
+        List<String> expected = scan(new StreamPsiXmlPositionScanner());
+
+        File sidecar = SidecarPsiXmlPositionScanner.getSidecarFile(this.file);
+        Assert.assertFalse(sidecar.exists());
+
+        Assert.assertEquals(expected, scan(new SidecarPsiXmlPositionScanner()));
+        Assert.assertTrue(sidecar.exists());
+
+        // the sidecar is valid so the file should not be scanned again
+        CountingScanner counter = new CountingScanner();
+        Assert.assertEquals(expected, scan(new SidecarPsiXmlPositionScanner(counter)));
+        Assert.assertEquals(0, counter.numberOfScans);
+    }
+
+    @Test
+    public void test_rebuild_outdated_sidecar() throws IOException {
+        scan(new SidecarPsiXmlPositionScanner());
+        File sidecar = SidecarPsiXmlPositionScanner.getSidecarFile(this.file);
+        Assert.assertTrue(sidecar.exists());
+        long lastModified = this.file.lastModified();
+
+        // same size, same last modification, different content
+        RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "rw");
+        try{
+            randomAccessFile.seek(randomAccessFile.length() - 3);
+            randomAccessFile.write(' ');
+        }
+        finally {
+            randomAccessFile.close();
+        }
+        Assert.assertTrue(this.file.setLastModified(lastModified));
+
+        CountingScanner counter = new CountingScanner();
+        Assert.assertEquals(scan(new StreamPsiXmlPositionScanner()), scan(new SidecarPsiXmlPositionScanner(counter)));
+        Assert.assertEquals(1, counter.numberOfScans);
+    }
+
+    @Test
+    public void test_rebuild_sidecar_modified_in_the_middle() throws IOException {
+        // large file so the modified byte is far from the beginning and the end of the file
+        byte[] padding = new byte[3 * 1024 * 1024];
+        Arrays.fill(padding, (byte)' ');
+        FileUtils.writeByteArrayToFile(this.file, padding, true);
+
+        scan(new SidecarPsiXmlPositionScanner());
+        File sidecar = SidecarPsiXmlPositionScanner.getSidecarFile(this.file);
+        Assert.assertTrue(sidecar.exists());
+        long lastModified = this.file.lastModified();
+
+        // same size, same last modification, different content
+        RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "rw");
+        try{
+            randomAccessFile.seek(randomAccessFile.length() - padding.length / 2);
+            randomAccessFile.write('\n');
+        }
+        finally {
+            randomAccessFile.close();
+        }
+        Assert.assertTrue(this.file.setLastModified(lastModified));
+
+        CountingScanner counter = new CountingScanner();
+        Assert.assertEquals(scan(new StreamPsiXmlPositionScanner()), scan(new SidecarPsiXmlPositionScanner(counter)));
+        Assert.assertEquals(1, counter.numberOfScans);
+    }
+
+    @Test
+    public void test_rebuild_corrupted_sidecar() throws IOException {
+        List<String> expected = scan(new SidecarPsiXmlPositionScanner());
+        File sidecar = SidecarPsiXmlPositionScanner.getSidecarFile(this.file);
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(sidecar, "rw");
+        try{
+            randomAccessFile.seek(randomAccessFile.length() - 1);
+            randomAccessFile.write(0x7F);
+        }
+        finally {
+            randomAccessFile.close();
+        }
+
+        CountingScanner counter = new CountingScanner();
+        Assert.assertEquals(expected, scan(new SidecarPsiXmlPositionScanner(counter)));
+        Assert.assertEquals(1, counter.numberOfScans);
+
+        counter = new CountingScanner();
+        Assert.assertEquals(expected, scan(new SidecarPsiXmlPositionScanner(counter)));
+        Assert.assertEquals(0, counter.numberOfScans);
+    }
+
+    @Test
+    public void test_rebuild_sidecar_with_unknown_record_type() throws IOException {
+        List<String> expected = scan(new SidecarPsiXmlPositionScanner());
+        File sidecar = SidecarPsiXmlPositionScanner.getSidecarFile(this.file);
+
+        // unknown type for the last record with a valid records checksum
+        RandomAccessFile randomAccessFile = new RandomAccessFile(sidecar, "rw");
+        try{
+            randomAccessFile.seek(randomAccessFile.length() - 17);
+            randomAccessFile.write(0x7F);
+            byte[] records = new byte[(int)randomAccessFile.length() - 128];
+            randomAccessFile.seek(128);
+            randomAccessFile.readFully(records);
+            CRC32 crc = new CRC32();
+            crc.update(records);
+            randomAccessFile.seek(40);
+            randomAccessFile.writeLong(crc.getValue());
+        }
+        finally {
+            randomAccessFile.close();
+        }
+
+        // the positions of the valid records must not be notified before the file is scanned
+        CountingScanner counter = new CountingScanner();
+        Assert.assertEquals(expected, scan(new SidecarPsiXmlPositionScanner(counter)));
+        Assert.assertEquals(1, counter.numberOfScans);
+    }
+
+    private List<String> scan(PsiXmlPositionScanner scanner) throws IOException {
+        RecordingPositionIndexListener listener = new RecordingPositionIndexListener();
+        scanner.scan(this.file, listener);
+        return listener.getEvents();
+    }
+
+    private static class CountingScanner extends MappedPsiXmlPositionScanner {
+        private int numberOfScans = 0;
+
+        @Override
+        public void scan(File f, PsiXmlPositionIndexListener listener) throws IOException {
+            numberOfScans++;
+            super.scan(f, listener);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import java.io.*;
+
+/**
+ * Generates synthetic compact PSI-XML 2.5 files of a given size for testing and benchmarking the file index cache
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SyntheticPsiXmlFileGenerator {
+
+    private static final int INTERACTIONS_PER_ENTRY = 10000;
+
+    /**
+     * Writes a synthetic PSI-XML file which is at least minimumSize bytes long
+     * @param file : the file to write
+     * @param minimumSize : the minimum size of the file in bytes
+     * @throws IOException
+     */
+    public static void generate(File file, long minimumSize) throws IOException {
+        CountingWriter writer = new CountingWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"), 1024 * 1024));
+        try{
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+            writer.write("<entrySet level=\"2\" version=\"5\" minorVersion=\"4\" xmlns=\"net:sf:psidev:mi\">\n");
+            int id = 1;
+            while (writer.count < minimumSize){
+                writer.write("  <!-- synthetic entry <interaction id=\"0\"> -->\n");
+                writer.write("  <entry>\n");
+                writer.write("    <experimentList>\n");
+                int experimentId = id++;
+                writer.write("      <experimentDescription id=\"" + experimentId + "\">\n");
+                writer.write("        <names><shortLabel>synthetic-" + experimentId + "</shortLabel></names>\n");
+                writer.write("      </experimentDescription>\n");
+                writer.write("    </experimentList>\n");
+                writer.write("    <interactionList>\n");
+                for (int i = 0; i < INTERACTIONS_PER_ENTRY && writer.count < minimumSize; i++){
+                    writer.write("      <interaction id=\"" + (id++) + "\">\n");
+                    writer.write("        <names><shortLabel>a-b</shortLabel></names>\n");
+                    writer.write("        <experimentList><experimentRef>" + experimentId + "</experimentRef></experimentList>\n");
+                    writer.write("        <participantList>\n");
+                    for (int p = 0; p < 2; p++){
+                        writer.write("          <participant id=\"" + (id++) + "\">\n");
+                        writer.write("            <interactor id=\"" + (id++) + "\">\n");
+                        writer.write("              <names><shortLabel>P" + id + "</shortLabel></names>\n");
+                        writer.write("              <xref><primaryRef db=\"uniprotkb\" id=\"P" + id + "\"/></xref>\n");
+                        writer.write("            </interactor>\n");
+                        writer.write("            <featureList>\n");
+                        writer.write("              <feature id=\"" + (id++) + "\">\n");
+                        writer.write("                <featureRangeList><featureRange><begin position=\"1\"/><end position=\"10\"/></featureRange></featureRangeList>\n");
+                        writer.write("              </feature>\n");
+                        writer.write("            </featureList>\n");
+                        writer.write("          </participant>\n");
+                    }
+                    writer.write("        </participantList>\n");
+                    writer.write("      </interaction>\n");
+                }
+                writer.write("    </interactionList>\n");
+                writer.write("  </entry>\n");
+            }
+            writer.write("</entrySet>\n");
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writer counting the number of characters written (all characters are ASCII)
+     */
+    private static class CountingWriter extends FilterWriter {
+        private long count;
+
+        private CountingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(String str) throws IOException {
+            super.write(str, 0, str.length());
+            this.count += str.length();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package psidev.psi.mi.jami.xml.cache;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+
+/**
+ * Unit tester for WeakIdentityHashMap
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class WeakIdentityHashMapTest {
+
+    @Test
+    public void test_identity_keys() {
+        WeakIdentityHashMap<String, Integer> map = new WeakIdentityHashMap<String, Integer>();
+        String key1 = new String("key");
+        String key2 = new String("key");
+
+        Assert.assertNull(map.put(key1, 1));
+        Assert.assertNull(map.put(key2, 2));
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals(Integer.valueOf(1), map.get(key1));
+        Assert.assertEquals(Integer.valueOf(2), map.get(key2));
+        Assert.assertFalse(map.containsKey("key2"));
+
+        Assert.assertEquals(Integer.valueOf(1), map.put(key1, 3));
+        Assert.assertEquals(Integer.valueOf(3), map.remove(key1));
+        Assert.assertFalse(map.containsKey(key1));
+        Assert.assertTrue(map.containsKey(key2));
+
+        map.clear();
+        Assert.assertEquals(0, map.size());
+        Assert.assertNull(map.get(null));
+    }
+
+    @Test
+    public void test_entry_set_snapshot() {
+        WeakIdentityHashMap<Object, Integer> map = new WeakIdentityHashMap<Object, Integer>();
+        Object key = new Object();
+        map.put(key, 1);
+        Map.Entry<Object, Integer> entry = map.entrySet().iterator().next();
+        Assert.assertSame(key, entry.getKey());
+        Assert.assertEquals(Integer.valueOf(1), entry.getValue());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_entry_set_unmodifiable() {
+        WeakIdentityHashMap<Object, Integer> map = new WeakIdentityHashMap<Object, Integer>();
+        map.put(new Object(), 1);
+        map.entrySet().clear();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_null_key() {
+        new WeakIdentityHashMap<Object, Integer>().put(null, 1);
+    }
+}
@@ -0,0 +1,66 @@
+package psidev.psi.mi.jami.xml.io.parser;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import psidev.psi.mi.jami.model.InteractionEvidence;
+import psidev.psi.mi.jami.xml.exception.PsiXmlParserException;
+
+import javax.xml.bind.JAXBException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark measuring the latency of parsing a small PSI-XML file when the JAXB context has to be built
+ * (first file, as before contexts were cached) and when the JAXB context is cached (steady state).
+ *
+ * It is not run with the unit tests, run the main method to execute it.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class JaxbUnmarshallerFactoryBenchmark {
+
+    @Benchmark
+    public void firstFile(Blackhole blackhole) throws JAXBException, PsiXmlParserException {
+        JaxbUnmarshallerFactory.getInstance().clearContexts();
+        parseSample(blackhole);
+    }
+
+    @Benchmark
+    public void steadyState(Blackhole blackhole) throws JAXBException, PsiXmlParserException {
+        parseSample(blackhole);
+    }
+
+    private void parseSample(Blackhole blackhole) throws JAXBException, PsiXmlParserException {
+        InputStream stream = JaxbUnmarshallerFactoryBenchmark.class.getResourceAsStream("/samples/10049915.xml");
+        XmlEvidenceParser parser = new XmlEvidenceParser(stream);
+        try{
+            InteractionEvidence interaction = parser.parseNextInteraction();
+            while (interaction != null){
+                blackhole.consume(interaction);
+                interaction = parser.parseNextInteraction();
+            }
+        }
+        finally {
+            parser.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JaxbUnmarshallerFactoryBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
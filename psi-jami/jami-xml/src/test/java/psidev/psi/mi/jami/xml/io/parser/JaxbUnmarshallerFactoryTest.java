@@ -0,0 +1,109 @@
+package psidev.psi.mi.jami.xml.io.parser;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import psidev.psi.mi.jami.model.InteractionCategory;
+import psidev.psi.mi.jami.xml.PsiXmlVersion;
+import psidev.psi.mi.jami.xml.exception.PsiXmlParserException;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Unit tester for JaxbUnmarshallerFactory
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class JaxbUnmarshallerFactoryTest {
+
+    @Test
+    public void test_new_unmarshaller_from_cached_context() throws JAXBException {
+        JaxbUnmarshallerFactory factory = JaxbUnmarshallerFactory.getInstance();
+        factory.clearContexts();
+
+        Unmarshaller unmarshaller1 = factory.createUnmarshaller(PsiXmlVersion.v2_5_4, InteractionCategory.evidence);
+        Assert.assertEquals(1, factory.getCachedContexts().size());
+        JAXBContext context = factory.getCachedContexts().values().iterator().next();
+
+        // mixed is parsed as evidence in PSI-XML 2.5 so the same context is used
+        Unmarshaller unmarshaller2 = factory.createUnmarshaller(PsiXmlVersion.v2_5_4, InteractionCategory.mixed);
+        Assert.assertEquals(1, factory.getCachedContexts().size());
+        Assert.assertSame(context, factory.getCachedContexts().values().iterator().next());
+
+        Assert.assertNotNull(unmarshaller1);
+        Assert.assertNotNull(unmarshaller2);
+        // unmarshallers are not thread safe so they are never shared
+        Assert.assertNotSame(unmarshaller1, unmarshaller2);
+    }
+
+    @Test
+    public void test_context_shared_and_unmarshaller_per_thread() throws Exception {
+        final JaxbUnmarshallerFactory factory = JaxbUnmarshallerFactory.getInstance();
+        factory.clearContexts();
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+        List<Future<Unmarshaller>> results = new ArrayList<Future<Unmarshaller>>(threads);
+        try{
+            for (int i = 0; i < threads; i++){
+                results.add(executor.submit(new Callable<Unmarshaller>() {
+                    public Unmarshaller call() throws Exception {
+                        // all the threads ask for the context at the same time
+                        barrier.await();
+                        return factory.createUnmarshaller(PsiXmlVersion.v2_5_4, InteractionCategory.modelled);
+                    }
+                }));
+            }
+
+            Set<Unmarshaller> unmarshallers = Collections.newSetFromMap(new IdentityHashMap<Unmarshaller, Boolean>());
+            for (Future<Unmarshaller> result : results){
+                unmarshallers.add(result.get());
+            }
+            Assert.assertEquals(threads, unmarshallers.size());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        // a single context is kept and reused by the next calls
+        Assert.assertEquals(1, factory.getCachedContexts().size());
+        JAXBContext context = factory.getCachedContexts().values().iterator().next();
+        factory.createUnmarshaller(PsiXmlVersion.v2_5_4, InteractionCategory.modelled);
+        Assert.assertEquals(1, factory.getCachedContexts().size());
+        Assert.assertSame(context, factory.getCachedContexts().values().iterator().next());
+    }
+
+    @Test
+    public void test_parse_after_preload_and_clear() throws JAXBException, PsiXmlParserException {
+        JaxbUnmarshallerFactory factory = JaxbUnmarshallerFactory.getInstance();
+        factory.preloadAllContexts();
+        Assert.assertEquals(1, countInteractions());
+
+        factory.clearContexts();
+        Assert.assertEquals(1, countInteractions());
+        Assert.assertEquals(1, countInteractions());
+    }
+
+    private int countInteractions() throws JAXBException, PsiXmlParserException {
+        InputStream stream = JaxbUnmarshallerFactoryTest.class.getResourceAsStream("/samples/10049915.xml");
+        XmlEvidenceParser parser = new XmlEvidenceParser(stream);
+        int count = 0;
+        try{
+            while (parser.parseNextInteraction() != null){
+                count++;
+            }
+        }
+        finally {
+            parser.close();
+        }
+        return count;
+    }
+}
@@ -8,12 +8,17 @@ import psidev.psi.mi.jami.model.InteractionEvidence;
 import psidev.psi.mi.jami.model.ParticipantEvidence;
 import psidev.psi.mi.jami.model.Source;
 import psidev.psi.mi.jami.model.impl.*;
+import psidev.psi.mi.jami.xml.model.extension.factory.options.PsiXmlWriterOptions;
 
 import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeFactory;
 import javax.xml.stream.XMLStreamException;
+import java.io.File;
+import java.io.IOException;
 import java.io.StringWriter;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Unit tester for CompactXmlEvidenceWriter
@@ -1525,4 +1530,145 @@ public class CompactXml25EvidenceWriterTest {
 
         Assert.assertEquals(this.interaction_availability, stringWriter.toString());
     }
+
+    @Test
+    public void test_single_interaction_spooled() throws XMLStreamException {
+        StringWriter stringWriter = new StringWriter();
+
+        CompactXmlEvidenceWriter writer = new CompactXmlEvidenceWriter(stringWriter);
+        writer.setSpoolInteractions(true);
+        InteractionEvidence interaction = new DefaultInteractionEvidence();
+        ParticipantEvidence participant = new DefaultParticipantEvidence(new DefaultProtein("protein test"));
+        interaction.addParticipant(participant);
+        interaction.setExperiment(new DefaultExperiment(new DefaultPublication("xxxxxx")));
+
+        writer.start();
+        writer.write(interaction);
+        writer.end();
+        writer.close();
+        Assert.assertEquals(this.interaction, stringWriter.toString());
+    }
+
+    @Test
+    public void test_interactions_same_interactors_spooled() throws XMLStreamException {
+        StringWriter stringWriter = new StringWriter();
+
+        CompactXmlEvidenceWriter writer = new CompactXmlEvidenceWriter(stringWriter);
+        writer.setSpoolInteractions(true);
+
+        InteractionEvidence interaction = new DefaultInteractionEvidence();
+        ParticipantEvidence participant = new DefaultParticipantEvidence(new DefaultProtein("protein test"));
+        interaction.addParticipant(participant);
+        InteractionEvidence interaction2 = new DefaultInteractionEvidence();
+        ParticipantEvidence participant2 = new DefaultParticipantEvidence(participant.getInteractor());
+        interaction2.addParticipant(participant2);
+        interaction.setExperiment(new DefaultExperiment(new DefaultPublication("xxxxxx")));
+        interaction2.setExperiment(interaction.getExperiment());
+
+        writer.start();
+        writer.write(Arrays.asList(interaction, interaction2).iterator());
+        writer.end();
+        writer.close();
+
+        Assert.assertEquals(this.interaction_same_experiment_interactors, stringWriter.toString());
+    }
+
+    @Test
+    public void test_single_interaction_complexes_as_Interactor_spooled() throws XMLStreamException {
+        StringWriter stringWriter = new StringWriter();
+
+        Complex complex = new DefaultComplex("test complex");
+        complex.getParticipants().add(new DefaultModelledParticipant(new DefaultProtein("test protein")));
+
+        CompactXmlEvidenceWriter writer = new CompactXmlEvidenceWriter(stringWriter);
+        writer.setWriteComplexesAsInteractors(true);
+        writer.setSpoolInteractions(true);
+
+        InteractionEvidence interaction = new DefaultInteractionEvidence();
+        ParticipantEvidence participant = new DefaultParticipantEvidence(complex);
+        interaction.addParticipant(participant);
+        interaction.setExperiment(new DefaultExperiment(new DefaultPublication("xxxxxx")));
+
+        writer.start();
+        writer.write(interaction);
+        writer.end();
+        writer.close();
+
+        Assert.assertEquals(this.interaction_complexes_as_interactor, stringWriter.toString());
+    }
+
+    @Test
+    public void test_interactions_different_entries_spooled() throws XMLStreamException {
+        StringWriter stringWriter = new StringWriter();
+
+        CompactXmlEvidenceWriter writer = new CompactXmlEvidenceWriter(stringWriter);
+        writer.setSpoolInteractions(true);
+        InteractionEvidence interaction = new DefaultInteractionEvidence();
+        ParticipantEvidence participant = new DefaultParticipantEvidence(new DefaultProtein("protein test"));
+        interaction.addParticipant(participant);
+        interaction.setExperiment(new DefaultExperiment(new DefaultPublication("xxxxxx")));
+
+        writer.start();
+        writer.write(interaction);
+        writer.write(interaction);
+        writer.end();
+        writer.close();
+
+        Assert.assertEquals(this.interaction_different_entries1, stringWriter.toString());
+    }
+
+    @Test
+    public void test_interaction_source_spooled() throws XMLStreamException, DatatypeConfigurationException {
+        StringWriter stringWriter = new StringWriter();
+
+        CompactXmlEvidenceWriter writer = new CompactXmlEvidenceWriter(stringWriter);
+        writer.setSpoolInteractions(true);
+        InteractionEvidence interaction = new DefaultInteractionEvidence();
+        ParticipantEvidence participant = new DefaultParticipantEvidence(new DefaultProtein("protein test"));
+        interaction.addParticipant(participant);
+        Source source = new DefaultSource("intact");
+        interaction.setExperiment(new DefaultExperiment(new DefaultPublication("xxxxxx")));
+        interaction.getExperiment().getPublication().setSource(source);
+        writer.setDefaultReleaseDate(DatatypeFactory.newInstance().newXMLGregorianCalendar("2013-09-02+00:00"));
+
+        writer.start();
+        writer.write(interaction);
+        writer.end();
+        writer.close();
+        Assert.assertEquals(this.interaction_source, stringWriter.toString());
+    }
+
+    @Test
+    public void test_single_interaction_availability_spooled_options() throws XMLStreamException, IOException {
+        StringWriter stringWriter = new StringWriter();
+        File spoolDirectory = File.createTempFile("compact-spool", "");
+        Assert.assertTrue(spoolDirectory.delete());
+        Assert.assertTrue(spoolDirectory.mkdir());
+
+        Complex complex = new DefaultComplex("test complex");
+        complex.getParticipants().add(new DefaultModelledParticipant(new DefaultProtein("protein test")));
+
+        CompactXmlEvidenceWriter writer = new CompactXmlEvidenceWriter(stringWriter);
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(PsiXmlWriterOptions.COMPACT_XML_SPOOL_INTERACTIONS_OPTION, true);
+        options.put(PsiXmlWriterOptions.COMPACT_XML_SPOOL_DIRECTORY_OPTION, spoolDirectory);
+        writer.initialiseContext(options);
+        Assert.assertTrue(writer.isSpoolInteractions());
+
+        InteractionEvidence interaction = new DefaultInteractionEvidence();
+        interaction.setAvailability("copyright");
+        ParticipantEvidence participant = new DefaultParticipantEvidence(complex.getParticipants().iterator().next().getInteractor());
+        interaction.addParticipant(participant);
+        interaction.setExperiment(new DefaultExperiment(new DefaultPublication("xxxxxx")));
+
+        writer.start();
+        writer.write(interaction);
+        writer.end();
+        writer.close();
+
+        Assert.assertEquals(this.interaction_availability, stringWriter.toString());
+        // the temporary files are deleted at the end of each entry
+        Assert.assertEquals(0, spoolDirectory.list().length);
+        Assert.assertTrue(spoolDirectory.delete());
+    }
 }
@@ -0,0 +1,84 @@
+package psidev.psi.mi.jami.xml.io.writer.compact;
+
+import junit.framework.Assert;
+import org.codehaus.stax2.XMLOutputFactory2;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+/**
+ * Unit tester for CompactXmlEntrySpool
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class CompactXmlEntrySpoolTest {
+
+    private static final String PSI_NAMESPACE = "http://psi.hupo.org/mi/mif";
+    private static final String EXTENSION_NAMESPACE = "urn:test:extension";
+
+    @Test
+    public void test_copy_keeps_namespace_bindings() throws IOException, XMLStreamException {
+        CompactXmlEntrySpool spool = new CompactXmlEntrySpool(null);
+        StringWriter result = new StringWriter();
+        try{
+            XMLStreamWriter experiment = spool.nextExperiment();
+            experiment.writeStartElement("experimentDescription");
+            experiment.writeAttribute("id", "1");
+            experiment.writeStartElement("ext", "note", EXTENSION_NAMESPACE);
+            experiment.writeNamespace("ext", EXTENSION_NAMESPACE);
+            experiment.writeAttribute("ext", EXTENSION_NAMESPACE, "level", "2");
+            experiment.writeCharacters("extension");
+            experiment.writeEndElement();
+            experiment.writeEmptyElement("ext", "flag", EXTENSION_NAMESPACE);
+            experiment.writeNamespace("ext", EXTENSION_NAMESPACE);
+            experiment.writeEndElement();
+            spool.finish();
+
+            XMLStreamWriter output = XMLOutputFactory2.newInstance().createXMLStreamWriter(result);
+            output.writeStartElement("entry");
+            output.writeDefaultNamespace(PSI_NAMESPACE);
+            output.setDefaultNamespace(PSI_NAMESPACE);
+            spool.copyTo(output);
+            output.writeEndElement();
+            output.close();
+        }
+        finally {
+            spool.delete();
+        }
+
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(new StringReader(result.toString()));
+        int notes = 0;
+        int flags = 0;
+        while (reader.hasNext()){
+            if (reader.next() == XMLStreamConstants.START_ELEMENT){
+                if (reader.getLocalName().equals("note")){
+                    notes++;
+                    Assert.assertEquals(EXTENSION_NAMESPACE, reader.getNamespaceURI());
+                    Assert.assertEquals("2", reader.getAttributeValue(EXTENSION_NAMESPACE, "level"));
+                }
+                else if (reader.getLocalName().equals("flag")){
+                    flags++;
+                    Assert.assertEquals(EXTENSION_NAMESPACE, reader.getNamespaceURI());
+                }
+                else {
+                    Assert.assertEquals(PSI_NAMESPACE, reader.getNamespaceURI());
+                }
+            }
+        }
+        reader.close();
+        Assert.assertEquals(1, notes);
+        Assert.assertEquals(1, flags);
+    }
+}
@@ -0,0 +1,273 @@
+package psidev.psi.mi.jami.xml.model.extension.datasource;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import psidev.psi.mi.jami.datasource.FileSourceContext;
+import psidev.psi.mi.jami.datasource.InteractionStream;
+import psidev.psi.mi.jami.factory.options.MIFileDataSourceOptions;
+import psidev.psi.mi.jami.listener.MIFileParserListener;
+import psidev.psi.mi.jami.model.*;
+import psidev.psi.mi.jami.xml.model.extension.ExtendedPsiXmlExperiment;
+import psidev.psi.mi.jami.xml.model.extension.factory.options.PsiXmlDataSourceOptions;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.Future;
+
+/**
+ * Unit tester for ParallelPsiXmlStreamSource
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ParallelPsiXmlStreamSourceTest {
+
+    private static final String[] SAMPLES = new String[]{"/samples/10049915.xml", "/samples/10049915-expanded.xml",
+            "/samples/10049915-several-entries.xml", "/samples/S1.xml",
+            "/samples/xml30/11779463_stoichiometry.xml", "/samples/xml30/22984071-participantSet.xml",
+            "/samples/xml30/CI-example_1_allostery_abstract.xml", "/samples/xml30/several_variable_parameters.xml"};
+
+    @Test(expected = IllegalStateException.class)
+    public void test_iterate_fails_not_initialised(){
+        ParallelPsiXmlStreamSource<InteractionEvidence> dataSource =
+                new ParallelPsiXmlStreamSource<InteractionEvidence>(InteractionCategory.evidence);
+        dataSource.getInteractionsIterator();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_initialise_fails_not_file(){
+        ParallelPsiXmlStreamSource<InteractionEvidence> dataSource =
+                new ParallelPsiXmlStreamSource<InteractionEvidence>(InteractionCategory.evidence);
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(MIFileDataSourceOptions.INPUT_OPTION_KEY, ParallelPsiXmlStreamSourceTest.class.getResourceAsStream("/samples/10049915.xml"));
+        dataSource.initialiseContext(options);
+    }
+
+    @Test
+    public void validate_and_iterate_file(){
+        ParallelPsiXmlStreamSource<InteractionEvidence> dataSource =
+                new ParallelPsiXmlStreamSource<InteractionEvidence>(InteractionCategory.evidence, getFile("/samples/10049915.xml"));
+        Iterator<InteractionEvidence> iterator = dataSource.getInteractionsIterator();
+        InteractionEvidence interaction = iterator.next();
+        Assert.assertNotNull(interaction);
+        Assert.assertNotNull(interaction.getExperiment());
+        Assert.assertTrue(interaction.getExperiment().getInteractionEvidences().contains(interaction));
+        Assert.assertFalse(iterator.hasNext());
+        dataSource.close();
+
+        dataSource = new ParallelPsiXmlStreamSource<InteractionEvidence>(InteractionCategory.evidence);
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(MIFileDataSourceOptions.INPUT_OPTION_KEY, getFile("/samples/empty.xml"));
+        dataSource.initialiseContext(options);
+        Assert.assertFalse(dataSource.validateSyntax());
+        dataSource.close();
+    }
+
+    @Test
+    public void test_ordered_iterator_same_as_stream_source(){
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(PsiXmlDataSourceOptions.PARALLEL_THREADS_OPTION_KEY, 3);
+        options.put(PsiXmlDataSourceOptions.MAX_PENDING_INTERACTIONS_OPTION_KEY, 2);
+
+        for (String sample : SAMPLES){
+            Assert.assertEquals(sample, read(new XmlEvidenceStreamSource(), sample, new HashMap<String, Object>(), true),
+                    read(new ParallelPsiXmlStreamSource<InteractionEvidence>(InteractionCategory.evidence), sample, options, true));
+            Assert.assertEquals(sample, read(new XmlModelledStreamSource(), sample, new HashMap<String, Object>(), true),
+                    read(new ParallelPsiXmlStreamSource<ModelledInteraction>(InteractionCategory.modelled), sample, options, true));
+            Assert.assertEquals(sample, read(new XmlComplexStreamSource(), sample, new HashMap<String, Object>(), true),
+                    read(new ParallelPsiXmlStreamSource<Complex>(InteractionCategory.complex), sample, options, true));
+            Assert.assertEquals(sample, read(new LightXmlStreamSource(), sample, new HashMap<String, Object>(), true),
+                    read(new ParallelPsiXmlStreamSource<Interaction>(InteractionCategory.basic), sample, options, true));
+            Assert.assertEquals(sample, read(new XmlStreamSource(), sample, new HashMap<String, Object>(), true),
+                    read(new ParallelPsiXmlStreamSource<Interaction>(InteractionCategory.mixed), sample, options, true));
+        }
+    }
+
+    @Test
+    public void test_unordered_iterator(){
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(PsiXmlDataSourceOptions.PARALLEL_THREADS_OPTION_KEY, 4);
+        options.put(PsiXmlDataSourceOptions.ORDERED_ITERATOR_OPTION_KEY, false);
+
+        for (String sample : SAMPLES){
+            List<String> expected = read(new XmlEvidenceStreamSource(), sample, new HashMap<String, Object>(), true);
+            Collections.sort(expected);
+            List<String> interactions = read(new ParallelPsiXmlStreamSource<InteractionEvidence>(InteractionCategory.evidence), sample, options, true);
+            Collections.sort(interactions);
+            Assert.assertEquals(sample, expected, interactions);
+        }
+    }
+
+    @Test
+    public void test_experiments_link_interactions_in_file_order(){
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(PsiXmlDataSourceOptions.PARALLEL_THREADS_OPTION_KEY, 4);
+        options.put(PsiXmlDataSourceOptions.MAX_PENDING_INTERACTIONS_OPTION_KEY, 8);
+
+        for (String sample : SAMPLES){
+            ParallelPsiXmlStreamSource<InteractionEvidence> dataSource =
+                    new ParallelPsiXmlStreamSource<InteractionEvidence>(InteractionCategory.evidence);
+            Map<String, Object> sourceOptions = new HashMap<String, Object>(options);
+            sourceOptions.put(MIFileDataSourceOptions.INPUT_OPTION_KEY, getFile(sample));
+            sourceOptions.put(MIFileDataSourceOptions.PARSER_LISTENER_OPTION_KEY, createRecordingListener(null));
+            dataSource.initialiseContext(sourceOptions);
+
+            List<InteractionEvidence> interactions = new ArrayList<InteractionEvidence>();
+            Set<Experiment> experiments = new LinkedHashSet<Experiment>();
+            // the abstract interactions of PSI-XML 3.0 are returned as modelled interactions
+            Iterator<?> iterator = dataSource.getInteractionsIterator();
+            while (iterator.hasNext()){
+                Object next = iterator.next();
+                if (!(next instanceof InteractionEvidence)){
+                    continue;
+                }
+                InteractionEvidence interaction = (InteractionEvidence) next;
+                if (interaction.getExperiment() != null){
+                    // an interaction is linked to its experiment when it is returned
+                    Assert.assertTrue(sample, interaction.getExperiment().getInteractionEvidences().contains(interaction));
+                    experiments.add(interaction.getExperiment());
+                }
+                interactions.add(interaction);
+            }
+            dataSource.close();
+
+            for (Experiment experiment : experiments){
+                List<InteractionEvidence> returnedInteractions = new ArrayList<InteractionEvidence>();
+                for (InteractionEvidence interaction : interactions){
+                    if (experiment.getInteractionEvidences().contains(interaction)){
+                        returnedInteractions.add(interaction);
+                    }
+                }
+                // the interactions reloaded to resolve an interactionRef are also linked to the experiment but are not returned
+                List<InteractionEvidence> linkedInteractions = new ArrayList<InteractionEvidence>(experiment.getInteractionEvidences());
+                linkedInteractions.retainAll(interactions);
+                Assert.assertEquals(sample, returnedInteractions, linkedInteractions);
+            }
+        }
+    }
+
+    @Test
+    public void test_completed_interactions_not_retained() throws Exception {
+        for (boolean isOrdered : new boolean[]{true, false}){
+            ParallelPsiXmlStreamSource<InteractionEvidence> dataSource =
+                    new ParallelPsiXmlStreamSource<InteractionEvidence>(InteractionCategory.evidence);
+            Map<String, Object> options = new HashMap<String, Object>();
+            options.put(MIFileDataSourceOptions.INPUT_OPTION_KEY, getFile("/samples/21703451.xml"));
+            options.put(PsiXmlDataSourceOptions.PARALLEL_THREADS_OPTION_KEY, 2);
+            options.put(PsiXmlDataSourceOptions.MAX_PENDING_INTERACTIONS_OPTION_KEY, 4);
+            options.put(PsiXmlDataSourceOptions.ORDERED_ITERATOR_OPTION_KEY, isOrdered);
+            dataSource.initialiseContext(options);
+
+            Iterator<InteractionEvidence> iterator = dataSource.getInteractionsIterator();
+            for (int i = 0; i < 15; i++){
+                Assert.assertNotNull(iterator.next());
+            }
+
+            // the only completed futures kept by the iterator are the ones of the interactions not returned yet
+            CompletionService<?> completionService = (CompletionService<?>) getField(iterator, "completionService");
+            List<?> pendingInteractions = (List<?>) getField(iterator, "pendingInteractions");
+            Assert.assertTrue(pendingInteractions.size() <= 4);
+            if (completionService != null){
+                Future<?> completed;
+                while ((completed = completionService.poll()) != null){
+                    Assert.assertTrue(pendingInteractions.contains(completed));
+                }
+            }
+            dataSource.close();
+        }
+    }
+
+    @Test
+    public void test_report_unresolved_references(){
+        Map<String, Object> options = new HashMap<String, Object>();
+        options.put(PsiXmlDataSourceOptions.PARALLEL_THREADS_OPTION_KEY, 2);
+
+        List<String> events = read(new ParallelPsiXmlStreamSource<InteractionEvidence>(InteractionCategory.evidence), "/samples/S1.xml", options, false);
+        List<String> unresolvedReferences = new ArrayList<String>();
+        for (String event : events){
+            if (event.endsWith("Cannot resolve a reference in the xml file")){
+                unresolvedReferences.add(event);
+            }
+        }
+        Assert.assertEquals(Arrays.asList("onSyntaxWarning Line: 386, Character: 6 Id: 21 Cannot resolve a reference in the xml file",
+                "onSyntaxWarning Line: 462, Character: 6 Id: 23 Cannot resolve a reference in the xml file",
+                "onSyntaxWarning Line: 538, Character: 6 Id: 25 Cannot resolve a reference in the xml file",
+                "onSyntaxWarning Line: 609, Character: 6 Id: 27 Cannot resolve a reference in the xml file"), unresolvedReferences);
+    }
+
+    private Object getField(Object object, String name) throws Exception {
+        Field field = object.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(object);
+    }
+
+    private File getFile(String sample){
+        return new File(ParallelPsiXmlStreamSourceTest.class.getResource(sample).getFile());
+    }
+
+    private List<String> read(InteractionStream<? extends Interaction> dataSource, String sample, Map<String, Object> options, boolean onlyInteractions){
+        List<String> results = new ArrayList<String>();
+        Map<String, Object> sourceOptions = new HashMap<String, Object>(options);
+        sourceOptions.put(MIFileDataSourceOptions.INPUT_OPTION_KEY, getFile(sample));
+        sourceOptions.put(MIFileDataSourceOptions.PARSER_LISTENER_OPTION_KEY, createRecordingListener(onlyInteractions ? null : results));
+        dataSource.initialiseContext(sourceOptions);
+
+        Iterator<? extends Interaction> iterator = dataSource.getInteractionsIterator();
+        while (iterator.hasNext()){
+            results.add(describe(iterator.next()));
+        }
+        dataSource.close();
+        return results;
+    }
+
+    private String describe(Interaction interaction){
+        StringBuilder description = new StringBuilder("interaction ");
+        description.append(((FileSourceContext) interaction).getSourceLocator()).append(" ").append(interaction.getShortName());
+        if (interaction instanceof InteractionEvidence){
+            Experiment experiment = ((InteractionEvidence) interaction).getExperiment();
+            // the sequential stream sources can reload an experiment from the file, so only its id is compared
+            description.append(" experiment ").append(experiment != null ? ((ExtendedPsiXmlExperiment) experiment).getId() : null);
+        }
+        for (Participant participant : (Collection<? extends Participant>) interaction.getParticipants()){
+            description.append(" participant ").append(((FileSourceContext) participant).getSourceLocator());
+            if (participant.getInteractor() != null){
+                description.append(" ").append(participant.getInteractor().getShortName());
+            }
+        }
+        return description.toString();
+    }
+
+    private MIFileParserListener createRecordingListener(final List<String> events) {
+        return (MIFileParserListener) Proxy.newProxyInstance(ParallelPsiXmlStreamSourceTest.class.getClassLoader(),
+                new Class[]{MIFileParserListener.class}, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (events == null){
+                    return null;
+                }
+                StringBuilder event = new StringBuilder(method.getName());
+                if (args != null){
+                    for (Object arg : args){
+                        if (arg instanceof FileSourceContext){
+                            event.append(" ").append(((FileSourceContext) arg).getSourceLocator());
+                        }
+                        else if (arg instanceof Exception){
+                            event.append(" ").append(((Exception) arg).getMessage());
+                        }
+                        else if (!(arg instanceof Collection)){
+                            event.append(" ").append(arg);
+                        }
+                    }
+                }
+                events.add(event.toString());
+                return null;
+            }
+        });
+    }
+}
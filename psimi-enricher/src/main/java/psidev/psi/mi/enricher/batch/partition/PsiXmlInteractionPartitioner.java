@@ -0,0 +1,85 @@
+package psidev.psi.mi.enricher.batch.partition;
+
+import org.springframework.batch.item.ExecutionContext;
+import psidev.psi.mi.enricher.batch.reader.InteractionCheckpoint;
+import psidev.psi.mi.enricher.batch.reader.PsiXmlCheckpointLocator;
+import psidev.psi.mi.jami.batch.partition.AbstractFileRangePartitioner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Partitioner that splits a PSI-XML file in ranges of interactions having the same number of interactions.
+ *
+ * The interactions are indexed with a PsiXmlCheckpointLocator. Each range starts at an interaction element and a partition reads :
+ * - the PSI-XML prolog and entrySet start tag
+ * - the header of the entry containing the first interaction of the range [entry start, entry header end)
+ * - the range of interactions, which can contain the end and the start of several entries
+ * - a footer closing the interactionList, entry and entrySet elements if the range ends before the end of the file
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class PsiXmlInteractionPartitioner extends AbstractFileRangePartitioner {
+
+    public static final String ENTRY_START_KEY = "partition_entry_start";
+    public static final String ENTRY_HEADER_END_KEY = "partition_entry_header_end";
+    public static final String FOOTER_KEY = "partition_footer";
+
+    private static final String FOOTER = "</interactionList></entry></entrySet>";
+
+    @Override
+    protected List<ExecutionContext> splitFile(File file, int gridSize) throws IOException {
+        List<ExecutionContext> ranges = new ArrayList<ExecutionContext>(gridSize);
+
+        PsiXmlCheckpointLocator locator = new PsiXmlCheckpointLocator(file);
+        try {
+            int numberOfInteractions = locator.countInteractions();
+            // no interactions, only one partition reading the all file
+            if (numberOfInteractions == 0){
+                ExecutionContext context = new ExecutionContext();
+                context.putLong(HEADER_END_KEY, 0);
+                context.putLong(RANGE_START_KEY, 0);
+                context.putLong(RANGE_END_KEY, file.length());
+                ranges.add(context);
+                return ranges;
+            }
+
+            int numberOfPartitions = Math.min(gridSize, numberOfInteractions);
+            InteractionCheckpoint start = locator.locate(0);
+            for (int i = 0; i < numberOfPartitions && start != null; i++){
+                boolean last = i == numberOfPartitions - 1;
+                InteractionCheckpoint next = last ? null :
+                        locator.locate((int)(((long) (i + 1) * numberOfInteractions) / numberOfPartitions));
+                if (!last && next == null){
+                    throw new IOException("Cannot locate the interactions of the partition " + (i + 1) + " in " + file);
+                }
+
+                ExecutionContext context = new ExecutionContext();
+                context.putLong(HEADER_END_KEY, start.getHeaderEnd());
+                context.putLong(ENTRY_START_KEY, start.getEntryStart());
+                context.putLong(ENTRY_HEADER_END_KEY, start.getEntryHeaderEnd());
+                context.putLong(RANGE_START_KEY, start.getInteractionOffset());
+                context.putLong(RANGE_END_KEY, last ? file.length() : next.getInteractionOffset());
+                if (!last){
+                    context.putString(FOOTER_KEY, FOOTER);
+                }
+                ranges.add(context);
+
+                start = next;
+            }
+        }
+        finally {
+            locator.close();
+        }
+
+        if (ranges.isEmpty()){
+            throw new IOException("Cannot locate the interactions in " + file);
+        }
+        return ranges;
+    }
+}
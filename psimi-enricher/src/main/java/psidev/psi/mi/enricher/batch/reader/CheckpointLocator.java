@@ -0,0 +1,41 @@
+package psidev.psi.mi.enricher.batch.reader;
+
+import psidev.psi.mi.jami.model.Interaction;
+
+import java.io.IOException;
+
+/**
+ * Locates the byte offsets of the interactions of a MI file so the PsiInteractionReader can restart
+ * at the next interaction to read without parsing the interactions which have already been read.
+ *
+ * The interactions are located from the position given by the parser (line number, interaction id) and not by counting them
+ * so the checkpoints stay right when the parser skips invalid lines or elements.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public interface CheckpointLocator {
+
+    /**
+     * Initialises the locator for the stream read by the PsiInteractionReader
+     * @param streamStart : the checkpoint the stream starts from, null if the stream is the whole file
+     * @throws IOException
+     */
+    public void open(InteractionCheckpoint streamStart) throws IOException;
+
+    /**
+     *
+     * @param nextInteraction : the next interaction to read, already parsed but not read yet. Null if all the interactions
+     * of the stream have been read
+     * @return the checkpoint of the next interaction to read, null if it cannot be located
+     * @throws IOException
+     */
+    public InteractionCheckpoint locate(Interaction nextInteraction) throws IOException;
+
+    /**
+     * Releases the resources of the locator
+     */
+    public void close();
+}
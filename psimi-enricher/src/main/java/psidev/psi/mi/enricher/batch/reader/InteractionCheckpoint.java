@@ -0,0 +1,215 @@
+package psidev.psi.mi.enricher.batch.reader;
+
+import org.apache.commons.io.input.BoundedInputStream;
+import org.springframework.batch.item.ExecutionContext;
+import psidev.psi.mi.enricher.batch.partition.PsiXmlInteractionPartitioner;
+import psidev.psi.mi.jami.batch.partition.AbstractFileRangePartitioner;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Byte offsets of the next interaction to read in a MI file.
+ *
+ * A checkpoint can rebuild a valid MI stream starting at the next interaction to read without parsing the interactions
+ * which have already been read. The stream is the concatenation of:
+ * - the file header [0, headerEnd) : MITAB header lines or the PSI-XML prolog and entrySet start tag
+ * - the header of the current entry [entryStart, entryHeaderEnd) : for PSI-XML files, the entry start tag, source, experiment and interactor lists
+ * and interactionList start tag of the entry containing the next interaction. It is empty for MITAB files.
+ * - the rest of the file from the next interaction to read [interactionOffset, range end). The range ends at the end of the file
+ * unless the file is read by several partitions.
+ * - the footer closing the PSI-XML elements opened before the end of the range, if the range ends before the end of the file
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class InteractionCheckpoint {
+
+    private static final String FILE_LENGTH_OPTION = "checkpoint_file_length";
+    private static final String HEADER_END_OPTION = "checkpoint_header_end";
+    private static final String ENTRY_START_OPTION = "checkpoint_entry_start";
+    private static final String ENTRY_HEADER_END_OPTION = "checkpoint_entry_header_end";
+    private static final String INTERACTION_OFFSET_OPTION = "checkpoint_interaction_offset";
+    private static final String RANGE_END_OPTION = "checkpoint_range_end";
+    private static final String FOOTER_OPTION = "checkpoint_footer";
+
+    private final long fileLength;
+    private final long headerEnd;
+    private final long entryStart;
+    private final long entryHeaderEnd;
+    private final long interactionOffset;
+    private final long rangeEnd;
+    private final String footer;
+
+    public InteractionCheckpoint(long fileLength, long headerEnd, long entryStart, long entryHeaderEnd, long interactionOffset) {
+        this(fileLength, headerEnd, entryStart, entryHeaderEnd, interactionOffset, fileLength, null);
+    }
+
+    public InteractionCheckpoint(long fileLength, long headerEnd, long entryStart, long entryHeaderEnd, long interactionOffset,
+                                 long rangeEnd, String footer) {
+        if (headerEnd < 0 || headerEnd > entryStart || entryStart > entryHeaderEnd || entryHeaderEnd > interactionOffset
+                || interactionOffset > rangeEnd || rangeEnd > fileLength){
+            throw new IllegalArgumentException("The checkpoint offsets must be ordered and in the file: " + headerEnd + ", "
+                    + entryStart + ", " + entryHeaderEnd + ", " + interactionOffset + ", " + rangeEnd + ", " + fileLength);
+        }
+        this.fileLength = fileLength;
+        this.headerEnd = headerEnd;
+        this.entryStart = entryStart;
+        this.entryHeaderEnd = entryHeaderEnd;
+        this.interactionOffset = interactionOffset;
+        this.rangeEnd = rangeEnd;
+        this.footer = footer;
+    }
+
+    /**
+     *
+     * @param executionContext
+     * @return the checkpoint saved in the execution context, null if there is no checkpoint
+     */
+    public static InteractionCheckpoint loadFrom(ExecutionContext executionContext){
+        if (!executionContext.containsKey(INTERACTION_OFFSET_OPTION)){
+            return null;
+        }
+        long fileLength = executionContext.getLong(FILE_LENGTH_OPTION);
+        return new InteractionCheckpoint(fileLength, executionContext.getLong(HEADER_END_OPTION),
+                executionContext.getLong(ENTRY_START_OPTION), executionContext.getLong(ENTRY_HEADER_END_OPTION),
+                executionContext.getLong(INTERACTION_OFFSET_OPTION), executionContext.getLong(RANGE_END_OPTION, fileLength),
+                executionContext.containsKey(FOOTER_OPTION) ? executionContext.getString(FOOTER_OPTION) : null);
+    }
+
+    /**
+     *
+     * @param executionContext : the execution context of a partition (see AbstractFileRangePartitioner)
+     * @param file : the partitioned file
+     * @return the checkpoint of the first interaction of the partition, null if the execution context is not the context of a partition
+     */
+    public static InteractionCheckpoint loadPartitionFrom(ExecutionContext executionContext, File file){
+        if (!executionContext.containsKey(AbstractFileRangePartitioner.RANGE_START_KEY)){
+            return null;
+        }
+        long headerEnd = executionContext.getLong(AbstractFileRangePartitioner.HEADER_END_KEY);
+        long rangeStart = executionContext.getLong(AbstractFileRangePartitioner.RANGE_START_KEY);
+        // MITAB partitions do not have entries
+        long entryStart = executionContext.getLong(PsiXmlInteractionPartitioner.ENTRY_START_KEY, headerEnd);
+        long entryHeaderEnd = executionContext.getLong(PsiXmlInteractionPartitioner.ENTRY_HEADER_END_KEY, entryStart);
+        return new InteractionCheckpoint(file.length(), headerEnd, entryStart, entryHeaderEnd, rangeStart,
+                executionContext.getLong(AbstractFileRangePartitioner.RANGE_END_KEY),
+                executionContext.containsKey(PsiXmlInteractionPartitioner.FOOTER_KEY) ?
+                        executionContext.getString(PsiXmlInteractionPartitioner.FOOTER_KEY) : null);
+    }
+
+    /**
+     * Removes any checkpoint from the execution context
+     * @param executionContext
+     */
+    public static void removeFrom(ExecutionContext executionContext){
+        executionContext.remove(FILE_LENGTH_OPTION);
+        executionContext.remove(HEADER_END_OPTION);
+        executionContext.remove(ENTRY_START_OPTION);
+        executionContext.remove(ENTRY_HEADER_END_OPTION);
+        executionContext.remove(INTERACTION_OFFSET_OPTION);
+        executionContext.remove(RANGE_END_OPTION);
+        executionContext.remove(FOOTER_OPTION);
+    }
+
+    public void saveTo(ExecutionContext executionContext){
+        executionContext.putLong(FILE_LENGTH_OPTION, fileLength);
+        executionContext.putLong(HEADER_END_OPTION, headerEnd);
+        executionContext.putLong(ENTRY_START_OPTION, entryStart);
+        executionContext.putLong(ENTRY_HEADER_END_OPTION, entryHeaderEnd);
+        executionContext.putLong(INTERACTION_OFFSET_OPTION, interactionOffset);
+        executionContext.putLong(RANGE_END_OPTION, rangeEnd);
+        if (footer != null){
+            executionContext.putString(FOOTER_OPTION, footer);
+        }
+        else {
+            executionContext.remove(FOOTER_OPTION);
+        }
+    }
+
+    /**
+     *
+     * @param end : the end of the range to read
+     * @param footer : the footer to read after the range, can be null
+     * @return a copy of this checkpoint which stops reading at the end of the range
+     */
+    public InteractionCheckpoint boundedTo(long end, String footer){
+        return new InteractionCheckpoint(fileLength, headerEnd, entryStart, entryHeaderEnd, Math.min(interactionOffset, end), end, footer);
+    }
+
+    /**
+     *
+     * @param file
+     * @return true if this checkpoint has been created for a file having the same length
+     */
+    public boolean isValidFor(File file){
+        return file.length() == fileLength;
+    }
+
+    /**
+     * Opens a stream starting at the next interaction to read
+     * @param file : the file this checkpoint has been created for
+     * @return the stream, which must be closed after being used
+     * @throws IOException
+     */
+    public InputStream openStream(File file) throws IOException {
+        List<InputStream> ranges = new ArrayList<InputStream>(4);
+        ranges.add(openRange(file, 0, headerEnd));
+        ranges.add(openRange(file, entryStart, entryHeaderEnd));
+        ranges.add(openRange(file, interactionOffset, rangeEnd));
+        if (footer != null){
+            ranges.add(new ByteArrayInputStream(footer.getBytes("UTF-8")));
+        }
+        return new BufferedInputStream(new SequenceInputStream(Collections.enumeration(ranges)));
+    }
+
+    private InputStream openRange(File file, long start, long end) throws IOException {
+        FileInputStream stream = new FileInputStream(file);
+        try {
+            stream.getChannel().position(start);
+        }
+        catch (IOException e){
+            stream.close();
+            throw e;
+        }
+        return new BoundedInputStream(stream, end - start);
+    }
+
+    public long getFileLength() {
+        return fileLength;
+    }
+
+    public long getHeaderEnd() {
+        return headerEnd;
+    }
+
+    public long getEntryStart() {
+        return entryStart;
+    }
+
+    public long getEntryHeaderEnd() {
+        return entryHeaderEnd;
+    }
+
+    public long getInteractionOffset() {
+        return interactionOffset;
+    }
+
+    public long getRangeEnd() {
+        return rangeEnd;
+    }
+
+    public String getFooter() {
+        return footer;
+    }
+
+    @Override
+    public String toString() {
+        return "header: [0-" + headerEnd + "), entry header: [" + entryStart + "-" + entryHeaderEnd + "), interactions: ["
+                + interactionOffset + "-" + rangeEnd + ")" + (footer != null ? ", footer: " + footer : "");
+    }
+}
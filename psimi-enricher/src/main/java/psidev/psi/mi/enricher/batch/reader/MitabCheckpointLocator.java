@@ -0,0 +1,204 @@
+package psidev.psi.mi.enricher.batch.reader;
+
+import psidev.psi.mi.jami.datasource.FileSourceContext;
+import psidev.psi.mi.jami.model.Interaction;
+
+import java.io.*;
+
+/**
+ * Locates the interactions of a MITAB file.
+ *
+ * The next interaction to read starts at the line given by its source locator. This line number is converted to a byte offset
+ * by counting the line ends (\n, \r\n or \r) of the stream read, without parsing the lines, so the lines skipped by the parser
+ * (comments, empty or invalid lines) do not change the checkpoint.
+ * The line ends are counted from the previous checkpoint so the file is read only once while the job is running.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class MitabCheckpointLocator implements CheckpointLocator {
+
+    private final File file;
+    private long headerEnd = -1;
+    // number of lines of the header replayed at the start of the stream
+    private int headerLines;
+    // position in the file of the first line of the stream after the header
+    private long dataStart;
+
+    private InputStream stream;
+    private long position;
+    // line number in the stream read of the line starting at position
+    private int lineNumber;
+
+    public MitabCheckpointLocator(File file) {
+        if (file == null){
+            throw new IllegalArgumentException("The MITAB file cannot be null");
+        }
+        this.file = file;
+    }
+
+    public void open(InteractionCheckpoint streamStart) throws IOException {
+        close();
+        if (streamStart != null){
+            this.headerEnd = streamStart.getHeaderEnd();
+            this.headerLines = countLines(this.headerEnd);
+            this.dataStart = streamStart.getInteractionOffset();
+        }
+        else {
+            // the header lines are read again with the rest of the file when restarting
+            this.headerEnd = findHeaderEnd();
+            this.headerLines = 0;
+            this.dataStart = 0;
+        }
+    }
+
+    public InteractionCheckpoint locate(Interaction nextInteraction) throws IOException {
+        if (this.headerEnd < 0){
+            throw new IllegalStateException("The locator must be opened before locating interactions.");
+        }
+        // all the interactions have been read
+        if (nextInteraction == null){
+            return new InteractionCheckpoint(file.length(), this.headerEnd, this.headerEnd, this.headerEnd, file.length());
+        }
+        if (!(nextInteraction instanceof FileSourceContext) || ((FileSourceContext) nextInteraction).getSourceLocator() == null){
+            return null;
+        }
+        int nextLine = ((FileSourceContext) nextInteraction).getSourceLocator().getLineNumber();
+        if (nextLine <= this.headerLines){
+            return null;
+        }
+
+        if (this.stream == null || nextLine < this.lineNumber){
+            reset();
+        }
+        while (this.lineNumber < nextLine){
+            if (!skipLine()){
+                return null;
+            }
+            this.lineNumber++;
+        }
+        long start = Math.min(this.headerEnd, this.position);
+        return new InteractionCheckpoint(file.length(), start, start, start, this.position);
+    }
+
+    public void close() {
+        if (this.stream != null){
+            try {
+                this.stream.close();
+            } catch (IOException e) {
+                // nothing to do, the stream was only read
+            }
+            this.stream = null;
+        }
+    }
+
+    private void reset() throws IOException {
+        close();
+        this.stream = new BufferedInputStream(new FileInputStream(file), 64 * 1024);
+        this.position = 0;
+        while (this.position < this.dataStart){
+            long skipped = this.stream.skip(this.dataStart - this.position);
+            if (skipped <= 0){
+                break;
+            }
+            this.position += skipped;
+        }
+        this.lineNumber = this.headerLines + 1;
+    }
+
+    /**
+     *
+     * @return the position of the first line which is neither empty nor a comment
+     * @throws IOException
+     */
+    private long findHeaderEnd() throws IOException {
+        InputStream input = new BufferedInputStream(new FileInputStream(file), 64 * 1024);
+        try {
+            long read = 0;
+            boolean atLineStart = true;
+            int c;
+            while ((c = input.read()) != -1){
+                if (atLineStart && c != '#' && c != '\n' && c != '\r'){
+                    return read;
+                }
+                read++;
+                atLineStart = c == '\n';
+                if (c == '\r'){
+                    read += skipLineFeed(input);
+                    atLineStart = true;
+                }
+            }
+            return read;
+        }
+        finally {
+            input.close();
+        }
+    }
+
+    /**
+     *
+     * @return the number of line ends before the position
+     * @throws IOException
+     */
+    private int countLines(long end) throws IOException {
+        InputStream input = new BufferedInputStream(new FileInputStream(file), 64 * 1024);
+        try {
+            int lines = 0;
+            long read = 0;
+            int c;
+            while (read < end && (c = input.read()) != -1){
+                read++;
+                if (c == '\n'){
+                    lines++;
+                }
+                else if (c == '\r'){
+                    read += skipLineFeed(input);
+                    lines++;
+                }
+            }
+            return lines;
+        }
+        finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Skips the \n following a \r as \r\n is only one line end
+     * @return the number of bytes skipped
+     * @throws IOException
+     */
+    private int skipLineFeed(InputStream input) throws IOException {
+        input.mark(1);
+        if (input.read() == '\n'){
+            return 1;
+        }
+        input.reset();
+        return 0;
+    }
+
+    /**
+     * Reads until the end of the current line, included
+     * @return false if the end of the file is reached before reading any byte
+     * @throws IOException
+     */
+    private boolean skipLine() throws IOException {
+        int c = this.stream.read();
+        if (c == -1){
+            return false;
+        }
+        this.position++;
+        while (c != '\n' && c != '\r' && c != -1){
+            c = this.stream.read();
+            if (c != -1){
+                this.position++;
+            }
+        }
+        if (c == '\r'){
+            this.position += skipLineFeed(this.stream);
+        }
+        return true;
+    }
+}
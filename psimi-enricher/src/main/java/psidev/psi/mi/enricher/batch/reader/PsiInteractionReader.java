@@ -6,12 +6,15 @@ import org.springframework.batch.item.*;
 import org.springframework.core.io.Resource;
 import org.springframework.util.Assert;
 import psidev.psi.mi.jami.commons.MIDataSourceOptionFactory;
+import psidev.psi.mi.jami.commons.MIFileAnalyzer;
+import psidev.psi.mi.jami.commons.MIFileType;
 import psidev.psi.mi.jami.commons.PsiJami;
 import psidev.psi.mi.jami.datasource.InteractionStream;
 import psidev.psi.mi.jami.exception.MIIOException;
 import psidev.psi.mi.jami.factory.MIDataSourceFactory;
 import psidev.psi.mi.jami.model.Interaction;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Iterator;
@@ -20,6 +23,14 @@ import java.util.Iterator;
  * The PsiJami file reader is a  spring batch reader that can read any PSI-MI files
  * containing interactions
  *
+ * When the resource is a file, the byte offsets of the next interaction to read are saved in the execution context
+ * (see InteractionCheckpoint) so a restarted job seeks directly to the next interaction instead of parsing all the interactions
+ * already read. If the file has changed or cannot be located, the restarted job skips the interactions already read.
+ * The reader parses one interaction ahead so the checkpoint is the position given by the parser for the next interaction to read.
+ *
+ * When the execution context is the context of a partition (see AbstractFileRangePartitioner), the reader only reads the interactions of
+ * the range of the partition. A reader must be created for each partition (scope="step").
+ *
  * @author Marine Dumousseau (marine@ebi.ac.uk)
  * @version $Id$
  * @since <pre>23/07/13</pre>
@@ -33,6 +44,13 @@ public class PsiInteractionReader implements ItemReader<psidev.psi.mi.jami.model
     private Resource resource;
     private static final Log logger = LogFactory.getLog(PsiInteractionReader.class);
     private Iterator interactionIterator;
+    private CheckpointLocator checkpointLocator;
+    private InteractionCheckpoint partition;
+    // the next interaction to read, already parsed
+    private Interaction nextInteraction;
+    private int nextInteractionCount = 0;
+    // the error raised when parsing the next interaction, thrown when reading it
+    private RuntimeException nextInteractionError;
 
     public psidev.psi.mi.jami.model.Interaction read() throws Exception, UnexpectedInputException, ParseException, NonTransientResourceException {
 
@@ -40,11 +58,18 @@ public class PsiInteractionReader implements ItemReader<psidev.psi.mi.jami.model
             throw new IllegalStateException("The reader must be opened before reading interactions.");
         }
 
-        Interaction next = interactionIterator.hasNext() ? (psidev.psi.mi.jami.model.Interaction)interactionIterator.next() : null;
-        this.interactionCount++;
-        while (next == null && interactionIterator.hasNext()){
-            next = (Interaction)interactionIterator.next();
-            this.interactionCount++;
+        if (this.nextInteractionError != null){
+            RuntimeException error = this.nextInteractionError;
+            this.nextInteractionError = null;
+            this.interactionCount = this.nextInteractionCount;
+            readNextInteraction();
+            throw error;
+        }
+
+        Interaction next = this.nextInteraction;
+        if (next != null){
+            this.interactionCount = this.nextInteractionCount;
+            readNextInteraction();
         }
         return next;
     }
@@ -69,7 +94,30 @@ public class PsiInteractionReader implements ItemReader<psidev.psi.mi.jami.model
                     + resource);
         }
 
-        initialiseInputDataStream();
+        File file = getResourceFile();
+        this.partition = file != null ? InteractionCheckpoint.loadPartitionFrom(executionContext, file) : null;
+        initialiseCheckpointLocator();
+
+        // the job has been restarted
+        boolean restarted = executionContext.containsKey(COUNT_OPTION);
+        boolean seeked = false;
+        InteractionCheckpoint streamStart = this.partition;
+        if (restarted){
+            this.interactionCount = executionContext.getInt(COUNT_OPTION);
+            InteractionCheckpoint checkpoint = InteractionCheckpoint.loadFrom(executionContext);
+            seeked = initialiseInputDataStreamFromCheckpoint(checkpoint);
+            if (seeked){
+                streamStart = checkpoint;
+            }
+        }
+        if (!seeked && this.partition != null){
+            if (!initialiseInputDataStreamFromCheckpoint(this.partition)){
+                throw new ItemStreamException("Cannot read the partition " + this.partition + " of " + resource.getDescription());
+            }
+        }
+        else if (!seeked){
+            initialiseInputDataStream();
+        }
 
         if (this.interactionDataSource == null){
             throw new ItemStreamException("The resource " + resource.getDescription() + " is not recognized as a valid MI datasource. We expect MITAB or Psi-XML files.");
@@ -78,35 +126,76 @@ public class PsiInteractionReader implements ItemReader<psidev.psi.mi.jami.model
         try{
             this.interactionIterator = this.interactionDataSource.getInteractionsIterator();
 
-            // the job has been restarted, we update iterator
-            if (executionContext.containsKey(COUNT_OPTION)){
-                this.interactionCount = executionContext.getInt(COUNT_OPTION);
-
+            // the job has been restarted and the data source does not start at the checkpoint, we update iterator
+            if (restarted && !seeked){
                 int count = 0;
                 while (count < this.interactionCount && this.interactionIterator.hasNext()){
                     this.interactionIterator.next();
                     count++;
                 }
             }
+            this.nextInteractionCount = this.interactionCount;
+            readNextInteraction();
         }
         catch (MIIOException e) {
             logger.error("Problem reading the input source: " + resource.getDescription(), e);
             throw new ItemStreamException("Problem reading the input source: " + resource.getDescription(), e);
         }
+
+        if (this.checkpointLocator != null){
+            try {
+                this.checkpointLocator.open(streamStart);
+            } catch (IOException e) {
+                logger.warn("Cannot locate the interactions of " + resource.getDescription() + ", the interaction offsets will not be saved", e);
+                this.checkpointLocator.close();
+                this.checkpointLocator = null;
+            }
+        }
     }
 
     public void update(ExecutionContext executionContext) throws ItemStreamException {
         Assert.notNull(executionContext, "ExecutionContext must not be null");
         executionContext.put(COUNT_OPTION, interactionCount);
+
+        if (this.checkpointLocator != null){
+            InteractionCheckpoint checkpoint = null;
+            if (this.nextInteractionError != null){
+                // the next interaction cannot be located
+                InteractionCheckpoint.removeFrom(executionContext);
+                return;
+            }
+            try {
+                checkpoint = this.checkpointLocator.locate(this.nextInteraction);
+            } catch (IOException e) {
+                logger.warn("Cannot locate the interaction " + interactionCount + " in " + resource.getDescription(), e);
+            }
+            if (checkpoint != null && this.partition != null){
+                checkpoint = checkpoint.boundedTo(this.partition.getRangeEnd(), this.partition.getFooter());
+            }
+            if (checkpoint != null){
+                checkpoint.saveTo(executionContext);
+            }
+            else {
+                InteractionCheckpoint.removeFrom(executionContext);
+            }
+        }
     }
 
     public void close() throws ItemStreamException {
         if (this.interactionDataSource != null){
             this.interactionDataSource.close();
         }
+        if (this.checkpointLocator != null){
+            this.checkpointLocator.close();
+        }
         this.interactionCount = 0;
+        this.nextInteraction = null;
+        this.nextInteractionCount = 0;
+        this.nextInteractionError = null;
         this.interactionDataSource = null;
         this.interactionIterator = null;
+        this.checkpointLocator = null;
+        this.partition = null;
     }
 
     public void setResource(Resource source) {
@@ -129,6 +218,79 @@ public class PsiInteractionReader implements ItemReader<psidev.psi.mi.jami.model
         }
     }
 
+    /**
+     * Opens the data source at the checkpoint
+     * @param checkpoint
+     * @return true if the data source starts at the checkpoint
+     */
+    protected boolean initialiseInputDataStreamFromCheckpoint(InteractionCheckpoint checkpoint) {
+        File file = getResourceFile();
+        if (checkpoint == null || file == null || !checkpoint.isValidFor(file)){
+            return false;
+        }
+        try {
+            InputStream inputStreamToAnalyse = checkpoint.openStream(file);
+
+            MIDataSourceFactory dataSourceFactory = MIDataSourceFactory.getInstance();
+            MIDataSourceOptionFactory optionFactory = MIDataSourceOptionFactory.getInstance();
+
+            this.interactionDataSource = dataSourceFactory.getInteractionSourceWith(optionFactory.getDefaultOptions(inputStreamToAnalyse));
+            logger.info("Start reading " + resource.getDescription() + " at the interaction " + interactionCount + " (" + checkpoint + ")");
+            return this.interactionDataSource != null;
+        } catch (IOException e) {
+            logger.warn("Cannot restart reading " + resource.getDescription() + " at the checkpoint " + checkpoint, e);
+            return false;
+        }
+    }
+
+    protected void initialiseCheckpointLocator() {
+        File file = getResourceFile();
+        if (file == null){
+            return;
+        }
+        try {
+            MIFileType fileType = new MIFileAnalyzer().identifyMIFileTypeFor(file);
+            switch (fileType){
+                case mitab:
+                    this.checkpointLocator = new MitabCheckpointLocator(file);
+                    break;
+                case psimi_xml:
+                    this.checkpointLocator = new PsiXmlCheckpointLocator(file);
+                    break;
+                default:
+                    break;
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot recognize the type of " + resource.getDescription() + ", the interaction offsets will not be saved", e);
+        }
+    }
+
+    /**
+     * Parses the next interaction to read, skipping the null interactions.
+     * A parsing error is kept and thrown by the next read so the interaction read before is not lost
+     */
+    private void readNextInteraction() {
+        this.nextInteraction = null;
+        try {
+            while (this.nextInteraction == null && this.interactionIterator.hasNext()){
+                this.nextInteractionCount++;
+                this.nextInteraction = (Interaction)this.interactionIterator.next();
+            }
+        }
+        catch (RuntimeException e){
+            this.nextInteractionError = e;
+        }
+    }
+
+    private File getResourceFile() {
+        try {
+            return resource.getFile();
+        } catch (IOException e) {
+            // the resource is not a file, it cannot be read from a checkpoint
+            return null;
+        }
+    }
+
     protected void setInteractionDataSource(InteractionStream interactionDataSource) {
         this.interactionDataSource = interactionDataSource;
     }
@@ -0,0 +1,322 @@
+package psidev.psi.mi.enricher.batch.reader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import psidev.psi.mi.jami.model.Interaction;
+import psidev.psi.mi.jami.xml.cache.MappedPsiXmlPositionScanner;
+import psidev.psi.mi.jami.xml.cache.PsiXmlPositionIndexListener;
+import psidev.psi.mi.jami.xml.cache.PsiXmlPositionScanner;
+import psidev.psi.mi.jami.xml.model.extension.PsiXmlInteraction;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Locates the interactions of a PSI-XML file.
+ *
+ * The positions and ids of the interactions are indexed with a PsiXmlPositionScanner the first time a checkpoint is located.
+ * The next interaction to read is the first interaction or abstractInteraction element having its id after the previous checkpoint,
+ * so the interactions skipped by the parser do not change the checkpoint.
+ *
+ * An interaction referencing an interaction which is before the checkpoint in the same entry (interactionRef of a complex participant)
+ * could not be resolved after restarting from the checkpoint. No checkpoint is given inside an entry containing interactionRef elements
+ * so the PsiInteractionReader reads the entry again.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class PsiXmlCheckpointLocator implements CheckpointLocator {
+
+    private static final Log logger = LogFactory.getLog(PsiXmlCheckpointLocator.class);
+
+    private static final byte[] ENTRY_START = "<entry".getBytes();
+    private static final byte[] INTERACTION_LIST_END = "</interactionList".getBytes();
+    private static final byte[] INTERACTION_REF = "<interactionRef".getBytes();
+
+    private final File file;
+    private final PsiXmlPositionScanner positionScanner;
+
+    private long[] interactionPositions;
+    private int[] interactionEntries;
+    private int[] interactionIds;
+    private int numberOfInteractions;
+    private long headerEnd = -1;
+    // cache of the entries containing interactionRef elements
+    private Map<Integer, Boolean> entriesWithInteractionRefs = new HashMap<Integer, Boolean>();
+
+    // index of the interaction of the previous checkpoint, the next interactions to read are after it
+    private int lastIndex;
+    private long streamEnd;
+
+    public PsiXmlCheckpointLocator(File file) {
+        this(file, new MappedPsiXmlPositionScanner());
+    }
+
+    public PsiXmlCheckpointLocator(File file, PsiXmlPositionScanner positionScanner) {
+        if (file == null){
+            throw new IllegalArgumentException("The PSI-XML file cannot be null");
+        }
+        if (positionScanner == null){
+            throw new IllegalArgumentException("The position scanner cannot be null");
+        }
+        this.file = file;
+        this.positionScanner = positionScanner;
+    }
+
+    /**
+     *
+     * @return the number of interactions in the file
+     * @throws IOException
+     */
+    public int countInteractions() throws IOException {
+        if (this.interactionPositions == null){
+            indexInteractions();
+        }
+        return this.numberOfInteractions;
+    }
+
+    public void open(InteractionCheckpoint streamStart) throws IOException {
+        if (this.interactionPositions == null){
+            indexInteractions();
+        }
+        this.lastIndex = findFirstInteractionAfter(streamStart != null ? streamStart.getInteractionOffset() : 0);
+        this.streamEnd = streamStart != null ? streamStart.getRangeEnd() : file.length();
+    }
+
+    public InteractionCheckpoint locate(Interaction nextInteraction) throws IOException {
+        if (this.interactionPositions == null){
+            throw new IllegalStateException("The locator must be opened before locating interactions.");
+        }
+        if (this.numberOfInteractions == 0){
+            return null;
+        }
+        // all the interactions of the stream have been read
+        if (nextInteraction == null){
+            return locate(findFirstInteractionAfter(this.streamEnd));
+        }
+        if (!(nextInteraction instanceof PsiXmlInteraction)){
+            return null;
+        }
+
+        int id = ((PsiXmlInteraction) nextInteraction).getId();
+        int index = this.lastIndex;
+        while (index < this.numberOfInteractions && this.interactionIds[index] != id){
+            index++;
+        }
+        if (index == this.numberOfInteractions){
+            logger.warn("Cannot find the interaction " + id + " in " + file);
+            return null;
+        }
+        this.lastIndex = index;
+
+        int entry = this.interactionEntries[index];
+        boolean firstOfEntry = index == 0 || this.interactionEntries[index - 1] != entry;
+        if (!firstOfEntry && hasInteractionRefs(entry, index)){
+            return null;
+        }
+        return locate(index);
+    }
+
+    /**
+     *
+     * @param index : the index of the interaction in the file
+     * @return the checkpoint of this interaction, null if it cannot be located
+     * @throws IOException
+     */
+    public InteractionCheckpoint locate(int index) throws IOException {
+        if (this.interactionPositions == null){
+            indexInteractions();
+        }
+        if (this.numberOfInteractions == 0){
+            return null;
+        }
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            if (this.headerEnd < 0){
+                this.headerEnd = findNextEntry(randomAccessFile, 0);
+            }
+
+            long interactionOffset;
+            int entry;
+            if (index < this.numberOfInteractions){
+                interactionOffset = this.interactionPositions[index];
+                entry = this.interactionEntries[index];
+            }
+            else {
+                // all interactions have been read, restart at the end of the last interaction list
+                int last = this.numberOfInteractions - 1;
+                interactionOffset = find(randomAccessFile, INTERACTION_LIST_END, this.interactionPositions[last]);
+                entry = this.interactionEntries[last];
+            }
+
+            // first interaction of the entry
+            int firstIndex = Math.min(index, this.numberOfInteractions - 1);
+            while (firstIndex > 0 && this.interactionEntries[firstIndex - 1] == entry){
+                firstIndex--;
+            }
+            long entryHeaderEnd = this.interactionPositions[firstIndex];
+            // the entry starts after the last interaction of the previous entry
+            long entryStart = firstIndex > 0 ? findNextEntry(randomAccessFile, this.interactionPositions[firstIndex - 1]) : this.headerEnd;
+
+            if (this.headerEnd < 0 || entryStart < 0 || interactionOffset < 0){
+                logger.warn("Cannot find the entry containing the interaction " + index + " in " + file);
+                return null;
+            }
+            return new InteractionCheckpoint(file.length(), this.headerEnd, entryStart, entryHeaderEnd, interactionOffset);
+        }
+        finally {
+            randomAccessFile.close();
+        }
+    }
+
+    public void close() {
+        this.interactionPositions = null;
+        this.interactionEntries = null;
+        this.interactionIds = null;
+        this.numberOfInteractions = 0;
+        this.headerEnd = -1;
+        this.entriesWithInteractionRefs.clear();
+    }
+
+    private void indexInteractions() throws IOException {
+        long start = System.currentTimeMillis();
+        this.interactionPositions = new long[1024];
+        this.interactionEntries = new int[1024];
+        this.interactionIds = new int[1024];
+        this.numberOfInteractions = 0;
+
+        this.positionScanner.scan(file, new PsiXmlPositionIndexListener() {
+            public void onEncoding(String encoding) {
+                // nothing to do
+            }
+
+            public void onExperiment(int entry, int id, long position) {
+                // nothing to do
+            }
+
+            public void onInteractor(int entry, int id, long position) {
+                // nothing to do
+            }
+
+            public void onInteraction(int entry, int id, long position) {
+                addInteraction(entry, id, position);
+            }
+
+            public void onAbstractInteraction(int entry, int id, long position) {
+                addInteraction(entry, id, position);
+            }
+
+            public void onParticipant(int entry, int id, long position) {
+                // nothing to do
+            }
+
+            public void onFeature(int entry, int id, long position) {
+                // nothing to do
+            }
+
+            public void onVariableParameterValue(int entry, int id, long position) {
+                // nothing to do
+            }
+        });
+        logger.info("Indexed " + this.numberOfInteractions + " interactions of " + file + " in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     *
+     * @return the index of the first interaction starting at or after the position
+     */
+    private int findFirstInteractionAfter(long position){
+        int index = Arrays.binarySearch(this.interactionPositions, 0, this.numberOfInteractions, position);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private void addInteraction(int entry, int id, long position){
+        if (this.numberOfInteractions == this.interactionPositions.length){
+            this.interactionPositions = Arrays.copyOf(this.interactionPositions, this.numberOfInteractions * 2);
+            this.interactionEntries = Arrays.copyOf(this.interactionEntries, this.numberOfInteractions * 2);
+            this.interactionIds = Arrays.copyOf(this.interactionIds, this.numberOfInteractions * 2);
+        }
+        this.interactionPositions[this.numberOfInteractions] = position;
+        this.interactionEntries[this.numberOfInteractions] = entry;
+        this.interactionIds[this.numberOfInteractions] = id;
+        this.numberOfInteractions++;
+    }
+
+    /**
+     *
+     * @param entry
+     * @param index : the index of an interaction of the entry
+     * @return true if the interaction list of the entry contains interactionRef elements
+     * @throws IOException
+     */
+    private boolean hasInteractionRefs(int entry, int index) throws IOException {
+        Boolean hasRefs = this.entriesWithInteractionRefs.get(entry);
+        if (hasRefs == null){
+            int first = index;
+            while (first > 0 && this.interactionEntries[first - 1] == entry){
+                first--;
+            }
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                long end = find(randomAccessFile, INTERACTION_LIST_END, this.interactionPositions[first]);
+                long ref = find(randomAccessFile, INTERACTION_REF, this.interactionPositions[first]);
+                hasRefs = ref >= 0 && (end < 0 || ref < end);
+            }
+            finally {
+                randomAccessFile.close();
+            }
+            this.entriesWithInteractionRefs.put(entry, hasRefs);
+        }
+        return hasRefs;
+    }
+
+    /**
+     *
+     * @return the position of the next entry start tag (and not entrySet), -1 if there is no more entries
+     */
+    private long findNextEntry(RandomAccessFile randomAccessFile, long from) throws IOException {
+        long position = find(randomAccessFile, ENTRY_START, from);
+        while (position >= 0){
+            randomAccessFile.seek(position + ENTRY_START.length);
+            int next = randomAccessFile.read();
+            if (next == '>' || Character.isWhitespace(next)){
+                return position;
+            }
+            position = find(randomAccessFile, ENTRY_START, position + 1);
+        }
+        return -1;
+    }
+
+    /**
+     *
+     * @return the position of the first occurrence of the pattern after from, -1 if the pattern is not found
+     */
+    private long find(RandomAccessFile randomAccessFile, byte[] pattern, long from) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long bufferStart = from;
+        int matched = 0;
+        randomAccessFile.seek(from);
+        int read;
+        while ((read = randomAccessFile.read(buffer)) != -1){
+            for (int i = 0; i < read; i++){
+                if (buffer[i] == pattern[matched]){
+                    matched++;
+                    if (matched == pattern.length){
+                        return bufferStart + i - pattern.length + 1;
+                    }
+                }
+                else {
+                    matched = buffer[i] == pattern[0] ? 1 : 0;
+                }
+            }
+            bufferStart += read;
+        }
+        return -1;
+    }
+}
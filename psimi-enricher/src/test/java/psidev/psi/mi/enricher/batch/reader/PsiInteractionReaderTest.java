@@ -0,0 +1,116 @@
+package psidev.psi.mi.enricher.batch.reader;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+import psidev.psi.mi.jami.model.Interaction;
+import psidev.psi.mi.jami.model.Participant;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tester for PsiInteractionReader
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class PsiInteractionReaderTest {
+
+    private File mitabFile;
+
+    @Before
+    public void createMitabFile() throws IOException {
+        // MITAB file with lines skipped or merged by the parser
+        this.mitabFile = File.createTempFile("reader", ".txt");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(PsiInteractionReaderTest.class.getResourceAsStream("/in.txt")));
+        Writer writer = new BufferedWriter(new FileWriter(this.mitabFile));
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null){
+                lineNumber++;
+                if (lineNumber == 5){
+                    writer.write("   \t  \n");
+                    writer.write("this is not a valid mitab line\n");
+                }
+                else if (lineNumber == 12){
+                    writer.write("\n");
+                    writer.write("# comment\n");
+                }
+                else if (lineNumber == 20){
+                    writer.write("this is not a valid mitab line\r\n");
+                }
+                writer.write(line);
+                writer.write(lineNumber % 2 == 0 ? "\r\n" : "\n");
+            }
+        }
+        finally {
+            reader.close();
+            writer.close();
+        }
+    }
+
+    @After
+    public void deleteMitabFile(){
+        this.mitabFile.delete();
+    }
+
+    @Test
+    public void restart_from_checkpoint_reads_the_remaining_interactions() throws Exception {
+        List<String> interactions = read(new ExecutionContext(), Integer.MAX_VALUE);
+        Assert.assertTrue(interactions.size() > 30);
+
+        for (int i = 0; i <= interactions.size(); i++){
+            ExecutionContext executionContext = new ExecutionContext();
+            List<String> restartedInteractions = read(executionContext, i);
+            Assert.assertNotNull(InteractionCheckpoint.loadFrom(executionContext));
+
+            restartedInteractions.addAll(read(executionContext, Integer.MAX_VALUE));
+            Assert.assertEquals("Restarted after " + i + " interactions", interactions, restartedInteractions);
+        }
+    }
+
+    @Test
+    public void restart_twice_from_checkpoint() throws Exception {
+        List<String> interactions = read(new ExecutionContext(), Integer.MAX_VALUE);
+
+        ExecutionContext executionContext = new ExecutionContext();
+        List<String> restartedInteractions = read(executionContext, 3);
+        restartedInteractions.addAll(read(executionContext, 10));
+        restartedInteractions.addAll(read(executionContext, Integer.MAX_VALUE));
+        Assert.assertEquals(interactions, restartedInteractions);
+    }
+
+    /**
+     * Reads the interactions and saves the state of the reader in the execution context
+     * @return the interactors of the interactions read
+     */
+    private List<String> read(ExecutionContext executionContext, int maxInteractions) throws Exception {
+        PsiInteractionReader reader = new PsiInteractionReader();
+        reader.setResource(new FileSystemResource(this.mitabFile));
+        List<String> interactions = new ArrayList<String>();
+        reader.open(executionContext);
+        try {
+            Interaction interaction;
+            while (interactions.size() < maxInteractions && (interaction = reader.read()) != null){
+                StringBuilder interactors = new StringBuilder();
+                for (Object participant : interaction.getParticipants()){
+                    interactors.append(((Participant) participant).getInteractor().getShortName()).append(" ");
+                }
+                interactions.add(interactors.toString());
+            }
+            reader.update(executionContext);
+        }
+        finally {
+            reader.close();
+        }
+        return interactions;
+    }
+}
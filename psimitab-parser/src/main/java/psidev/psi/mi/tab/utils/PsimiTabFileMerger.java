@@ -165,6 +165,42 @@ public class PsimiTabFileMerger {
         merge(inputFiles, output, new IgnoreAndPrintUnparseableLine(System.err));
     }
 
+    /**
+     * Merges a list of input files into a single one with a StreamingPsimiTabFileMerger, in bounded memory.
+     *
+     * The lines are sorted on interactor pairs in temporary files and clustered while merging them. Unlike the other merge methods,
+     * two interactors are considered the same only if they have the same set of identifiers and the same taxid, and the clusters
+     * are written in the order of their interactor pair keys.
+     *
+     * @param inputFiles input files.
+     * @param output     output file.
+     * @param unparseableLineBehaviour
+     * @return the number of interactions written after clustering
+     * @throws psidev.psi.mi.tab.PsimiTabException
+     * @throws IOException
+     */
+    public static long mergeStreaming(Collection<File> inputFiles,
+                                      File output,
+                                      UnparseableLineBehaviour unparseableLineBehaviour) throws PsimiTabException, IOException {
+        StreamingPsimiTabFileMerger merger = new StreamingPsimiTabFileMerger();
+        merger.setUnparseableLineBehaviour(unparseableLineBehaviour);
+        return merger.merge(inputFiles, output);
+    }
+
+    /**
+     * Merges a list of input files into a single one with a StreamingPsimiTabFileMerger, in bounded memory.
+     *
+     * @param inputFiles input files.
+     * @param output     output file.
+     * @return the number of interactions written after clustering
+     * @throws psidev.psi.mi.tab.PsimiTabException
+     * @throws IOException
+     * @see #mergeStreaming(java.util.Collection, java.io.File, psidev.psi.mi.tab.converter.txt2tab.behaviour.UnparseableLineBehaviour)
+     */
+    public static long mergeStreaming(Collection<File> inputFiles, File output) throws PsimiTabException, IOException {
+        return mergeStreaming(inputFiles, output, new IgnoreAndPrintUnparseableLine(System.err));
+    }
+
     public static void main(String[] args) throws PsimiTabException, IOException {
         Collection<File> inputs = new ArrayList<File>(1);
         inputs.add(new File("C:\\MITAB25\\2007-02-02-MINT.sam.txt"));
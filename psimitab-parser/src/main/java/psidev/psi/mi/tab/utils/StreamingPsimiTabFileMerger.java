@@ -0,0 +1,553 @@
+/*
+ * Copyright (c) 2002 The European Bioinformatics Institute, and others.
+ * All rights reserved. Please see the file LICENSE
+ * in the root directory of this distribution.
+ */
+package psidev.psi.mi.tab.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import psidev.psi.mi.tab.PsimiTabException;
+import psidev.psi.mi.tab.converter.txt2tab.MitabLineException;
+import psidev.psi.mi.tab.converter.txt2tab.behaviour.IgnoreAndPrintUnparseableLine;
+import psidev.psi.mi.tab.converter.txt2tab.behaviour.UnparseableLineBehaviour;
+import psidev.psi.mi.tab.model.BinaryInteraction;
+import psidev.psi.mi.tab.model.CrossReference;
+import psidev.psi.mi.tab.model.Organism;
+import psidev.psi.mi.tab.model.builder.MitabParserUtils;
+import psidev.psi.mi.tab.model.builder.MitabWriterUtils;
+import psidev.psi.mi.tab.model.builder.PsimiTabColumns;
+import psidev.psi.mi.tab.model.builder.PsimiTabVersion;
+import psidev.psi.mi.tab.processor.ClusterInteractorPairProcessor;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Merges MITAB files into a single one, clustering the interactions on interactor pairs, in bounded memory.
+ *
+ * This merger has to be used explicitly (see PsimiTabFileMerger.mergeStreaming): its clustering and output order are different
+ * from the in-memory clustering of PsimiTabFileMerger.merge.
+ *
+ * Unlike the in-memory clustering of PsimiTabFileMerger, the lines are never all loaded:
+ * <ol>
+ *     <li>each line is normalized to an interactor pair key (identifiers and taxid of both interactors, independent of the order A/B)</li>
+ *     <li>lines are sorted on this key by chunks of chunkSize lines, in parallel, and each sorted chunk is written in a temporary run file</li>
+ *     <li>the run files are merged (k-way merge) and the adjacent lines having the same key are clustered while the output is written</li>
+ * </ol>
+ *
+ * Two interactors are considered the same if they have the same set of identifiers and the same taxid.
+ * ClusterInteractorPairProcessor considers two interactors the same as soon as they share one identifier, which gives
+ * the same clusters for MITAB files having a single identifier per interactor.
+ *
+ * At most (threads + 1) chunks are kept in memory. Clusters are written in key order and the interactions of a cluster
+ * are merged in their order in the input files.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+public class StreamingPsimiTabFileMerger {
+
+    /**
+     * Sets up a logger for that class.
+     */
+    public static final Log log = LogFactory.getLog(StreamingPsimiTabFileMerger.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 100000;
+
+    private static final char INTERACTOR_SEPARATOR = '\u0001';
+    private static final char IDENTIFIER_SEPARATOR = '\u0002';
+    private static final String RUN_ENCODING = "UTF-8";
+    private static final char RUN_KEY_LENGTH_SEPARATOR = ':';
+    public static final String DEFAULT_ENCODING = "UTF-8";
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private File temporaryDirectory;
+    private PsimiTabVersion version = PsimiTabVersion.v2_5;
+    private String encoding = DEFAULT_ENCODING;
+    private UnparseableLineBehaviour unparseableLineBehaviour = new IgnoreAndPrintUnparseableLine(System.err);
+
+    public StreamingPsimiTabFileMerger() {
+    }
+
+    /**
+     * Merges a list of input files into a single one. The algorithm also applies clustering on interactor pairs.
+     *
+     * @param inputFiles input files.
+     * @param output     output file.
+     * @return the number of interactions written after clustering
+     * @throws PsimiTabException if an unparseable line is met and the unparseable line behaviour propagates the exception
+     * @throws IOException
+     */
+    public long merge(Collection<File> inputFiles, File output) throws PsimiTabException, IOException {
+        for (File inputFile : inputFiles) {
+            if (!inputFile.exists()) {
+                throw new IllegalArgumentException("File does not exist: " + inputFile.getAbsolutePath());
+            }
+            if (!inputFile.canRead()) {
+                throw new IllegalArgumentException("File not readable: " + inputFile.getAbsolutePath());
+            }
+        }
+
+        if (output.exists() && !output.canWrite()) {
+            throw new IllegalArgumentException("Cannot write file: " + output.getAbsolutePath());
+        }
+
+        long start = System.currentTimeMillis();
+        List<File> runs = new ArrayList<File>();
+        long clustered = 0;
+
+        try {
+            log.debug("Sorting lines on interactor pairs...");
+            long lines = sortRuns(inputFiles, runs);
+
+            if (lines > 0) {
+                log.debug("Merging " + runs.size() + " sorted runs and clustering " + lines + " lines...");
+                clustered = mergeRuns(runs, output);
+            } else {
+                log.info("No interaction to merge.");
+            }
+        } finally {
+            for (File run : runs) {
+                if (!run.delete()) {
+                    log.warn("Cannot delete temporary file: " + run.getAbsolutePath());
+                }
+            }
+        }
+
+        if (log.isDebugEnabled()) {
+            long stop = System.currentTimeMillis();
+            log.debug("Time elapsed: " + (stop - start) + "ms");
+        }
+
+        return clustered;
+    }
+
+    /**
+     * Reads all the lines of the input files and writes them, sorted by chunks, in temporary run files.
+     *
+     * @param inputFiles
+     * @param runs       : the list where to add the run files, in the order of the chunks
+     * @return the number of lines written in the runs
+     * @throws PsimiTabException
+     * @throws IOException
+     */
+    protected long sortRuns(Collection<File> inputFiles, List<File> runs) throws PsimiTabException, IOException {
+        ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        LinkedList<Future<File>> pendingRuns = new LinkedList<Future<File>>();
+        List<KeyedLine> chunk = new ArrayList<KeyedLine>(Math.min(chunkSize, 1024));
+        long count = 0;
+
+        try {
+            for (File inputFile : inputFiles) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Reading " + inputFile.getAbsolutePath());
+                }
+                BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(inputFile), encoding));
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        // skip comments, header and empty lines
+                        if (line.trim().length() == 0 || line.startsWith("#")) {
+                            continue;
+                        }
+
+                        String key = extractInteractorPairKey(line);
+                        if (key == null) {
+                            continue;
+                        }
+
+                        chunk.add(new KeyedLine(key, line));
+                        count++;
+
+                        if (chunk.size() >= chunkSize) {
+                            submitChunk(chunk, executor, pendingRuns, runs);
+                            chunk = new ArrayList<KeyedLine>(Math.min(chunkSize, 1024));
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                submitChunk(chunk, executor, pendingRuns, runs);
+            }
+
+            // wait for the last runs, in the order of the chunks
+            while (!pendingRuns.isEmpty()) {
+                runs.add(waitFor(pendingRuns.removeFirst()));
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            // runs which have been written after a failure still have to be deleted
+            for (Future<File> pendingRun : pendingRuns) {
+                try {
+                    runs.add(waitFor(pendingRun));
+                } catch (IOException e) {
+                    log.warn("Cannot sort chunk", e);
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Merges the sorted runs and writes the clustered interactions in the output.
+     *
+     * @param runs
+     * @param output
+     * @return the number of interactions written
+     * @throws PsimiTabException
+     * @throws IOException
+     */
+    protected long mergeRuns(List<File> runs, File output) throws PsimiTabException, IOException {
+        PriorityQueue<RunCursor> queue = new PriorityQueue<RunCursor>(Math.max(1, runs.size()));
+        InteractionMerger merger = new InteractionMerger();
+        Writer writer = null;
+        long count = 0;
+
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                RunCursor cursor = new RunCursor(runs.get(i), i);
+                if (cursor.next()) {
+                    queue.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(output), encoding));
+            writer.write(MitabWriterUtils.buildHeader(version));
+
+            String currentKey = null;
+            BinaryInteraction target = null;
+
+            while (!queue.isEmpty()) {
+                RunCursor cursor = queue.poll();
+                BinaryInteraction interaction = parseLine(cursor.getLine());
+
+                if (interaction != null) {
+                    if (target != null && cursor.getKey().equals(currentKey)) {
+                        // interaction with the same interactors, collapse interaction details onto the first one
+                        merger.mergeCollections(interaction, target);
+                    } else {
+                        if (target != null) {
+                            writer.write(MitabWriterUtils.buildLine(target, version));
+                            count++;
+                        }
+                        target = interaction;
+                        currentKey = cursor.getKey();
+                    }
+                }
+
+                if (cursor.next()) {
+                    queue.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+
+            if (target != null) {
+                writer.write(MitabWriterUtils.buildLine(target, version));
+                count++;
+            }
+        } finally {
+            for (RunCursor cursor : queue) {
+                cursor.close();
+            }
+            if (writer != null) {
+                writer.close();
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * @param line a MITAB line
+     * @return the key of the interactor pair of this line, or null if the line cannot be parsed and should be skipped
+     * @throws PsimiTabException
+     */
+    protected String extractInteractorPairKey(String line) throws PsimiTabException {
+        try {
+            String[] columns = MitabParserUtils.quoteAwareSplit(line, new char[]{'\t'}, false);
+            if (columns.length <= PsimiTabColumns.TAXID_B.ordinal()) {
+                throw new IllegalArgumentException("The line does not have enough columns: " + columns.length);
+            }
+            String keyA = extractInteractorKey(columns[PsimiTabColumns.ID_INTERACTOR_A.ordinal()],
+                    columns[PsimiTabColumns.TAXID_A.ordinal()]);
+            String keyB = extractInteractorKey(columns[PsimiTabColumns.ID_INTERACTOR_B.ordinal()],
+                    columns[PsimiTabColumns.TAXID_B.ordinal()]);
+
+            // the pair A-B is the same as the pair B-A
+            if (keyA.compareTo(keyB) <= 0) {
+                return keyA + INTERACTOR_SEPARATOR + keyB;
+            }
+            return keyB + INTERACTOR_SEPARATOR + keyA;
+        } catch (RuntimeException e) {
+            handleUnparseableLine(line, e);
+            return null;
+        }
+    }
+
+    protected String extractInteractorKey(String identifierColumn, String taxidColumn) {
+        List<CrossReference> identifiers = MitabParserUtils.splitCrossReferences(identifierColumn);
+        List<String> values = new ArrayList<String>(identifiers.size());
+        for (CrossReference identifier : identifiers) {
+            values.add(identifier.getDatabase() + ":" + identifier.getIdentifier());
+        }
+        Collections.sort(values);
+
+        // same rule as ClusterInteractorPairProcessor.SimpleInteractor: the last taxid is kept
+        String taxid = "";
+        Organism organism = MitabParserUtils.splitOrganism(taxidColumn);
+        if (organism != null) {
+            for (CrossReference cr : organism.getIdentifiers()) {
+                if ("taxid".equals(cr.getDatabase())) {
+                    taxid = cr.getIdentifier();
+                }
+            }
+        }
+
+        StringBuilder key = new StringBuilder(taxid);
+        String previous = null;
+        for (String value : values) {
+            if (!value.equals(previous)) {
+                key.append(IDENTIFIER_SEPARATOR).append(value);
+                previous = value;
+            }
+        }
+        return key.toString();
+    }
+
+    protected BinaryInteraction parseLine(String line) throws PsimiTabException {
+        try {
+            return MitabParserUtils.buildBinaryInteraction(MitabParserUtils.quoteAwareSplit(line, new char[]{'\t'}, false));
+        } catch (RuntimeException e) {
+            handleUnparseableLine(line, e);
+            return null;
+        }
+    }
+
+    protected void handleUnparseableLine(String line, Throwable cause) throws PsimiTabException {
+        try {
+            unparseableLineBehaviour.respond(line, new MitabLineException("Cannot parse line: " + line, cause));
+        } catch (MitabLineException e) {
+            throw new PsimiTabException("Exception parsing line: " + line, e);
+        }
+    }
+
+    private void submitChunk(final List<KeyedLine> chunk, ExecutorService executor, LinkedList<Future<File>> pendingRuns,
+                             List<File> runs) throws IOException {
+        if (executor == null) {
+            runs.add(sortAndWriteRun(chunk));
+            return;
+        }
+        // bounds the number of chunks in memory
+        if (pendingRuns.size() >= threads) {
+            runs.add(waitFor(pendingRuns.removeFirst()));
+        }
+        pendingRuns.add(executor.submit(new Callable<File>() {
+            public File call() throws Exception {
+                return sortAndWriteRun(chunk);
+            }
+        }));
+    }
+
+    private File waitFor(Future<File> run) throws IOException {
+        try {
+            return run.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sorting MITAB lines");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Cannot sort MITAB lines", e.getCause());
+        }
+    }
+
+    private File sortAndWriteRun(List<KeyedLine> chunk) throws IOException {
+        // stable sort : lines having the same key keep the order of the input files
+        Collections.sort(chunk);
+
+        File run = File.createTempFile("mitab-merge", ".run", temporaryDirectory);
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(run), RUN_ENCODING));
+        try {
+            // the key is prefixed by its length as it can contain any character of the identifiers, including tabs
+            for (KeyedLine keyedLine : chunk) {
+                writer.write(Integer.toString(keyedLine.key.length()));
+                writer.write(RUN_KEY_LENGTH_SEPARATOR);
+                writer.write(keyedLine.key);
+                writer.write(keyedLine.line);
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+        return run;
+    }
+
+    ////////////////////////
+    // Getters and Setters
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize the number of lines sorted in memory in each run
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @param threads the number of chunks sorted in parallel. By default, the number of available processors.
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public File getTemporaryDirectory() {
+        return temporaryDirectory;
+    }
+
+    /**
+     * @param temporaryDirectory the directory of the run files. If null, the default temporary directory is used.
+     */
+    public void setTemporaryDirectory(File temporaryDirectory) {
+        this.temporaryDirectory = temporaryDirectory;
+    }
+
+    public PsimiTabVersion getVersion() {
+        return version;
+    }
+
+    public void setVersion(PsimiTabVersion version) {
+        if (version == null) {
+            throw new IllegalArgumentException("The MITAB version cannot be null");
+        }
+        this.version = version;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * @param encoding the charset of the input files and of the output file. By default, UTF-8.
+     */
+    public void setEncoding(String encoding) {
+        if (encoding == null) {
+            throw new IllegalArgumentException("The encoding cannot be null");
+        }
+        this.encoding = encoding;
+    }
+
+    public UnparseableLineBehaviour getUnparseableLineBehaviour() {
+        return unparseableLineBehaviour;
+    }
+
+    public void setUnparseableLineBehaviour(UnparseableLineBehaviour unparseableLineBehaviour) {
+        this.unparseableLineBehaviour = unparseableLineBehaviour != null ? unparseableLineBehaviour : new IgnoreAndPrintUnparseableLine(System.err);
+    }
+
+    /////////////////////
+    // Inner classes
+
+    /**
+     * A MITAB line and the key of its interactor pair.
+     */
+    private static class KeyedLine implements Comparable<KeyedLine> {
+        private final String key;
+        private final String line;
+
+        private KeyedLine(String key, String line) {
+            this.key = key;
+            this.line = line;
+        }
+
+        public int compareTo(KeyedLine o) {
+            return key.compareTo(o.key);
+        }
+    }
+
+    /**
+     * Reads a sorted run file. Cursors are ordered by key and then by run index so the merge is stable.
+     */
+    private static class RunCursor implements Comparable<RunCursor> {
+        private final BufferedReader reader;
+        private final int index;
+        private String key;
+        private String line;
+
+        private RunCursor(File run, int index) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(new FileInputStream(run), RUN_ENCODING));
+            this.index = index;
+        }
+
+        private boolean next() throws IOException {
+            String record = reader.readLine();
+            if (record == null) {
+                key = null;
+                line = null;
+                return false;
+            }
+            int separator = record.indexOf(RUN_KEY_LENGTH_SEPARATOR);
+            int keyEnd = separator + 1 + Integer.parseInt(record.substring(0, separator));
+            key = record.substring(separator + 1, keyEnd);
+            line = record.substring(keyEnd);
+            return true;
+        }
+
+        private String getKey() {
+            return key;
+        }
+
+        private String getLine() {
+            return line;
+        }
+
+        private void close() throws IOException {
+            reader.close();
+        }
+
+        public int compareTo(RunCursor o) {
+            int comp = key.compareTo(o.key);
+            if (comp != 0) {
+                return comp;
+            }
+            return index < o.index ? -1 : (index == o.index ? 0 : 1);
+        }
+    }
+
+    /**
+     * Gives access to the merge of interaction details used by the in-memory clustering.
+     */
+    private static class InteractionMerger extends ClusterInteractorPairProcessor<BinaryInteraction> {
+
+        @Override
+        protected void mergeCollections(BinaryInteraction interaction, BinaryInteraction target) {
+            super.mergeCollections(interaction, target);
+        }
+    }
+}
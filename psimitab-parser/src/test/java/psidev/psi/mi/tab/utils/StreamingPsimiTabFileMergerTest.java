@@ -0,0 +1,152 @@
+package psidev.psi.mi.tab.utils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.mi.tab.PsimiTabReader;
+import psidev.psi.mi.tab.TestHelper;
+import psidev.psi.mi.tab.model.BinaryInteraction;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * StreamingPsimiTabFileMerger Tester.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+public class StreamingPsimiTabFileMergerTest {
+
+    private File temporaryDirectory;
+
+    @Before
+    public void before() throws Exception {
+        temporaryDirectory = new File(System.getProperty("java.io.tmpdir"), "streaming-merger-" + System.nanoTime());
+        Assert.assertTrue(temporaryDirectory.mkdirs());
+    }
+
+    @After
+    public void after() throws Exception {
+        File[] files = temporaryDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        temporaryDirectory.delete();
+    }
+
+    @Test
+    public void merge_same_clusters_as_in_memory_merge() throws Exception {
+        List<File> inputs = new ArrayList<File>(2);
+        inputs.add(TestHelper.getFileByResources("/mitab-testset/bantscheff.txt", StreamingPsimiTabFileMergerTest.class));
+        inputs.add(TestHelper.getFileByResources("/mitab-testset/chen.txt", StreamingPsimiTabFileMergerTest.class));
+
+        Collection<BinaryInteraction> expected = PsimiTabFileMerger.merge(inputs);
+
+        File output = File.createTempFile("merged", ".txt");
+        output.deleteOnExit();
+
+        StreamingPsimiTabFileMerger merger = new StreamingPsimiTabFileMerger();
+        // small chunks so several runs are sorted in parallel and merged
+        merger.setChunkSize(7);
+        merger.setThreads(3);
+        merger.setTemporaryDirectory(temporaryDirectory);
+
+        long written = merger.merge(inputs, output);
+
+        Assert.assertEquals(expected.size(), written);
+
+        Collection<BinaryInteraction> merged = new PsimiTabReader().read(output);
+        Assert.assertEquals(expected.size(), merged.size());
+        Assert.assertEquals(countInteractionAcs(expected), countInteractionAcs(merged));
+
+        // the run files have been deleted
+        Assert.assertEquals(0, temporaryDirectory.listFiles().length);
+    }
+
+    @Test
+    public void merge_same_interactor_pair_in_both_orders() throws Exception {
+        File input = File.createTempFile("pairs", ".txt", temporaryDirectory);
+        File output = File.createTempFile("merged", ".txt");
+        output.deleteOnExit();
+
+        writeLines(input,
+                "uniprotkb:P12345\tuniprotkb:Q99999\t-\t-\t-\t-\t-\t-\t-\ttaxid:9606\ttaxid:9606\t-\t-\tintact:EBI-1\t-",
+                "uniprotkb:Q99999\tuniprotkb:P12345\t-\t-\t-\t-\t-\t-\t-\ttaxid:9606\ttaxid:9606\t-\t-\tintact:EBI-2\t-",
+                "uniprotkb:Q99999\tuniprotkb:P12345\t-\t-\t-\t-\t-\t-\t-\ttaxid:9606\ttaxid:10090\t-\t-\tintact:EBI-3\t-");
+
+        List<File> inputs = new ArrayList<File>(1);
+        inputs.add(input);
+
+        StreamingPsimiTabFileMerger merger = new StreamingPsimiTabFileMerger();
+        merger.setChunkSize(1);
+        merger.setThreads(1);
+        merger.setTemporaryDirectory(temporaryDirectory);
+
+        Assert.assertEquals(2, merger.merge(inputs, output));
+
+        Collection<BinaryInteraction> merged = new PsimiTabReader().read(output);
+        Assert.assertEquals(2, merged.size());
+        Assert.assertEquals(3, countInteractionAcs(merged));
+    }
+
+    @Test
+    public void merge_interactor_keys_containing_tabs() throws Exception {
+        File input = File.createTempFile("pairs", ".txt", temporaryDirectory);
+        File output = File.createTempFile("merged", ".txt");
+        output.deleteOnExit();
+
+        writeLines(input,
+                "uniprotkb:P12345\tuniprotkb:Q99999\t-\t-\t-\t-\t-\t-\t-\ttaxid:9606\ttaxid:9606\t-\t-\tintact:EBI-1\t-",
+                "uniprotkb:Q99999\tuniprotkb:P12345\t-\t-\t-\t-\t-\t-\t-\ttaxid:9606\ttaxid:9606\t-\t-\tintact:EBI-2\t-",
+                "uniprotkb:Q99999\tuniprotkb:P12345\t-\t-\t-\t-\t-\t-\t-\ttaxid:9606\ttaxid:10090\t-\t-\tintact:EBI-3\t-");
+
+        List<File> inputs = new ArrayList<File>(1);
+        inputs.add(input);
+
+        // the keys start with a tab and contain other tabs
+        StreamingPsimiTabFileMerger merger = new StreamingPsimiTabFileMerger() {
+            @Override
+            protected String extractInteractorKey(String identifierColumn, String taxidColumn) {
+                return "\t" + super.extractInteractorKey(identifierColumn, taxidColumn).replace(':', '\t');
+            }
+        };
+        merger.setChunkSize(1);
+        merger.setThreads(1);
+        merger.setTemporaryDirectory(temporaryDirectory);
+
+        Assert.assertEquals(2, merger.merge(inputs, output));
+
+        Collection<BinaryInteraction> merged = new PsimiTabReader().read(output);
+        Assert.assertEquals(2, merged.size());
+        Assert.assertEquals(3, countInteractionAcs(merged));
+    }
+
+    private void writeLines(File file, String... lines) throws Exception {
+        Writer writer = new FileWriter(file);
+        try {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private int countInteractionAcs(Collection<BinaryInteraction> interactions) {
+        int count = 0;
+        for (BinaryInteraction interaction : interactions) {
+            count += interaction.getInteractionAcs().size();
+        }
+        return count;
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.util.Version;
 import org.hupo.psi.calimocho.io.IllegalFieldException;
 import org.hupo.psi.calimocho.model.Row;
+import psidev.psi.mi.search.util.DefaultDocumentBuilder;
 import psidev.psi.mi.search.util.DocumentBuilder;
 import psidev.psi.mi.tab.PsimiTabException;
 import psidev.psi.mi.tab.converter.txt2tab.MitabLineException;
@@ -31,6 +32,15 @@ import psidev.psi.mi.tab.model.BinaryInteraction;
 import psidev.psi.mi.xml.converter.ConverterException;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * TODO comment this!
@@ -54,8 +64,37 @@ public class PsimiIndexWriter {
     */
     public static final int MERGE_FACTOR = 30;
 
+    /**
+     * Default number of lines sent at once to an indexing thread in parallel mode.
+     */
+    public static final int DEFAULT_LINES_PER_BATCH = 500;
+
+    /**
+     * Default number of batches of lines waiting for an indexing thread in parallel mode.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    /**
+     * Interval between two progress reports in parallel mode (ms).
+     */
+    private static final long PROGRESS_INTERVAL = 10000;
+
+    /**
+     * Tells the indexing threads that no more lines will come.
+     */
+    private static final List<String> END_OF_LINES = new ArrayList<String>(0);
+
     private DocumentBuilder documentBuilder;
 
+    /**
+     * The DocumentBuilder of the current indexing thread in parallel mode.
+     */
+    private final ThreadLocal<DocumentBuilder> indexingThreadDocumentBuilder = new ThreadLocal<DocumentBuilder>();
+
+    private int indexingThreads = 1;
+    private int linesPerBatch = DEFAULT_LINES_PER_BATCH;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
     public PsimiIndexWriter(DocumentBuilder documentBuilder) {
         this.documentBuilder = documentBuilder;
     }
@@ -100,12 +139,19 @@ public class PsimiIndexWriter {
             reader.readLine();
         }
 
-        String line;
-        while ((line = reader.readLine()) != null)
+        if (indexingThreads > 1)
         {
-            if (log.isTraceEnabled()) log.trace("\tIndexing: "+line);
+            indexInParallel(indexModifier, reader);
+        }
+        else
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                if (log.isTraceEnabled()) log.trace("\tIndexing: "+line);
 
-            addLineToIndex(indexModifier, line);
+                addLineToIndex(indexModifier, line);
+            }
         }
 
         // close reader
@@ -118,27 +164,281 @@ public class PsimiIndexWriter {
         }
     }
 
+    /**
+     * Reads the lines in the current thread and sends them by batches to the indexing threads through a bounded queue.
+     * The reader waits when the queue is full so the lines read in advance never exceed queueCapacity batches.
+     * The IndexWriter being thread safe, each indexing thread adds its lines to the index with addLineToIndex(IndexWriter, String).
+     * The readers and the DocumentBuilder are not thread safe so each indexing thread gets its own DocumentBuilder from createDocumentBuilder(),
+     * returned by getDocumentBuilder() in this thread.
+     */
+    protected void indexInParallel(IndexWriter indexModifier, BufferedReader reader) throws IOException, MitabLineException {
+        final BlockingQueue<List<String>> queue = new ArrayBlockingQueue<List<String>>(queueCapacity);
+        final AtomicLong indexedDocuments = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        List<DocumentBuilder> threadDocumentBuilders = new ArrayList<DocumentBuilder>(indexingThreads);
+        for (int i = 0; i < indexingThreads; i++)
+        {
+            threadDocumentBuilders.add(createDocumentBuilder());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(indexingThreads);
+        for (DocumentBuilder threadDocumentBuilder : threadDocumentBuilders)
+        {
+            executor.execute(new IndexingWorker(threadDocumentBuilder, indexModifier, queue, indexedDocuments, failure));
+        }
+
+        long startTime = System.currentTimeMillis();
+        long lastReport = startTime;
+        long readLines = 0;
+
+        try
+        {
+            List<String> batch = new ArrayList<String>(linesPerBatch);
+            String line;
+            while (failure.get() == null && (line = reader.readLine()) != null)
+            {
+                batch.add(line);
+                readLines++;
+
+                if (batch.size() >= linesPerBatch)
+                {
+                    putBatch(queue, batch);
+                    batch = new ArrayList<String>(linesPerBatch);
+
+                    long now = System.currentTimeMillis();
+                    if (now - lastReport >= PROGRESS_INTERVAL)
+                    {
+                        reportProgress(startTime, now, readLines, indexedDocuments.get(), queue.size());
+                        lastReport = now;
+                    }
+                }
+            }
+
+            if (!batch.isEmpty() && failure.get() == null)
+            {
+                putBatch(queue, batch);
+            }
+        }
+        finally
+        {
+            // the indexing threads always consume the queue, even after a failure, so they will get the end signal
+            try
+            {
+                for (int i = 0; i < indexingThreads; i++)
+                {
+                    queue.put(END_OF_LINES);
+                }
+                executor.shutdown();
+                while (!executor.awaitTermination(PROGRESS_INTERVAL, TimeUnit.MILLISECONDS))
+                {
+                    reportProgress(startTime, System.currentTimeMillis(), readLines, indexedDocuments.get(), queue.size());
+                }
+            }
+            catch (InterruptedException e)
+            {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the indexing threads");
+            }
+        }
+
+        reportProgress(startTime, System.currentTimeMillis(), readLines, indexedDocuments.get(), queue.size());
+
+        Throwable error = failure.get();
+        if (error instanceof IOException)
+        {
+            throw (IOException) error;
+        }
+        else if (error instanceof MitabLineException)
+        {
+            throw (MitabLineException) error;
+        }
+        else if (error instanceof RuntimeException)
+        {
+            throw (RuntimeException) error;
+        }
+        else if (error instanceof Error)
+        {
+            throw (Error) error;
+        }
+        else if (error != null)
+        {
+            throw new MitabLineException(error);
+        }
+    }
+
+    private void putBatch(BlockingQueue<List<String>> queue, List<String> batch) throws InterruptedIOException {
+        try
+        {
+            queue.put(batch);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the indexing threads");
+        }
+    }
+
+    private void reportProgress(long startTime, long now, long readLines, long indexedDocuments, int queueDepth) {
+        if (log.isInfoEnabled())
+        {
+            long elapsedTime = Math.max(1, now - startTime);
+            log.info("Lines read: "+readLines+" ("+(readLines*1000/elapsedTime)+" lines/s), documents indexed: "+indexedDocuments
+                    +", queue depth: "+queueDepth+"/"+queueCapacity);
+        }
+    }
+
     /**
      * @deprecated Use addBinaryInteractionToIndex(IndexWriter, BinaryInteraction) method instead
      */
     @Deprecated
     public void addLineToIndex(IndexWriter indexWriter, String line) throws IOException, MitabLineException {
         try {
-            addBinaryInteractionToIndex(indexWriter, documentBuilder.getMitabReader().readLine(line));
+            addBinaryInteractionToIndex(indexWriter, getDocumentBuilder().getMitabReader().readLine(line));
         } catch (PsimiTabException e) {
            throw new MitabLineException(e);
         }
     }
 
     public void addBinaryInteractionToIndex(IndexWriter indexWriter, BinaryInteraction binaryInteraction) throws IOException, MitabLineException {
-        indexWriter.addDocument(documentBuilder.createDocument(binaryInteraction));
+        indexWriter.addDocument(getDocumentBuilder().createDocument(binaryInteraction));
     }
 
     public void addBinaryInteractionToIndex(IndexWriter indexWriter, Row row) throws IOException, IllegalFieldException {
-        indexWriter.addDocument(documentBuilder.createDocument(row));
+        indexWriter.addDocument(getDocumentBuilder().createDocument(row));
     }
 
+    /**
+     * Creates the DocumentBuilder of an indexing thread in parallel mode. By default, it is a new DefaultDocumentBuilder with the same
+     * disableExpandInteractorsProperties option, if the DocumentBuilder of this writer is a DefaultDocumentBuilder.
+     * Override this method to index in parallel with other DocumentBuilders.
+     * @return a new DocumentBuilder, not shared with any other thread
+     */
+    protected DocumentBuilder createDocumentBuilder() {
+        if (documentBuilder.getClass() != DefaultDocumentBuilder.class) {
+            throw new UnsupportedOperationException("Cannot create a DocumentBuilder for an indexing thread, override createDocumentBuilder(): "
+                    +documentBuilder.getClass().getName());
+        }
+        DocumentBuilder threadDocumentBuilder = new DefaultDocumentBuilder();
+        threadDocumentBuilder.setDisableExpandInteractorsProperties(documentBuilder.hasDisableExpandInteractorsProperties());
+        return threadDocumentBuilder;
+    }
+
+    /**
+     * @return the DocumentBuilder of the current indexing thread in parallel mode, the DocumentBuilder of this writer otherwise
+     */
     public DocumentBuilder getDocumentBuilder() {
-        return documentBuilder;
+        DocumentBuilder threadDocumentBuilder = indexingThreadDocumentBuilder.get();
+        return threadDocumentBuilder != null ? threadDocumentBuilder : documentBuilder;
+    }
+
+    public int getIndexingThreads() {
+        return indexingThreads;
+    }
+
+    /**
+     * Sets the number of threads parsing the lines and building the documents. With more than one thread, the lines are indexed
+     * in parallel and the order of the documents in the index is not the order of the lines anymore.
+     * Each thread uses its own DocumentBuilder, see createDocumentBuilder(). By default, the lines are indexed in the current thread.
+     * @param indexingThreads
+     */
+    public void setIndexingThreads(int indexingThreads) {
+        if (indexingThreads < 1) {
+            throw new IllegalArgumentException("The number of indexing threads must be at least 1: "+indexingThreads);
+        }
+        this.indexingThreads = indexingThreads;
+    }
+
+    public int getLinesPerBatch() {
+        return linesPerBatch;
+    }
+
+    /**
+     * @param linesPerBatch the number of lines sent at once to an indexing thread in parallel mode
+     */
+    public void setLinesPerBatch(int linesPerBatch) {
+        if (linesPerBatch < 1) {
+            throw new IllegalArgumentException("The number of lines per batch must be at least 1: "+linesPerBatch);
+        }
+        this.linesPerBatch = linesPerBatch;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @param queueCapacity the maximum number of batches of lines read in advance in parallel mode
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("The queue capacity must be at least 1: "+queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Indexes the batches of lines of the queue with addLineToIndex(IndexWriter, String) until it gets the end signal.
+     * After a failure in any thread, the remaining batches are consumed without being indexed.
+     */
+    private class IndexingWorker implements Runnable {
+
+        private DocumentBuilder documentBuilder;
+        private IndexWriter indexWriter;
+        private BlockingQueue<List<String>> queue;
+        private AtomicLong indexedDocuments;
+        private AtomicReference<Throwable> failure;
+
+        private IndexingWorker(DocumentBuilder documentBuilder, IndexWriter indexWriter, BlockingQueue<List<String>> queue,
+                               AtomicLong indexedDocuments, AtomicReference<Throwable> failure) {
+            this.documentBuilder = documentBuilder;
+            this.indexWriter = indexWriter;
+            this.queue = queue;
+            this.indexedDocuments = indexedDocuments;
+            this.failure = failure;
+        }
+
+        public void run() {
+            indexingThreadDocumentBuilder.set(documentBuilder);
+            try
+            {
+                List<String> batch = queue.take();
+                while (batch != END_OF_LINES)
+                {
+                    if (failure.get() == null)
+                    {
+                        indexBatch(batch);
+                    }
+                    batch = queue.take();
+                }
+            }
+            catch (InterruptedException e)
+            {
+                failure.compareAndSet(null, e);
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                indexingThreadDocumentBuilder.remove();
+            }
+        }
+
+        private void indexBatch(List<String> batch) {
+            try
+            {
+                for (String line : batch)
+                {
+                    if (log.isTraceEnabled()) log.trace("\tIndexing: "+line);
+
+                    addLineToIndex(indexWriter, line);
+                    indexedDocuments.incrementAndGet();
+                }
+            }
+            catch (Throwable e)
+            {
+                failure.compareAndSet(null, e);
+            }
+        }
     }
 }
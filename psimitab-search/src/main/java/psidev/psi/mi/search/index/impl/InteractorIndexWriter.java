@@ -27,6 +27,7 @@ import psidev.psi.mi.search.engine.impl.BinaryInteractionSearchEngine;
 import psidev.psi.mi.search.index.PsimiIndexWriter;
 import psidev.psi.mi.search.util.DefaultDocumentBuilder;
 import psidev.psi.mi.search.util.DocumentBuilder;
+import psidev.psi.mi.tab.PsimiTabException;
 import psidev.psi.mi.tab.converter.txt2tab.MitabLineException;
 import psidev.psi.mi.tab.model.BinaryInteraction;
 import psidev.psi.mi.tab.model.CrossReference;
@@ -35,12 +36,23 @@ import psidev.psi.mi.tab.model.builder.MitabWriterUtils;
 import psidev.psi.mi.tab.model.builder.PsimiTabVersion;
 import psidev.psi.mi.tab.utils.AbstractBinaryInteractionHandler;
 import psidev.psi.mi.tab.utils.OnlyOneInteractorHandler;
+import psidev.psi.mi.xml.converter.ConverterException;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Interactor index writer.
  *
+ * Each interactor has a single document merging all the lines where it is involved. The lines are merged in memory
+ * by batches of interactors and the index is only searched and committed once per batch (see setBatchSize).
+ *
  * @author Bruno Aranda (baranda@ebi.ac.uk)
  * @version $Id$
  */
@@ -48,8 +60,15 @@ public class InteractorIndexWriter extends PsimiIndexWriter{
 
     private static final Log log = LogFactory.getLog( InteractorIndexWriter.class );
 
+    /**
+     * Default number of interactors merged in memory before being written in the index and committed.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 10000;
+
     private AbstractBinaryInteractionHandler binaryInteractionHandler;
 
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
     public InteractorIndexWriter() {
         super(new DefaultDocumentBuilder());
         this.binaryInteractionHandler = new OnlyOneInteractorHandler();
@@ -67,31 +86,171 @@ public class InteractorIndexWriter extends PsimiIndexWriter{
         return binaryInteractionHandler;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of interactors merged in memory before being written in the index. The index is committed after each batch.
+     * Larger batches mean less commits and searches but more memory.
+     * @param batchSize
+     */
+    public void setBatchSize(int batchSize) {
+        if( batchSize < 1 ) {
+            throw new IllegalArgumentException( "The batch size must be at least 1: " + batchSize );
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Indexes the MITAB lines by batches : the lines of a batch are merged in memory per interactor and each interactor
+     * document is written once per batch. The index is committed at the end of each batch only.
+     * The lines are always indexed in the current thread, whatever the number of indexing threads, because each line
+     * is merged with the documents of its interactors.
+     */
+    @Override
+    public void index(IndexWriter indexModifier, InputStream is, boolean hasHeaderLine) throws IOException, ConverterException, MitabLineException {
+        if (log.isInfoEnabled()) log.info("Starting index creation: "+indexModifier+" (batch size: "+batchSize+")");
+        long startTime = System.currentTimeMillis();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is));
+
+        try {
+            if (hasHeaderLine) {
+                reader.readLine();
+            }
+
+            InteractorBatch batch = new InteractorBatch();
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (log.isTraceEnabled()) log.trace("\tIndexing: "+line);
+
+                BinaryInteraction binaryInteraction;
+                try {
+                    binaryInteraction = getDocumentBuilder().getMitabReader().readLine(line);
+                } catch (PsimiTabException e) {
+                    throw new MitabLineException(e);
+                }
+
+                addBinaryInteractionToBatch(batch, binaryInteraction);
+
+                if (batch.size() >= batchSize) {
+                    flushBatch(indexModifier, batch);
+                }
+            }
+
+            flushBatch(indexModifier, batch);
+        } finally {
+            reader.close();
+        }
+
+        if (log.isInfoEnabled()) {
+            long elapsedTime = (System.currentTimeMillis()-startTime)/1000;
+            log.info("Index created. Time: "+elapsedTime+"s");
+        }
+    }
+
     @Override
     public void addBinaryInteractionToIndex(IndexWriter indexWriter, BinaryInteraction binaryInteraction) throws IOException, MitabLineException {
-        ColumnBasedDocumentDefinition docDefinition = getDocumentBuilder().getDocumentDefinition();
+        // a batch of a single interaction: both interactors are merged in memory first so they only need one searcher and one commit
+        InteractorBatch batch = new InteractorBatch();
+        addBinaryInteractionToBatch(batch, binaryInteraction);
+        flushBatch(indexWriter, batch);
+    }
 
+    @Override
+    public void addBinaryInteractionToIndex(IndexWriter indexWriter, Row row) throws IOException {
+        throw new UnsupportedOperationException( "For performance sake, use addBinaryInteractionToIndex(IndexWriter, BinaryInteraction) instead." );
+    }
+
+    /**
+     * Adds the interaction twice in the batch, once for interactor A and once for interactor B. If the batch already
+     * contains a line for the same interactor, the lines are merged.
+     * @param batch : the pending lines indexed by main identifier of interactor A
+     * @param binaryInteraction
+     */
+    protected void addBinaryInteractionToBatch(InteractorBatch batch, BinaryInteraction binaryInteraction) {
         BinaryInteraction copy1 = binaryInteractionHandler.cloneBinaryInteraction(binaryInteraction);
         BinaryInteraction copy2 = binaryInteractionHandler.cloneBinaryInteraction(binaryInteraction);
 
-        SearchEngine searchEngine = createSearchEngine(indexWriter.getDirectory(), indexWriter);
         // interactor A
-        indexBinaryInteraction(indexWriter,searchEngine, copy1, docDefinition);
-        //IndexSearcher sees index as it was when it was opened, if it gets modified
-        // the searcher needs to be reopened:
-        searchEngine.close();
-        searchEngine = createSearchEngine(indexWriter.getDirectory(), indexWriter);
+        addInteractorLineToBatch(batch, copy1);
         // invert interaction interactors
         invertInteractors(copy2);
-
         // interactor B
-        indexBinaryInteraction(indexWriter,searchEngine, copy2, docDefinition);
-        searchEngine.close();
+        addInteractorLineToBatch(batch, copy2);
     }
 
-    @Override
-    public void addBinaryInteractionToIndex(IndexWriter indexWriter, Row row) throws IOException {
-        throw new UnsupportedOperationException( "For performance sake, use addBinaryInteractionToIndex(IndexWriter, BinaryInteraction) instead." );
+    /**
+     * Writes the pending lines of the batch in the index and commits. The lines are merged with the documents
+     * already committed for the same interactors.
+     * @param indexWriter
+     * @param batch
+     * @throws IOException
+     * @throws MitabLineException
+     */
+    protected void flushBatch(IndexWriter indexWriter, InteractorBatch batch) throws IOException, MitabLineException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        ColumnBasedDocumentDefinition docDefinition = getDocumentBuilder().getDocumentDefinition();
+        final String idAColumnName = docDefinition.getColumnByPosition(0).getKey();
+
+        //IndexSearcher sees index as it was when it was opened. As each interactor is only once in the batch,
+        // one searcher on the last commit is enough for the whole batch
+        SearchEngine searchEngine = createSearchEngine(indexWriter.getDirectory(), indexWriter);
+        try {
+            for (Map.Entry<String, BinaryInteraction> entry : batch.interactions.entrySet()) {
+                indexBinaryInteraction(indexWriter, searchEngine, idAColumnName, entry.getKey(), entry.getValue(),
+                        batch.mergedIdentifiers.contains(entry.getKey()));
+            }
+        } finally {
+            searchEngine.close();
+        }
+
+        indexWriter.commit();
+        batch.clear();
+    }
+
+    /**
+     * Lines pending in memory, merged per interactor
+     */
+    protected static class InteractorBatch {
+        /**
+         * the pending lines indexed by main identifier of interactor A
+         */
+        private Map<String, BinaryInteraction> interactions = new LinkedHashMap<String, BinaryInteraction>();
+        /**
+         * the main identifiers of the interactors having several lines merged in this batch
+         */
+        private Set<String> mergedIdentifiers = new HashSet<String>();
+
+        public int size() {
+            return interactions.size();
+        }
+
+        public boolean isEmpty() {
+            return interactions.isEmpty();
+        }
+
+        public void clear() {
+            interactions.clear();
+            mergedIdentifiers.clear();
+        }
+    }
+
+    private void addInteractorLineToBatch(InteractorBatch batch, BinaryInteraction binaryInteraction) {
+        final String identifier = getMainIdentifier(binaryInteraction.getInteractorA()).toLowerCase();
+
+        BinaryInteraction pending = batch.interactions.get(identifier);
+        if (pending != null) {
+            batch.interactions.put(identifier, mergeBinaryInteractions(pending, binaryInteraction));
+            batch.mergedIdentifiers.add(identifier);
+        } else {
+            batch.interactions.put(identifier, binaryInteraction);
+        }
     }
 
     private void invertInteractors(BinaryInteraction binaryInteraction) {
@@ -101,16 +260,17 @@ public class InteractorIndexWriter extends PsimiIndexWriter{
         binaryInteraction.setInteractorB(a);
     }
 
-    private void indexBinaryInteraction(IndexWriter indexWriter, SearchEngine searchEngine, BinaryInteraction binaryInteraction, ColumnBasedDocumentDefinition docDefinition) throws IOException, MitabLineException {
-        final String idAColumnName = docDefinition.getColumnByPosition(0).getKey();
-
-        final String identifier = getMainIdentifier(binaryInteraction.getInteractorA());
-
-        SearchResult<BinaryInteraction> result = searchEngine.search(idAColumnName +":"+identifier.toLowerCase(), null, null);
+    /**
+     * @param merged : true if the line of this interactor results from the merge of several lines of the batch. As when the lines
+     * are indexed one at a time, the interactor properties of merged lines are not expanded
+     */
+    private void indexBinaryInteraction(IndexWriter indexWriter, SearchEngine searchEngine, String idAColumnName, String identifier,
+                                        BinaryInteraction binaryInteraction, boolean merged) throws IOException, MitabLineException {
+        SearchResult<BinaryInteraction> result = searchEngine.search(idAColumnName +":"+identifier, null, null);
 
         final BinaryInteraction interactionToIndex;
 
-        boolean disableCVexpansion = false;
+        boolean disableCVexpansion = merged;
 
         if (result.getTotalCount() == 1) {
            // merge lines
@@ -119,8 +279,7 @@ public class InteractorIndexWriter extends PsimiIndexWriter{
 
             if (log.isDebugEnabled()) log.debug("Deleting existing document for interactor: "+identifier);
 
-            indexWriter.deleteDocuments(searchEngine.createQueryFor(idAColumnName +":"+identifier.toLowerCase()));
-            indexWriter.commit();
+            indexWriter.deleteDocuments(searchEngine.createQueryFor(idAColumnName +":"+identifier));
 
             disableCVexpansion = true;
 
@@ -142,7 +301,6 @@ public class InteractorIndexWriter extends PsimiIndexWriter{
 
         getDocumentBuilder().setDisableExpandInteractorsProperties( disableCVexpansion );
         indexWriter.addDocument(getDocumentBuilder().createDocument(interactionToIndex));
-        indexWriter.commit();
     }
 
     /**
@@ -18,13 +18,16 @@ package psidev.psi.mi.search.index;
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Fieldable;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.queryParser.QueryParser;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.RAMDirectory;
 import org.apache.lucene.util.Version;
 import org.hupo.psi.calimocho.tab.model.ColumnBasedDocumentDefinition;
 import org.hupo.psi.calimocho.tab.model.ColumnDefinition;
@@ -32,6 +35,19 @@ import org.hupo.psi.calimocho.tab.util.MitabDocumentDefinitionFactory;
 import org.junit.Assert;
 import org.junit.Test;
 import psidev.psi.mi.search.TestHelper;
+import psidev.psi.mi.search.index.impl.BinaryInteractionIndexWriter;
+import psidev.psi.mi.search.util.DefaultDocumentBuilder;
+import psidev.psi.mi.search.util.DocumentBuilder;
+import psidev.psi.mi.tab.converter.txt2tab.MitabLineException;
+import psidev.psi.mi.tab.model.BinaryInteraction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 
@@ -81,4 +97,128 @@ public class PsimiTabIndexWriterTest
 
         }
     }
+
+    @Test
+    public void testIndexInParallel() throws Exception
+    {
+        Directory sequentialDirectory = new RAMDirectory();
+        new BinaryInteractionIndexWriter().index(sequentialDirectory,
+                PsimiTabIndexWriterTest.class.getResourceAsStream("/mitab_samples/intact.sample.tsv"), true, true);
+
+        PsimiIndexWriter indexWriter = new BinaryInteractionIndexWriter();
+        indexWriter.setIndexingThreads(4);
+        // small batches and queue so the reader has to wait for the indexing threads
+        indexWriter.setLinesPerBatch(3);
+        indexWriter.setQueueCapacity(2);
+
+        Directory parallelDirectory = new RAMDirectory();
+        indexWriter.index(parallelDirectory,
+                PsimiTabIndexWriterTest.class.getResourceAsStream("/mitab_samples/intact.sample.tsv"), true, true);
+
+        IndexReader sequentialReader = IndexReader.open(sequentialDirectory);
+        IndexReader parallelReader = IndexReader.open(parallelDirectory);
+        try {
+            assertEquals(sequentialReader.numDocs(), parallelReader.numDocs());
+            // the order of the documents depends on the threads
+            assertEquals(readStoredDocuments(sequentialReader), readStoredDocuments(parallelReader));
+
+            IndexSearcher is = new IndexSearcher(parallelReader);
+            QueryParser parser = new QueryParser(Version.LUCENE_30, "id", new StandardAnalyzer(Version.LUCENE_30));
+            assertEquals(1, is.search(parser.parse("P47077"), 20).totalHits);
+        } finally {
+            sequentialReader.close();
+            parallelReader.close();
+        }
+    }
+
+    @Test
+    public void testIndexInParallelThroughHooks() throws Exception
+    {
+        final Set<DocumentBuilder> usedDocumentBuilders = Collections.synchronizedSet(
+                Collections.newSetFromMap(new IdentityHashMap<DocumentBuilder, Boolean>()));
+        final AtomicInteger indexedInteractions = new AtomicInteger();
+
+        PsimiIndexWriter indexWriter = new BinaryInteractionIndexWriter() {
+            @Override
+            public void addBinaryInteractionToIndex(IndexWriter luceneWriter, BinaryInteraction binaryInteraction) throws IOException, MitabLineException {
+                usedDocumentBuilders.add(getDocumentBuilder());
+                indexedInteractions.incrementAndGet();
+                super.addBinaryInteractionToIndex(luceneWriter, binaryInteraction);
+            }
+        };
+        indexWriter.setIndexingThreads(4);
+        indexWriter.setLinesPerBatch(3);
+
+        Directory parallelDirectory = new RAMDirectory();
+        indexWriter.index(parallelDirectory,
+                PsimiTabIndexWriterTest.class.getResourceAsStream("/mitab_samples/intact.sample.tsv"), true, true);
+
+        IndexReader parallelReader = IndexReader.open(parallelDirectory);
+        try {
+            assertEquals(parallelReader.numDocs(), indexedInteractions.get());
+        } finally {
+            parallelReader.close();
+        }
+        // each indexing thread uses its own DocumentBuilder
+        Assert.assertFalse(usedDocumentBuilders.contains(indexWriter.getDocumentBuilder()));
+        Assert.assertTrue(usedDocumentBuilders.size() >= 1 && usedDocumentBuilders.size() <= 4);
+    }
+
+    @Test
+    public void testIndexInParallelWithOtherDocumentBuilder() throws Exception
+    {
+        final AtomicInteger createdDocumentBuilders = new AtomicInteger();
+
+        PsimiIndexWriter indexWriter = new PsimiIndexWriter(new DefaultDocumentBuilder() {}) {
+            @Override
+            protected DocumentBuilder createDocumentBuilder() {
+                createdDocumentBuilders.incrementAndGet();
+                return new DefaultDocumentBuilder() {};
+            }
+        };
+        indexWriter.setIndexingThreads(4);
+
+        Directory parallelDirectory = new RAMDirectory();
+        indexWriter.index(parallelDirectory,
+                PsimiTabIndexWriterTest.class.getResourceAsStream("/mitab_samples/intact.sample.tsv"), true, true);
+
+        assertEquals(4, createdDocumentBuilders.get());
+        IndexReader parallelReader = IndexReader.open(parallelDirectory);
+        try {
+            assertEquals(1, new IndexSearcher(parallelReader).search(
+                    new QueryParser(Version.LUCENE_30, "id", new StandardAnalyzer(Version.LUCENE_30)).parse("P47077"), 20).totalHits);
+        } finally {
+            parallelReader.close();
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testIndexInParallelWithoutDocumentBuilderFactory() throws Exception
+    {
+        PsimiIndexWriter indexWriter = new PsimiIndexWriter(new DefaultDocumentBuilder() {});
+        indexWriter.setIndexingThreads(4);
+
+        indexWriter.index(new RAMDirectory(),
+                PsimiTabIndexWriterTest.class.getResourceAsStream("/mitab_samples/intact.sample.tsv"), true, true);
+    }
+
+    private List<String> readStoredDocuments(IndexReader reader) throws Exception
+    {
+        List<String> documents = new ArrayList<String>(reader.numDocs());
+        for (int i = 0; i < reader.maxDoc(); i++)
+        {
+            if (!reader.isDeleted(i))
+            {
+                List<String> fields = new ArrayList<String>();
+                for (Fieldable field : reader.document(i).getFields())
+                {
+                    fields.add(field.name() + "=" + field.stringValue());
+                }
+                Collections.sort(fields);
+                documents.add(fields.toString());
+            }
+        }
+        Collections.sort(documents);
+        return documents;
+    }
 }
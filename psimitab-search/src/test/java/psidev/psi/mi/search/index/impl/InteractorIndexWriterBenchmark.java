@@ -0,0 +1,90 @@
+/**
+ * Copyright 2008 The European Bioinformatics Institute, and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package psidev.psi.mi.search.index.impl;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+import java.io.*;
+
+/**
+ * Measures the indexing throughput (lines/second) of the InteractorIndexWriter for different batch sizes.
+ *
+ * Usage: InteractorIndexWriterBenchmark [mitab file with header] [batch size]...
+ *
+ * Without arguments, it indexes the intact sample with batch sizes 1 (one commit per line) and the default batch size.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ */
+public class InteractorIndexWriterBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        File mitabFile;
+        if (args.length > 0) {
+            mitabFile = new File(args[0]);
+        } else {
+            mitabFile = new File(InteractorIndexWriterBenchmark.class.getResource("/mitab_samples/intact.sample.tsv").toURI());
+        }
+
+        int[] batchSizes;
+        if (args.length > 1) {
+            batchSizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                batchSizes[i - 1] = Integer.parseInt(args[i]);
+            }
+        } else {
+            batchSizes = new int[]{1, InteractorIndexWriter.DEFAULT_BATCH_SIZE};
+        }
+
+        long lines = countLines(mitabFile) - 1;
+        System.out.println("File: " + mitabFile.getAbsolutePath() + " (" + lines + " lines)");
+
+        for (int batchSize : batchSizes) {
+            File indexDir = new File(System.getProperty("java.io.tmpdir"), "interactor-benchmark-" + System.nanoTime());
+            Directory directory = FSDirectory.open(indexDir);
+
+            InteractorIndexWriter indexWriter = new InteractorIndexWriter();
+            indexWriter.setBatchSize(batchSize);
+
+            InputStream is = new FileInputStream(mitabFile);
+            long start = System.currentTimeMillis();
+            try {
+                indexWriter.index(directory, is, true, true);
+            } finally {
+                directory.close();
+                FileUtils.deleteDirectory(indexDir);
+            }
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+            System.out.println("Batch size " + batchSize + ": " + elapsed + "ms, " + (lines * 1000 / elapsed) + " lines/s");
+        }
+    }
+
+    private static long countLines(File file) throws IOException {
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            long count = 0;
+            while (reader.readLine() != null) {
+                count++;
+            }
+            return count;
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -16,6 +16,12 @@
 package psidev.psi.mi.search.index.impl;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Fieldable;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TermDocs;
+import org.apache.lucene.index.TermEnum;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.RAMDirectory;
@@ -26,7 +32,9 @@ import org.junit.Test;
 import psidev.psi.mi.search.Searcher;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.*;
 
 /**
  * InteractorIndexWriter Tester.
@@ -118,6 +126,107 @@ public class InteractorIndexWriterTest {
         assertSearchResultCount(2, "Aneuxal" );
     }
 
+    @Test
+    public void index_smallBatches() throws Exception {
+        // interactors are split across several batches and merged with the documents committed by the previous batches
+        indexWriter.setBatchSize(2);
+
+        InputStream is = InteractorIndexWriterTest.class.getResourceAsStream("/mitab_samples/imatinib.tsv");
+        indexWriter.index(directory, is, true, true);
+
+        assertSearchResultCount(5, "imatinib" );
+    }
+
+    @Test
+    public void index_sameResultsAsSingleBatch() throws Exception {
+        indexWriter.setBatchSize(3);
+
+        InputStream is = InteractorIndexWriterTest.class.getResourceAsStream("/mitab_samples/DDR1.tsv");
+        indexWriter.index(directory, is, true, true);
+
+        assertSearchResultCount(2, "DB00619" );
+        assertSearchResultCount(2, "imatinib" );
+        assertSearchResultCount(2, "DGI-71899" );
+    }
+
+    @Test
+    public void index_batchedSameDocumentsAsOneAtATime() throws Exception {
+        // the imatinib interactor is in all the lines of imatinib.tsv so its lines are merged in memory in the same batch
+        assertSameDocumentsAsOneAtATime("/mitab_samples/imatinib.tsv");
+        assertSameDocumentsAsOneAtATime("/mitab_samples/intact.sample.tsv");
+    }
+
+    private void assertSameDocumentsAsOneAtATime(String sample) throws Exception {
+        // a batch of one line flushes and commits after each line
+        Directory oneAtATimeDirectory = new RAMDirectory();
+        InteractorIndexWriter oneAtATimeWriter = new InteractorIndexWriter();
+        oneAtATimeWriter.setBatchSize(1);
+        oneAtATimeWriter.index(oneAtATimeDirectory, InteractorIndexWriterTest.class.getResourceAsStream(sample), true, true);
+
+        Directory batchedDirectory = new RAMDirectory();
+        InteractorIndexWriter batchedWriter = new InteractorIndexWriter();
+        batchedWriter.index(batchedDirectory, InteractorIndexWriterTest.class.getResourceAsStream(sample), true, true);
+
+        Assert.assertEquals(sample, readStoredDocuments(oneAtATimeDirectory), readStoredDocuments(batchedDirectory));
+        Assert.assertEquals(sample, readIndexedTerms(oneAtATimeDirectory), readIndexedTerms(batchedDirectory));
+
+        oneAtATimeDirectory.close();
+        batchedDirectory.close();
+    }
+
+    /**
+     * @return the stored fields of each live document, in a stable order
+     */
+    private List<String> readStoredDocuments(Directory directory) throws IOException {
+        List<String> documents = new ArrayList<String>();
+        IndexReader reader = IndexReader.open(directory);
+        try {
+            for (int i = 0; i < reader.maxDoc(); i++) {
+                if (reader.isDeleted(i)) {
+                    continue;
+                }
+                Document document = reader.document(i);
+                List<String> fields = new ArrayList<String>();
+                for (Fieldable field : document.getFields()) {
+                    fields.add(field.name() + "=" + field.stringValue());
+                }
+                Collections.sort(fields);
+                documents.add(fields.toString());
+            }
+        } finally {
+            reader.close();
+        }
+        Collections.sort(documents);
+        return documents;
+    }
+
+    /**
+     * @return the number of documents for each indexed term (the deleted documents are ignored)
+     */
+    private Map<String, Integer> readIndexedTerms(Directory directory) throws IOException {
+        Map<String, Integer> terms = new TreeMap<String, Integer>();
+        IndexReader reader = IndexReader.open(directory);
+        try {
+            TermEnum termEnum = reader.terms();
+            while (termEnum.next()) {
+                Term term = termEnum.term();
+                int count = 0;
+                TermDocs termDocs = reader.termDocs(term);
+                while (termDocs.next()) {
+                    count++;
+                }
+                termDocs.close();
+                if (count > 0) {
+                    terms.put(term.field() + ":" + term.text(), count);
+                }
+            }
+            termEnum.close();
+        } finally {
+            reader.close();
+        }
+        return terms;
+    }
+
     private void assertSearchResultCount( final int expectedCount, String searchQuery ){
         Assert.assertEquals( expectedCount, Searcher.search(searchQuery, directory).getTotalCount().intValue());
     }
@@ -0,0 +1,189 @@
+package psidev.psi.mi.validator;
+
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.ValidatorMessage;
+import psidev.psi.tools.validator.rules.Rule;
+
+import java.util.*;
+
+/**
+ * Collection of validator messages clustered as soon as they are added.
+ *
+ * The messages having the same rule, message and level are kept in the same MessageCluster which only keeps
+ * a maximum number of example contexts, so the report does not grow with the number of messages. A message equal to one of
+ * the example messages of its cluster is not counted twice. Iterating over the collection gives one clustered message per cluster, in the order
+ * the clusters were created. It can be used as semantic messages of a ValidatorReport to validate files with a lot of
+ * repeated messages.
+ *
+ * The number of messages per rule is also counted. A MessageClusterListener can be notified of each new cluster,
+ * for instance to write the report while the validation is running (see ClusteredReportWriter). The listener is notified
+ * outside of the lock of the collection, possibly from several threads at the same time, with a copy of the new cluster.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ClusteredMessageCollection extends AbstractCollection<ValidatorMessage> {
+
+    public static final int DEFAULT_MAX_CONTEXTS = 100;
+
+    private final int maxContextsPerCluster;
+    private final Map<ClusterKey, MessageCluster> clusters = new LinkedHashMap<ClusterKey, MessageCluster>();
+    private final Map<Rule, Long> messageCountsByRule = new LinkedHashMap<Rule, Long>();
+    private long messageCount;
+    private MessageClusterListener listener;
+
+    public ClusteredMessageCollection() {
+        this(DEFAULT_MAX_CONTEXTS);
+    }
+
+    /**
+     *
+     * @param maxContextsPerCluster : the maximum number of example contexts kept for each cluster
+     */
+    public ClusteredMessageCollection(int maxContextsPerCluster) {
+        if (maxContextsPerCluster < 0){
+            throw new IllegalArgumentException("The maximum number of contexts cannot be negative: "+maxContextsPerCluster);
+        }
+        this.maxContextsPerCluster = maxContextsPerCluster;
+    }
+
+    @Override
+    public boolean add(ValidatorMessage validatorMessage) {
+        if (validatorMessage == null){
+            throw new IllegalArgumentException("Cannot add a null message");
+        }
+        MessageCluster newCluster = null;
+        MessageClusterListener clusterListener;
+        synchronized (this){
+            ClusterKey key = new ClusterKey(validatorMessage.getRule(), validatorMessage.getMessage(), validatorMessage.getLevel());
+            MessageCluster cluster = clusters.get(key);
+            if (cluster == null){
+                cluster = new MessageCluster(validatorMessage.getRule(), validatorMessage.getMessage(), validatorMessage.getLevel(), maxContextsPerCluster);
+                clusters.put(key, cluster);
+                if (listener != null){
+                    // the cluster keeps changing while the listener reads it
+                    newCluster = new MessageCluster(validatorMessage.getRule(), validatorMessage.getMessage(), validatorMessage.getLevel(), maxContextsPerCluster);
+                    newCluster.add(validatorMessage);
+                }
+            }
+
+            long previousCount = cluster.getCount();
+            if (!cluster.add(validatorMessage)){
+                return false;
+            }
+            long added = cluster.getCount() - previousCount;
+            messageCount += added;
+
+            Long ruleCount = messageCountsByRule.get(validatorMessage.getRule());
+            messageCountsByRule.put(validatorMessage.getRule(), ruleCount != null ? ruleCount + added : added);
+            clusterListener = listener;
+        }
+
+        if (newCluster != null){
+            clusterListener.onNewCluster(newCluster);
+        }
+        return true;
+    }
+
+    /**
+     *
+     * @return an iterator over a snapshot of the clustered messages
+     */
+    @Override
+    public synchronized Iterator<ValidatorMessage> iterator() {
+        List<ValidatorMessage> messages = new ArrayList<ValidatorMessage>(clusters.size());
+        for (MessageCluster cluster : clusters.values()){
+            messages.add(cluster.toValidatorMessage());
+        }
+        return Collections.unmodifiableList(messages).iterator();
+    }
+
+    /**
+     *
+     * @return the number of clusters
+     */
+    @Override
+    public synchronized int size() {
+        return clusters.size();
+    }
+
+    @Override
+    public synchronized void clear() {
+        clusters.clear();
+        messageCountsByRule.clear();
+        messageCount = 0;
+    }
+
+    /**
+     *
+     * @return a snapshot of the clusters, in the order they were created
+     */
+    public synchronized List<MessageCluster> getClusters() {
+        return new ArrayList<MessageCluster>(clusters.values());
+    }
+
+    /**
+     *
+     * @return the number of messages added, including the clustered ones
+     */
+    public synchronized long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     *
+     * @return a snapshot of the number of messages added for each rule
+     */
+    public synchronized Map<Rule, Long> getMessageCountsByRule() {
+        return new LinkedHashMap<Rule, Long>(messageCountsByRule);
+    }
+
+    public int getMaxContextsPerCluster() {
+        return maxContextsPerCluster;
+    }
+
+    public synchronized MessageClusterListener getListener() {
+        return listener;
+    }
+
+    public synchronized void setListener(MessageClusterListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Rule, message and level of a cluster
+     */
+    private static class ClusterKey {
+        private final Rule rule;
+        private final String message;
+        private final MessageLevel level;
+
+        private ClusterKey(Rule rule, String message, MessageLevel level) {
+            this.rule = rule;
+            this.message = message;
+            this.level = level;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ClusterKey)) return false;
+
+            ClusterKey that = (ClusterKey) o;
+
+            if (rule != null ? !rule.equals(that.rule) : that.rule != null) return false;
+            if (message != null ? !message.equals(that.message) : that.message != null) return false;
+            return level != null ? level.equals(that.level) : that.level == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = rule != null ? rule.hashCode() : 0;
+            result = 31 * result + (message != null ? message.hashCode() : 0);
+            result = 31 * result + (level != null ? level.hashCode() : 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package psidev.psi.mi.validator;
+
+import psidev.psi.tools.validator.Context;
+import psidev.psi.tools.validator.rules.Rule;
+
+import java.io.*;
+import java.util.Map;
+
+/**
+ * Writes the clusters of a ClusteredMessageCollection while the validation is running.
+ *
+ * Each new cluster is written as soon as it is created with its first example context (record type 'cluster').
+ * When the validation is finished, writeSummary writes the final number of messages of each cluster (record type 'total')
+ * and of each rule (record type 'rule').
+ * In TSV format, each record is a line with the record type as first column. In JSON format, each record is a JSON object on
+ * its own line so the file can be read while it is written.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ClusteredReportWriter implements MessageClusterListener, Closeable {
+
+    public enum Format {
+        TSV, JSON
+    }
+
+    private final Writer writer;
+    private final Format format;
+
+    public ClusteredReportWriter(File file, Format format) throws IOException {
+        this(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8")), format);
+    }
+
+    public ClusteredReportWriter(Writer writer, Format format) {
+        if (writer == null){
+            throw new IllegalArgumentException("The writer cannot be null");
+        }
+        if (format == null){
+            throw new IllegalArgumentException("The format cannot be null");
+        }
+        this.writer = writer;
+        this.format = format;
+        if (format == Format.TSV){
+            writeTsv("#record", "rule", "level", "message", "count", "context");
+        }
+    }
+
+    /**
+     * Writes the new cluster and flushes the writer
+     * @param cluster : the new cluster, containing the first message
+     */
+    public synchronized void onNewCluster(MessageCluster cluster) {
+        String context = null;
+        if (!cluster.getContext().getContexts().isEmpty()){
+            Context firstContext = cluster.getContext().getContexts().iterator().next();
+            context = firstContext != null ? firstContext.toString() : null;
+        }
+        writeRecord("cluster", ruleName(cluster.getRule()), String.valueOf(cluster.getLevel()), cluster.getMessage(),
+                cluster.getCount(), context);
+        flush();
+    }
+
+    /**
+     * Writes the final number of messages of each cluster and each rule
+     * @param messages
+     */
+    public synchronized void writeSummary(ClusteredMessageCollection messages) {
+        for (MessageCluster cluster : messages.getClusters()){
+            writeRecord("total", ruleName(cluster.getRule()), String.valueOf(cluster.getLevel()), cluster.getMessage(),
+                    cluster.getCount(), null);
+        }
+        for (Map.Entry<Rule, Long> entry : messages.getMessageCountsByRule().entrySet()){
+            writeRecord("rule", ruleName(entry.getKey()), null, null, entry.getValue(), null);
+        }
+        flush();
+    }
+
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeRecord(String record, String rule, String level, String message, long count, String context){
+        if (format == Format.TSV){
+            writeTsv(record, rule, level, message, String.valueOf(count), context);
+        }
+        else {
+            StringBuilder sb = new StringBuilder(256);
+            sb.append("{\"record\":").append(toJson(record));
+            sb.append(",\"rule\":").append(toJson(rule));
+            if (level != null){
+                sb.append(",\"level\":").append(toJson(level));
+            }
+            if (message != null){
+                sb.append(",\"message\":").append(toJson(message));
+            }
+            sb.append(",\"count\":").append(count);
+            if (context != null){
+                sb.append(",\"context\":").append(toJson(context));
+            }
+            sb.append("}");
+            writeLine(sb.toString());
+        }
+    }
+
+    private void writeTsv(String... columns){
+        StringBuilder sb = new StringBuilder(256);
+        for (int i = 0; i < columns.length; i++){
+            if (i > 0){
+                sb.append('\t');
+            }
+            sb.append(columns[i] != null ? columns[i].replaceAll("[\t\r\n]+", " ") : "-");
+        }
+        writeLine(sb.toString());
+    }
+
+    private void writeLine(String line){
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write the validator report", e);
+        }
+    }
+
+    private void flush(){
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write the validator report", e);
+        }
+    }
+
+    private String ruleName(Rule rule){
+        return rule != null ? rule.getName() : null;
+    }
+
+    private String toJson(String value){
+        if (value == null){
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            switch (c){
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20){
+                        sb.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package psidev.psi.mi.validator;
+
+import psidev.psi.mi.validator.extension.MiClusteredContext;
+import psidev.psi.tools.validator.Context;
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.ValidatorMessage;
+import psidev.psi.tools.validator.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * All the validator messages having the same rule, message and level.
+ *
+ * Only the first messages are kept as examples, the other messages are only counted.
+ * As in ValidatorUtils.clusterByMessagesAndRules, a message equal to one of the example messages is ignored. The messages
+ * which are not kept cannot be compared, so a message equal to one of them is counted again.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class MessageCluster {
+
+    private final Rule rule;
+    private final String message;
+    private final MessageLevel level;
+    private final int maxContexts;
+
+    private final MiClusteredContext context;
+    // the messages of the example contexts, at most maxContexts
+    private final List<ValidatorMessage> examples;
+    private long count;
+
+    public MessageCluster(Rule rule, String message, MessageLevel level, int maxContexts) {
+        this.rule = rule;
+        this.message = message;
+        this.level = level;
+        this.maxContexts = maxContexts;
+        this.context = new MiClusteredContext();
+        this.examples = new ArrayList<ValidatorMessage>(Math.min(maxContexts, 16));
+    }
+
+    /**
+     * Counts a message of this cluster and keeps its context if the maximum number of example contexts is not reached.
+     * @param validatorMessage
+     * @return false if the same message was already added as example
+     */
+    public boolean add(ValidatorMessage validatorMessage){
+        if (examples.contains(validatorMessage)){
+            return false;
+        }
+        if (examples.size() < maxContexts){
+            examples.add(validatorMessage);
+        }
+        count++;
+        Context messageContext = validatorMessage.getContext();
+        if (messageContext instanceof MiClusteredContext){
+            // message already clustered
+            MiClusteredContext clusteredContext = (MiClusteredContext) messageContext;
+            for (Context c : clusteredContext.getContexts()){
+                addContext(c);
+            }
+            count += Math.max(0, clusteredContext.getNumberOfContexts() - 1);
+        }
+        else if (messageContext != null){
+            addContext(messageContext);
+        }
+        context.setNumberOfContexts((int) Math.min(count, Integer.MAX_VALUE));
+        return true;
+    }
+
+    private void addContext(Context c){
+        if (context.getContexts().size() < maxContexts){
+            context.getContexts().add(c);
+        }
+    }
+
+    public Rule getRule() {
+        return rule;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public MessageLevel getLevel() {
+        return level;
+    }
+
+    /**
+     *
+     * @return the number of messages in this cluster
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     *
+     * @return the clustered context with the example contexts
+     */
+    public MiClusteredContext getContext() {
+        return context;
+    }
+
+    /**
+     *
+     * @return a validator message with the clustered context
+     */
+    public ValidatorMessage toValidatorMessage(){
+        return new ValidatorMessage(message, level, context, rule);
+    }
+}
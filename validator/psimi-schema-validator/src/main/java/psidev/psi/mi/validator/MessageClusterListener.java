@@ -0,0 +1,18 @@
+package psidev.psi.mi.validator;
+
+/**
+ * Listener of a ClusteredMessageCollection
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public interface MessageClusterListener {
+
+    /**
+     * Called when the first message of a cluster is added to the collection
+     * @param cluster : the new cluster, containing the first message
+     */
+    public void onNewCluster(MessageCluster cluster);
+}
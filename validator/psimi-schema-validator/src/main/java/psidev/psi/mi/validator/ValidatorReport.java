@@ -81,6 +81,19 @@ public class ValidatorReport {
         return ! semanticMessages.isEmpty();
     }
 
+    /**
+     * Clusters the semantic messages as soon as they are added instead of keeping all of them until the end of the validation.
+     *
+     * @param maxContextsPerCluster the maximum number of example contexts kept for each cluster of messages.
+     * @return the new semantic messages collection, to which a listener can be attached.
+     */
+    public ClusteredMessageCollection clusterSemanticMessages(int maxContextsPerCluster) {
+        ClusteredMessageCollection clusteredMessages = new ClusteredMessageCollection( maxContextsPerCluster );
+        clusteredMessages.addAll( semanticMessages );
+        this.semanticMessages = clusteredMessages;
+        return clusteredMessages;
+    }
+
     public void clear(){
         this.getSyntaxMessages().clear();
         this.getSemanticMessages().clear();
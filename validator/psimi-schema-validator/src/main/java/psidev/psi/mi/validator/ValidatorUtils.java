@@ -17,7 +17,15 @@ import java.util.*;
 
 public class ValidatorUtils {
 
+    /**
+     * Clusters the messages by message, rule and level.
+     * @param messages
+     * @return the clustered messages. A ClusteredMessageCollection is returned as it is as it is already clustered.
+     */
     public static Collection<ValidatorMessage> clusterByMessagesAndRules (Collection<ValidatorMessage> messages){
+        if (messages instanceof ClusteredMessageCollection){
+            return messages;
+        }
         if (messages == null || messages.isEmpty()){
             return Collections.EMPTY_LIST;
         }
@@ -17,6 +17,11 @@ public class MiClusteredContext extends Context {
 
     List<Context> contexts = new ArrayList<Context>();
 
+    /**
+     * Number of clustered contexts when only some of them are kept in contexts
+     */
+    private int numberOfContexts = 0;
+
     public MiClusteredContext(String context) {
         super(context);
     }
@@ -30,7 +35,15 @@ public class MiClusteredContext extends Context {
     }
 
     public int getNumberOfContexts(){
-        return contexts.size();
+        return Math.max(contexts.size(), numberOfContexts);
+    }
+
+    /**
+     * Sets the number of clustered contexts when only some of them are kept as examples
+     * @param numberOfContexts
+     */
+    public void setNumberOfContexts(int numberOfContexts) {
+        this.numberOfContexts = numberOfContexts;
     }
 
     @Override
@@ -42,6 +55,10 @@ public class MiClusteredContext extends Context {
             sb.append( context.toString() );
             sb.append("\n");
         }
+        if (getNumberOfContexts() > contexts.size()){
+            sb.append( "... and " ).append( getNumberOfContexts() - contexts.size() ).append( " more" );
+            sb.append("\n");
+        }
 
         sb.append( ")" );
         return sb.toString();
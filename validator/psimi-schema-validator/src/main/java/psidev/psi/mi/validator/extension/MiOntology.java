@@ -91,6 +91,14 @@ public class MiOntology {
     public static final String BiologicalRoleRoot = "MI:0500";
     public static final String AttributeNameRoot = "MI:0590";
 
+    /**
+     * All the PSI-MI root terms
+     */
+    public static final String[] ROOT_TERMS = new String[]{InteractionDetectionTypeRoot, ParticipantIdentificationTypeRoot,
+            FeatureDetectionTypeRoot, FeatureTypeRoot, InteractionTypeRoot, AliasTypeRoot, InteractorTypeRoot,
+            ExperimentalPreparationRoot, XrefTypeRoot, DatabaseCitationRoot, ExperimentalRoleRoot, BiologicalRoleRoot,
+            AttributeNameRoot};
+
     /**
      * Pattern of an MI identifier as a regular expression
      */
@@ -103,6 +111,8 @@ public class MiOntology {
 
     private final OntologyAccess ontology;
 
+    private final OntologyAncestryIndex ancestryIndex;
+
     /////////////////////////////
     // Constructor
 
@@ -111,6 +121,7 @@ public class MiOntology {
             throw new IllegalArgumentException( "You must give a non null ontology" );
         }
         this.ontology = ontology;
+        this.ancestryIndex = OntologyAncestryIndex.getInstance( ontology );
     }
 
     /////////////////////////////
@@ -206,6 +217,13 @@ public class MiOntology {
         return ontology.getTermForAccession( id );
     }
 
+    /**
+     * The ancestors are looked up in the ancestry index shared by all the users of this ontology.
+     *
+     * @param parent
+     * @param child
+     * @return true if the parent is one of the ancestors of the child.
+     */
     public boolean isChildOf( OntologyTermI parent, OntologyTermI child ) {
 
         if ( parent == null ) {
@@ -215,37 +233,23 @@ public class MiOntology {
             throw new IllegalArgumentException( "You must give a non null child" );
         }
 
-        log.trace( "parent: " + parent.getTermAccession() + " (" + parent.getPreferredName() + ")" );
-        log.trace( "child: " + child.getTermAccession() + " (" + child.getPreferredName() + ")" );
-
-        // traverse all parents terms of the given child until we either meet the given parent or a root term.
-        final Set<OntologyTermI> parents = ontology.getDirectParents( child );
-        if( log.isTraceEnabled() ) {
-            log.trace( "Parents of " + child.getTermAccession() + " (" + child.getPreferredName() + ")" );
-            for ( OntologyTermI p : parents ) {
-                log.trace( "\t - " + p.getTermAccession() + " (" + p.getPreferredName() + ")" );
-            }
-        }
-
-        // we go breadth first to limit the queries to the ontology
-        for ( OntologyTermI aParent : parents ) {
-            if( log.isTraceEnabled() ) log.trace( "comparing " + aParent.getPreferredName() + " to " + parent.getPreferredName() );
-            if ( aParent.equals( parent ) ) {
-                log.trace( "SAME" );
-                return true;
-            } else {
-                log.trace( "NOT SAME" );
-            }
-        }
+        return ancestryIndex.isChildOf( parent, child );
+    }
 
-        log.trace( "Going to upper level" );
-        for ( OntologyTermI aParent : parents ) {
-            log.trace( "CHecking parents of " + aParent.getPreferredName() );
-            if ( isChildOf( parent, aParent ) ) {
-                return true;
-            }
-        }
+    /**
+     * @param term
+     * @return all the ancestors of the term, cached in the ancestry index shared by all the users of this ontology.
+     */
+    public Set<OntologyTermI> getAllParents( OntologyTermI term ) {
+        return ancestryIndex.getAllParents( term );
+    }
 
-        return false;
+    /**
+     * Computes the ancestors of all the terms under the PSI-MI root terms.
+     *
+     * @return the number of terms indexed
+     */
+    public int preloadAncestry() {
+        return ancestryIndex.preload( ROOT_TERMS );
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import psidev.psi.mi.jami.factory.MIDataSourceFactory;
 import psidev.psi.mi.jami.model.*;
 import psidev.psi.mi.jami.tab.listener.MitabParserListener;
 import psidev.psi.mi.jami.xml.listener.PsiXmlParserListener;
+import psidev.psi.mi.validator.MessageClusterListener;
 import psidev.psi.mi.validator.ValidatorReport;
 import psidev.psi.mi.validator.ValidatorUtils;
 import psidev.psi.mi.validator.extension.rules.*;
@@ -18,6 +19,7 @@ import psidev.psi.mi.validator.extension.rules.psimi.DatabaseAccessionRule;
 import psidev.psi.tools.cvrReader.mapping.jaxb.CvMapping;
 import psidev.psi.tools.ontology_manager.OntologyManager;
 import psidev.psi.tools.ontology_manager.OntologyManagerContext;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccess;
 import psidev.psi.tools.ontology_manager.impl.local.OntologyLoaderException;
 import psidev.psi.tools.validator.*;
 import psidev.psi.tools.validator.preferences.UserPreferences;
@@ -27,6 +29,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * <b> PSI-MI 2.5.2 Specific Validator </b>.
@@ -77,6 +84,17 @@ public class MiValidator extends Validator {
 
     private boolean validateObjectRule = true;
 
+    /**
+     * Maximum number of interactions read in advance by each validation thread
+     */
+    private static final int PENDING_INTERACTIONS_PER_THREAD = 16;
+
+    private int validationThreads = 1;
+
+    private int maxContextsPerCluster = 0;
+
+    private MessageClusterListener clusterListener;
+
     private MIFileAnalyzer fileAnalyser = new MIFileAnalyzer();
 
     private Set<Object> processObjects;
@@ -97,6 +115,7 @@ public class MiValidator extends Validator {
         validatorReport = new ValidatorReport();
         this.syntaxRule = new MIFileSyntaxRule(this.ontologyMngr);
         this.processObjects = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        preloadOntologyAncestry();
 
         // refilter object rules
         setObjectRules(new ArrayList<ObjectRule>(getObjectRules()));
@@ -109,6 +128,18 @@ public class MiValidator extends Validator {
         validatorReport = new ValidatorReport();
         this.syntaxRule = new MIFileSyntaxRule(this.ontologyMngr);
         this.processObjects = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        preloadOntologyAncestry();
+    }
+
+    /**
+     * Computes once the ancestors of all the MI terms so the rules checking the parents of a term do not walk the ontology.
+     */
+    private void preloadOntologyAncestry(){
+        OntologyAccess mi = this.ontologyMngr.getOntologyAccess( "MI" );
+        if ( mi != null ) {
+            int terms = new MiOntology( mi ).preloadAncestry();
+            if ( log.isInfoEnabled() ) log.info( "Indexed the ancestors of " + terms + " MI terms" );
+        }
     }
 
     @Override
@@ -213,6 +244,55 @@ public class MiValidator extends Validator {
         return userPreferences;
     }
 
+    public int getValidationThreads() {
+        return validationThreads;
+    }
+
+    /**
+     * Sets the number of threads validating the interactions. By default, the interactions are validated in the calling thread.
+     * With more than one thread, the interactions are still read in the calling thread and the report is the same as with one thread,
+     * so the rules must be thread safe. The experiments and interactors shared by several interactions are still validated in the calling thread
+     * as the parser keeps modifying them while it reads the next interactions. Their state is initialised by the calling thread before
+     * the first interaction using them is submitted (see SharedObjectInitialiser), so the other threads only read it.
+     * @param validationThreads
+     */
+    public void setValidationThreads(int validationThreads) {
+        if (validationThreads < 1){
+            throw new IllegalArgumentException("The number of validation threads must be at least 1: "+validationThreads);
+        }
+        this.validationThreads = validationThreads;
+    }
+
+    public int getMaxContextsPerCluster() {
+        return maxContextsPerCluster;
+    }
+
+    /**
+     * Clusters the semantic messages as soon as they are added, keeping at most maxContextsPerCluster example contexts for each
+     * cluster, instead of keeping all the messages until the end of the validation. By default (0), the messages are only clustered
+     * at the end of the validation.
+     * @param maxContextsPerCluster
+     */
+    public void setMaxContextsPerCluster(int maxContextsPerCluster) {
+        if (maxContextsPerCluster < 0){
+            throw new IllegalArgumentException("The maximum number of contexts per cluster cannot be negative: "+maxContextsPerCluster);
+        }
+        this.maxContextsPerCluster = maxContextsPerCluster;
+    }
+
+    public MessageClusterListener getClusterListener() {
+        return clusterListener;
+    }
+
+    /**
+     * Sets the listener notified of each new cluster of semantic messages, for instance a ClusteredReportWriter.
+     * It is only notified when the messages are clustered while validating (see setMaxContextsPerCluster).
+     * @param clusterListener
+     */
+    public void setClusterListener(MessageClusterListener clusterListener) {
+        this.clusterListener = clusterListener;
+    }
+
     //////////////////////////
     // Utility
 
@@ -528,6 +608,11 @@ public class MiValidator extends Validator {
      */
     private void runSemanticValidation(ValidatorReport report, InteractionStream interactionSource) throws ValidatorException {
 
+        // cluster the messages while validating
+        if (this.maxContextsPerCluster > 0){
+            report.clusterSemanticMessages(this.maxContextsPerCluster).setListener(this.clusterListener);
+        }
+
         // Build the collection of messages in which we will accumulate the output of the validator
         Collection<ValidatorMessage> messages = report.getSemanticMessages();
 
@@ -564,11 +649,18 @@ public class MiValidator extends Validator {
                     MessageLevel.FATAL,
                     context,
                     this.syntaxRule ) );
-            report.getSemanticMessages().addAll(messages);
+            if (report.getSemanticMessages() != messages){
+                report.getSemanticMessages().addAll(messages);
+            }
         }
     }
 
     private void processSemanticValidation(ValidatorReport report, Collection<ValidatorMessage> messages, InteractionStream interactionSource) throws ValidatorException {
+        if (this.validationThreads > 1){
+            processSemanticValidationInParallel(report, messages, interactionSource);
+            return;
+        }
+
         // now process interactions
         Iterator interactionIterator = interactionSource.getInteractionsIterator();
         int number = 0;
@@ -577,13 +669,7 @@ public class MiValidator extends Validator {
             if (interactionObject instanceof InteractionEvidence){
                 InteractionEvidence interaction = (InteractionEvidence)interactionObject;
 
-                // check using cv mapping rules
-                messages.addAll(super.checkCvMapping(interaction, "/interactionEvidence/"));
-
-                // check object rules
-                if (validateObjectRule){
-                    checkInteraction(messages, interaction);
-                }
+                checkInteractionEvidence(messages, interaction, registerSharedObjects(interaction));
             }
             number++;
         }
@@ -592,7 +678,154 @@ public class MiValidator extends Validator {
         report.setInteractionCount(number);
     }
 
-    private void checkInteraction(Collection<ValidatorMessage> messages, InteractionEvidence interaction) throws ValidatorException {
+    /**
+     * The calling thread reads the interactions and validates the shared objects (experiments and interactors) the first time they appear,
+     * as the parser adds the next interactions to them. The rest of each interaction is validated by a pool of workers which insert
+     * the messages of the shared objects at the same place as the sequential validation. The messages of each interaction are added
+     * in the order of the file so the report is the same as the sequential validation.
+     */
+    private void processSemanticValidationInParallel(ValidatorReport report, Collection<ValidatorMessage> messages, InteractionStream interactionSource) throws ValidatorException {
+        ExecutorService executor = Executors.newFixedThreadPool(this.validationThreads);
+        // results not added yet to the messages, in the order of the file
+        LinkedList<Future<Collection<ValidatorMessage>>> pendingResults = new LinkedList<Future<Collection<ValidatorMessage>>>();
+        int maxPendingResults = this.validationThreads * PENDING_INTERACTIONS_PER_THREAD;
+
+        boolean hasValidatedAllInteractions = false;
+        try{
+            // now process interactions
+            Iterator interactionIterator = interactionSource.getInteractionsIterator();
+            int number = 0;
+            while ( interactionIterator.hasNext() ) {
+                Interaction interactionObject = (Interaction)interactionIterator.next();
+                if (interactionObject instanceof InteractionEvidence){
+                    final InteractionEvidence interaction = (InteractionEvidence)interactionObject;
+                    final Map<Object, Collection<ValidatorMessage>> sharedObjects = registerSharedObjects(interaction);
+                    // the validation threads only read the state of the shared objects
+                    for (Object sharedObject : sharedObjects.keySet()){
+                        SharedObjectInitialiser.initialise(sharedObject);
+                    }
+                    if (validateObjectRule){
+                        checkSharedObjects(sharedObjects);
+                    }
+
+                    pendingResults.add(executor.submit(new Callable<Collection<ValidatorMessage>>() {
+                        public Collection<ValidatorMessage> call() throws Exception {
+                            Collection<ValidatorMessage> interactionMessages = new ArrayList<ValidatorMessage>();
+                            checkInteractionEvidence(interactionMessages, interaction, sharedObjects);
+                            return interactionMessages;
+                        }
+                    }));
+
+                    // do not read the file faster than the interactions are validated
+                    if (pendingResults.size() >= maxPendingResults){
+                        addNextResult(messages, pendingResults);
+                    }
+                }
+                number++;
+            }
+
+            while (!pendingResults.isEmpty()){
+                addNextResult(messages, pendingResults);
+            }
+            hasValidatedAllInteractions = true;
+
+            // add count of interactions
+            report.setInteractionCount(number);
+        }
+        finally {
+            if (!hasValidatedAllInteractions){
+                // the sequential validation keeps the messages of the interactions read before the error
+                try {
+                    while (!pendingResults.isEmpty()){
+                        addNextResult(messages, pendingResults);
+                    }
+                } catch (ValidatorException e) {
+                    log.error("Cannot validate the interactions read before the error", e);
+                }
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds the messages of the next interaction, waiting for its validation.
+     * If its validation failed, the next interactions are discarded as they are not validated by the sequential validation.
+     */
+    private void addNextResult(Collection<ValidatorMessage> messages, LinkedList<Future<Collection<ValidatorMessage>>> pendingResults) throws ValidatorException {
+        try {
+            messages.addAll(waitForResult(pendingResults.removeFirst()));
+        } catch (ValidatorException e) {
+            for (Future<Collection<ValidatorMessage>> pendingResult : pendingResults){
+                pendingResult.cancel(true);
+            }
+            pendingResults.clear();
+            throw e;
+        }
+    }
+
+    private Collection<ValidatorMessage> waitForResult(Future<Collection<ValidatorMessage>> result) throws ValidatorException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValidatorException("Interrupted while validating the interactions", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ValidatorException){
+                throw (ValidatorException) e.getCause();
+            }
+            throw new ValidatorException("Cannot validate the interaction", e.getCause());
+        }
+    }
+
+    /**
+     * Registers the experiment and the interactors of this interaction as processed.
+     * @param interaction
+     * @return the experiment and interactors which were not processed yet and have to be validated with this interaction.
+     * They are not validated yet so they have no messages.
+     */
+    private Map<Object, Collection<ValidatorMessage>> registerSharedObjects(InteractionEvidence interaction){
+        Map<Object, Collection<ValidatorMessage>> sharedObjects = new IdentityHashMap<Object, Collection<ValidatorMessage>>();
+        Experiment exp = interaction.getExperiment();
+        if (exp != null && this.processObjects.add(exp)){
+            sharedObjects.put(exp, null);
+        }
+        for (ParticipantEvidence p : interaction.getParticipants()){
+            if (p.getInteractor() != null && this.processObjects.add(p.getInteractor())){
+                sharedObjects.put(p.getInteractor(), null);
+            }
+        }
+        return sharedObjects;
+    }
+
+    /**
+     * Validates now the shared objects registered with an interaction and keeps their messages until the interaction is validated.
+     * @param sharedObjects
+     * @throws ValidatorException
+     */
+    private void checkSharedObjects(Map<Object, Collection<ValidatorMessage>> sharedObjects) throws ValidatorException {
+        for (Map.Entry<Object, Collection<ValidatorMessage>> entry : sharedObjects.entrySet()){
+            Collection<ValidatorMessage> objectMessages = new ArrayList<ValidatorMessage>();
+            if (entry.getKey() instanceof Experiment){
+                checkExperiment(objectMessages, (Experiment) entry.getKey());
+            }
+            else {
+                checkInteractor(objectMessages, (Interactor) entry.getKey());
+            }
+            entry.setValue(objectMessages);
+        }
+    }
+
+    private void checkInteractionEvidence(Collection<ValidatorMessage> messages, InteractionEvidence interaction, Map<Object, Collection<ValidatorMessage>> sharedObjects) throws ValidatorException {
+        // check using cv mapping rules
+        messages.addAll(super.checkCvMapping(interaction, "/interactionEvidence/"));
+
+        // check object rules
+        if (validateObjectRule){
+            checkInteraction(messages, interaction, sharedObjects);
+        }
+    }
+
+    private void checkInteraction(Collection<ValidatorMessage> messages, InteractionEvidence interaction, Map<Object, Collection<ValidatorMessage>> sharedObjects) throws ValidatorException {
         // run the interaction specialized rules
         messages.addAll(this.interactionEvidenceRuleWrapper.check(interaction));
         // validate with other rules if any
@@ -602,8 +835,14 @@ public class MiValidator extends Validator {
 
         // validate experiment if not done yet
         Experiment exp = interaction.getExperiment();
-        if (exp != null && this.processObjects.add(exp)){
-            checkExperiment(messages, exp);
+        if (exp != null && sharedObjects.containsKey(exp)){
+            Collection<ValidatorMessage> experimentMessages = sharedObjects.remove(exp);
+            if (experimentMessages != null){
+                messages.addAll(experimentMessages);
+            }
+            else {
+                checkExperiment(messages, exp);
+            }
         }
 
         // validate interaction type
@@ -613,7 +852,7 @@ public class MiValidator extends Validator {
 
         // validate participants
         for (ParticipantEvidence p : interaction.getParticipants()){
-            checkParticipant(messages, p, interaction);
+            checkParticipant(messages, p, interaction, sharedObjects);
         }
 
         // validate confidences
@@ -791,7 +1030,7 @@ public class MiValidator extends Validator {
         }
     }
 
-    private void checkParticipant(Collection<ValidatorMessage> messages, ParticipantEvidence p, InteractionEvidence parent) throws ValidatorException {
+    private void checkParticipant(Collection<ValidatorMessage> messages, ParticipantEvidence p, InteractionEvidence parent, Map<Object, Collection<ValidatorMessage>> sharedObjects) throws ValidatorException {
         // run the participant specialized rules
         Collection<ValidatorMessage> partMessages = (this.participantRuleWrapper.check(p));
         // validate with other rules if any
@@ -805,8 +1044,14 @@ public class MiValidator extends Validator {
         }
 
         // validate interactor
-        if (p.getInteractor() != null && this.processObjects.add(p.getInteractor())){
-            checkInteractor(messages, p.getInteractor());
+        if (p.getInteractor() != null && sharedObjects.containsKey(p.getInteractor())){
+            Collection<ValidatorMessage> interactorMessages = sharedObjects.remove(p.getInteractor());
+            if (interactorMessages != null){
+                messages.addAll(interactorMessages);
+            }
+            else {
+                checkInteractor(messages, p.getInteractor());
+            }
         }
 
         // validate features
@@ -0,0 +1,215 @@
+package psidev.psi.mi.validator.extension;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccess;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transitive closure of the parent relationships of an ontology.
+ * <p/>
+ * Each term gets an index and the ancestors of a term are kept as a BitSet of term indexes, so checking if a term
+ * is the child of another one is a single bit lookup once the ancestors of the child are known.
+ * The ancestors of a term are computed from the ancestors of its direct parents, so each term of the ontology is only
+ * queried once for its direct parents. The ancestors can be computed at startup for whole branches of the ontology (see preload)
+ * or lazily, the first time a term is checked.
+ * <p/>
+ * There is one index per OntologyAccess (see getInstance). It is thread safe.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class OntologyAncestryIndex {
+
+    public static final Log log = LogFactory.getLog( OntologyAncestryIndex.class );
+
+    private static final Map<OntologyAccess, OntologyAncestryIndex> indexes = new WeakHashMap<OntologyAccess, OntologyAncestryIndex>();
+
+    private final OntologyAccess ontology;
+
+    private final ConcurrentMap<String, Integer> termIndexes = new ConcurrentHashMap<String, Integer>();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final ConcurrentMap<String, Ancestry> ancestries = new ConcurrentHashMap<String, Ancestry>();
+
+    public OntologyAncestryIndex(OntologyAccess ontology) {
+        if ( ontology == null ) {
+            throw new IllegalArgumentException( "You must give a non null ontology" );
+        }
+        this.ontology = ontology;
+    }
+
+    /**
+     *
+     * @param ontology
+     * @return the index shared by all the users of this ontology
+     */
+    public static OntologyAncestryIndex getInstance(OntologyAccess ontology){
+        if ( ontology == null ) {
+            throw new IllegalArgumentException( "You must give a non null ontology" );
+        }
+        synchronized ( indexes ){
+            OntologyAncestryIndex index = indexes.get( ontology );
+            if ( index == null ) {
+                index = new OntologyAncestryIndex( ontology );
+                indexes.put( ontology, index );
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Computes the ancestors of the given root terms and all their children.
+     *
+     * @param rootAccessions
+     * @return the number of terms indexed
+     */
+    public int preload( String... rootAccessions ){
+        long start = System.currentTimeMillis();
+        for ( String accession : rootAccessions ) {
+            OntologyTermI root = ontology.getTermForAccession( accession );
+            if ( root == null ) {
+                log.warn( "Cannot preload the ancestors of " + accession + " as it does not exist in the ontology" );
+                continue;
+            }
+            getAncestry( root );
+            for ( OntologyTermI child : ontology.getAllChildren( root ) ) {
+                getAncestry( child );
+            }
+        }
+        if ( log.isDebugEnabled() ) {
+            log.debug( "Indexed the ancestors of " + ancestries.size() + " terms in " + ( System.currentTimeMillis() - start ) + "ms" );
+        }
+        return ancestries.size();
+    }
+
+    /**
+     *
+     * @param child
+     * @param parentAccession
+     * @return true if the term having this accession is one of the ancestors of the child (the child itself is excluded).
+     */
+    public boolean isChildOf( OntologyTermI child, String parentAccession ) {
+        if ( child == null ) {
+            throw new IllegalArgumentException( "You must give a non null child" );
+        }
+        if ( parentAccession == null ) {
+            throw new IllegalArgumentException( "You must give a non null parent" );
+        }
+
+        Ancestry ancestry = getAncestry( child );
+        // a term without index cannot be the ancestor of an indexed term
+        Integer parentIndex = termIndexes.get( parentAccession );
+        return parentIndex != null && ancestry.ancestors.get( parentIndex );
+    }
+
+    /**
+     *
+     * @param parent
+     * @param child
+     * @return true if the parent is one of the ancestors of the child (the child itself is excluded).
+     */
+    public boolean isChildOf( OntologyTermI parent, OntologyTermI child ) {
+        if ( parent == null ) {
+            throw new IllegalArgumentException( "You must give a non null parent" );
+        }
+        return isChildOf( child, parent.getTermAccession() );
+    }
+
+    /**
+     *
+     * @param term
+     * @return the unmodifiable set of all the ancestors of this term
+     */
+    public Set<OntologyTermI> getAllParents( OntologyTermI term ) {
+        if ( term == null ) {
+            throw new IllegalArgumentException( "You must give a non null term" );
+        }
+        return getAncestry( term ).parents;
+    }
+
+    /**
+     * Removes all the computed ancestors, for instance after reloading the ontology.
+     */
+    public void clear(){
+        ancestries.clear();
+    }
+
+    private Ancestry getAncestry( OntologyTermI term ) {
+        Ancestry ancestry = ancestries.get( term.getTermAccession() );
+        if ( ancestry == null ) {
+            ancestry = computeAncestry( term, new HashSet<String>() );
+        }
+        return ancestry;
+    }
+
+    private Ancestry computeAncestry( OntologyTermI term, Set<String> visiting ) {
+        String accession = term.getTermAccession();
+        Ancestry ancestry = ancestries.get( accession );
+        if ( ancestry != null ) {
+            return ancestry;
+        }
+        // protection against cycles in a malformed ontology
+        if ( !visiting.add( accession ) ) {
+            log.warn( "The term " + accession + " is its own ancestor" );
+            return new Ancestry( new BitSet(), Collections.<OntologyTermI>emptySet(), false );
+        }
+
+        BitSet ancestors = new BitSet();
+        Set<OntologyTermI> parents = new HashSet<OntologyTermI>();
+        boolean complete = true;
+        for ( OntologyTermI parent : ontology.getDirectParents( term ) ) {
+            Ancestry parentAncestry = computeAncestry( parent, visiting );
+            ancestors.set( indexOf( parent.getTermAccession() ) );
+            ancestors.or( parentAncestry.ancestors );
+            parents.add( parent );
+            parents.addAll( parentAncestry.parents );
+            complete &= parentAncestry.complete;
+        }
+        visiting.remove( accession );
+
+        ancestry = new Ancestry( ancestors, Collections.unmodifiableSet( parents ), complete );
+        // the ancestors cut short by a cycle depend on the term the computation started from so they are not kept
+        if ( !complete ) {
+            return ancestry;
+        }
+        Ancestry existing = ancestries.putIfAbsent( accession, ancestry );
+        return existing != null ? existing : ancestry;
+    }
+
+    private int indexOf( String accession ) {
+        Integer index = termIndexes.get( accession );
+        if ( index == null ) {
+            Integer newIndex = nextIndex.getAndIncrement();
+            index = termIndexes.putIfAbsent( accession, newIndex );
+            if ( index == null ) {
+                index = newIndex;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * The ancestors of a term. It is never modified once created.
+     */
+    private static class Ancestry {
+        private final BitSet ancestors;
+        private final Set<OntologyTermI> parents;
+        /**
+         * false if a cycle was found while computing the ancestors
+         */
+        private final boolean complete;
+
+        private Ancestry( BitSet ancestors, Set<OntologyTermI> parents, boolean complete ) {
+            this.ancestors = ancestors;
+            this.parents = parents;
+            this.complete = complete;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package psidev.psi.mi.validator.extension;
+
+import psidev.psi.mi.jami.model.*;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Initialises the state of the experiments and interactors shared by several interactions before they are validated by
+ * several threads.
+ *
+ * The model objects create some of their collections and properties the first time they are read, so two threads validating
+ * interactions of the same experiment or interactor could create them at the same time. The thread reading the interactions
+ * initialises them before submitting the first interaction using this object, so the validation threads only read them.
+ * The interaction evidences of the experiments are still modified by the parser while reading the next interactions,
+ * they are not read by the rules validating the interactions.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SharedObjectInitialiser {
+
+    private SharedObjectInitialiser() {
+    }
+
+    /**
+     * Initialises the state of an experiment or an interactor and of the objects it contains.
+     * @param sharedObject : the experiment or interactor
+     */
+    public static void initialise(Object sharedObject){
+        Set<Object> initialisedObjects = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        if (sharedObject instanceof Experiment){
+            initialiseExperiment((Experiment) sharedObject, initialisedObjects);
+        }
+        else if (sharedObject instanceof Interactor){
+            initialiseInteractor((Interactor) sharedObject, initialisedObjects);
+        }
+    }
+
+    private static void initialiseExperiment(Experiment experiment, Set<Object> initialisedObjects){
+        if (!initialisedObjects.add(experiment)){
+            return;
+        }
+        initialisePublication(experiment.getPublication(), initialisedObjects);
+        initialiseXrefs(experiment.getXrefs(), initialisedObjects);
+        initialiseAnnotations(experiment.getAnnotations(), initialisedObjects);
+        for (Confidence confidence : experiment.getConfidences()){
+            initialiseCvTerm(confidence.getType(), initialisedObjects);
+        }
+        initialiseCvTerm(experiment.getInteractionDetectionMethod(), initialisedObjects);
+        initialiseOrganism(experiment.getHostOrganism(), initialisedObjects);
+        for (VariableParameter parameter : experiment.getVariableParameters()){
+            initialiseCvTerm(parameter.getUnit(), initialisedObjects);
+            parameter.getVariableValues();
+        }
+        // only created here, the parser keeps adding the next interactions
+        experiment.getInteractionEvidences();
+    }
+
+    private static void initialisePublication(Publication publication, Set<Object> initialisedObjects){
+        if (publication == null || !initialisedObjects.add(publication)){
+            return;
+        }
+        publication.getPubmedId();
+        publication.getDoi();
+        publication.getImexId();
+        initialiseXrefs(publication.getIdentifiers(), initialisedObjects);
+        initialiseXrefs(publication.getXrefs(), initialisedObjects);
+        initialiseAnnotations(publication.getAnnotations(), initialisedObjects);
+        publication.getAuthors();
+        initialiseCvTerm(publication.getSource(), initialisedObjects);
+    }
+
+    private static void initialiseInteractor(Interactor interactor, Set<Object> initialisedObjects){
+        if (interactor == null || !initialisedObjects.add(interactor)){
+            return;
+        }
+        initialiseXrefs(interactor.getIdentifiers(), initialisedObjects);
+        interactor.getPreferredIdentifier();
+        for (Checksum checksum : interactor.getChecksums()){
+            initialiseCvTerm(checksum.getMethod(), initialisedObjects);
+        }
+        initialiseXrefs(interactor.getXrefs(), initialisedObjects);
+        initialiseAnnotations(interactor.getAnnotations(), initialisedObjects);
+        initialiseAliases(interactor.getAliases(), initialisedObjects);
+        initialiseOrganism(interactor.getOrganism(), initialisedObjects);
+        initialiseCvTerm(interactor.getInteractorType(), initialisedObjects);
+
+        if (interactor instanceof Polymer){
+            ((Polymer) interactor).getSequence();
+        }
+        else if (interactor instanceof InteractorPool){
+            for (Interactor member : (InteractorPool) interactor){
+                initialiseInteractor(member, initialisedObjects);
+            }
+        }
+        else if (interactor instanceof Complex){
+            for (ModelledParticipant participant : ((Complex) interactor).getParticipants()){
+                initialiseInteractor(participant.getInteractor(), initialisedObjects);
+            }
+        }
+    }
+
+    private static void initialiseOrganism(Organism organism, Set<Object> initialisedObjects){
+        if (organism == null || !initialisedObjects.add(organism)){
+            return;
+        }
+        initialiseAliases(organism.getAliases(), initialisedObjects);
+        initialiseCvTerm(organism.getCellType(), initialisedObjects);
+        initialiseCvTerm(organism.getCompartment(), initialisedObjects);
+        initialiseCvTerm(organism.getTissue(), initialisedObjects);
+    }
+
+    private static void initialiseCvTerm(CvTerm term, Set<Object> initialisedObjects){
+        if (term == null || !initialisedObjects.add(term)){
+            return;
+        }
+        initialiseXrefs(term.getIdentifiers(), initialisedObjects);
+        term.getMIIdentifier();
+        term.getMODIdentifier();
+        term.getPARIdentifier();
+        initialiseXrefs(term.getXrefs(), initialisedObjects);
+        initialiseAnnotations(term.getAnnotations(), initialisedObjects);
+        initialiseAliases(term.getSynonyms(), initialisedObjects);
+    }
+
+    private static void initialiseXrefs(Collection<? extends Xref> xrefs, Set<Object> initialisedObjects){
+        for (Xref xref : xrefs){
+            initialiseCvTerm(xref.getDatabase(), initialisedObjects);
+            initialiseCvTerm(xref.getQualifier(), initialisedObjects);
+        }
+    }
+
+    private static void initialiseAnnotations(Collection<? extends Annotation> annotations, Set<Object> initialisedObjects){
+        for (Annotation annotation : annotations){
+            initialiseCvTerm(annotation.getTopic(), initialisedObjects);
+        }
+    }
+
+    private static void initialiseAliases(Collection<? extends Alias> aliases, Set<Object> initialisedObjects){
+        for (Alias alias : aliases){
+            initialiseCvTerm(alias.getType(), initialisedObjects);
+        }
+    }
+}
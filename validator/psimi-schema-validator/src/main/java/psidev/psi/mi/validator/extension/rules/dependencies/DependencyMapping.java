@@ -5,6 +5,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import psidev.psi.mi.jami.model.CvTerm;
 import psidev.psi.mi.validator.extension.MiContext;
+import psidev.psi.mi.validator.extension.OntologyAncestryIndex;
 import psidev.psi.tools.ontology_manager.interfaces.OntologyAccess;
 import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
 import psidev.psi.tools.validator.MessageLevel;
@@ -255,12 +256,7 @@ public class DependencyMapping {
             return false;
         }
 
-        Set<OntologyTermI> parents = mi.getAllParents(child);
-
-        if (parents.contains(parent)){
-            return true;
-        }
-        return false;
+        return OntologyAncestryIndex.getInstance(mi).isChildOf(parent, child);
     }
 
     /**
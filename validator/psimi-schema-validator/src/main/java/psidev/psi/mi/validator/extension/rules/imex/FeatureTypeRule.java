@@ -4,6 +4,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import psidev.psi.mi.jami.model.Feature;
 import psidev.psi.mi.validator.extension.MiContext;
+import psidev.psi.mi.validator.extension.OntologyAncestryIndex;
 import psidev.psi.mi.validator.extension.rules.AbstractMIRule;
 import psidev.psi.mi.validator.extension.rules.RuleUtils;
 import psidev.psi.tools.ontology_manager.OntologyManager;
@@ -29,8 +30,12 @@ public class FeatureTypeRule extends AbstractMIRule<Feature> {
 
     private static final Log log = LogFactory.getLog(FeatureTypeRule.class);
 
+    private final OntologyAncestryIndex miAncestryIndex;
+
     public FeatureTypeRule(OntologyManager ontologyManager) {
         super(ontologyManager, Feature.class);
+        OntologyAccess mi = ontologyManager != null ? ontologyManager.getOntologyAccess("MI") : null;
+        this.miAncestryIndex = mi != null ? OntologyAncestryIndex.getInstance(mi) : null;
 
         // describe the rule.
         setName("Participant's feature Type Check");
@@ -73,16 +78,7 @@ public class FeatureTypeRule extends AbstractMIRule<Feature> {
                             this ) );
                 }
                 else {
-                    Collection<OntologyTermI> parents = access.getAllParents(dbTerms);
-
-                    boolean foundParent = false;
-
-                    for (OntologyTermI p : parents){
-                        if ("MI:0116".equals(p.getTermAccession())){
-                            foundParent = true;
-                            break;
-                        }
-                    }
+                    boolean foundParent = miAncestryIndex.isChildOf(dbTerms, "MI:0116");
 
                     if (!foundParent){
                         MiContext context = RuleUtils.buildContext(feature, "feature");
@@ -4,6 +4,7 @@ import psidev.psi.mi.jami.model.Alias;
 import psidev.psi.mi.jami.tab.utils.MitabUtils;
 import psidev.psi.mi.jami.xml.utils.PsiXmlUtils;
 import psidev.psi.mi.validator.extension.MiContext;
+import psidev.psi.mi.validator.extension.OntologyAncestryIndex;
 import psidev.psi.mi.validator.extension.rules.AbstractMIRule;
 import psidev.psi.mi.validator.extension.rules.RuleUtils;
 import psidev.psi.tools.ontology_manager.OntologyManager;
@@ -29,8 +30,12 @@ import java.util.List;
 public class AliasSyntaxRule extends AbstractMIRule<Alias> {
 
 
+    private final OntologyAncestryIndex miAncestryIndex;
+
     public AliasSyntaxRule(OntologyManager ontologyManager) {
         super(ontologyManager, Alias.class);
+        OntologyAccess mi = ontologyManager != null ? ontologyManager.getOntologyAccess("MI") : null;
+        this.miAncestryIndex = mi != null ? OntologyAncestryIndex.getInstance(mi) : null;
         setName( "Alias syntax check" );
 
         setDescription( "Check that each alias has a valid name and if it has a MI alias type, it must have a valid MI term for alias type." );
@@ -70,16 +75,7 @@ public class AliasSyntaxRule extends AbstractMIRule<Alias> {
                             this ) );
                 }
                 else {
-                    Collection<OntologyTermI> parents = access.getAllParents(dbTerm);
-
-                    boolean foundParent = false;
-
-                    for (OntologyTermI p : parents){
-                        if ("MI:0300".equals(p.getTermAccession())){
-                            foundParent = true;
-                            break;
-                        }
-                    }
+                    boolean foundParent = miAncestryIndex.isChildOf(dbTerm, "MI:0300");
 
                     if (!foundParent){
                         MiContext context = RuleUtils.buildContext(alias, "alias");
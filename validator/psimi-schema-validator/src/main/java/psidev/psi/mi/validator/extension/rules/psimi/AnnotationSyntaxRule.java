@@ -5,6 +5,7 @@ import psidev.psi.mi.jami.model.CvTerm;
 import psidev.psi.mi.jami.tab.utils.MitabUtils;
 import psidev.psi.mi.jami.xml.utils.PsiXmlUtils;
 import psidev.psi.mi.validator.extension.MiContext;
+import psidev.psi.mi.validator.extension.OntologyAncestryIndex;
 import psidev.psi.mi.validator.extension.rules.AbstractMIRule;
 import psidev.psi.mi.validator.extension.rules.RuleUtils;
 import psidev.psi.tools.ontology_manager.OntologyManager;
@@ -28,8 +29,12 @@ import java.util.Collections;
 public class AnnotationSyntaxRule extends AbstractMIRule<Annotation> {
 
 
+    private final OntologyAncestryIndex miAncestryIndex;
+
     public AnnotationSyntaxRule(OntologyManager ontologyManager) {
         super(ontologyManager, Annotation.class);
+        OntologyAccess mi = ontologyManager != null ? ontologyManager.getOntologyAccess("MI") : null;
+        this.miAncestryIndex = mi != null ? OntologyAncestryIndex.getInstance(mi) : null;
         setName( "Missing annotation topic check" );
 
         setDescription( "Check that each annotation has a non empty topic. If a topic MI identifier is provided, check that it is a valid " +
@@ -66,16 +71,7 @@ public class AnnotationSyntaxRule extends AbstractMIRule<Annotation> {
                             this ) );
                 }
                 else {
-                    Collection<OntologyTermI> parents = access.getAllParents(dbTerm);
-
-                    boolean foundParent = false;
-
-                    for (OntologyTermI p : parents){
-                        if ("MI:0590".equals(p.getTermAccession())){
-                            foundParent = true;
-                            break;
-                        }
-                    }
+                    boolean foundParent = miAncestryIndex.isChildOf(dbTerm, "MI:0590");
 
                     if (!foundParent){
                         MiContext context = RuleUtils.buildContext(annotation, "annotation");
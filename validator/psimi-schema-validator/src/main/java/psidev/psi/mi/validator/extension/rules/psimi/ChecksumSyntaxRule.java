@@ -5,6 +5,7 @@ import psidev.psi.mi.jami.model.CvTerm;
 import psidev.psi.mi.jami.tab.utils.MitabUtils;
 import psidev.psi.mi.jami.xml.utils.PsiXmlUtils;
 import psidev.psi.mi.validator.extension.MiContext;
+import psidev.psi.mi.validator.extension.OntologyAncestryIndex;
 import psidev.psi.mi.validator.extension.rules.AbstractMIRule;
 import psidev.psi.mi.validator.extension.rules.RuleUtils;
 import psidev.psi.tools.ontology_manager.OntologyManager;
@@ -30,8 +31,12 @@ import java.util.List;
 public class ChecksumSyntaxRule extends AbstractMIRule<Checksum> {
 
 
+    private final OntologyAncestryIndex miAncestryIndex;
+
     public ChecksumSyntaxRule(OntologyManager ontologyManager) {
         super(ontologyManager, Checksum.class);
+        OntologyAccess mi = ontologyManager != null ? ontologyManager.getOntologyAccess("MI") : null;
+        this.miAncestryIndex = mi != null ? OntologyAncestryIndex.getInstance(mi) : null;
         setName( "Checksum syntax check" );
 
         setDescription( "Check that each checksum has a valid name and if it has a MI method, it must have a valid MI term for checksum method." );
@@ -70,16 +75,7 @@ public class ChecksumSyntaxRule extends AbstractMIRule<Checksum> {
                             this ) );
                 }
                 else {
-                    Collection<OntologyTermI> parents = access.getAllParents(dbTerm);
-
-                    boolean foundParent = false;
-
-                    for (OntologyTermI p : parents){
-                        if ("MI:1212".equals(p.getTermAccession())){
-                            foundParent = true;
-                            break;
-                        }
-                    }
+                    boolean foundParent = miAncestryIndex.isChildOf(dbTerm, "MI:1212");
 
                     if (!foundParent){
                         MiContext context = RuleUtils.buildContext(checksum, "checksum");
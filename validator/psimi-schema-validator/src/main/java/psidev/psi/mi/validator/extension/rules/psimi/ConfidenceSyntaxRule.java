@@ -5,6 +5,7 @@ import psidev.psi.mi.jami.model.CvTerm;
 import psidev.psi.mi.jami.tab.utils.MitabUtils;
 import psidev.psi.mi.jami.xml.utils.PsiXmlUtils;
 import psidev.psi.mi.validator.extension.MiContext;
+import psidev.psi.mi.validator.extension.OntologyAncestryIndex;
 import psidev.psi.mi.validator.extension.rules.AbstractMIRule;
 import psidev.psi.mi.validator.extension.rules.RuleUtils;
 import psidev.psi.tools.ontology_manager.OntologyManager;
@@ -29,8 +30,12 @@ import java.util.List;
 
 public class ConfidenceSyntaxRule extends AbstractMIRule<Confidence> {
 
+    private final OntologyAncestryIndex miAncestryIndex;
+
     public ConfidenceSyntaxRule(OntologyManager ontologyManager) {
         super(ontologyManager, Confidence.class);
+        OntologyAccess mi = ontologyManager != null ? ontologyManager.getOntologyAccess("MI") : null;
+        this.miAncestryIndex = mi != null ? OntologyAncestryIndex.getInstance(mi) : null;
         setName( "Interaction and Participant's Confidence syntax check" );
 
         setDescription( "Check that each interaction confidence and participant confidence has a confidence type and a confidence value." +
@@ -70,16 +75,7 @@ public class ConfidenceSyntaxRule extends AbstractMIRule<Confidence> {
                             this ) );
                 }
                 else {
-                    Collection<OntologyTermI> parents = access.getAllParents(dbTerm);
-
-                    boolean foundParent = false;
-
-                    for (OntologyTermI p : parents){
-                        if ("MI:1064".equals(p.getTermAccession())){
-                            foundParent = true;
-                            break;
-                        }
-                    }
+                    boolean foundParent = miAncestryIndex.isChildOf(dbTerm, "MI:1064");
 
                     if (!foundParent){
                         MiContext context = RuleUtils.buildContext(confidence, "confidence");
@@ -5,6 +5,7 @@ import psidev.psi.mi.jami.model.Xref;
 import psidev.psi.mi.jami.tab.utils.MitabUtils;
 import psidev.psi.mi.jami.xml.utils.PsiXmlUtils;
 import psidev.psi.mi.validator.extension.MiContext;
+import psidev.psi.mi.validator.extension.OntologyAncestryIndex;
 import psidev.psi.mi.validator.extension.rules.AbstractMIRule;
 import psidev.psi.mi.validator.extension.rules.RuleUtils;
 import psidev.psi.tools.ontology_manager.OntologyManager;
@@ -29,8 +30,12 @@ import java.util.List;
 
 public class DatabaseXrefSyntaxRule extends AbstractMIRule<Xref> {
 
+    private final OntologyAncestryIndex miAncestryIndex;
+
     public DatabaseXrefSyntaxRule(OntologyManager ontologyManager) {
         super(ontologyManager, Xref.class);
+        OntologyAccess mi = ontologyManager != null ? ontologyManager.getOntologyAccess("MI") : null;
+        this.miAncestryIndex = mi != null ? OntologyAncestryIndex.getInstance(mi) : null;
         setName( "Database cross reference syntax check" );
 
         setDescription( "Check that each database cross reference has a non empty database and a non empty database accession. Checks that if MI identifiers are provided for database and qualifiers, they are valid MI identifiers." );
@@ -86,16 +91,7 @@ public class DatabaseXrefSyntaxRule extends AbstractMIRule<Xref> {
                             this ) );
                 }
                 else {
-                    Collection<OntologyTermI> parents = access.getAllParents(dbTerm);
-
-                    boolean foundParent = false;
-
-                    for (OntologyTermI p : parents){
-                        if ("MI:0444".equals(p.getTermAccession())){
-                            foundParent = true;
-                            break;
-                        }
-                    }
+                    boolean foundParent = miAncestryIndex.isChildOf(dbTerm, "MI:0444");
 
                     if (!foundParent){
                         MiContext context = RuleUtils.buildContext(xref, "database xref");
@@ -124,16 +120,7 @@ public class DatabaseXrefSyntaxRule extends AbstractMIRule<Xref> {
                             this ) );
                 }
                 else {
-                    Collection<OntologyTermI> parents = access.getAllParents(dbTerm);
-
-                    boolean foundParent = false;
-
-                    for (OntologyTermI p : parents){
-                        if ("MI:0353".equals(p.getTermAccession())){
-                            foundParent = true;
-                            break;
-                        }
-                    }
+                    boolean foundParent = miAncestryIndex.isChildOf(dbTerm, "MI:0353");
 
                     if (!foundParent){
                         MiContext context = RuleUtils.buildContext(xref, "database xref");
@@ -5,6 +5,7 @@ import psidev.psi.mi.jami.model.Parameter;
 import psidev.psi.mi.jami.tab.utils.MitabUtils;
 import psidev.psi.mi.jami.xml.utils.PsiXmlUtils;
 import psidev.psi.mi.validator.extension.MiContext;
+import psidev.psi.mi.validator.extension.OntologyAncestryIndex;
 import psidev.psi.mi.validator.extension.rules.AbstractMIRule;
 import psidev.psi.mi.validator.extension.rules.RuleUtils;
 import psidev.psi.tools.ontology_manager.OntologyManager;
@@ -29,8 +30,12 @@ import java.util.List;
 
 public class ParameterSyntaxRule extends AbstractMIRule<Parameter> {
 
+    private final OntologyAncestryIndex miAncestryIndex;
+
     public ParameterSyntaxRule(OntologyManager ontologyManager) {
         super(ontologyManager, Parameter.class);
+        OntologyAccess mi = ontologyManager != null ? ontologyManager.getOntologyAccess("MI") : null;
+        this.miAncestryIndex = mi != null ? OntologyAncestryIndex.getInstance(mi) : null;
         setName( "Parameter's syntax check" );
 
         setDescription( "Check that each parameter (interaction's parameters and participant's parameters) have a parameter type and a parameter factor." +
@@ -71,16 +76,7 @@ public class ParameterSyntaxRule extends AbstractMIRule<Parameter> {
                             this ) );
                 }
                 else {
-                    Collection<OntologyTermI> parents = access.getAllParents(dbTerm);
-
-                    boolean foundParent = false;
-
-                    for (OntologyTermI p : parents){
-                        if ("MI:0640".equals(p.getTermAccession())){
-                            foundParent = true;
-                            break;
-                        }
-                    }
+                    boolean foundParent = miAncestryIndex.isChildOf(dbTerm, "MI:0640");
 
                     if (!foundParent){
                         MiContext context = RuleUtils.buildContext(parameter, "parameter");
@@ -109,16 +105,7 @@ public class ParameterSyntaxRule extends AbstractMIRule<Parameter> {
                             this ) );
                 }
                 else {
-                    Collection<OntologyTermI> parents = access.getAllParents(dbTerm);
-
-                    boolean foundParent = false;
-
-                    for (OntologyTermI p : parents){
-                        if ("MI:0647".equals(p.getTermAccession())){
-                            foundParent = true;
-                            break;
-                        }
-                    }
+                    boolean foundParent = miAncestryIndex.isChildOf(dbTerm, "MI:0647");
 
                     if (!foundParent){
                         MiContext context = RuleUtils.buildContext(parameter, "parameter");
@@ -0,0 +1,135 @@
+package psidev.psi.mi.validator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import psidev.psi.mi.validator.extension.MiClusteredContext;
+import psidev.psi.mi.validator.extension.MiContext;
+import psidev.psi.tools.validator.MessageLevel;
+import psidev.psi.tools.validator.ValidatorMessage;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tester for ClusteredMessageCollection
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class ClusteredMessageCollectionTest {
+
+    @Test
+    public void test_cluster_messages() throws Exception {
+        ClusteredMessageCollection messages = new ClusteredMessageCollection(2);
+
+        for (int i = 0; i < 1000; i++){
+            messages.add(new ValidatorMessage("Missing database", MessageLevel.ERROR, new MiContext("xref " + i), null));
+        }
+        messages.add(new ValidatorMessage("Missing database", MessageLevel.WARN, new MiContext("xref"), null));
+        messages.add(new ValidatorMessage("Missing id", MessageLevel.ERROR, new MiContext("xref"), null));
+
+        Assert.assertEquals(3, messages.size());
+        Assert.assertEquals(1002, messages.getMessageCount());
+
+        List<ValidatorMessage> clustered = new ArrayList<ValidatorMessage>(messages);
+        Assert.assertEquals("Missing database", clustered.get(0).getMessage());
+        Assert.assertEquals(MessageLevel.ERROR, clustered.get(0).getLevel());
+
+        MiClusteredContext context = (MiClusteredContext) clustered.get(0).getContext();
+        Assert.assertEquals(2, context.getContexts().size());
+        Assert.assertEquals(1000, context.getNumberOfContexts());
+
+        // the clustered messages are not clustered again
+        Assert.assertSame(messages, ValidatorUtils.clusterByMessagesAndRules(messages));
+
+        messages.clear();
+        Assert.assertEquals(0, messages.size());
+        Assert.assertEquals(0, messages.getMessageCount());
+    }
+
+    @Test
+    public void test_write_clusters() throws Exception {
+        ClusteredMessageCollection messages = new ClusteredMessageCollection(1);
+        StringWriter output = new StringWriter();
+        ClusteredReportWriter writer = new ClusteredReportWriter(output, ClusteredReportWriter.Format.JSON);
+        messages.setListener(writer);
+
+        messages.add(new ValidatorMessage("Missing \"database\"", MessageLevel.ERROR, new MiContext("xref 1"), null));
+        // written as soon as the cluster is created
+        Assert.assertEquals(1, output.toString().split("\n").length);
+        messages.add(new ValidatorMessage("Missing \"database\"", MessageLevel.ERROR, new MiContext("xref 2"), null));
+        Assert.assertEquals(1, output.toString().split("\n").length);
+
+        writer.writeSummary(messages);
+        writer.close();
+
+        String[] lines = output.toString().split("\n");
+        Assert.assertEquals(3, lines.length);
+        Assert.assertTrue(lines[0].startsWith("{\"record\":\"cluster\""));
+        Assert.assertTrue(lines[0].contains("\"message\":\"Missing \\\"database\\\"\""));
+        Assert.assertTrue(lines[1].startsWith("{\"record\":\"total\""));
+        Assert.assertTrue(lines[1].contains("\"count\":2"));
+        Assert.assertTrue(lines[2].startsWith("{\"record\":\"rule\""));
+    }
+
+    @Test
+    public void test_same_message_counted_once() throws Exception {
+        ClusteredMessageCollection messages = new ClusteredMessageCollection(10);
+        ValidatorMessage message = new ValidatorMessage("Missing database", MessageLevel.ERROR, new MiContext("xref"), null);
+
+        Assert.assertTrue(messages.add(message));
+        Assert.assertFalse(messages.add(message));
+
+        Assert.assertEquals(1, messages.size());
+        Assert.assertEquals(1, messages.getMessageCount());
+        Assert.assertEquals(1, ((MiClusteredContext) messages.iterator().next().getContext()).getContexts().size());
+    }
+
+    @Test
+    public void test_same_message_compared_to_examples_only() throws Exception {
+        ClusteredMessageCollection messages = new ClusteredMessageCollection(1);
+        ValidatorMessage example = new ValidatorMessage("Missing database", MessageLevel.ERROR, new MiContext("xref 1"), null);
+        ValidatorMessage other = new ValidatorMessage("Missing database", MessageLevel.ERROR, new MiContext("xref 2"), null);
+
+        Assert.assertTrue(messages.add(example));
+        Assert.assertTrue(messages.add(other));
+        // the example is kept so it is not counted twice
+        Assert.assertFalse(messages.add(example));
+        // the other message is only counted
+        Assert.assertTrue(messages.add(other));
+
+        Assert.assertEquals(1, messages.size());
+        Assert.assertEquals(3, messages.getMessageCount());
+        Assert.assertEquals(1, ((MiClusteredContext) messages.iterator().next().getContext()).getContexts().size());
+    }
+
+    @Test
+    public void test_listener_notified_outside_lock() throws Exception {
+        final ClusteredMessageCollection messages = new ClusteredMessageCollection(1);
+        final List<Integer> sizes = new ArrayList<Integer>();
+        messages.setListener(new MessageClusterListener() {
+            public void onNewCluster(MessageCluster cluster) {
+                // another thread reading the collection must not wait for the listener
+                Thread reader = new Thread(new Runnable() {
+                    public void run() {
+                        sizes.add(messages.size());
+                    }
+                });
+                reader.start();
+                try {
+                    reader.join(10000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        messages.add(new ValidatorMessage("Missing database", MessageLevel.ERROR, new MiContext("xref"), null));
+
+        Assert.assertEquals(1, sizes.size());
+        Assert.assertEquals(Integer.valueOf(1), sizes.get(0));
+    }
+}
@@ -61,4 +61,29 @@ public class Mi25OntologyTest {
         Assert.assertTrue( ontology.isChildOf( interactionType, proteinCleavage ) );
         Assert.assertFalse( ontology.isChildOf( proteinCleavage, interactionType ) );
     }
+
+    @Test
+    public void getAllParents() throws Exception {
+
+        final OntologyTermI proteinCleavage = ontology.search( "MI:0570" );
+        final OntologyTermI interactionType = ontology.search( "MI:0190" );
+
+        Assert.assertTrue( ontology.getAllParents( proteinCleavage ).contains( interactionType ) );
+        Assert.assertFalse( ontology.getAllParents( interactionType ).contains( proteinCleavage ) );
+        // cached
+        Assert.assertSame( ontology.getAllParents( proteinCleavage ), ontology.getAllParents( proteinCleavage ) );
+    }
+
+    @Test
+    public void preloadAncestry() throws Exception {
+
+        Assert.assertTrue( ontology.preloadAncestry() > 0 );
+
+        final OntologyTermI uniprot = ontology.search( MiOntology.UNIPROT_MI );
+        final OntologyTermI databaseCitation = ontology.search( MiOntology.DatabaseCitationRoot );
+
+        Assert.assertTrue( ontology.isChildOf( databaseCitation, uniprot ) );
+        Assert.assertFalse( ontology.isChildOf( uniprot, databaseCitation ) );
+        Assert.assertFalse( ontology.isChildOf( databaseCitation, databaseCitation ) );
+    }
 }
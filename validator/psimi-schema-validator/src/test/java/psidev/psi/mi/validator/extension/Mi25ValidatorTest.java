@@ -3,6 +3,7 @@ package psidev.psi.mi.validator.extension;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
+import psidev.psi.mi.validator.ClusteredMessageCollection;
 import psidev.psi.mi.validator.ValidatorReport;
 import psidev.psi.tools.validator.ValidatorMessage;
 import psidev.psi.tools.validator.preferences.UserPreferences;
@@ -13,7 +14,9 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * MiValidator Tester.
@@ -380,6 +383,35 @@ public class Mi25ValidatorTest {
         System.out.println("End:"+System.currentTimeMillis());
     }
 
+    @Test
+    public void validate_parallel_same_report() throws Exception {
+        MiValidator validator = buildValidatorWithIMEXRules();
+        // the messages are clustered in the order they are added and all their contexts are kept in this order
+        validator.getMIValidatorReport().clusterSemanticMessages( Integer.MAX_VALUE );
+
+        validator.setValidationThreads( 1 );
+        ValidatorReport report = validator.validate( buildInputStream( "16141327.xml" ) );
+        List<String> sequentialMessages = toStrings( report.getSemanticMessages() );
+        long sequentialMessageCount = ( ( ClusteredMessageCollection ) report.getSemanticMessages() ).getMessageCount();
+        int sequentialCount = report.getInteractionCount();
+        Assert.assertTrue( sequentialMessages.size() > 0 );
+
+        validator.setValidationThreads( 4 );
+        report = validator.validate( buildInputStream( "16141327.xml" ) );
+
+        Assert.assertEquals( sequentialCount, report.getInteractionCount() );
+        Assert.assertEquals( sequentialMessageCount, ( ( ClusteredMessageCollection ) report.getSemanticMessages() ).getMessageCount() );
+        Assert.assertEquals( sequentialMessages, toStrings( report.getSemanticMessages() ) );
+    }
+
+    private List<String> toStrings( Collection<ValidatorMessage> messages ) {
+        List<String> strings = new ArrayList<String>( messages.size() );
+        for ( ValidatorMessage message : messages ) {
+            strings.add( message.toString() + " " + message.getContext() );
+        }
+        return strings;
+    }
+
     private void printMessages( Collection<ValidatorMessage> messages ) {
         for ( ValidatorMessage message : messages ) {
             System.out.println( message );
@@ -0,0 +1,87 @@
+package psidev.psi.mi.validator.extension;
+
+import psidev.psi.mi.validator.ValidatorReport;
+import psidev.psi.tools.ontology_manager.OntologyManager;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccess;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Measures the time spent checking the ancestors of MI terms with and without the OntologyAncestryIndex
+ * and, if a file is given, the time spent validating this file.
+ *
+ * Usage: OntologyAncestryIndexBenchmark [large IMEx PSI-XML or MITAB file]
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class OntologyAncestryIndexBenchmark {
+
+    private static final int ROUNDS = 100;
+
+    public static void main(String[] args) throws Exception {
+        InputStream is = OntologyAncestryIndexBenchmark.class.getResourceAsStream( "/config/ontologies.xml" );
+        OntologyManager om = new OntologyManager();
+        om.loadOntologies( is );
+        is.close();
+        OntologyAccess mi = om.getOntologyAccess( "MI" );
+
+        OntologyTermI databaseCitation = mi.getTermForAccession( MiOntology.DatabaseCitationRoot );
+        List<OntologyTermI> terms = new ArrayList<OntologyTermI>();
+        for ( String root : MiOntology.ROOT_TERMS ) {
+            terms.addAll( mi.getAllChildren( mi.getTermForAccession( root ) ) );
+        }
+        System.out.println( terms.size() + " MI terms, " + ROUNDS + " rounds" );
+
+        // what the rules did before: walk all the parents of the term for each check
+        long start = System.currentTimeMillis();
+        int found = 0;
+        for ( int i = 0; i < ROUNDS; i++ ) {
+            for ( OntologyTermI term : terms ) {
+                Set<OntologyTermI> parents = mi.getAllParents( term );
+                for ( OntologyTermI p : parents ) {
+                    if ( MiOntology.DatabaseCitationRoot.equals( p.getTermAccession() ) ) {
+                        found++;
+                        break;
+                    }
+                }
+            }
+        }
+        System.out.println( "getAllParents: " + ( System.currentTimeMillis() - start ) + "ms (" + found + " children of MI:0444)" );
+
+        OntologyAncestryIndex index = new OntologyAncestryIndex( mi );
+        start = System.currentTimeMillis();
+        index.preload( MiOntology.ROOT_TERMS );
+        System.out.println( "Preload: " + ( System.currentTimeMillis() - start ) + "ms" );
+
+        start = System.currentTimeMillis();
+        found = 0;
+        for ( int i = 0; i < ROUNDS; i++ ) {
+            for ( OntologyTermI term : terms ) {
+                if ( index.isChildOf( databaseCitation, term ) ) {
+                    found++;
+                }
+            }
+        }
+        System.out.println( "Ancestry index: " + ( System.currentTimeMillis() - start ) + "ms (" + found + " children of MI:0444)" );
+
+        if ( args.length > 0 ) {
+            InputStream ontologyConfig = OntologyAncestryIndexBenchmark.class.getResourceAsStream( "/config/ontologies.xml" );
+            InputStream cvMappingConfig = OntologyAncestryIndexBenchmark.class.getResourceAsStream( "/config/psi_mi/cv-mapping.xml" );
+            InputStream objectRuleConfig = MiValidator.class.getResourceAsStream( "/config/psi_mi/imex-rules.xml" );
+
+            MiValidator validator = new MiValidator( ontologyConfig, cvMappingConfig, objectRuleConfig );
+            start = System.currentTimeMillis();
+            ValidatorReport report = validator.validate( new File( args[0] ) );
+            System.out.println( "Validated " + args[0] + " in " + ( System.currentTimeMillis() - start ) + "ms ("
+                    + report.getSemanticMessages().size() + " messages)" );
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package psidev.psi.mi.validator.extension;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyAccess;
+import psidev.psi.tools.ontology_manager.interfaces.OntologyTermI;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * OntologyAncestryIndex Tester.
+ *
+ * The ontology is a stub only knowing the terms and parent relationships declared by the tests, so the tests
+ * do not need to load the MI ontology and can count how many times the index queries the parents of a term.
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class OntologyAncestryIndexTest {
+
+    private StubOntology stub;
+    private OntologyAccess ontology;
+
+    @Before
+    public void setup() {
+        // MI:0001 <- MI:0045 <- MI:0019 <- MI:0004 and MI:0045 <- MI:0004
+        stub = new StubOntology();
+        stub.addTerm( "MI:0001" );
+        stub.addTerm( "MI:0045", "MI:0001" );
+        stub.addTerm( "MI:0019", "MI:0045" );
+        stub.addTerm( "MI:0004", "MI:0019", "MI:0045" );
+        ontology = stub.createOntologyAccess();
+    }
+
+    @Test
+    public void isChildOf_accession() {
+        OntologyAncestryIndex index = new OntologyAncestryIndex( ontology );
+        OntologyTermI term = stub.getTerm( "MI:0004" );
+
+        Assert.assertTrue( index.isChildOf( term, "MI:0001" ) );
+        Assert.assertTrue( index.isChildOf( term, "MI:0045" ) );
+        Assert.assertTrue( index.isChildOf( term, "MI:0019" ) );
+        // the term itself is excluded
+        Assert.assertFalse( index.isChildOf( term, "MI:0004" ) );
+        Assert.assertFalse( index.isChildOf( stub.getTerm( "MI:0001" ), "MI:0004" ) );
+        Assert.assertFalse( index.isChildOf( term, "MI:9999" ) );
+    }
+
+    @Test
+    public void isChildOf_term() {
+        OntologyAncestryIndex index = new OntologyAncestryIndex( ontology );
+
+        Assert.assertTrue( index.isChildOf( stub.getTerm( "MI:0045" ), stub.getTerm( "MI:0019" ) ) );
+        Assert.assertTrue( index.isChildOf( stub.getTerm( "MI:0001" ), stub.getTerm( "MI:0004" ) ) );
+        Assert.assertFalse( index.isChildOf( stub.getTerm( "MI:0019" ), stub.getTerm( "MI:0045" ) ) );
+        Assert.assertFalse( index.isChildOf( stub.getTerm( "MI:0019" ), stub.getTerm( "MI:0019" ) ) );
+    }
+
+    @Test
+    public void getAllParents() {
+        OntologyAncestryIndex index = new OntologyAncestryIndex( ontology );
+
+        Set<OntologyTermI> parents = index.getAllParents( stub.getTerm( "MI:0004" ) );
+        Assert.assertEquals( stub.getTerms( "MI:0001", "MI:0045", "MI:0019" ), parents );
+        Assert.assertTrue( index.getAllParents( stub.getTerm( "MI:0001" ) ).isEmpty() );
+
+        try {
+            parents.clear();
+            Assert.fail( "The parents should not be modifiable" );
+        }
+        catch ( UnsupportedOperationException e ) {
+            // expected
+        }
+    }
+
+    @Test
+    public void ancestry_computed_once() {
+        OntologyAncestryIndex index = new OntologyAncestryIndex( ontology );
+
+        Assert.assertTrue( index.isChildOf( stub.getTerm( "MI:0004" ), "MI:0001" ) );
+        Assert.assertTrue( index.isChildOf( stub.getTerm( "MI:0004" ), "MI:0045" ) );
+        Assert.assertTrue( index.isChildOf( stub.getTerm( "MI:0019" ), "MI:0001" ) );
+
+        // the ancestors of MI:0045 are reached twice from MI:0004 but only computed once
+        for ( String accession : Arrays.asList( "MI:0001", "MI:0045", "MI:0019", "MI:0004" ) ) {
+            Assert.assertEquals( accession, 1, stub.getParentQueries( accession ) );
+        }
+
+        index.clear();
+        Assert.assertTrue( index.isChildOf( stub.getTerm( "MI:0004" ), "MI:0001" ) );
+        Assert.assertEquals( 2, stub.getParentQueries( "MI:0004" ) );
+    }
+
+    @Test
+    public void preload() {
+        OntologyAncestryIndex index = new OntologyAncestryIndex( ontology );
+
+        // the unknown root is ignored
+        Assert.assertEquals( 4, index.preload( "MI:0001", "MI:9999" ) );
+
+        Assert.assertTrue( index.isChildOf( stub.getTerm( "MI:0004" ), "MI:0001" ) );
+        Assert.assertTrue( index.isChildOf( stub.getTerm( "MI:0019" ), "MI:0045" ) );
+        Assert.assertEquals( stub.getTerms( "MI:0001", "MI:0045" ), index.getAllParents( stub.getTerm( "MI:0019" ) ) );
+        for ( String accession : Arrays.asList( "MI:0001", "MI:0045", "MI:0019", "MI:0004" ) ) {
+            Assert.assertEquals( accession, 1, stub.getParentQueries( accession ) );
+        }
+    }
+
+    @Test
+    public void cycle_not_cached() {
+        // MI:0100 and MI:0101 are the parents of each other, MI:0101 is also a child of MI:0001
+        stub.addTerm( "MI:0100", "MI:0101" );
+        stub.addTerm( "MI:0101", "MI:0100", "MI:0001" );
+        OntologyAncestryIndex index = new OntologyAncestryIndex( ontology );
+
+        OntologyTermI first = stub.getTerm( "MI:0100" );
+        OntologyTermI second = stub.getTerm( "MI:0101" );
+
+        Assert.assertTrue( index.isChildOf( first, "MI:0101" ) );
+        Assert.assertTrue( index.isChildOf( first, "MI:0001" ) );
+        Assert.assertTrue( index.isChildOf( second, "MI:0100" ) );
+        Assert.assertTrue( index.isChildOf( second, "MI:0001" ) );
+        Assert.assertFalse( index.isChildOf( second, "MI:0004" ) );
+        Assert.assertTrue( index.getAllParents( first ).containsAll( stub.getTerms( "MI:0101", "MI:0001" ) ) );
+        Assert.assertTrue( index.getAllParents( second ).containsAll( stub.getTerms( "MI:0100", "MI:0001" ) ) );
+
+        // the ancestors cut short by the cycle are computed again for each check
+        int firstQueries = stub.getParentQueries( "MI:0100" );
+        int secondQueries = stub.getParentQueries( "MI:0101" );
+        Assert.assertTrue( index.isChildOf( first, "MI:0001" ) );
+        Assert.assertTrue( stub.getParentQueries( "MI:0100" ) > firstQueries );
+        Assert.assertTrue( stub.getParentQueries( "MI:0101" ) > secondQueries );
+
+        // the ancestors of the terms outside of the cycle are still kept
+        Assert.assertEquals( 1, stub.getParentQueries( "MI:0001" ) );
+    }
+
+    @Test
+    public void cycle_does_not_change_cached_ancestors() {
+        OntologyAncestryIndex index = new OntologyAncestryIndex( ontology );
+        Assert.assertEquals( 4, index.preload( "MI:0001" ) );
+
+        stub.addTerm( "MI:0100", "MI:0101", "MI:0019" );
+        stub.addTerm( "MI:0101", "MI:0100" );
+
+        Assert.assertTrue( index.isChildOf( stub.getTerm( "MI:0101" ), "MI:0001" ) );
+        Assert.assertTrue( index.isChildOf( stub.getTerm( "MI:0100" ), "MI:0045" ) );
+        Assert.assertEquals( stub.getTerms( "MI:0001", "MI:0045" ), index.getAllParents( stub.getTerm( "MI:0019" ) ) );
+        Assert.assertFalse( index.isChildOf( stub.getTerm( "MI:0019" ), "MI:0100" ) );
+    }
+
+    @Test
+    public void miOntology_preloadAncestry() {
+        MiOntology miOntology = new MiOntology( ontology );
+
+        // only MI:0001 among the MI roots is known by the stub
+        Assert.assertEquals( 4, miOntology.preloadAncestry() );
+        Assert.assertTrue( miOntology.isChildOf( stub.getTerm( "MI:0001" ), stub.getTerm( "MI:0004" ) ) );
+        Assert.assertEquals( stub.getTerms( "MI:0001", "MI:0045", "MI:0019" ), miOntology.getAllParents( stub.getTerm( "MI:0004" ) ) );
+
+        // the index is shared by the MiOntology instances of the same ontology
+        Assert.assertSame( OntologyAncestryIndex.getInstance( ontology ), OntologyAncestryIndex.getInstance( ontology ) );
+        Assert.assertTrue( new MiOntology( ontology ).isChildOf( stub.getTerm( "MI:0045" ), stub.getTerm( "MI:0019" ) ) );
+        for ( String accession : Arrays.asList( "MI:0001", "MI:0045", "MI:0019", "MI:0004" ) ) {
+            Assert.assertEquals( accession, 1, stub.getParentQueries( accession ) );
+        }
+    }
+
+    /**
+     * Ontology only knowing the terms added by the test. The OntologyAccess and the terms are proxies answering
+     * the methods used by the index.
+     */
+    private static class StubOntology {
+
+        private final Map<String, OntologyTermI> terms = new HashMap<String, OntologyTermI>();
+        private final Map<String, List<String>> parents = new HashMap<String, List<String>>();
+        private final Map<String, Integer> parentQueries = new HashMap<String, Integer>();
+
+        private void addTerm( final String accession, String... parentAccessions ) {
+            OntologyTermI term = (OntologyTermI) Proxy.newProxyInstance( OntologyTermI.class.getClassLoader(),
+                    new Class[]{OntologyTermI.class}, new InvocationHandler() {
+                        public Object invoke( Object proxy, Method method, Object[] args ) {
+                            String name = method.getName();
+                            if ( name.equals( "getTermAccession" ) || name.equals( "getPreferredName" ) || name.equals( "toString" ) ) {
+                                return accession;
+                            }
+                            if ( name.equals( "equals" ) ) {
+                                return proxy == args[0];
+                            }
+                            if ( name.equals( "hashCode" ) ) {
+                                return System.identityHashCode( proxy );
+                            }
+                            throw new UnsupportedOperationException( name );
+                        }
+                    } );
+            terms.put( accession, term );
+            parents.put( accession, Arrays.asList( parentAccessions ) );
+        }
+
+        private OntologyTermI getTerm( String accession ) {
+            return terms.get( accession );
+        }
+
+        private Set<OntologyTermI> getTerms( String... accessions ) {
+            Set<OntologyTermI> result = new HashSet<OntologyTermI>();
+            for ( String accession : accessions ) {
+                result.add( getTerm( accession ) );
+            }
+            return result;
+        }
+
+        private int getParentQueries( String accession ) {
+            Integer queries = parentQueries.get( accession );
+            return queries != null ? queries : 0;
+        }
+
+        private Set<OntologyTermI> getDirectParents( OntologyTermI term ) {
+            String accession = term.getTermAccession();
+            parentQueries.put( accession, getParentQueries( accession ) + 1 );
+            Set<OntologyTermI> result = new HashSet<OntologyTermI>();
+            for ( String parent : parents.get( accession ) ) {
+                result.add( getTerm( parent ) );
+            }
+            return result;
+        }
+
+        private Set<OntologyTermI> getAllChildren( OntologyTermI term ) {
+            Set<OntologyTermI> children = new HashSet<OntologyTermI>();
+            for ( Map.Entry<String, List<String>> entry : parents.entrySet() ) {
+                if ( entry.getValue().contains( term.getTermAccession() ) && children.add( getTerm( entry.getKey() ) ) ) {
+                    children.addAll( getAllChildren( getTerm( entry.getKey() ) ) );
+                }
+            }
+            return children;
+        }
+
+        private OntologyAccess createOntologyAccess() {
+            return (OntologyAccess) Proxy.newProxyInstance( OntologyAccess.class.getClassLoader(),
+                    new Class[]{OntologyAccess.class}, new InvocationHandler() {
+                        public Object invoke( Object proxy, Method method, Object[] args ) {
+                            String name = method.getName();
+                            if ( name.equals( "getTermForAccession" ) ) {
+                                return getTerm( (String) args[0] );
+                            }
+                            if ( name.equals( "getDirectParents" ) ) {
+                                return getDirectParents( (OntologyTermI) args[0] );
+                            }
+                            if ( name.equals( "getAllChildren" ) ) {
+                                return getAllChildren( (OntologyTermI) args[0] );
+                            }
+                            if ( name.equals( "equals" ) ) {
+                                return proxy == args[0];
+                            }
+                            if ( name.equals( "hashCode" ) ) {
+                                return System.identityHashCode( proxy );
+                            }
+                            if ( name.equals( "toString" ) ) {
+                                return "stub ontology";
+                            }
+                            throw new UnsupportedOperationException( name );
+                        }
+                    } );
+        }
+    }
+}
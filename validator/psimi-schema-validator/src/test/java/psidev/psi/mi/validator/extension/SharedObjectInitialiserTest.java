@@ -0,0 +1,127 @@
+package psidev.psi.mi.validator.extension;
+
+import org.junit.Assert;
+import org.junit.Test;
+import psidev.psi.mi.jami.model.CvTerm;
+import psidev.psi.mi.jami.model.Experiment;
+import psidev.psi.mi.jami.model.Interactor;
+import psidev.psi.mi.jami.model.InteractorPool;
+import psidev.psi.mi.jami.model.impl.DefaultInteractorPool;
+import psidev.psi.mi.jami.xml.model.extension.BibRef;
+import psidev.psi.mi.jami.xml.model.extension.XmlExperiment;
+import psidev.psi.mi.jami.xml.model.extension.XmlPolymer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Unit tester for SharedObjectInitialiser
+ *
+ * @author agent (agent@local)
+ * @version $Id$
+ * @since <pre>17/10/26</pre>
+ */
+
+public class SharedObjectInitialiserTest {
+
+    @Test
+    public void test_threads_read_initialised_experiment() throws Exception {
+        final Experiment experiment = new XmlExperiment(new BibRef("12345"));
+        SharedObjectInitialiser.initialise(experiment);
+
+        List<Object> collections = readConcurrently(new Callable<List<Object>>() {
+            public List<Object> call() throws Exception {
+                List<Object> collections = new ArrayList<Object>();
+                collections.add(experiment.getXrefs());
+                collections.add(experiment.getAnnotations());
+                collections.add(experiment.getConfidences());
+                collections.add(experiment.getVariableParameters());
+                collections.add(experiment.getPublication().getIdentifiers());
+                collections.add(experiment.getInteractionDetectionMethod().getIdentifiers());
+                return collections;
+            }
+        });
+
+        // the threads only read the collections created by the initialiser
+        Assert.assertSame(experiment.getXrefs(), collections.get(0));
+        Assert.assertSame(experiment.getAnnotations(), collections.get(1));
+        Assert.assertSame(experiment.getConfidences(), collections.get(2));
+        Assert.assertSame(experiment.getVariableParameters(), collections.get(3));
+        Assert.assertSame(experiment.getPublication().getIdentifiers(), collections.get(4));
+        Assert.assertSame(experiment.getInteractionDetectionMethod().getIdentifiers(), collections.get(5));
+    }
+
+    @Test
+    public void test_threads_read_initialised_interactor() throws Exception {
+        final Interactor interactor = new XmlPolymer("polymer", (CvTerm) null);
+        SharedObjectInitialiser.initialise(interactor);
+
+        List<Object> collections = readConcurrently(new Callable<List<Object>>() {
+            public List<Object> call() throws Exception {
+                List<Object> collections = new ArrayList<Object>();
+                collections.add(interactor.getIdentifiers());
+                collections.add(interactor.getXrefs());
+                collections.add(interactor.getAnnotations());
+                collections.add(interactor.getAliases());
+                collections.add(interactor.getChecksums());
+                return collections;
+            }
+        });
+
+        Assert.assertSame(interactor.getIdentifiers(), collections.get(0));
+        Assert.assertSame(interactor.getXrefs(), collections.get(1));
+        Assert.assertSame(interactor.getAnnotations(), collections.get(2));
+        Assert.assertSame(interactor.getAliases(), collections.get(3));
+        Assert.assertSame(interactor.getChecksums(), collections.get(4));
+    }
+
+    @Test
+    public void test_initialise_pool_containing_itself() {
+        InteractorPool pool = new DefaultInteractorPool("pool");
+        pool.add(new XmlPolymer("polymer", (CvTerm) null));
+        pool.add(pool);
+
+        SharedObjectInitialiser.initialise(pool);
+        Assert.assertEquals(2, pool.size());
+    }
+
+    /**
+     * Runs the task in several threads at the same time
+     * @return the result of the task which is the same for all the threads
+     */
+    private List<Object> readConcurrently(final Callable<List<Object>> task) throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+        try {
+            Collection<Future<List<Object>>> results = new ArrayList<Future<List<Object>>>();
+            for (int i = 0; i < threads; i++){
+                results.add(executor.submit(new Callable<List<Object>>() {
+                    public List<Object> call() throws Exception {
+                        barrier.await();
+                        return task.call();
+                    }
+                }));
+            }
+
+            List<Object> first = null;
+            for (Future<List<Object>> result : results){
+                List<Object> collections = result.get();
+                if (first == null){
+                    first = collections;
+                }
+                else {
+                    for (int i = 0; i < first.size(); i++){
+                        Assert.assertSame(first.get(i), collections.get(i));
+                    }
+                }
+            }
+            return first;
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}